@@ -1,11 +1,13 @@
 package com.qdc.lims;
 
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main entry point for the LIMS Spring Boot application.
  */
 @SpringBootApplication
+@EnableScheduling
 public class QdcLimsApplication {
 
 	/**
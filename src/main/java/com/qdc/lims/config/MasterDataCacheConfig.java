@@ -0,0 +1,92 @@
+package com.qdc.lims.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level and query cache for master data (tests, panels,
+ * departments, categories, doctors, roles, permissions and reference ranges).
+ *
+ * <p>
+ * Entries live on the local heap in Caffeine caches bounded by
+ * {@code qdc.master-cache.max-entries}. Edits made through JPA on this PC
+ * update the cache directly; edits from any PC are also evicted through the
+ * change feed (see {@code MasterDataCacheService}). Entries expire after
+ * {@code qdc.master-cache.expire-after-write-minutes} in case a notification
+ * was missed.
+ * </p>
+ */
+@Configuration
+public class MasterDataCacheConfig {
+
+    /**
+     * Region shared by the cached master data entities and their collections.
+     */
+    public static final String REGION = "master-data";
+
+    /**
+     * Region for cached master data query results.
+     */
+    public static final String QUERY_REGION = "master-data-queries";
+
+    private static final String DEFAULT_QUERY_REGION = "default-query-results-region";
+    private static final String TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager masterDataCacheManager(
+            @Value("${qdc.master-cache.max-entries:20000}") long maxEntries,
+            @Value("${qdc.master-cache.expire-after-write-minutes:30}") long expireAfterWriteMinutes) {
+        // A URI of its own, so test contexts started side by side do not share caches.
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("qdc-master-data-" + UUID.randomUUID()),
+                        MasterDataCacheConfig.class.getClassLoader());
+        long expireNanos = TimeUnit.MINUTES.toNanos(expireAfterWriteMinutes);
+        cacheManager.createCache(REGION, bounded(maxEntries, expireNanos));
+        cacheManager.createCache(QUERY_REGION, bounded(maxEntries, expireNanos));
+        cacheManager.createCache(DEFAULT_QUERY_REGION, bounded(maxEntries, expireNanos));
+        // Hibernate requires update timestamps to outlive every cached query.
+        cacheManager.createCache(TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer masterDataCacheProperties(CacheManager masterDataCacheManager,
+            @Value("${qdc.master-cache.enabled:true}") boolean enabled,
+            @Value("${qdc.master-cache.statistics:false}") boolean statistics) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, enabled);
+            if (!enabled) {
+                return;
+            }
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, masterDataCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create");
+            // Reference range edits made through their own repository reach TestDefinition.ranges.
+            properties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+            if (statistics) {
+                properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            }
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maxEntries, long expireNanos) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(expireNanos));
+        return configuration;
+    }
+}
@@ -0,0 +1,27 @@
+package com.qdc.lims.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Filter criteria for the paged commission ledger. Every criterion is pushed
+ * into SQL by {@code CommissionLedgerRepository#findRows}.
+ *
+ * @param doctorId doctor to include (nullable = all doctors)
+ * @param status   commission status such as {@code UNPAID} or {@code PAID}
+ *                 (nullable = any status)
+ * @param from     inclusive lower bound on transaction date (nullable)
+ * @param to       inclusive upper bound on transaction date (nullable)
+ */
+public record CommissionFilter(
+        Long doctorId,
+        String status,
+        LocalDate from,
+        LocalDate to) {
+
+    /**
+     * @return filter matching every commission
+     */
+    public static CommissionFilter all() {
+        return new CommissionFilter(null, null, null, null);
+    }
+}
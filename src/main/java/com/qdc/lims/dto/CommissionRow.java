@@ -0,0 +1,40 @@
+package com.qdc.lims.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read-only row for the commission ledger screen.
+ *
+ * <p>
+ * Built by JPQL constructor expressions in {@code CommissionLedgerRepository},
+ * so listing commissions never loads the lab order or doctor entities. The
+ * commission amount is the stored calculated amount or, when none was stored,
+ * the order total times the doctor's current rate.
+ * </p>
+ *
+ * @param id              commission ledger id
+ * @param orderId         lab order id
+ * @param doctorId        referring doctor id
+ * @param doctorName      referring doctor name
+ * @param transactionDate day the commission was earned
+ * @param billAmount      order total
+ * @param rate            commission percentage applied
+ * @param amount          commission amount
+ * @param status          {@code UNPAID} or {@code PAID}
+ * @param paidAmount      amount paid out (nullable)
+ * @param paymentDate     day it was paid (nullable)
+ */
+public record CommissionRow(
+        Long id,
+        Long orderId,
+        Long doctorId,
+        String doctorName,
+        LocalDate transactionDate,
+        BigDecimal billAmount,
+        BigDecimal rate,
+        BigDecimal amount,
+        String status,
+        BigDecimal paidAmount,
+        LocalDate paymentDate) {
+}
@@ -0,0 +1,22 @@
+package com.qdc.lims.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Commission counts and amounts for a filter, computed in SQL.
+ *
+ * @param count        number of commissions
+ * @param amount       sum of commission amounts
+ * @param unpaidCount  number of unpaid commissions
+ * @param unpaidAmount sum of unpaid commission amounts
+ * @param paidCount    number of paid commissions
+ * @param paidAmount   sum of paid commission amounts
+ */
+public record CommissionTotals(
+        long count,
+        BigDecimal amount,
+        long unpaidCount,
+        BigDecimal unpaidAmount,
+        long paidCount,
+        BigDecimal paidAmount) {
+}
@@ -0,0 +1,18 @@
+package com.qdc.lims.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Commission count and amount of one doctor, computed in SQL.
+ *
+ * @param doctorId   doctor id
+ * @param doctorName doctor name
+ * @param count      number of commissions
+ * @param amount     sum of commission amounts
+ */
+public record DoctorCommissionTotal(
+        Long doctorId,
+        String doctorName,
+        long count,
+        BigDecimal amount) {
+}
@@ -0,0 +1,20 @@
+package com.qdc.lims.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Sum of {@code DailyFinancialRollup} rows over a date range.
+ *
+ * @param metric   rollup metric
+ * @param category payment category, empty for other metrics
+ * @param refId    doctor or supplier id, 0 when not grouped by either
+ * @param amount   summed amount
+ * @param count    number of source records behind the amount
+ */
+public record FinancialRollupTotal(
+        String metric,
+        String category,
+        Long refId,
+        BigDecimal amount,
+        long count) {
+}
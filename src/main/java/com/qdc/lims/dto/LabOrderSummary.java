@@ -0,0 +1,70 @@
+package com.qdc.lims.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row for order tables (reception queues, lab worklist, receipt
+ * search, payment history and revenue reports).
+ *
+ * <p>
+ * Built directly by JPQL constructor expressions in
+ * {@code LabOrderRepository}, so listing orders never materializes the
+ * patient/doctor/results/panels graph of {@code LabOrder}. Screens load the
+ * full entity by {@link #id()} only when an order is opened for editing or
+ * printing.
+ * </p>
+ *
+ * @param id              order id
+ * @param orderDate       when the order was created
+ * @param status          order status
+ * @param mrn             patient MRN
+ * @param patientName     patient full name
+ * @param patientAge      patient age in years (nullable)
+ * @param patientGender   patient gender (nullable)
+ * @param patientMobile   patient mobile number (nullable)
+ * @param doctorName      referring doctor name (nullable for self-referred)
+ * @param testCount       number of result rows on the order
+ * @param totalAmount     billed total
+ * @param discountAmount  discount applied
+ * @param paidAmount      amount collected so far
+ * @param balanceDue      remaining balance
+ * @param reportDelivered whether the report has been handed over
+ * @param deliveryDate    when the report was handed over (nullable)
+ * @param reprintRequired whether a delivered report needs reprinting
+ * @param labWorkStarted  whether the lab has started work (blocks cancellation)
+ */
+public record LabOrderSummary(
+        Long id,
+        LocalDateTime orderDate,
+        String status,
+        String mrn,
+        String patientName,
+        Integer patientAge,
+        String patientGender,
+        String patientMobile,
+        String doctorName,
+        long testCount,
+        BigDecimal totalAmount,
+        BigDecimal discountAmount,
+        BigDecimal paidAmount,
+        BigDecimal balanceDue,
+        boolean reportDelivered,
+        LocalDateTime deliveryDate,
+        boolean reprintRequired,
+        boolean labWorkStarted) {
+
+    /**
+     * @return {@code true} when the order still has an outstanding balance
+     */
+    public boolean hasBalanceDue() {
+        return balanceDue != null && balanceDue.compareTo(BigDecimal.ZERO) > 0;
+    }
+
+    /**
+     * @return {@code true} for orders the lab has not completed yet
+     */
+    public boolean isOpen() {
+        return "PENDING".equals(status) || "IN_PROGRESS".equals(status);
+    }
+}
@@ -0,0 +1,60 @@
+package com.qdc.lims.dto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Filter criteria for the paged lab worklist query. Every criterion is pushed
+ * into SQL by {@code LabOrderRepository#findWorklistPage}.
+ *
+ * @param statuses        order statuses to include (null or empty = any status)
+ * @param from            inclusive lower bound on order date (nullable)
+ * @param to              inclusive upper bound on order date (nullable)
+ * @param search          free text matched against MRN, patient name and order
+ *                        number (nullable)
+ * @param withResultsOnly when {@code true}, orders without any result rows are
+ *                        excluded
+ */
+public record LabWorklistFilter(
+        Collection<String> statuses,
+        LocalDateTime from,
+        LocalDateTime to,
+        String search,
+        boolean withResultsOnly) {
+
+    /**
+     * Statuses shown by the "Pending Only" worklist filter.
+     */
+    public static final List<String> OPEN_STATUSES = List.of("PENDING", "IN_PROGRESS");
+
+    /**
+     * Statuses shown by the "Completed" worklist filter.
+     */
+    public static final List<String> COMPLETED_STATUSES = List.of("COMPLETED");
+
+    /**
+     * @return {@code true} when no status restriction applies
+     */
+    public boolean anyStatus() {
+        return statuses == null || statuses.isEmpty();
+    }
+
+    /**
+     * JPQL cannot bind an empty {@code IN} list, so a placeholder is returned
+     * when {@link #anyStatus()} short-circuits the predicate anyway.
+     *
+     * @return statuses safe to bind to an {@code IN} clause
+     */
+    public Collection<String> statusesForQuery() {
+        return anyStatus() ? List.of("") : statuses;
+    }
+
+    /**
+     * @return trimmed, lower-cased search text ({@code ""} when absent)
+     */
+    public String normalizedSearch() {
+        return search == null ? "" : search.trim().toLowerCase(Locale.ROOT);
+    }
+}
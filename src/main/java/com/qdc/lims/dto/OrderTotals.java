@@ -0,0 +1,18 @@
+package com.qdc.lims.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Order count and money totals over a period, computed in SQL.
+ *
+ * @param orderCount  number of orders
+ * @param billed      sum of order totals
+ * @param collected   sum of amounts paid
+ * @param outstanding sum of balances still due
+ */
+public record OrderTotals(
+        long orderCount,
+        BigDecimal billed,
+        BigDecimal collected,
+        BigDecimal outstanding) {
+}
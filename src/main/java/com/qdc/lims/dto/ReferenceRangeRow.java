@@ -0,0 +1,25 @@
+package com.qdc.lims.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Flat copy of a {@code ReferenceRange} used to build the in-memory reference
+ * range index without loading the owning test definitions.
+ *
+ * @param id     range id (breaks ties between otherwise equal ranges)
+ * @param testId owning test definition id
+ * @param gender "Male", "Female", "Both" or null
+ * @param minAge inclusive lower age bound in years (nullable = open)
+ * @param maxAge inclusive upper age bound in years (nullable = open)
+ * @param minVal low limit (nullable)
+ * @param maxVal high limit (nullable)
+ */
+public record ReferenceRangeRow(
+        Long id,
+        Long testId,
+        String gender,
+        Integer minAge,
+        Integer maxAge,
+        BigDecimal minVal,
+        BigDecimal maxVal) {
+}
@@ -0,0 +1,55 @@
+package com.qdc.lims.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Filter criteria for the keyset-paged result edit audit. Every criterion is
+ * pushed into SQL by {@code LabResultEditAuditRepository#findPage}.
+ *
+ * @param from     first day of the edit window (nullable)
+ * @param to       last day of the edit window (nullable)
+ * @param orderId  lab order to include (nullable = all orders)
+ * @param editedBy text matched against the editing username (nullable)
+ * @param testName text matched against the test name (nullable)
+ */
+public record ResultEditAuditFilter(
+        LocalDate from,
+        LocalDate to,
+        Long orderId,
+        String editedBy,
+        String testName) {
+
+    /**
+     * @return inclusive lower bound on edit time, or {@code null}
+     */
+    public LocalDateTime editedFrom() {
+        return from != null ? from.atStartOfDay() : null;
+    }
+
+    /**
+     * @return exclusive upper bound on edit time, or {@code null}
+     */
+    public LocalDateTime editedBefore() {
+        return to != null ? to.plusDays(1).atStartOfDay() : null;
+    }
+
+    /**
+     * @return trimmed, lower-cased username text ({@code ""} when absent)
+     */
+    public String normalizedEditedBy() {
+        return normalize(editedBy);
+    }
+
+    /**
+     * @return trimmed, lower-cased test name text ({@code ""} when absent)
+     */
+    public String normalizedTestName() {
+        return normalize(testName);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,32 @@
+package com.qdc.lims.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row for the result edit audit screen, built by a JPQL constructor
+ * expression so browsing the audit never loads the order or result entities.
+ * The last row of a page is the keyset cursor for the next one.
+ *
+ * @param id                    audit id
+ * @param editedAt              when the result was corrected
+ * @param orderId               lab order id
+ * @param resultId              lab result id
+ * @param testName              test name at the time of the edit
+ * @param editedBy              username that made the correction
+ * @param previousValue         value before the edit
+ * @param newValue              value after the edit
+ * @param reason                reason given for the correction
+ * @param reportDeliveredAtEdit whether the report had already been delivered
+ */
+public record ResultEditAuditRow(
+        Long id,
+        LocalDateTime editedAt,
+        Long orderId,
+        Long resultId,
+        String testName,
+        String editedBy,
+        String previousValue,
+        String newValue,
+        String reason,
+        boolean reportDeliveredAtEdit) {
+}
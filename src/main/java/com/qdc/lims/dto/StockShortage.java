@@ -0,0 +1,36 @@
+package com.qdc.lims.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One inventory item that cannot cover an order.
+ *
+ * @param itemId    inventory item id
+ * @param itemName  inventory item name
+ * @param unit      stock unit (nullable)
+ * @param required  total quantity the order needs
+ * @param available stock on hand when the order was checked (nullable)
+ * @param testNames tests on the order that consume the item
+ */
+public record StockShortage(
+        Long itemId,
+        String itemName,
+        String unit,
+        BigDecimal required,
+        BigDecimal available,
+        List<String> testNames) {
+
+    /**
+     * @return one-line description for error dialogs
+     */
+    public String describe() {
+        return "'" + itemName + "' needs " + plain(required) + (unit != null ? " " + unit : "")
+                + " for " + String.join(", ", testNames)
+                + ", but only " + (available == null ? "0" : plain(available)) + " is available";
+    }
+
+    private static String plain(BigDecimal value) {
+        return value.stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,24 @@
+package com.qdc.lims.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Net consumption of one inventory item by one test over a period, with
+ * cancellation returns already subtracted.
+ *
+ * @param itemId   inventory item id
+ * @param itemName item name, or {@code null} if the item was deleted
+ * @param unit     item unit
+ * @param testId   consuming test id, or {@code null} for usage not tied to a
+ *                 test
+ * @param testName test name, or {@code null}
+ * @param quantity net quantity consumed (positive)
+ */
+public record StockUsage(
+        Long itemId,
+        String itemName,
+        String unit,
+        Long testId,
+        String testName,
+        BigDecimal quantity) {
+}
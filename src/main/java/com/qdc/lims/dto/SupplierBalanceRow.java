@@ -0,0 +1,41 @@
+package com.qdc.lims.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read-only account summary of one supplier, built from its
+ * {@code SupplierBalance} snapshot by a JPQL constructor expression.
+ *
+ * @param supplierId        supplier id
+ * @param supplierName      supplier company name
+ * @param totalBilled       all bills received
+ * @param totalPaid         all payments made
+ * @param dueCurrent        open bill balance up to 30 days past due
+ * @param due31To60         open bill balance 31-60 days past due
+ * @param due61To90         open bill balance 61-90 days past due
+ * @param dueOver90         open bill balance over 90 days past due
+ * @param unappliedCredit   payments not yet matched to a bill
+ * @param lastInvoiceNumber latest invoice received (nullable)
+ * @param lastDueDate       due date of the latest dated bill (nullable)
+ */
+public record SupplierBalanceRow(
+        Long supplierId,
+        String supplierName,
+        BigDecimal totalBilled,
+        BigDecimal totalPaid,
+        BigDecimal dueCurrent,
+        BigDecimal due31To60,
+        BigDecimal due61To90,
+        BigDecimal dueOver90,
+        BigDecimal unappliedCredit,
+        String lastInvoiceNumber,
+        LocalDate lastDueDate) {
+
+    /**
+     * @return open balance of all bills
+     */
+    public BigDecimal outstanding() {
+        return dueCurrent.add(due31To60).add(due61To90).add(dueOver90);
+    }
+}
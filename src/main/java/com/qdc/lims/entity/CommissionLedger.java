@@ -2,6 +2,8 @@ package com.qdc.lims.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -11,7 +13,11 @@ import java.time.LocalDate;
  */
 @Entity
 @Data
-@Table(name = "commission_ledger")
+@EqualsAndHashCode(exclude = { "labOrder", "doctor" })
+@ToString(exclude = { "labOrder", "doctor" })
+@Table(name = "commission_ledger", indexes = {
+        @Index(name = "idx_commission_ledger_settlement", columnList = "settlement_id")
+})
 public class CommissionLedger {
 
     @Id
@@ -19,11 +25,11 @@ public class CommissionLedger {
     private Long id;
 
     // This specific field name 'labOrder' creates the method 'setLabOrder()'
-    @OneToOne(fetch = FetchType.EAGER)
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
     private LabOrder labOrder;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_id", nullable = false)
     private Doctor doctor;
 
@@ -40,6 +46,9 @@ public class CommissionLedger {
     private String status;
     private LocalDate paymentDate;
 
+    @Column(name = "settlement_id")
+    private Long settlementId; // CommissionSettlement that paid this row, if any
+
     /**
      * Sets the transaction date and status before persisting the entity.
      */
@@ -0,0 +1,47 @@
+package com.qdc.lims.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Commission percentage for the tests of one department or for one test,
+ * either for a single referring doctor or for every doctor.
+ *
+ * <p>
+ * A rule targets exactly one of {@link #testId} or {@link #departmentId}. For
+ * each billed line of an order the most specific active rule wins: doctor and
+ * test, doctor and department, any doctor and test, any doctor and
+ * department; ties go to the oldest rule. Lines no rule covers earn the
+ * doctor's own {@link Doctor#getCommissionPercentage() commission rate}.
+ * Doctor, department and test are plain ids so the rule can be matched in
+ * bulk SQL without loading entities.
+ * </p>
+ */
+@Entity
+@Data
+@Table(name = "commission_rule", indexes = {
+        @Index(name = "idx_commission_rule_doctor", columnList = "doctor_id")
+})
+public class CommissionRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "doctor_id")
+    private Long doctorId; // null = every doctor
+
+    @Column(name = "department_id")
+    private Integer departmentId;
+
+    @Column(name = "test_id")
+    private Long testId;
+
+    @Column(nullable = false, precision = 7, scale = 4)
+    private BigDecimal percentage;
+
+    @Column(nullable = false)
+    private boolean active = true;
+}
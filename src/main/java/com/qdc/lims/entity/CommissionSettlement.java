@@ -0,0 +1,51 @@
+package com.qdc.lims.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One commission payout run. Every {@link CommissionLedger} row paid by the
+ * run points back to it through its settlement id, and the run keeps the
+ * count and total it paid.
+ *
+ * <p>
+ * The doctor and period are the criteria the run was made with; both are
+ * empty when specific commissions were selected by id. Doctor is a plain id so
+ * the record survives when the doctor is deleted.
+ * </p>
+ */
+@Entity
+@Data
+@Table(name = "commission_settlement", indexes = {
+        @Index(name = "idx_commission_settlement_doctor_date", columnList = "doctor_id, payment_date")
+})
+public class CommissionSettlement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "doctor_id")
+    private Long doctorId;
+
+    private LocalDate periodFrom;
+    private LocalDate periodTo;
+
+    @Column(name = "payment_date", nullable = false)
+    private LocalDate paymentDate;
+
+    @Column(name = "commission_count", nullable = false)
+    private long commissionCount;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private LocalDateTime settledAt;
+
+    private String settledBy;
+}
@@ -0,0 +1,69 @@
+package com.qdc.lims.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated total of one financial metric for one calendar day, so the
+ * finance screens sum a few hundred rollup rows instead of every order,
+ * payment, commission and supplier transaction in the range.
+ *
+ * <p>
+ * Rows are derived data: they are rebuilt per day from the source tables by
+ * {@code FinancialRollupService} and are never edited directly. Metrics split
+ * by payment category carry it in {@link #category}; per-doctor and
+ * per-supplier metrics carry the doctor or supplier id in {@link #refId}.
+ * </p>
+ */
+@Entity
+@Data
+@Table(name = "daily_financial_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_financial_rollup",
+                columnNames = { "day", "metric", "category", "ref_id" })
+}, indexes = {
+        @Index(name = "idx_daily_financial_rollup_metric_day", columnList = "metric, day")
+})
+public class DailyFinancialRollup {
+
+    /** Total billed on orders booked that day. */
+    public static final String ORDER_BILLED = "ORDER_BILLED";
+    /** Paid amount of orders booked that day. */
+    public static final String ORDER_COLLECTED = "ORDER_COLLECTED";
+    /** Balance still due on orders booked that day. */
+    public static final String ORDER_RECEIVABLE = "ORDER_RECEIVABLE";
+    /** General payments of that day; the suffix is the payment type. */
+    public static final String PAYMENT_PREFIX = "PAYMENT_";
+    /** Commissions paid that day, per doctor. */
+    public static final String COMMISSION_PAID = "COMMISSION_PAID";
+    /** Commission still owed for orders of that day, per doctor. */
+    public static final String COMMISSION_UNPAID = "COMMISSION_UNPAID";
+    /** Supplier payments of that day, per supplier. */
+    public static final String SUPPLIER_PAID = "SUPPLIER_PAID";
+    /** Unpaid supplier bills of that day, per supplier. */
+    public static final String SUPPLIER_PAYABLE = "SUPPLIER_PAYABLE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false, length = 48)
+    private String metric;
+
+    @Column(nullable = false)
+    private String category = ""; // Payment category, empty for other metrics
+
+    @Column(name = "ref_id", nullable = false)
+    private Long refId = 0L; // Doctor or supplier id, 0 when not split
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount = BigDecimal.ZERO;
+
+    @Column(name = "entry_count", nullable = false)
+    private long entryCount;
+}
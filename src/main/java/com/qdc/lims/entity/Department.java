@@ -1,7 +1,11 @@
 package com.qdc.lims.entity;
 
+import com.qdc.lims.config.MasterDataCacheConfig;
+
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
@@ -10,6 +14,8 @@ import java.util.List;
  * {@link TestDefinition} and {@link Panel} entries.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = MasterDataCacheConfig.REGION)
 @Table(name = "department")
 @Data
 @NoArgsConstructor
@@ -1,7 +1,11 @@
 package com.qdc.lims.entity;
 
+import com.qdc.lims.config.MasterDataCacheConfig;
+
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
@@ -9,6 +13,8 @@ import java.math.BigDecimal;
  * Entity representing a doctor and their commission details.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = MasterDataCacheConfig.REGION)
 @Data
 @Table(name = "doctors")
 public class Doctor {
@@ -0,0 +1,29 @@
+package com.qdc.lims.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Marks a day whose {@link DailyFinancialRollup} rows are out of date.
+ * Database triggers on the financial source tables append one row per
+ * changed source row; the rollup refresh deletes the marks it has processed.
+ *
+ * <p>
+ * Marks are appended rather than upserted per day, so concurrent bookings on
+ * the same day never wait on each other's mark.
+ * </p>
+ */
+@Entity
+@Data
+@Table(name = "financial_rollup_dirty_day")
+public class FinancialRollupDirtyDay {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+}
@@ -0,0 +1,32 @@
+package com.qdc.lims.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Per-period counter used to hand out blocks of identifiers that restart each
+ * period, such as daily order accession numbers. Rows are only written by
+ * {@code IdentifierService} with a single upsert per block.
+ */
+@Entity
+@Data
+@Table(name = "id_counter", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_id_counter_name_period", columnNames = { "counter_name", "period" })
+})
+public class IdentifierCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "counter_name", nullable = false, length = 64)
+    private String counterName; // e.g. "ORDER_ACCESSION"
+
+    @Column(nullable = false)
+    private LocalDate period;
+
+    @Column(name = "last_value", nullable = false)
+    private long lastValue; // Highest number already handed out
+}
@@ -28,16 +28,21 @@ public class LabOrder {
     private Long version;
 
     // Link to the Patient
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", nullable = false)
     @NotNull(message = "Patient is required")
     private Patient patient;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_id")
     private Doctor referringDoctor; // Visible to Receptionist ("Ref By: Dr. Bilal")
 
     private LocalDateTime orderDate;
+
+    // Human-facing order number, e.g. "261016-0042-0"; null for orders booked before it existed
+    @Column(unique = true, updatable = false, length = 32)
+    private String accessionNumber;
+
     @NotBlank(message = "Status is required")
     private String status; // "PENDING", "COMPLETED"
     @Column(precision = 19, scale = 4)
@@ -76,14 +81,15 @@ public class LabOrder {
     // One Order = Many Tests (Results)
     // "CascadeType.ALL" means if we save the Order, it auto-saves the Result rows
     // too.
-    // EAGER fetch to avoid LazyInitializationException in JavaFX controllers
-    @OneToMany(mappedBy = "labOrder", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    // LAZY: screens that read results outside a transaction load the order through
+    // LabOrderRepository#findWithDetailsById; tables use LabOrderSummary instead.
+    @OneToMany(mappedBy = "labOrder", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<LabResult> results = new ArrayList<>();
 
     /**
      * Panels billed for this order (optional).
      */
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "lab_order_panel",
             joinColumns = @JoinColumn(name = "lab_order_id"),
             inverseJoinColumns = @JoinColumn(name = "panel_id"))
@@ -27,6 +27,10 @@ public class LabResult {
     @JsonIgnore // Prevent infinite JSON loops
     private LabOrder labOrder;
 
+    // Booking time of the order, copied so results can be partitioned by month on it
+    @Column(updatable = false)
+    private java.time.LocalDateTime orderDate;
+
     // Link to the Test Definition (to know min/max ranges)
     @ManyToOne
     @JoinColumn(name = "test_id")
@@ -49,4 +53,11 @@ public class LabResult {
         return status;
     }
 
+    @PrePersist
+    protected void onCreate() {
+        if (orderDate == null && labOrder != null) {
+            orderDate = labOrder.getOrderDate();
+        }
+    }
+
 }
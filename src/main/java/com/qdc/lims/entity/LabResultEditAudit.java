@@ -6,6 +6,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -18,7 +19,10 @@ import java.time.LocalDateTime;
  * Immutable-style audit row for each completed-result correction.
  */
 @Entity
-@Table(name = "lab_result_edit_audit")
+@Table(name = "lab_result_edit_audit", indexes = {
+        @Index(name = "idx_result_edit_audit_edited", columnList = "edited_at, id"),
+        @Index(name = "idx_result_edit_audit_order", columnList = "order_id, edited_at")
+})
 @Getter
 @Setter
 public class LabResultEditAudit {
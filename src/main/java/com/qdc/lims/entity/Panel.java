@@ -1,7 +1,11 @@
 package com.qdc.lims.entity;
 
+import com.qdc.lims.config.MasterDataCacheConfig;
+
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -11,6 +15,8 @@ import java.util.List;
  * single name.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = MasterDataCacheConfig.REGION)
 @Table(name = "panel")
 @Data
 @NoArgsConstructor
@@ -55,6 +61,7 @@ public class Panel {
     /**
      * Tests that belong to this panel.
      */
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = MasterDataCacheConfig.REGION)
     @ManyToMany
     @JoinTable(
             name = "panel_test",
@@ -1,11 +1,15 @@
 package com.qdc.lims.entity;
 
+import com.qdc.lims.config.MasterDataCacheConfig;
+
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -16,6 +20,8 @@ import java.util.Set;
  * Permissions are assigned to roles.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = MasterDataCacheConfig.REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
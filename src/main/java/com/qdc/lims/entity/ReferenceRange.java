@@ -1,7 +1,11 @@
 package com.qdc.lims.entity;
 
+import com.qdc.lims.config.MasterDataCacheConfig;
+
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entity representing age and gender-specific reference ranges for lab test
@@ -9,6 +13,8 @@ import lombok.Data;
  * Used for automatic flagging of abnormal values based on patient demographics.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = MasterDataCacheConfig.REGION)
 @Data
 public class ReferenceRange {
 
@@ -0,0 +1,28 @@
+package com.qdc.lims.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Compacted running total of an item's {@link StockMovement} lines up to and
+ * including {@link #asOf}. The ledger balance is this total plus any movements
+ * after {@code asOf}.
+ */
+@Entity
+@Data
+@Table(name = "stock_balance_snapshot")
+public class StockBalanceSnapshot {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal balance;
+
+    @Column(name = "as_of", nullable = false)
+    private LocalDateTime asOf;
+}
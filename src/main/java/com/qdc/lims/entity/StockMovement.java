@@ -0,0 +1,59 @@
+package com.qdc.lims.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One append-only line of the inventory ledger. Quantities are signed:
+ * receipts and returns are positive, consumption is negative, and
+ * adjustments carry the difference to the counted stock.
+ *
+ * <p>
+ * Item, test and order are plain ids rather than associations so that history
+ * survives when any of them is deleted (e.g. a cancelled order).
+ * </p>
+ */
+@Entity
+@Data
+@Table(name = "stock_movement", indexes = {
+        @Index(name = "idx_stock_movement_item_time", columnList = "item_id, occurred_at"),
+        @Index(name = "idx_stock_movement_test_time", columnList = "test_id, occurred_at"),
+        @Index(name = "idx_stock_movement_time", columnList = "occurred_at")
+})
+public class StockMovement {
+
+    public static final String OPENING = "OPENING";
+    public static final String ORDER_CONSUMPTION = "ORDER_CONSUMPTION";
+    public static final String CANCELLATION_RETURN = "CANCELLATION_RETURN";
+    public static final String PURCHASE = "PURCHASE";
+    public static final String ADJUSTMENT = "ADJUSTMENT";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "movement_type", nullable = false, length = 32)
+    private String movementType; // OPENING, ORDER_CONSUMPTION, CANCELLATION_RETURN, PURCHASE, ADJUSTMENT
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal quantity;
+
+    @Column(name = "test_id")
+    private Long testId; // Test whose recipe caused the movement, if any
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    private String performedBy;
+
+    private String reference; // e.g. supplier invoice number or adjustment note
+}
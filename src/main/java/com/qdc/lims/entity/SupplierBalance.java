@@ -0,0 +1,58 @@
+package com.qdc.lims.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Running account of one supplier, kept current as bills and payments are
+ * written to the {@link SupplierLedger}, so payables and statements read one
+ * row per supplier instead of summing ledger history.
+ *
+ * <p>
+ * The aging buckets split the open balance of the supplier's bills by days
+ * past their due date (invoice or transaction date when no due date was
+ * given) as of {@link #agedAsOf}. Payments beyond the open bills are held as
+ * {@link #unappliedCredit} and settle the next bills. Rows are maintained by
+ * {@code SupplierAccountService} with set-based SQL and are never edited
+ * directly.
+ * </p>
+ */
+@Entity
+@Data
+@Table(name = "supplier_balance")
+public class SupplierBalance {
+
+    @Id
+    @Column(name = "supplier_id")
+    private Long supplierId;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal totalBilled = BigDecimal.ZERO;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal totalPaid = BigDecimal.ZERO;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal unappliedCredit = BigDecimal.ZERO;
+
+    @Column(name = "due_0_30", nullable = false, precision = 19, scale = 4)
+    private BigDecimal dueCurrent = BigDecimal.ZERO;
+
+    @Column(name = "due_31_60", nullable = false, precision = 19, scale = 4)
+    private BigDecimal due31To60 = BigDecimal.ZERO;
+
+    @Column(name = "due_61_90", nullable = false, precision = 19, scale = 4)
+    private BigDecimal due61To90 = BigDecimal.ZERO;
+
+    @Column(name = "due_over_90", nullable = false, precision = 19, scale = 4)
+    private BigDecimal dueOver90 = BigDecimal.ZERO;
+
+    private String lastInvoiceNumber;
+    private LocalDate lastDueDate;
+
+    @Column(nullable = false)
+    private LocalDate agedAsOf;
+}
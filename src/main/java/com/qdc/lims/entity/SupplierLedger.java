@@ -12,7 +12,9 @@ import java.time.LocalDate;
  */
 @Entity
 @Data
-@Table(name = "supplier_ledger")
+@Table(name = "supplier_ledger", indexes = {
+        @Index(name = "idx_supplier_ledger_supplier_open", columnList = "supplier_id, balance_due")
+})
 public class SupplierLedger {
 
     @Id
@@ -37,10 +39,7 @@ public class SupplierLedger {
     @Column(precision = 19, scale = 4)
     private BigDecimal paidAmount = BigDecimal.ZERO; // Money we PAID (Debit) - Decreases Balance
 
-    // Add missing balanceDue field - not persisted, calculated/tracked?
-    // Actually, for a ledger, usually balance is calculated on the fly or
-    // snapshotted.
-    // But TestDataInitializer tries to set it. Let's add it.
+    // Still open on a bill; payments settle the oldest due bills first (see SupplierAccountService)
     @Column(precision = 19, scale = 4)
     private BigDecimal balanceDue = BigDecimal.ZERO;
 
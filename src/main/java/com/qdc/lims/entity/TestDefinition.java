@@ -1,7 +1,11 @@
 package com.qdc.lims.entity;
 
+import com.qdc.lims.config.MasterDataCacheConfig;
+
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -11,6 +15,8 @@ import java.util.List;
  * reference-range metadata, and relationships to departments and panels.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = MasterDataCacheConfig.REGION)
 @Table(name = "test_definition")
 @Data
 @NoArgsConstructor
@@ -91,6 +97,7 @@ public class TestDefinition {
     /**
      * Reference ranges associated with the test.
      */
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = MasterDataCacheConfig.REGION)
     @OneToMany(mappedBy = "test", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("minAge ASC, maxAge ASC")
     @ToString.Exclude
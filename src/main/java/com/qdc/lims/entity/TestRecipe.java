@@ -2,6 +2,8 @@ package com.qdc.lims.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 
@@ -11,6 +13,8 @@ import java.math.BigDecimal;
  */
 @Entity
 @Data
+@EqualsAndHashCode(exclude = { "test", "inventoryItem" })
+@ToString(exclude = { "test", "inventoryItem" })
 @Table(name = "test_recipes")
 public class TestRecipe {
 
@@ -18,11 +22,11 @@ public class TestRecipe {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "test_id", nullable = false)
     private TestDefinition test;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false)
     private InventoryItem inventoryItem;
 
@@ -1,23 +1,233 @@
 package com.qdc.lims.repository;
 
+import com.qdc.lims.dto.CommissionFilter;
+import com.qdc.lims.dto.CommissionRow;
+import com.qdc.lims.dto.CommissionTotals;
+import com.qdc.lims.dto.DoctorCommissionTotal;
 import com.qdc.lims.entity.CommissionLedger;
 import com.qdc.lims.entity.Doctor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 /**
  * Repository interface for CommissionLedger entities, providing queries for
- * commission tracking.
+ * commission tracking. List queries fetch the order and doctor (both lazy) in
+ * the same statement because every commission screen shows them.
  */
 public interface CommissionLedgerRepository extends JpaRepository<CommissionLedger, Long> {
 
+    /**
+     * Commission amount of {@code c}: the stored calculated amount, else the
+     * order total times the doctor's current rate.
+     */
+    String AMOUNT = "COALESCE(c.calculatedAmount, ROUND(o.totalAmount * d.commissionPercentage / 100, 4), 0)";
+
+    /**
+     * Joins shared by the row and aggregate queries. Only scalar columns of
+     * the order and doctor are read, so neither entity is loaded.
+     */
+    String LEDGER_FROM = """
+            FROM CommissionLedger c
+            JOIN c.labOrder o
+            JOIN c.doctor d
+            """;
+
+    /**
+     * Shared predicate of the ledger queries. Commissions of doctors without
+     * a rate are hidden unless an amount was stored for them.
+     */
+    String LEDGER_WHERE = """
+            WHERE (c.calculatedAmount IS NOT NULL OR d.commissionPercentage > 0)
+              AND (CAST(:doctorId AS Long) IS NULL OR d.id = :doctorId)
+              AND (CAST(:status AS String) IS NULL OR c.status = :status)
+              AND (CAST(:fromDate AS LocalDate) IS NULL OR c.transactionDate >= :fromDate)
+              AND (CAST(:toDate AS LocalDate) IS NULL OR c.transactionDate <= :toDate)
+            """;
+
+    String ROW_SELECT = "SELECT new com.qdc.lims.dto.CommissionRow("
+            + " c.id, o.id, d.id, d.name, c.transactionDate, o.totalAmount,"
+            + " COALESCE(c.commissionPercentage, d.commissionPercentage), " + AMOUNT + ","
+            + " c.status, c.paidAmount, c.paymentDate) ";
+
+    String TOTALS_SELECT = "SELECT new com.qdc.lims.dto.CommissionTotals("
+            + " COUNT(c), COALESCE(SUM(" + AMOUNT + "), 0),"
+            + " COUNT(CASE WHEN c.status = 'UNPAID' THEN 1 END),"
+            + " COALESCE(SUM(CASE WHEN c.status = 'UNPAID' THEN " + AMOUNT + " END), 0),"
+            + " COUNT(CASE WHEN c.status = 'PAID' THEN 1 END),"
+            + " COALESCE(SUM(CASE WHEN c.status = 'PAID' THEN " + AMOUNT + " END), 0)) ";
+
+    String DOCTOR_TOTAL_SELECT = "SELECT new com.qdc.lims.dto.DoctorCommissionTotal("
+            + " d.id, d.name, COUNT(c), COALESCE(SUM(" + AMOUNT + "), 0)) ";
+
+    /**
+     * Loads one page of the commission ledger with all filters evaluated in
+     * SQL. Sorting is taken from the {@link Pageable} (entity paths such as
+     * {@code transactionDate} or {@code doctor.name}).
+     *
+     * @param filter   ledger criteria
+     * @param pageable page number, size and sort
+     * @return requested page of commission rows
+     */
+    default Page<CommissionRow> findRows(CommissionFilter filter, Pageable pageable) {
+        return findRows(filter.doctorId(), filter.status(), filter.from(), filter.to(), pageable);
+    }
+
+    /**
+     * Sums commissions matching the criteria without loading them.
+     *
+     * @param filter ledger criteria
+     * @return counts and amounts, split by status
+     */
+    default CommissionTotals summarize(CommissionFilter filter) {
+        return summarize(filter.doctorId(), filter.status(), filter.from(), filter.to());
+    }
+
+    /**
+     * Sums commissions matching the criteria per doctor, largest first.
+     *
+     * @param filter ledger criteria
+     * @return one total per doctor
+     */
+    default List<DoctorCommissionTotal> summarizeByDoctor(CommissionFilter filter) {
+        return summarizeByDoctor(filter.doctorId(), filter.status(), filter.from(), filter.to());
+    }
+
+    /**
+     * Ids of the commissions matching the criteria, so a payment covers
+     * exactly the rows that were summarized to the user.
+     *
+     * @param filter ledger criteria
+     * @return matching commission ledger ids
+     */
+    default List<Long> findIds(CommissionFilter filter) {
+        return findIds(filter.doctorId(), filter.status(), filter.from(), filter.to());
+    }
+
+    @Query(value = ROW_SELECT + LEDGER_FROM + LEDGER_WHERE,
+            countQuery = "SELECT COUNT(c) " + LEDGER_FROM + LEDGER_WHERE)
+    Page<CommissionRow> findRows(@Param("doctorId") Long doctorId,
+            @Param("status") String status,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate,
+            Pageable pageable);
+
+    @Query(TOTALS_SELECT + LEDGER_FROM + LEDGER_WHERE)
+    CommissionTotals summarize(@Param("doctorId") Long doctorId,
+            @Param("status") String status,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate);
+
+    @Query(DOCTOR_TOTAL_SELECT + LEDGER_FROM + LEDGER_WHERE
+            + " GROUP BY d.id, d.name ORDER BY COALESCE(SUM(" + AMOUNT + "), 0) DESC, d.name")
+    List<DoctorCommissionTotal> summarizeByDoctor(@Param("doctorId") Long doctorId,
+            @Param("status") String status,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate);
+
+    @Query("SELECT c.id " + LEDGER_FROM + LEDGER_WHERE + " ORDER BY c.id")
+    List<Long> findIds(@Param("doctorId") Long doctorId,
+            @Param("status") String status,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate);
+
+    /**
+     * Doctors that have commissions shown on the ledger screen, by name.
+     *
+     * @return doctors for the ledger's doctor filter
+     */
+    @Query("""
+            SELECT DISTINCT d FROM CommissionLedger c JOIN c.doctor d
+            WHERE c.calculatedAmount IS NOT NULL OR d.commissionPercentage > 0
+            ORDER BY d.name
+            """)
+    List<Doctor> findDoctorsWithCommissions();
+
+    /**
+     * Pays the given unpaid commissions in one statement, recording the
+     * commission amount as the paid amount. Rows already paid are skipped.
+     *
+     * @param settlementId settlement run the rows are paid by
+     * @param paymentDate  day of payment
+     * @param ids          commission ledger ids
+     * @return number of commissions paid
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE commission_ledger c
+            SET status = 'PAID', payment_date = :paymentDate, settlement_id = :settlementId,
+                paid_amount = COALESCE(c.calculated_amount,
+                                       ROUND(o.total_amount * dr.commission_percentage / 100, 4), 0)
+            FROM doctors dr, lab_order o
+            WHERE dr.id = c.doctor_id AND o.id = c.order_id
+              AND c.status = 'UNPAID'
+              AND c.id IN (:ids)
+            """, nativeQuery = true)
+    int settleByIds(@Param("settlementId") Long settlementId,
+            @Param("paymentDate") LocalDate paymentDate,
+            @Param("ids") Collection<Long> ids);
+
+    /**
+     * Pays every unpaid commission of a doctor earned in a period in one
+     * statement. Commissions hidden from the ledger screen (no stored amount
+     * and no doctor rate) are left unpaid.
+     *
+     * @param settlementId settlement run the rows are paid by
+     * @param paymentDate  day of payment
+     * @param doctorId     doctor to pay
+     * @param fromDate     first transaction day (nullable = no lower bound)
+     * @param toDate       last transaction day (nullable = no upper bound)
+     * @return number of commissions paid
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE commission_ledger c
+            SET status = 'PAID', payment_date = :paymentDate, settlement_id = :settlementId,
+                paid_amount = COALESCE(c.calculated_amount,
+                                       ROUND(o.total_amount * dr.commission_percentage / 100, 4), 0)
+            FROM doctors dr, lab_order o
+            WHERE dr.id = c.doctor_id AND o.id = c.order_id
+              AND c.status = 'UNPAID'
+              AND c.doctor_id = :doctorId
+              AND (c.calculated_amount IS NOT NULL OR dr.commission_percentage > 0)
+              AND (CAST(:fromDate AS date) IS NULL OR c.transaction_date >= :fromDate)
+              AND (CAST(:toDate AS date) IS NULL OR c.transaction_date <= :toDate)
+            """, nativeQuery = true)
+    int settleByDoctor(@Param("settlementId") Long settlementId,
+            @Param("paymentDate") LocalDate paymentDate,
+            @Param("doctorId") Long doctorId,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate);
+
+    /**
+     * Returns the given paid commissions to unpaid in one statement.
+     *
+     * @param ids commission ledger ids
+     * @return number of commissions reopened
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE CommissionLedger c
+            SET c.status = 'UNPAID', c.paymentDate = NULL, c.paidAmount = 0, c.settlementId = NULL
+            WHERE c.status = 'PAID' AND c.id IN :ids
+            """)
+    int reopen(@Param("ids") Collection<Long> ids);
+
+    @Override
+    @EntityGraph(attributePaths = { "labOrder", "doctor" })
+    List<CommissionLedger> findAll();
+
     /**
      * Finds all commission records for a specific doctor with the given status.
      *
@@ -25,6 +235,7 @@ public interface CommissionLedgerRepository extends JpaRepository<CommissionLedg
      * @param status   the payment status (e.g., "UNPAID", "PAID")
      * @return list of CommissionLedger entries
      */
+    @EntityGraph(attributePaths = { "labOrder", "doctor" })
     List<CommissionLedger> findByDoctorIdAndStatus(Long doctorId, String status);
 
     /**
@@ -33,6 +244,7 @@ public interface CommissionLedgerRepository extends JpaRepository<CommissionLedg
      * @param status the payment status (e.g., "UNPAID", "PAID")
      * @return list of CommissionLedger entries
      */
+    @EntityGraph(attributePaths = { "labOrder", "doctor" })
     List<CommissionLedger> findByStatus(String status);
 
     /**
@@ -41,6 +253,7 @@ public interface CommissionLedgerRepository extends JpaRepository<CommissionLedg
      * @param doctorId the ID of the doctor
      * @return list of CommissionLedger entries
      */
+    @EntityGraph(attributePaths = { "labOrder", "doctor" })
     List<CommissionLedger> findByDoctorId(Long doctorId);
 
     /**
@@ -49,6 +262,7 @@ public interface CommissionLedgerRepository extends JpaRepository<CommissionLedg
      * @param doctor the doctor entity
      * @return list of CommissionLedger entries
      */
+    @EntityGraph(attributePaths = { "labOrder", "doctor" })
     List<CommissionLedger> findByDoctor(Doctor doctor);
 
     /**
@@ -58,8 +272,26 @@ public interface CommissionLedgerRepository extends JpaRepository<CommissionLedg
      * @param endDate   the end date
      * @return list of CommissionLedger entries
      */
+    @EntityGraph(attributePaths = { "labOrder", "doctor" })
     List<CommissionLedger> findByTransactionDateBetween(LocalDate startDate, LocalDate endDate);
 
+    /**
+     * Finds paid commissions by the day they were paid, falling back to the
+     * transaction date for rows paid before payment dates were recorded.
+     *
+     * @param startDate the start date
+     * @param endDate   the end date
+     * @return list of paid CommissionLedger entries
+     */
+    @EntityGraph(attributePaths = { "labOrder", "doctor" })
+    @Query("""
+            SELECT c FROM CommissionLedger c
+            WHERE c.status = 'PAID'
+              AND COALESCE(c.paymentDate, c.transactionDate) BETWEEN :startDate AND :endDate
+            """)
+    List<CommissionLedger> findPaidBetween(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
     /**
      * Finds commission records for a doctor between two dates.
      *
@@ -68,6 +300,7 @@ public interface CommissionLedgerRepository extends JpaRepository<CommissionLedg
      * @param endDate   the end date
      * @return list of CommissionLedger entries
      */
+    @EntityGraph(attributePaths = { "labOrder", "doctor" })
     List<CommissionLedger> findByDoctorIdAndTransactionDateBetween(Long doctorId, LocalDate startDate,
             LocalDate endDate);
 
@@ -78,7 +311,7 @@ public interface CommissionLedgerRepository extends JpaRepository<CommissionLedg
      * @param status   the payment status
      * @return total unpaid amount
      */
-    @Query("SELECT COALESCE(SUM(c.calculatedAmount), 0) FROM CommissionLedger c WHERE c.doctor.id = :doctorId AND c.status = :status")
+    @Query("SELECT COALESCE(SUM(" + AMOUNT + "), 0) " + LEDGER_FROM + " WHERE d.id = :doctorId AND c.status = :status")
     BigDecimal getTotalCommissionByDoctorAndStatus(@Param("doctorId") Long doctorId, @Param("status") String status);
 
     /**
@@ -87,7 +320,7 @@ public interface CommissionLedgerRepository extends JpaRepository<CommissionLedg
      * @param status the payment status
      * @return total amount
      */
-    @Query("SELECT COALESCE(SUM(c.calculatedAmount), 0) FROM CommissionLedger c WHERE c.status = :status")
+    @Query("SELECT COALESCE(SUM(" + AMOUNT + "), 0) " + LEDGER_FROM + " WHERE c.status = :status")
     BigDecimal getTotalCommissionByStatus(@Param("status") String status);
 
     /**
@@ -0,0 +1,30 @@
+package com.qdc.lims.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Set-based recomputation fragment for {@link CommissionRuleRepository}.
+ */
+public interface CommissionRecomputeRepository {
+
+    /**
+     * Recomputes the commission of every order booked in the inclusive date
+     * range from the current rules, doctor rates and prices, in one statement.
+     * Unpaid ledger rows are updated; orders with a referring doctor and a
+     * positive commission but no ledger row get one. Paid rows are left as
+     * they were settled.
+     *
+     * @param from           first booking day
+     * @param to             last booking day
+     * @param deductDiscount whether the order discount reduces the commission
+     *                       base
+     * @return number of ledger rows updated or created
+     */
+    int recompute(LocalDate from, LocalDate to, boolean deductDiscount);
+
+    /**
+     * @return booking day of the oldest unpaid commission, or {@code null}
+     *         when every commission is paid
+     */
+    LocalDate findEarliestUnpaidDay();
+}
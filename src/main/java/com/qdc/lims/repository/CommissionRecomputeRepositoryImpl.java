@@ -0,0 +1,119 @@
+package com.qdc.lims.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * PostgreSQL implementation of {@link CommissionRecomputeRepository}. Runs on
+ * the connection of the surrounding JPA transaction.
+ */
+class CommissionRecomputeRepositoryImpl implements CommissionRecomputeRepository {
+
+    /*
+     * Mirrors CommissionCalculationService: an order's billed lines are its
+     * priced panels and its priced tests not covered by one of them. Each line
+     * takes the most specific rule's rate (else the doctor's rate), and the
+     * commission is the line-weighted rate applied to the order total, or to
+     * the total net of discount. The existing ledger row is joined once while
+     * reading the orders.
+     */
+    private static final String RECOMPUTE_SQL = """
+            WITH orders AS (
+                SELECT o.id, o.doctor_id, CAST(o.order_date AS date) AS day,
+                       COALESCE(o.total_amount, 0) AS total,
+                       CASE WHEN ? THEN GREATEST(COALESCE(o.total_amount, 0) - COALESCE(o.discount_amount, 0), 0)
+                            ELSE COALESCE(o.total_amount, 0) END AS base,
+                       COALESCE(dr.commission_percentage, 0) AS doctor_rate,
+                       cl.id AS ledger_id, cl.status AS ledger_status
+                FROM lab_order o
+                JOIN doctors dr ON dr.id = o.doctor_id
+                LEFT JOIN commission_ledger cl ON cl.order_id = o.id
+                WHERE o.order_date >= CAST(? AS date) AND o.order_date < CAST(? AS date) + 1
+            ),
+            billed_panel AS (
+                SELECT op.lab_order_id AS order_id, p.id AS panel_id, p.department_id, p.price
+                FROM orders k
+                JOIN lab_order_panel op ON op.lab_order_id = k.id
+                JOIN panel p ON p.id = op.panel_id
+                WHERE p.price IS NOT NULL
+            ),
+            lines AS (
+                SELECT order_id, CAST(NULL AS bigint) AS test_id, department_id, price AS weight
+                FROM billed_panel
+                UNION ALL
+                SELECT r.order_id, t.id, t.department_id, t.price
+                FROM orders k
+                JOIN lab_result r ON r.order_id = k.id
+                JOIN test_definition t ON t.id = r.test_id
+                WHERE t.price IS NOT NULL
+                  AND NOT EXISTS (SELECT 1 FROM billed_panel b JOIN panel_test pt ON pt.panel_id = b.panel_id
+                                  WHERE b.order_id = r.order_id AND pt.test_id = r.test_id)
+            ),
+            rated AS (
+                SELECT l.order_id, l.weight,
+                       COALESCE((SELECT cr.percentage FROM commission_rule cr
+                                 WHERE cr.active
+                                   AND (cr.doctor_id = k.doctor_id OR cr.doctor_id IS NULL)
+                                   AND (cr.test_id = l.test_id
+                                        OR (cr.test_id IS NULL AND cr.department_id = l.department_id))
+                                 ORDER BY cr.doctor_id IS NULL, cr.test_id IS NULL, cr.id
+                                 LIMIT 1),
+                                k.doctor_rate) AS rate
+                FROM lines l
+                JOIN orders k ON k.id = l.order_id
+            ),
+            computed AS (
+                SELECT k.id AS order_id, k.doctor_id, k.day, k.total, k.ledger_id, k.ledger_status,
+                       CASE WHEN SUM(x.weight) > 0 THEN ROUND(SUM(x.weight * x.rate) / SUM(x.weight), 4)
+                            ELSE k.doctor_rate END AS rate,
+                       CASE WHEN SUM(x.weight) > 0
+                            THEN ROUND(k.base * SUM(x.weight * x.rate) / (SUM(x.weight) * 100), 4)
+                            ELSE ROUND(k.base * k.doctor_rate / 100, 4) END AS amount
+                FROM orders k
+                LEFT JOIN rated x ON x.order_id = k.id
+                GROUP BY k.id, k.doctor_id, k.day, k.total, k.base, k.doctor_rate, k.ledger_id, k.ledger_status
+            ),
+            updated AS (
+                UPDATE commission_ledger c
+                SET doctor_id = m.doctor_id, total_bill_amount = m.total,
+                    commission_percentage = m.rate, calculated_amount = m.amount
+                FROM computed m
+                WHERE c.id = m.ledger_id AND m.ledger_status = 'UNPAID' AND c.status = 'UNPAID'
+                RETURNING c.id
+            ),
+            inserted AS (
+                INSERT INTO commission_ledger (order_id, doctor_id, total_bill_amount, commission_percentage,
+                                               calculated_amount, transaction_date, status)
+                SELECT m.order_id, m.doctor_id, m.total, m.rate, m.amount, m.day, 'UNPAID'
+                FROM computed m
+                WHERE m.amount > 0 AND m.ledger_id IS NULL
+                ON CONFLICT (order_id) DO NOTHING
+                RETURNING id
+            )
+            SELECT (SELECT COUNT(*) FROM updated) + (SELECT COUNT(*) FROM inserted)
+            """;
+
+    private static final String EARLIEST_UNPAID_SQL =
+            "SELECT MIN(transaction_date) FROM commission_ledger WHERE status = 'UNPAID'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    CommissionRecomputeRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int recompute(LocalDate from, LocalDate to, boolean deductDiscount) {
+        Long rows = jdbcTemplate.queryForObject(RECOMPUTE_SQL, Long.class,
+                deductDiscount, Date.valueOf(from), Date.valueOf(to));
+        return rows != null ? rows.intValue() : 0;
+    }
+
+    @Override
+    public LocalDate findEarliestUnpaidDay() {
+        Date day = jdbcTemplate.queryForObject(EARLIEST_UNPAID_SQL, Date.class);
+        return day != null ? day.toLocalDate() : null;
+    }
+}
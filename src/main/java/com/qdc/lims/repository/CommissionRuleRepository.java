@@ -0,0 +1,30 @@
+package com.qdc.lims.repository;
+
+import com.qdc.lims.entity.CommissionRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Repository for commission rules. Bulk recomputation lives in
+ * {@link CommissionRecomputeRepository}.
+ */
+public interface CommissionRuleRepository
+        extends JpaRepository<CommissionRule, Long>, CommissionRecomputeRepository {
+
+    /**
+     * Active rules that can apply to a doctor's orders: the doctor's own rules
+     * and rules for every doctor, oldest first.
+     *
+     * @param doctorId referring doctor
+     * @return applicable rules
+     */
+    @Query("""
+            SELECT r FROM CommissionRule r
+            WHERE r.active = true AND (r.doctorId = :doctorId OR r.doctorId IS NULL)
+            ORDER BY r.id
+            """)
+    List<CommissionRule> findApplicable(@Param("doctorId") Long doctorId);
+}
@@ -0,0 +1,30 @@
+package com.qdc.lims.repository;
+
+import com.qdc.lims.entity.CommissionSettlement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repository for commission payout runs.
+ */
+public interface CommissionSettlementRepository extends JpaRepository<CommissionSettlement, Long> {
+
+    /**
+     * Stores the count and paid total of the commissions a settlement paid,
+     * summed from the ledger in the same statement.
+     *
+     * @param settlementId settlement run
+     * @return 1 when the settlement exists
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE commission_settlement s
+            SET commission_count = t.entries, total_amount = t.total
+            FROM (SELECT COUNT(*) AS entries, COALESCE(SUM(paid_amount), 0) AS total
+                  FROM commission_ledger WHERE settlement_id = :settlementId) t
+            WHERE s.id = :settlementId
+            """, nativeQuery = true)
+    int recordTotals(@Param("settlementId") Long settlementId);
+}
@@ -0,0 +1,46 @@
+package com.qdc.lims.repository;
+
+import com.qdc.lims.dto.FinancialRollupTotal;
+import com.qdc.lims.entity.DailyFinancialRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository for the per-day financial rollups. Reads sum the rollup rows of
+ * a range; maintenance lives in {@link FinancialRollupMaintenanceRepository}.
+ */
+public interface DailyFinancialRollupRepository
+        extends JpaRepository<DailyFinancialRollup, Long>, FinancialRollupMaintenanceRepository {
+
+    /**
+     * Totals per metric and category for the inclusive day range.
+     */
+    @Query("""
+            SELECT new com.qdc.lims.dto.FinancialRollupTotal(
+                r.metric, r.category, CAST(0 AS Long), SUM(r.amount), SUM(r.entryCount))
+            FROM DailyFinancialRollup r
+            WHERE r.day >= :from AND r.day <= :to
+            GROUP BY r.metric, r.category
+            ORDER BY r.metric, r.category
+            """)
+    List<FinancialRollupTotal> sumByMetricAndCategory(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Totals of one metric per doctor or supplier for the inclusive day range.
+     */
+    @Query("""
+            SELECT new com.qdc.lims.dto.FinancialRollupTotal(
+                r.metric, '', r.refId, SUM(r.amount), SUM(r.entryCount))
+            FROM DailyFinancialRollup r
+            WHERE r.metric = :metric AND r.day >= :from AND r.day <= :to
+            GROUP BY r.metric, r.refId
+            ORDER BY SUM(r.amount) DESC
+            """)
+    List<FinancialRollupTotal> sumByReference(@Param("metric") String metric,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+}
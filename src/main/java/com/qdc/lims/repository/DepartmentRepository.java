@@ -1,8 +1,13 @@
 package com.qdc.lims.repository;
 
+import com.qdc.lims.config.MasterDataCacheConfig;
 import com.qdc.lims.entity.Department;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -10,6 +15,17 @@ import java.util.Optional;
  */
 public interface DepartmentRepository extends JpaRepository<Department, Integer> {
 
+    /**
+     * All departments, served from the master data cache after the first call.
+     *
+     * @return all departments
+     */
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = MasterDataCacheConfig.QUERY_REGION) })
+    List<Department> findAll();
+
     /**
      * Finds a department by its unique name.
      *
@@ -1,7 +1,11 @@
 package com.qdc.lims.repository;
 
+import com.qdc.lims.config.MasterDataCacheConfig;
 import com.qdc.lims.entity.Doctor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.List;
 
 /**
@@ -9,6 +13,15 @@ import java.util.List;
  */
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
 
+    /**
+     * All doctors, served from the master data cache after the first call.
+     */
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = MasterDataCacheConfig.QUERY_REGION) })
+    List<Doctor> findAll();
+
     /**
      * Count active doctors.
      */
@@ -17,6 +30,9 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     /**
      * Find all active doctors.
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = MasterDataCacheConfig.QUERY_REGION) })
     List<Doctor> findByActiveTrue();
 
 }
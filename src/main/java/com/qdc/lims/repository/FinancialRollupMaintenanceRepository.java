@@ -0,0 +1,58 @@
+package com.qdc.lims.repository;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Set-based maintenance fragment for {@link DailyFinancialRollupRepository}.
+ */
+public interface FinancialRollupMaintenanceRepository {
+
+    /**
+     * Takes the transaction-scoped lock that serializes rollup refreshes
+     * across workstations.
+     */
+    void lockForRefresh();
+
+    /**
+     * Takes the refresh lock only if no other transaction holds it.
+     *
+     * @return {@code true} when the lock was taken
+     */
+    boolean tryLockForRefresh();
+
+    /**
+     * @return {@code true} when any day is marked dirty
+     */
+    boolean hasDirtyDays();
+
+    /**
+     * Deletes up to {@code limit} dirty-day marks. Call after
+     * {@link #lockForRefresh()} in the same transaction.
+     *
+     * @param limit maximum number of marks to claim
+     * @return distinct days of the claimed marks
+     */
+    Set<LocalDate> claimDirtyDays(int limit);
+
+    /**
+     * Replaces all rollup rows of the given days with totals recomputed from
+     * the source tables.
+     *
+     * @param days days to recompute
+     * @return number of rollup rows written
+     */
+    int recomputeDays(Set<LocalDate> days);
+
+    /**
+     * Marks every day that has source rows or rollup rows as dirty.
+     *
+     * @return number of days marked
+     */
+    int markAllDaysDirty();
+
+    /**
+     * @return {@code true} when no rollup rows exist yet
+     */
+    boolean isEmpty();
+}
@@ -0,0 +1,184 @@
+package com.qdc.lims.repository;
+
+import com.qdc.lims.entity.DailyFinancialRollup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * PostgreSQL implementation of {@link FinancialRollupMaintenanceRepository}.
+ * Runs on the connection of the surrounding JPA transaction.
+ */
+class FinancialRollupMaintenanceRepositoryImpl implements FinancialRollupMaintenanceRepository {
+
+    private static final String REFRESH_LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext('daily_financial_rollup'))";
+
+    private static final String TRY_REFRESH_LOCK_SQL =
+            "SELECT pg_try_advisory_xact_lock(hashtext('daily_financial_rollup'))";
+
+    private static final String CLAIM_SQL = """
+            DELETE FROM financial_rollup_dirty_day
+            WHERE id IN (SELECT id FROM financial_rollup_dirty_day ORDER BY id LIMIT ?)
+            RETURNING day
+            """;
+
+    private static final String DELETE_DAYS_SQL = "DELETE FROM daily_financial_rollup WHERE day = ANY (CAST(? AS date[]))";
+
+    // Archived orders and commissions still count towards their days (see OrderArchiveService).
+    private static final String ORDERS = """
+            (SELECT id, order_date, total_amount, paid_amount, balance_due FROM lab_order
+             UNION ALL
+             SELECT id, order_date, total_amount, paid_amount, balance_due FROM archive.lab_order)""";
+
+    private static final String COMMISSIONS = """
+            (SELECT doctor_id, order_id, status, transaction_date, payment_date, paid_amount, calculated_amount
+             FROM commission_ledger
+             UNION ALL
+             SELECT doctor_id, order_id, status, transaction_date, payment_date, paid_amount, calculated_amount
+             FROM archive.commission_ledger)""";
+
+    /*
+     * One statement per refresh: each metric is a GROUP BY over the claimed
+     * days joined to its source table by day range, so the cost depends on the
+     * rows of those days only.
+     */
+    private static final String RECOMPUTE_SQL = """
+            WITH d AS (
+                SELECT unnest(CAST(? AS date[])) AS day
+            ),
+            commission AS (
+                SELECT c.doctor_id, c.status, c.transaction_date,
+                       COALESCE(c.payment_date, c.transaction_date) AS paid_on,
+                       COALESCE(c.paid_amount, 0) AS paid,
+                       COALESCE(c.calculated_amount,
+                                CASE WHEN dr.commission_percentage > 0
+                                     THEN ROUND(o.total_amount * dr.commission_percentage / 100, 4) END,
+                                0) AS amount
+                FROM %10$s c
+                JOIN doctors dr ON dr.id = c.doctor_id
+                LEFT JOIN %9$s o ON o.id = c.order_id
+                WHERE c.transaction_date IN (SELECT day FROM d)
+                   OR c.payment_date IN (SELECT day FROM d)
+            )
+            INSERT INTO daily_financial_rollup (day, metric, category, ref_id, amount, entry_count)
+            SELECT d.day, '%1$s', '', 0, COALESCE(SUM(o.total_amount), 0), COUNT(*)
+            FROM d JOIN %9$s o ON o.order_date >= d.day AND o.order_date < d.day + 1
+            GROUP BY d.day
+            UNION ALL
+            SELECT d.day, '%2$s', '', 0, SUM(o.paid_amount), COUNT(*)
+            FROM d JOIN %9$s o ON o.order_date >= d.day AND o.order_date < d.day + 1
+            WHERE o.paid_amount > 0
+            GROUP BY d.day
+            UNION ALL
+            SELECT d.day, '%3$s', '', 0, SUM(o.balance_due), COUNT(*)
+            FROM d JOIN %9$s o ON o.order_date >= d.day AND o.order_date < d.day + 1
+            WHERE o.balance_due <> 0
+            GROUP BY d.day
+            UNION ALL
+            SELECT d.day, '%4$s' || p.type, COALESCE(p.category, 'Misc'), 0, COALESCE(SUM(p.amount), 0), COUNT(*)
+            FROM d JOIN payments p ON p.transaction_date >= d.day AND p.transaction_date < d.day + 1
+            GROUP BY d.day, p.type, COALESCE(p.category, 'Misc')
+            UNION ALL
+            SELECT d.day, '%5$s', '', k.doctor_id, SUM(k.amount), COUNT(*)
+            FROM d JOIN commission k ON k.paid_on = d.day
+            WHERE k.status = 'PAID'
+            GROUP BY d.day, k.doctor_id
+            UNION ALL
+            SELECT d.day, '%6$s', '', k.doctor_id, SUM(GREATEST(k.amount - k.paid, 0)), COUNT(*)
+            FROM d JOIN commission k ON k.transaction_date = d.day
+            WHERE k.status IS DISTINCT FROM 'PAID'
+            GROUP BY d.day, k.doctor_id
+            UNION ALL
+            SELECT d.day, '%7$s', '', COALESCE(s.supplier_id, 0), SUM(s.paid_amount), COUNT(*)
+            FROM d JOIN supplier_ledger s ON s.transaction_date = d.day
+            WHERE s.paid_amount > 0
+            GROUP BY d.day, COALESCE(s.supplier_id, 0)
+            UNION ALL
+            SELECT d.day, '%8$s', '', COALESCE(s.supplier_id, 0),
+                   SUM(COALESCE(s.bill_amount, 0) - COALESCE(s.paid_amount, 0)), COUNT(*)
+            FROM d JOIN supplier_ledger s ON s.transaction_date = d.day
+            WHERE COALESCE(s.bill_amount, 0) > COALESCE(s.paid_amount, 0)
+            GROUP BY d.day, COALESCE(s.supplier_id, 0)
+            """.formatted(
+            DailyFinancialRollup.ORDER_BILLED,
+            DailyFinancialRollup.ORDER_COLLECTED,
+            DailyFinancialRollup.ORDER_RECEIVABLE,
+            DailyFinancialRollup.PAYMENT_PREFIX,
+            DailyFinancialRollup.COMMISSION_PAID,
+            DailyFinancialRollup.COMMISSION_UNPAID,
+            DailyFinancialRollup.SUPPLIER_PAID,
+            DailyFinancialRollup.SUPPLIER_PAYABLE,
+            ORDERS,
+            COMMISSIONS);
+
+    private static final String MARK_ALL_SQL = """
+            INSERT INTO financial_rollup_dirty_day (day)
+            SELECT day FROM (
+                SELECT CAST(order_date AS date) AS day FROM lab_order
+                UNION SELECT CAST(order_date AS date) FROM archive.lab_order
+                UNION SELECT CAST(transaction_date AS date) FROM payments
+                UNION SELECT transaction_date FROM commission_ledger
+                UNION SELECT payment_date FROM commission_ledger
+                UNION SELECT transaction_date FROM archive.commission_ledger
+                UNION SELECT payment_date FROM archive.commission_ledger
+                UNION SELECT transaction_date FROM supplier_ledger
+                UNION SELECT day FROM daily_financial_rollup
+            ) AS days
+            WHERE day IS NOT NULL
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    FinancialRollupMaintenanceRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void lockForRefresh() {
+        jdbcTemplate.query(REFRESH_LOCK_SQL, rs -> {
+        });
+    }
+
+    @Override
+    public boolean tryLockForRefresh() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_REFRESH_LOCK_SQL, Boolean.class));
+    }
+
+    @Override
+    public boolean hasDirtyDays() {
+        return Boolean.TRUE.equals(
+                jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM financial_rollup_dirty_day)", Boolean.class));
+    }
+
+    @Override
+    public Set<LocalDate> claimDirtyDays(int limit) {
+        return new TreeSet<>(jdbcTemplate.queryForList(CLAIM_SQL, Date.class, limit).stream()
+                .map(Date::toLocalDate)
+                .collect(Collectors.toSet()));
+    }
+
+    @Override
+    public int recomputeDays(Set<LocalDate> days) {
+        if (days == null || days.isEmpty()) {
+            return 0;
+        }
+        String dayArray = days.stream().map(LocalDate::toString).collect(Collectors.joining(",", "{", "}"));
+        jdbcTemplate.update(DELETE_DAYS_SQL, dayArray);
+        return jdbcTemplate.update(RECOMPUTE_SQL, dayArray);
+    }
+
+    @Override
+    public int markAllDaysDirty() {
+        return jdbcTemplate.update(MARK_ALL_SQL);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return !Boolean.TRUE.equals(
+                jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM daily_financial_rollup)", Boolean.class));
+    }
+}
@@ -1,7 +1,11 @@
 package com.qdc.lims.repository;
 
 import com.qdc.lims.entity.InventoryItem;
+import com.qdc.lims.entity.Supplier;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -24,4 +28,119 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, Lo
 
     Optional<InventoryItem> findByItemName(String itemName);
 
+    /**
+     * Atomically subtracts stock if enough is on hand. The version is bumped so
+     * that screens holding a stale copy of the item cannot overwrite the new
+     * stock level.
+     *
+     * @param itemId   inventory item id
+     * @param quantity quantity to subtract (positive)
+     * @return 1 when the stock was deducted, 0 when the item is short
+     */
+    @Modifying
+    @Query("""
+            UPDATE InventoryItem i
+            SET i.currentStock = i.currentStock - :quantity,
+                i.version = COALESCE(i.version, 0) + 1
+            WHERE i.id = :itemId AND i.currentStock >= :quantity
+            """)
+    int deductStock(@Param("itemId") Long itemId, @Param("quantity") BigDecimal quantity);
+
+    /**
+     * Atomically adds stock, e.g. when an order is cancelled, bumping the
+     * version like {@link #deductStock}.
+     *
+     * @param itemId   inventory item id
+     * @param quantity quantity to add (positive)
+     * @return 1 when the item exists
+     */
+    @Modifying
+    @Query("""
+            UPDATE InventoryItem i
+            SET i.currentStock = COALESCE(i.currentStock, 0) + :quantity,
+                i.version = COALESCE(i.version, 0) + 1
+            WHERE i.id = :itemId
+            """)
+    int addStock(@Param("itemId") Long itemId, @Param("quantity") BigDecimal quantity);
+
+    /**
+     * Atomically receives purchased stock: adds the quantity and folds its
+     * unit cost into the weighted average cost, both from the committed row,
+     * so a concurrent booking never makes the purchase fail or lose stock.
+     *
+     * @param itemId   inventory item id
+     * @param quantity quantity received
+     * @param unitCost cost per unit of this purchase
+     * @return 1 when the item exists
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE inventory_items
+            SET average_cost = CASE
+                    WHEN COALESCE(current_stock, 0) + :quantity > 0
+                        THEN ROUND((COALESCE(current_stock, 0) * COALESCE(average_cost, 0) + :quantity * :unitCost)
+                                / (COALESCE(current_stock, 0) + :quantity), 4)
+                    ELSE :unitCost
+                END,
+                current_stock = COALESCE(current_stock, 0) + :quantity,
+                version = COALESCE(version, 0) + 1
+            WHERE id = :itemId
+            """, nativeQuery = true)
+    int receiveStock(@Param("itemId") Long itemId, @Param("quantity") BigDecimal quantity,
+            @Param("unitCost") BigDecimal unitCost);
+
+    /**
+     * Sets the preferred supplier of an item that has none yet.
+     *
+     * @param itemId   inventory item id
+     * @param supplier supplier to prefer
+     * @return 1 when the item had no preferred supplier
+     */
+    @Modifying
+    @Query("""
+            UPDATE InventoryItem i
+            SET i.preferredSupplier = :supplier,
+                i.version = COALESCE(i.version, 0) + 1
+            WHERE i.id = :itemId AND i.preferredSupplier IS NULL
+            """)
+    int setPreferredSupplierIfAbsent(@Param("itemId") Long itemId, @Param("supplier") Supplier supplier);
+
+    /**
+     * Reads the committed stock level directly, bypassing any copy of the item
+     * already held in the persistence context.
+     *
+     * @param itemId inventory item id
+     * @return current stock (nullable)
+     */
+    @Query("SELECT i.currentStock FROM InventoryItem i WHERE i.id = :itemId")
+    BigDecimal findCurrentStock(@Param("itemId") Long itemId);
+
+    /**
+     * Reads the stock level and locks the item row until the transaction
+     * ends, so the level can be replaced without losing a concurrent
+     * deduction.
+     *
+     * @param itemId inventory item id
+     * @return current stock (nullable)
+     */
+    @Query(value = "SELECT current_stock FROM inventory_items WHERE id = :itemId FOR UPDATE", nativeQuery = true)
+    BigDecimal lockCurrentStock(@Param("itemId") Long itemId);
+
+    /**
+     * Overwrites the stock level, e.g. after a physical count, bumping the
+     * version like {@link #deductStock}.
+     *
+     * @param itemId inventory item id
+     * @param level  new stock level
+     * @return 1 when the item exists
+     */
+    @Modifying
+    @Query("""
+            UPDATE InventoryItem i
+            SET i.currentStock = :level,
+                i.version = COALESCE(i.version, 0) + 1
+            WHERE i.id = :itemId
+            """)
+    int setStockLevel(@Param("itemId") Long itemId, @Param("level") BigDecimal level);
+
 }
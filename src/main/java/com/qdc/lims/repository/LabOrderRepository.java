@@ -1,15 +1,23 @@
 package com.qdc.lims.repository;
 
+import com.qdc.lims.dto.LabOrderSummary;
+import com.qdc.lims.dto.LabWorklistFilter;
+import com.qdc.lims.dto.OrderTotals;
 import com.qdc.lims.entity.LabOrder;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -18,28 +26,197 @@ import org.springframework.stereotype.Repository;
  * for dashboard statistics and patient order history.
  */
 @Repository
-public interface LabOrderRepository extends JpaRepository<LabOrder, Long> {
+public interface LabOrderRepository extends JpaRepository<LabOrder, Long>, OrderArchiveRepository {
+
+    /**
+     * Shared predicate for the worklist page and count queries. Optional
+     * criteria are short-circuited by their flag or null bound so a single
+     * statement serves every filter combination. Result lookups also match
+     * the order date, the partition key results share with their order, and
+     * repeat the date bounds, which PostgreSQL does not carry across the
+     * join, so on a partitioned database only the months shown are read.
+     */
+    String WORKLIST_WHERE = """
+            WHERE (:anyStatus = true OR o.status IN :statuses)
+              AND (CAST(:fromDate AS LocalDateTime) IS NULL OR o.orderDate >= :fromDate)
+              AND (CAST(:toDate AS LocalDateTime) IS NULL OR o.orderDate <= :toDate)
+              AND (:search = ''
+                   OR LOWER(p.mrn) LIKE CONCAT('%', :search, '%')
+                   OR LOWER(p.fullName) LIKE CONCAT('%', :search, '%')
+                   OR CAST(o.id AS String) LIKE CONCAT('%', :search, '%'))
+              AND (:withResultsOnly = false
+                   OR EXISTS (SELECT 1 FROM LabResult r WHERE r.labOrder = o AND r.orderDate = o.orderDate
+                                AND (CAST(:fromDate AS LocalDateTime) IS NULL OR r.orderDate >= :fromDate)
+                                AND (CAST(:toDate AS LocalDateTime) IS NULL OR r.orderDate <= :toDate)))
+            """;
+
+    /**
+     * Constructor expression shared by the summary queries. Selecting scalar
+     * columns keeps table screens from loading the eager order graph; the test
+     * count and lab-started flag are correlated subqueries.
+     */
+    String SUMMARY_SELECT = """
+            SELECT new com.qdc.lims.dto.LabOrderSummary(
+                o.id, o.orderDate, o.status,
+                p.mrn, p.fullName, p.age, p.gender, p.mobileNumber,
+                d.name,
+                (SELECT COUNT(r) FROM LabResult r WHERE r.labOrder = o AND r.orderDate = o.orderDate),
+                o.totalAmount, o.discountAmount, o.paidAmount, o.balanceDue,
+                o.isReportDelivered, o.deliveryDate, o.reprintRequired,
+                CASE WHEN o.labStartedAt IS NOT NULL OR EXISTS (
+                        SELECT 1 FROM LabResult r WHERE r.labOrder = o AND r.orderDate = o.orderDate
+                          AND (TRIM(COALESCE(r.resultValue, '')) <> ''
+                               OR TRIM(COALESCE(r.performedBy, '')) <> ''
+                               OR r.performedAt IS NOT NULL))
+                     THEN true ELSE false END)
+            FROM LabOrder o
+            JOIN o.patient p
+            LEFT JOIN o.referringDoctor d
+            """;
 
     @EntityGraph(attributePaths = { "patient", "results", "results.testDefinition",
             "results.testDefinition.category" })
     List<LabOrder> findAll();
 
+    /**
+     * Loads one order with everything the result entry, delivery and print
+     * screens read after the call returns: patient, referring doctor and results
+     * with their test definitions. Panels are not fetched here (two bag fetches
+     * cannot share one query); use {@code PanelRepository#findAllWithTestsByOrderId}.
+     *
+     * @param id order id
+     * @return the order with its detail graph initialized
+     */
+    @EntityGraph(attributePaths = { "patient", "referringDoctor", "results", "results.testDefinition" })
+    Optional<LabOrder> findWithDetailsById(Long id);
+
+    /**
+     * Counts open orders that have tests attached. The result check is a
+     * per-order count rather than {@code EXISTS}: the few open orders each
+     * probe their own result partition, where a semi join would be planned
+     * as a hash join over every result partition.
+     */
     @Query("""
-            SELECT COUNT(DISTINCT o)
+            SELECT COUNT(o)
             FROM LabOrder o
-            JOIN o.results r
             WHERE o.status NOT IN ('COMPLETED', 'CANCELLED')
+              AND (SELECT COUNT(r) FROM LabResult r WHERE r.labOrder = o AND r.orderDate = o.orderDate) > 0
             """)
     long countPendingWithResults();
 
     @Query("""
-            SELECT COUNT(DISTINCT o)
+            SELECT COUNT(o)
             FROM LabOrder o
-            JOIN o.results r
             WHERE o.status = 'COMPLETED'
+              AND EXISTS (SELECT 1 FROM LabResult r WHERE r.labOrder = o AND r.orderDate = o.orderDate)
             """)
     long countCompletedWithResults();
 
+    /**
+     * Loads one page of the lab worklist with all filters evaluated in SQL.
+     * Sorting is taken from the {@link Pageable} (entity paths such as
+     * {@code orderDate} or {@code patient.fullName}).
+     *
+     * @param filter   worklist criteria
+     * @param pageable page number, size and sort
+     * @return requested page of order summaries
+     */
+    default Page<LabOrderSummary> findWorklistPage(LabWorklistFilter filter, Pageable pageable) {
+        return findWorklistPage(filter.anyStatus(), filter.statusesForQuery(), filter.from(), filter.to(),
+                filter.normalizedSearch(), filter.withResultsOnly(), pageable);
+    }
+
+    /**
+     * Counts orders matching the worklist criteria without loading them.
+     *
+     * @param filter worklist criteria
+     * @return number of matching orders
+     */
+    default long countWorklist(LabWorklistFilter filter) {
+        return countWorklist(filter.anyStatus(), filter.statusesForQuery(), filter.from(), filter.to(),
+                filter.normalizedSearch(), filter.withResultsOnly());
+    }
+
+    @Query(value = SUMMARY_SELECT + WORKLIST_WHERE,
+            countQuery = "SELECT COUNT(o) FROM LabOrder o JOIN o.patient p " + WORKLIST_WHERE)
+    Page<LabOrderSummary> findWorklistPage(@Param("anyStatus") boolean anyStatus,
+            @Param("statuses") Collection<String> statuses,
+            @Param("fromDate") LocalDateTime fromDate,
+            @Param("toDate") LocalDateTime toDate,
+            @Param("search") String search,
+            @Param("withResultsOnly") boolean withResultsOnly,
+            Pageable pageable);
+
+    @Query("SELECT COUNT(o) FROM LabOrder o JOIN o.patient p " + WORKLIST_WHERE)
+    long countWorklist(@Param("anyStatus") boolean anyStatus,
+            @Param("statuses") Collection<String> statuses,
+            @Param("fromDate") LocalDateTime fromDate,
+            @Param("toDate") LocalDateTime toDate,
+            @Param("search") String search,
+            @Param("withResultsOnly") boolean withResultsOnly);
+
+    /**
+     * Reception queues: orders in the date range that have tests attached and
+     * are either still in the lab or completed but not yet handed over.
+     *
+     * @param start the start of the order date range
+     * @param end   the end of the order date range
+     * @return pending and ready-for-pickup order summaries, oldest first
+     */
+    @Query(SUMMARY_SELECT + """
+            WHERE o.orderDate BETWEEN :start AND :end
+              AND o.status <> 'CANCELLED'
+              AND NOT (o.status = 'COMPLETED' AND o.isReportDelivered = true)
+              AND EXISTS (SELECT 1 FROM LabResult r WHERE r.labOrder = o AND r.orderDate = o.orderDate
+                            AND r.orderDate BETWEEN :start AND :end)
+            ORDER BY o.id
+            """)
+    List<LabOrderSummary> findOpenOrderSummaries(@Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * Reception delivered tab: reports handed over in the range plus every
+     * order flagged for reprint, regardless of delivery date.
+     *
+     * @param start the start of the delivery date range
+     * @param end   the end of the delivery date range
+     * @return delivered order summaries, oldest first
+     */
+    @Query(SUMMARY_SELECT + """
+            WHERE (o.isReportDelivered = true AND o.deliveryDate BETWEEN :start AND :end)
+               OR o.reprintRequired = true
+            ORDER BY o.id
+            """)
+    List<LabOrderSummary> findDeliveredOrderSummaries(@Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * Order summaries created within a date range (receipt search, payment
+     * history and revenue reports).
+     *
+     * @param start the start of the order date range
+     * @param end   the end of the order date range
+     * @return order summaries in the range, oldest first
+     */
+    @Query(SUMMARY_SELECT + """
+            WHERE o.orderDate BETWEEN :start AND :end
+            ORDER BY o.id
+            """)
+    List<LabOrderSummary> findSummariesByOrderDateBetween(@Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * Order summaries of one patient (patient history).
+     *
+     * @param patientId the ID of the patient
+     * @return the patient's order summaries, newest first
+     */
+    @Query(SUMMARY_SELECT + """
+            WHERE p.id = :patientId
+            ORDER BY o.id DESC
+            """)
+    List<LabOrderSummary> findSummariesByPatientId(@Param("patientId") Long patientId);
+
     /**
      * Finds all orders for a specific patient, sorted by order ID in descending
      * order.
@@ -133,6 +310,50 @@ public interface LabOrderRepository extends JpaRepository<LabOrder, Long> {
      */
     long countByStatusAndOrderDateBetween(String status, LocalDateTime start, LocalDateTime end);
 
+    /**
+     * Counts orders in any of the given statuses, regardless of date.
+     *
+     * @param statuses order statuses
+     * @return count of matching orders
+     */
+    long countByStatusIn(Collection<String> statuses);
+
+    /**
+     * Counts orders in any of the given statuses created within
+     * {@code [from, to)}.
+     *
+     * @param statuses order statuses
+     * @param from     inclusive start
+     * @param to       exclusive end
+     * @return count of matching orders
+     */
+    @Query("""
+            SELECT COUNT(o) FROM LabOrder o
+            WHERE o.status IN :statuses AND o.orderDate >= :from AND o.orderDate < :to
+            """)
+    long countByStatusInAndOrderDateInRange(@Param("statuses") Collection<String> statuses,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    /**
+     * Sums order count, billed, collected and outstanding amounts for orders
+     * created within {@code [from, to)} in one aggregate query.
+     *
+     * @param from inclusive start
+     * @param to   exclusive end
+     * @return totals (zero when there are no orders)
+     */
+    @Query("""
+            SELECT new com.qdc.lims.dto.OrderTotals(
+                COUNT(o),
+                COALESCE(SUM(o.totalAmount), 0),
+                COALESCE(SUM(o.paidAmount), 0),
+                COALESCE(SUM(o.balanceDue), 0))
+            FROM LabOrder o
+            WHERE o.orderDate >= :from AND o.orderDate < :to
+            """)
+    OrderTotals sumTotalsInRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
     /**
      * Finds orders that have an outstanding balance due.
      *
@@ -0,0 +1,20 @@
+package com.qdc.lims.repository;
+
+import com.qdc.lims.entity.LabResultEditAudit;
+
+import java.util.List;
+
+/**
+ * Bulk insert fragment for {@link LabResultEditAuditRepository}.
+ */
+public interface LabResultEditAuditBatchRepository {
+
+    /**
+     * Inserts audit rows as one JDBC batch. The id column is an identity
+     * column, which Hibernate cannot batch, so rows go through plain JDBC and
+     * their ids are not populated.
+     *
+     * @param audits audit rows with order and result set
+     */
+    void insertAll(List<LabResultEditAudit> audits);
+}
@@ -0,0 +1,50 @@
+package com.qdc.lims.repository;
+
+import com.qdc.lims.entity.LabResultEditAudit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * JDBC batch implementation of {@link LabResultEditAuditBatchRepository}.
+ * Runs on the connection of the surrounding JPA transaction.
+ */
+class LabResultEditAuditBatchRepositoryImpl implements LabResultEditAuditBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO lab_result_edit_audit (
+                order_id, result_id, test_name, previous_value, new_value,
+                previous_remarks, new_remarks, previous_abnormal, new_abnormal,
+                edited_by, edited_at, reason, report_delivered_at_edit)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    LabResultEditAuditBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<LabResultEditAudit> audits) {
+        if (audits == null || audits.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, audits, audits.size(), (ps, audit) -> {
+            ps.setLong(1, audit.getLabOrder().getId());
+            ps.setLong(2, audit.getLabResult().getId());
+            ps.setString(3, audit.getTestName());
+            ps.setString(4, audit.getPreviousValue());
+            ps.setString(5, audit.getNewValue());
+            ps.setString(6, audit.getPreviousRemarks());
+            ps.setString(7, audit.getNewRemarks());
+            ps.setBoolean(8, audit.isPreviousAbnormal());
+            ps.setBoolean(9, audit.isNewAbnormal());
+            ps.setString(10, audit.getEditedBy());
+            ps.setTimestamp(11, audit.getEditedAt() != null ? Timestamp.valueOf(audit.getEditedAt()) : null);
+            ps.setString(12, audit.getReason());
+            ps.setBoolean(13, audit.isReportDeliveredAtEdit());
+        });
+    }
+}
@@ -1,15 +1,79 @@
 package com.qdc.lims.repository;
 
+import com.qdc.lims.dto.ResultEditAuditFilter;
+import com.qdc.lims.dto.ResultEditAuditRow;
 import com.qdc.lims.entity.LabResultEditAudit;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
- * Repository for result correction audit history.
+ * Repository for result correction audit history. The audit is browsed newest
+ * first with keyset pagination on {@code (editedAt, id)}, so every page is an
+ * index range scan however long the trail grows.
  */
-public interface LabResultEditAuditRepository extends JpaRepository<LabResultEditAudit, Long> {
-    List<LabResultEditAudit> findAllByOrderByEditedAtDesc();
+public interface LabResultEditAuditRepository extends JpaRepository<LabResultEditAudit, Long>,
+        LabResultEditAuditBatchRepository {
+
+    String ROW_SELECT = """
+            SELECT new com.qdc.lims.dto.ResultEditAuditRow(
+                a.id, a.editedAt, a.labOrder.id, a.labResult.id, a.testName, a.editedBy,
+                a.previousValue, a.newValue, a.reason, a.reportDeliveredAtEdit)
+            FROM LabResultEditAudit a
+            """;
+
+    String AUDIT_WHERE = """
+            WHERE a.editedAt IS NOT NULL
+              AND (CAST(:editedFrom AS LocalDateTime) IS NULL OR a.editedAt >= :editedFrom)
+              AND (CAST(:editedBefore AS LocalDateTime) IS NULL OR a.editedAt < :editedBefore)
+              AND (CAST(:orderId AS Long) IS NULL OR a.labOrder.id = :orderId)
+              AND (:editedBy = '' OR LOWER(a.editedBy) LIKE CONCAT('%', :editedBy, '%'))
+              AND (:testName = '' OR LOWER(a.testName) LIKE CONCAT('%', :testName, '%'))
+            """;
+
+    String NEWEST_FIRST = " ORDER BY a.editedAt DESC, a.id DESC";
 
     List<LabResultEditAudit> findByLabOrderIdOrderByEditedAtDesc(Long labOrderId);
+
+    /**
+     * Loads the next page of audit rows, newest first, with all filters
+     * evaluated in SQL.
+     *
+     * @param filter audit criteria
+     * @param after  last row of the previous page ({@code null} for the first page)
+     * @param size   maximum rows to return
+     * @return up to {@code size} rows older than {@code after}
+     */
+    default List<ResultEditAuditRow> findPage(ResultEditAuditFilter filter, ResultEditAuditRow after, int size) {
+        if (after == null) {
+            return findFirstPage(filter.editedFrom(), filter.editedBefore(), filter.orderId(),
+                    filter.normalizedEditedBy(), filter.normalizedTestName(), Limit.of(size));
+        }
+        return findPageAfter(filter.editedFrom(), filter.editedBefore(), filter.orderId(),
+                filter.normalizedEditedBy(), filter.normalizedTestName(), after.editedAt(), after.id(),
+                Limit.of(size));
+    }
+
+    @Query(ROW_SELECT + AUDIT_WHERE + NEWEST_FIRST)
+    List<ResultEditAuditRow> findFirstPage(@Param("editedFrom") LocalDateTime editedFrom,
+            @Param("editedBefore") LocalDateTime editedBefore,
+            @Param("orderId") Long orderId,
+            @Param("editedBy") String editedBy,
+            @Param("testName") String testName,
+            Limit limit);
+
+    @Query(ROW_SELECT + AUDIT_WHERE
+            + " AND (a.editedAt, a.id) < (:afterEditedAt, :afterId)" + NEWEST_FIRST)
+    List<ResultEditAuditRow> findPageAfter(@Param("editedFrom") LocalDateTime editedFrom,
+            @Param("editedBefore") LocalDateTime editedBefore,
+            @Param("orderId") Long orderId,
+            @Param("editedBy") String editedBy,
+            @Param("testName") String testName,
+            @Param("afterEditedAt") LocalDateTime afterEditedAt,
+            @Param("afterId") Long afterId,
+            Limit limit);
 }
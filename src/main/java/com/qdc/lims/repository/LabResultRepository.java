@@ -2,9 +2,20 @@ package com.qdc.lims.repository;
 
 import com.qdc.lims.entity.LabResult;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 /**
  * Repository interface for LabResult entities, providing CRUD operations for lab test results.
  */
 public interface LabResultRepository extends JpaRepository<LabResult, Long> {
+
+    /**
+     * Loads every result row of an order, with its test definition, in one
+     * query.
+     */
+    @Query("SELECT r FROM LabResult r JOIN FETCH r.testDefinition WHERE r.labOrder.id = :orderId ORDER BY r.id")
+    List<LabResult> findAllByOrderIdWithTest(@Param("orderId") Long orderId);
 }
@@ -0,0 +1,68 @@
+package com.qdc.lims.repository;
+
+import com.qdc.lims.dto.LabOrderSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Archive tier fragment for {@link LabOrderRepository}. Moves orders between
+ * the hot tables and the {@code archive} schema and reads archived orders as
+ * summaries.
+ */
+public interface OrderArchiveRepository {
+
+    /**
+     * Moves up to {@code limit} delivered orders whose report was handed over
+     * (and last reprinted) before {@code deliveredBefore}, with their results,
+     * panels, result edit audits and commissions, into the archive. Orders with
+     * a balance due, a pending reprint or an unpaid commission stay hot. Rows
+     * locked by another transaction are skipped.
+     *
+     * @param deliveredBefore delivery cutoff
+     * @param limit           maximum number of orders to move
+     * @return number of orders moved
+     */
+    int archiveDelivered(LocalDateTime deliveredBefore, int limit);
+
+    /**
+     * Points the order tables at the {@code archive} schema for the rest of
+     * the current transaction, so JPA queries read archived orders; master
+     * data tables exist only in {@code public} and still resolve there. Use
+     * in a dedicated read-only transaction.
+     */
+    void readArchiveTier();
+
+    /**
+     * Moves an archived order and its rows back to the hot tables.
+     *
+     * @param orderId order id
+     * @return {@code true} if the order was archived and has been moved back
+     */
+    boolean restore(Long orderId);
+
+    /**
+     * Names the current content of the archive: the database's archive id and
+     * a revision bumped by every move in or out.
+     *
+     * @return archive version, e.g. {@code 5f0c...-42}
+     */
+    String archiveVersion();
+
+    /**
+     * Archived order summaries booked within a date range.
+     *
+     * @param start the start of the order date range
+     * @param end   the end of the order date range
+     * @return archived summaries in the range, oldest first
+     */
+    List<LabOrderSummary> findArchivedSummariesByOrderDateBetween(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Archived order summaries of one patient.
+     *
+     * @param patientId patient id
+     * @return archived summaries, newest first
+     */
+    List<LabOrderSummary> findArchivedSummariesByPatientId(Long patientId);
+}
@@ -0,0 +1,183 @@
+package com.qdc.lims.repository;
+
+import com.qdc.lims.dto.LabOrderSummary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * PostgreSQL implementation of {@link OrderArchiveRepository}. Runs on the
+ * connection of the surrounding JPA transaction.
+ */
+class OrderArchiveRepositoryImpl implements OrderArchiveRepository {
+
+    // Taken before moving rows so movers on different workstations run one at a time.
+    private static final String LOCK_REVISION_SQL = "SELECT revision FROM order_archive_revision WHERE id = 1 FOR UPDATE";
+
+    private static final String BUMP_REVISION_SQL = "UPDATE order_archive_revision SET revision = revision + 1 WHERE id = 1";
+
+    /*
+     * One statement per batch: the picked orders and every row hanging off them
+     * are deleted from the hot tables and inserted into the archive tables of
+     * the same shape. Foreign keys are checked at the end of the statement,
+     * when children and orders are gone together.
+     */
+    private static final String ARCHIVE_SQL = """
+            WITH picked AS (
+                SELECT o.id
+                FROM lab_order o
+                WHERE o.is_report_delivered
+                  AND o.delivery_date < ?
+                  AND NOT o.reprint_required
+                  AND (o.last_reprint_at IS NULL OR o.last_reprint_at < ?)
+                  AND COALESCE(o.balance_due, 0) <= 0
+                  AND NOT EXISTS (SELECT 1 FROM commission_ledger c
+                                  WHERE c.order_id = o.id AND c.status IS DISTINCT FROM 'PAID')
+                ORDER BY o.delivery_date
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ),
+            audits AS (
+                DELETE FROM lab_result_edit_audit a USING picked WHERE a.order_id = picked.id RETURNING a.*
+            ),
+            panels AS (
+                DELETE FROM lab_order_panel op USING picked WHERE op.lab_order_id = picked.id RETURNING op.*
+            ),
+            commissions AS (
+                DELETE FROM commission_ledger c USING picked WHERE c.order_id = picked.id RETURNING c.*
+            ),
+            results AS (
+                DELETE FROM lab_result r USING picked WHERE r.order_id = picked.id RETURNING r.*
+            ),
+            orders AS (
+                DELETE FROM lab_order o USING picked WHERE o.id = picked.id RETURNING o.*
+            ),
+            archived_audits AS (INSERT INTO archive.lab_result_edit_audit SELECT * FROM audits),
+            archived_panels AS (INSERT INTO archive.lab_order_panel SELECT * FROM panels),
+            archived_commissions AS (INSERT INTO archive.commission_ledger SELECT * FROM commissions),
+            archived_results AS (INSERT INTO archive.lab_result SELECT * FROM results),
+            archived_orders AS (INSERT INTO archive.lab_order SELECT * FROM orders RETURNING id)
+            SELECT COUNT(*) FROM archived_orders
+            """;
+
+    private static final String RESTORE_SQL = """
+            WITH orders AS (
+                DELETE FROM archive.lab_order WHERE id = ? RETURNING *
+            ),
+            results AS (
+                DELETE FROM archive.lab_result r USING orders WHERE r.order_id = orders.id RETURNING r.*
+            ),
+            commissions AS (
+                DELETE FROM archive.commission_ledger c USING orders WHERE c.order_id = orders.id RETURNING c.*
+            ),
+            panels AS (
+                DELETE FROM archive.lab_order_panel op USING orders WHERE op.lab_order_id = orders.id RETURNING op.*
+            ),
+            audits AS (
+                DELETE FROM archive.lab_result_edit_audit a USING orders WHERE a.order_id = orders.id RETURNING a.*
+            ),
+            restored_results AS (INSERT INTO lab_result SELECT * FROM results),
+            restored_commissions AS (INSERT INTO commission_ledger SELECT * FROM commissions),
+            restored_panels AS (INSERT INTO lab_order_panel SELECT * FROM panels),
+            restored_audits AS (INSERT INTO lab_result_edit_audit SELECT * FROM audits),
+            restored_orders AS (INSERT INTO lab_order SELECT * FROM orders RETURNING id)
+            SELECT COUNT(*) FROM restored_orders
+            """;
+
+    // Mirrors LabOrderRepository.SUMMARY_SELECT over the archive tables.
+    private static final String SUMMARY_SELECT = """
+            SELECT o.id, o.order_date, o.status,
+                   p.mrn, p.full_name, p.age, p.gender, p.mobile_number,
+                   d.name,
+                   (SELECT COUNT(*) FROM archive.lab_result r WHERE r.order_id = o.id) AS test_count,
+                   o.total_amount, o.discount_amount, o.paid_amount, o.balance_due,
+                   o.is_report_delivered, o.delivery_date, o.reprint_required,
+                   o.lab_started_at IS NOT NULL OR EXISTS (
+                       SELECT 1 FROM archive.lab_result r WHERE r.order_id = o.id
+                         AND (TRIM(COALESCE(r.result_value, '')) <> ''
+                              OR TRIM(COALESCE(r.performed_by, '')) <> ''
+                              OR r.performed_at IS NOT NULL)) AS lab_work_started
+            FROM archive.lab_order o
+            JOIN patients p ON p.id = o.patient_id
+            LEFT JOIN doctors d ON d.id = o.doctor_id
+            """;
+
+    private static final RowMapper<LabOrderSummary> SUMMARY_MAPPER = (rs, rowNum) -> new LabOrderSummary(
+            rs.getLong("id"),
+            toLocalDateTime(rs.getTimestamp("order_date")),
+            rs.getString("status"),
+            rs.getString("mrn"),
+            rs.getString("full_name"),
+            rs.getObject("age", Integer.class),
+            rs.getString("gender"),
+            rs.getString("mobile_number"),
+            rs.getString("name"),
+            rs.getLong("test_count"),
+            rs.getBigDecimal("total_amount"),
+            rs.getBigDecimal("discount_amount"),
+            rs.getBigDecimal("paid_amount"),
+            rs.getBigDecimal("balance_due"),
+            rs.getBoolean("is_report_delivered"),
+            toLocalDateTime(rs.getTimestamp("delivery_date")),
+            rs.getBoolean("reprint_required"),
+            rs.getBoolean("lab_work_started"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    OrderArchiveRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int archiveDelivered(LocalDateTime deliveredBefore, int limit) {
+        jdbcTemplate.queryForObject(LOCK_REVISION_SQL, Long.class);
+        Timestamp cutoff = Timestamp.valueOf(deliveredBefore);
+        Long moved = jdbcTemplate.queryForObject(ARCHIVE_SQL, Long.class, cutoff, cutoff, limit);
+        return bumpIfMoved(moved);
+    }
+
+    @Override
+    public void readArchiveTier() {
+        jdbcTemplate.execute("SET LOCAL search_path TO archive, public");
+    }
+
+    @Override
+    public boolean restore(Long orderId) {
+        jdbcTemplate.queryForObject(LOCK_REVISION_SQL, Long.class);
+        Long moved = jdbcTemplate.queryForObject(RESTORE_SQL, Long.class, orderId);
+        return bumpIfMoved(moved) > 0;
+    }
+
+    @Override
+    public String archiveVersion() {
+        return jdbcTemplate.queryForObject(
+                "SELECT archive_id || '-' || revision FROM order_archive_revision WHERE id = 1", String.class);
+    }
+
+    @Override
+    public List<LabOrderSummary> findArchivedSummariesByOrderDateBetween(LocalDateTime start, LocalDateTime end) {
+        return jdbcTemplate.query(SUMMARY_SELECT + "WHERE o.order_date BETWEEN ? AND ? ORDER BY o.id",
+                SUMMARY_MAPPER, Timestamp.valueOf(start), Timestamp.valueOf(end));
+    }
+
+    @Override
+    public List<LabOrderSummary> findArchivedSummariesByPatientId(Long patientId) {
+        return jdbcTemplate.query(SUMMARY_SELECT + "WHERE o.patient_id = ? ORDER BY o.id DESC",
+                SUMMARY_MAPPER, patientId);
+    }
+
+    private int bumpIfMoved(Long moved) {
+        int orders = moved != null ? moved.intValue() : 0;
+        if (orders > 0) {
+            jdbcTemplate.update(BUMP_REVISION_SQL);
+        }
+        return orders;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -1,8 +1,12 @@
 package com.qdc.lims.repository;
 
+import com.qdc.lims.config.MasterDataCacheConfig;
 import com.qdc.lims.entity.Panel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
@@ -18,9 +22,30 @@ public interface PanelRepository extends JpaRepository<Panel, Integer> {
      *
      * @return active panels with their tests preloaded
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = MasterDataCacheConfig.QUERY_REGION) })
     @Query("SELECT DISTINCT p FROM Panel p LEFT JOIN FETCH p.tests WHERE p.active = true")
     List<Panel> findAllWithTests();
 
+    /**
+     * Loads the given panels with their tests.
+     *
+     * @param ids panel ids
+     * @return panels with their tests preloaded
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = MasterDataCacheConfig.QUERY_REGION) })
     @Query("SELECT DISTINCT p FROM Panel p LEFT JOIN FETCH p.tests WHERE p.id IN :ids")
     List<Panel> findAllWithTestsById(@Param("ids") List<Integer> ids);
+
+    /**
+     * Panels billed on an order, with their tests, for receipts.
+     *
+     * @param orderId lab order id
+     * @return panels on the order
+     */
+    @Query("SELECT DISTINCT p FROM LabOrder o JOIN o.panels p LEFT JOIN FETCH p.tests WHERE o.id = :orderId")
+    List<Panel> findAllWithTestsByOrderId(@Param("orderId") Long orderId);
 }
@@ -3,6 +3,7 @@ package com.qdc.lims.repository;
 import com.qdc.lims.entity.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -37,15 +38,34 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     boolean existsByCnic(String cnic);
 
     /**
-     * Searches patients by name, mobile number, or MRN using a case-insensitive
-     * contains match.
+     * Finds patients whose MRN or mobile number is exactly the given value.
      *
-     * @param query free-text search input
-     * @return matching patients
+     * @param identifier MRN (any case) or mobile number
+     * @param limit      maximum number of patients to return
+     * @return matching patients, newest first
      */
-    @Query("SELECT p FROM Patient p WHERE " +
-            "LOWER(p.fullName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-            "p.mobileNumber LIKE CONCAT('%', :query, '%') OR " +
-            "LOWER(p.mrn) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<Patient> searchPatients(String query);
+    @Query(value = """
+            SELECT * FROM patients
+            WHERE mrn = UPPER(:identifier) OR mobile_number = :identifier
+            ORDER BY id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Patient> findByExactIdentifier(@Param("identifier") String identifier, @Param("limit") int limit);
+
+    /**
+     * Finds patients whose lower-cased name or MRN, or whose mobile number,
+     * matches a {@code LIKE} pattern. Served by the trigram indexes on those
+     * columns.
+     *
+     * @param pattern lower-case {@code LIKE} pattern
+     * @param limit   maximum number of patients to return
+     * @return matching patients, newest first
+     */
+    @Query(value = """
+            SELECT * FROM patients
+            WHERE LOWER(full_name) LIKE :pattern OR LOWER(mrn) LIKE :pattern OR mobile_number LIKE :pattern
+            ORDER BY id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Patient> searchByPattern(@Param("pattern") String pattern, @Param("limit") int limit);
 }
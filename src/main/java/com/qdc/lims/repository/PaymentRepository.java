@@ -2,7 +2,10 @@ package com.qdc.lims.repository;
 
 import com.qdc.lims.entity.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -45,4 +48,37 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
      * @return matching payments
      */
     List<Payment> findByTypeAndTransactionDateBetween(String type, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Sums positive payment amounts of one type within {@code [from, to)}.
+     *
+     * @param type payment type (for example, INCOME or EXPENSE)
+     * @param from inclusive start
+     * @param to   exclusive end
+     * @return total amount, zero when there are no payments
+     */
+    @Query("""
+            SELECT COALESCE(SUM(p.amount), 0) FROM Payment p
+            WHERE p.type = :type AND p.amount > 0
+              AND p.transactionDate >= :from AND p.transactionDate < :to
+            """)
+    BigDecimal sumAmountByTypeInRange(@Param("type") String type,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    /**
+     * Counts payments of one type within {@code [from, to)}.
+     *
+     * @param type payment type
+     * @param from inclusive start
+     * @param to   exclusive end
+     * @return number of payments
+     */
+    @Query("""
+            SELECT COUNT(p) FROM Payment p
+            WHERE p.type = :type AND p.transactionDate >= :from AND p.transactionDate < :to
+            """)
+    long countByTypeInRange(@Param("type") String type,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
 }
@@ -1,7 +1,11 @@
 package com.qdc.lims.repository;
 
+import com.qdc.lims.dto.ReferenceRangeRow;
 import com.qdc.lims.entity.ReferenceRange;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 /**
  * Repository interface for ReferenceRange entities, providing CRUD operations
@@ -11,5 +15,16 @@ public interface ReferenceRangeRepository extends JpaRepository<ReferenceRange,
     /**
      * Find reference ranges by TestDefinition ID.
      */
-    java.util.List<ReferenceRange> findByTestId(Long testId);
+    List<ReferenceRange> findByTestId(Long testId);
+
+    /**
+     * Loads every range as a flat row in one query, for the reference range
+     * index.
+     */
+    @Query("""
+            SELECT new com.qdc.lims.dto.ReferenceRangeRow(
+                r.id, r.test.id, r.gender, r.minAge, r.maxAge, r.minVal, r.maxVal)
+            FROM ReferenceRange r
+            """)
+    List<ReferenceRangeRow> findAllRows();
 }
@@ -0,0 +1,39 @@
+package com.qdc.lims.repository;
+
+import com.qdc.lims.entity.StockBalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repository for compacted inventory ledger balances.
+ */
+public interface StockBalanceSnapshotRepository extends JpaRepository<StockBalanceSnapshot, Long> {
+
+    /**
+     * Folds every movement after an item's snapshot and up to the database
+     * time minus {@code lagMinutes} into the snapshot, in one statement. Both
+     * the cutoff and the movement stamps come from the database clock. A
+     * snapshot is never moved backwards, so overlapping runs from several
+     * workstations are harmless.
+     *
+     * @param lagMinutes age a movement must reach before it is folded in
+     * @return number of snapshots written
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO stock_balance_snapshot (item_id, balance, as_of)
+            SELECT m.item_id, COALESCE(s.balance, 0) + SUM(m.quantity), c.cutoff
+            FROM stock_movement m
+            CROSS JOIN (SELECT LOCALTIMESTAMP - make_interval(mins => :lagMinutes) AS cutoff) c
+            LEFT JOIN stock_balance_snapshot s ON s.item_id = m.item_id
+            WHERE (s.as_of IS NULL OR m.occurred_at > s.as_of)
+              AND m.occurred_at <= c.cutoff
+            GROUP BY m.item_id, s.balance, c.cutoff
+            ON CONFLICT (item_id) DO UPDATE
+                SET balance = EXCLUDED.balance, as_of = EXCLUDED.as_of
+                WHERE stock_balance_snapshot.as_of < EXCLUDED.as_of
+            """, nativeQuery = true)
+    int compact(@Param("lagMinutes") int lagMinutes);
+}
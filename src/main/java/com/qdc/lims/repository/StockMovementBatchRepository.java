@@ -0,0 +1,31 @@
+package com.qdc.lims.repository;
+
+import com.qdc.lims.entity.StockMovement;
+
+import java.util.List;
+
+/**
+ * Bulk write fragment for {@link StockMovementRepository}.
+ */
+public interface StockMovementBatchRepository {
+
+    /**
+     * Appends ledger lines as one JDBC batch. The id column is an identity
+     * column, which Hibernate cannot batch, so rows go through plain JDBC and
+     * their ids are not populated. Lines are stamped with the database time,
+     * whatever {@code occurredAt} they carry, so a workstation clock that is
+     * off cannot place them before a balance snapshot.
+     *
+     * @param movements ledger lines with item, type and quantity set
+     */
+    void insertAll(List<StockMovement> movements);
+
+    /**
+     * Records the current stock of every item that has no ledger history yet
+     * as its opening balance. Serialized across workstations so concurrent
+     * startups cannot open the same item twice.
+     *
+     * @return number of items opened
+     */
+    int insertMissingOpenings();
+}
@@ -0,0 +1,62 @@
+package com.qdc.lims.repository;
+
+import com.qdc.lims.entity.StockMovement;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * JDBC batch implementation of {@link StockMovementBatchRepository}.
+ * Runs on the connection of the surrounding JPA transaction. Lines are
+ * stamped with {@code LOCALTIMESTAMP}, the start of that transaction on the
+ * database server.
+ */
+class StockMovementBatchRepositoryImpl implements StockMovementBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO stock_movement (
+                item_id, movement_type, quantity, test_id, order_id,
+                occurred_at, performed_by, reference)
+            VALUES (?, ?, ?, ?, ?, LOCALTIMESTAMP, ?, ?)
+            """;
+
+    private static final String OPENING_LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext('stock_movement_opening'))";
+
+    private static final String INSERT_OPENINGS_SQL = """
+            INSERT INTO stock_movement (item_id, movement_type, quantity, occurred_at, performed_by, reference)
+            SELECT i.id, ?, COALESCE(i.current_stock, 0), LOCALTIMESTAMP, 'SYSTEM', 'Opening balance'
+            FROM inventory_items i
+            WHERE NOT EXISTS (SELECT 1 FROM stock_movement m WHERE m.item_id = i.id)
+              AND NOT EXISTS (SELECT 1 FROM stock_balance_snapshot s WHERE s.item_id = i.id)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    StockMovementBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<StockMovement> movements) {
+        if (movements == null || movements.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, movements, movements.size(), (ps, movement) -> {
+            ps.setLong(1, movement.getItemId());
+            ps.setString(2, movement.getMovementType());
+            ps.setBigDecimal(3, movement.getQuantity());
+            ps.setObject(4, movement.getTestId(), Types.BIGINT);
+            ps.setObject(5, movement.getOrderId(), Types.BIGINT);
+            ps.setString(6, movement.getPerformedBy());
+            ps.setString(7, movement.getReference());
+        });
+    }
+
+    @Override
+    public int insertMissingOpenings() {
+        jdbcTemplate.query(OPENING_LOCK_SQL, rs -> {
+        });
+        return jdbcTemplate.update(INSERT_OPENINGS_SQL, StockMovement.OPENING);
+    }
+}
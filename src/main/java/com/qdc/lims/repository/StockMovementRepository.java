@@ -0,0 +1,54 @@
+package com.qdc.lims.repository;
+
+import com.qdc.lims.dto.StockUsage;
+import com.qdc.lims.entity.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the append-only inventory ledger.
+ */
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long>, StockMovementBatchRepository {
+
+    /**
+     * Net quantity of the given movement types per item and test within
+     * {@code [from, to)}, sign-flipped so consumption reads positive. Uses the
+     * ledger indexes only; orders are never scanned.
+     */
+    @Query("""
+            SELECT new com.qdc.lims.dto.StockUsage(
+                m.itemId, i.itemName, i.unit, m.testId, t.testName, -SUM(m.quantity))
+            FROM StockMovement m
+            LEFT JOIN InventoryItem i ON i.id = m.itemId
+            LEFT JOIN TestDefinition t ON t.id = m.testId
+            WHERE m.movementType IN :types
+              AND m.occurredAt >= :from AND m.occurredAt < :to
+              AND (CAST(:itemId AS Long) IS NULL OR m.itemId = :itemId)
+              AND (CAST(:testId AS Long) IS NULL OR m.testId = :testId)
+            GROUP BY m.itemId, i.itemName, i.unit, m.testId, t.testName
+            ORDER BY i.itemName, t.testName
+            """)
+    List<StockUsage> summarizeUsage(@Param("types") Collection<String> types,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("itemId") Long itemId,
+            @Param("testId") Long testId);
+
+    /**
+     * Sum of an item's movements after {@code after} (all movements when
+     * {@code after} is null).
+     */
+    @Query("""
+            SELECT COALESCE(SUM(m.quantity), 0)
+            FROM StockMovement m
+            WHERE m.itemId = :itemId
+              AND (CAST(:after AS LocalDateTime) IS NULL OR m.occurredAt > :after)
+            """)
+    BigDecimal sumQuantityAfter(@Param("itemId") Long itemId, @Param("after") LocalDateTime after);
+}
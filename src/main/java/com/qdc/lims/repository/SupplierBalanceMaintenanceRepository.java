@@ -0,0 +1,74 @@
+package com.qdc.lims.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Set-based maintenance fragment for {@link SupplierBalanceRepository}.
+ */
+public interface SupplierBalanceMaintenanceRepository {
+
+    /**
+     * Creates the supplier's balance row if missing and locks it until the
+     * transaction ends, serializing ledger writes per supplier.
+     *
+     * @param supplierId supplier
+     * @param asOf       aging date for a new row
+     * @return the supplier's unapplied credit
+     */
+    BigDecimal lockBalance(Long supplierId, LocalDate asOf);
+
+    /**
+     * Adds to the supplier's running totals. Call after
+     * {@link #lockBalance(Long, LocalDate)} in the same transaction.
+     *
+     * @param supplierId    supplier
+     * @param billed        amount billed
+     * @param paid          amount paid
+     * @param creditDelta   change of unapplied credit
+     * @param invoiceNumber invoice to remember as the latest (nullable = keep)
+     * @param dueDate       due date to remember as the latest (nullable = keep)
+     */
+    void addToBalance(Long supplierId, BigDecimal billed, BigDecimal paid, BigDecimal creditDelta,
+            String invoiceNumber, LocalDate dueDate);
+
+    /**
+     * Settles the supplier's open bills with a payment: bills of the given
+     * invoice first, then the oldest due first.
+     *
+     * @param supplierId    supplier
+     * @param amount        payment amount
+     * @param invoiceNumber invoice the payment was made for (nullable)
+     * @return part of the payment that settled bills
+     */
+    BigDecimal allocatePayment(Long supplierId, BigDecimal amount, String invoiceNumber);
+
+    /**
+     * Re-buckets open bill balances by days past due.
+     *
+     * @param supplierId supplier to refresh (nullable = every supplier)
+     * @param asOf       day to age against
+     * @return number of balance rows refreshed
+     */
+    int refreshAging(Long supplierId, LocalDate asOf);
+
+    /**
+     * @param asOf current day
+     * @return {@code true} when some balance was aged before {@code asOf}
+     */
+    boolean isAgingStale(LocalDate asOf);
+
+    /**
+     * Recomputes every bill's open balance (payments settle the oldest due
+     * bills first) and every supplier's balance row from the full ledger.
+     *
+     * @param asOf day to age against
+     * @return number of balance rows written
+     */
+    int rebuild(LocalDate asOf);
+
+    /**
+     * @return {@code true} when ledger rows exist but no balances do yet
+     */
+    boolean needsRebuild();
+}
@@ -0,0 +1,169 @@
+package com.qdc.lims.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * PostgreSQL implementation of {@link SupplierBalanceMaintenanceRepository}.
+ * Runs on the connection of the surrounding JPA transaction, so ledger rows
+ * must be flushed before calling it.
+ */
+class SupplierBalanceMaintenanceRepositoryImpl implements SupplierBalanceMaintenanceRepository {
+
+    /** Day a bill ages from. */
+    private static final String AGING_DATE = "COALESCE(l.due_date, l.invoice_date, l.transaction_date)";
+
+    private static final String ENSURE_SQL = """
+            INSERT INTO supplier_balance (supplier_id, total_billed, total_paid, unapplied_credit,
+                                          due_0_30, due_31_60, due_61_90, due_over_90, aged_as_of)
+            VALUES (?, 0, 0, 0, 0, 0, 0, 0, ?)
+            ON CONFLICT (supplier_id) DO NOTHING
+            """;
+
+    private static final String LOCK_SQL = """
+            SELECT unapplied_credit FROM supplier_balance WHERE supplier_id = ? FOR UPDATE
+            """;
+
+    private static final String ADD_SQL = """
+            UPDATE supplier_balance
+            SET total_billed = total_billed + ?, total_paid = total_paid + ?,
+                unapplied_credit = unapplied_credit + ?,
+                last_invoice_number = COALESCE(CAST(? AS varchar), last_invoice_number),
+                last_due_date = COALESCE(CAST(? AS date), last_due_date)
+            WHERE supplier_id = ?
+            """;
+
+    // Running open balance in settlement order; bills wholly covered drop to 0, the next one partly.
+    private static final String ALLOCATE_SQL = """
+            WITH open AS (
+                SELECT l.id, l.balance_due,
+                       SUM(l.balance_due) OVER (
+                           ORDER BY COALESCE(l.invoice_number = CAST(? AS varchar), false) DESC,
+                                    %1$s, l.id) AS running
+                FROM supplier_ledger l
+                WHERE l.supplier_id = ? AND l.balance_due > 0
+            ),
+            applied AS (
+                UPDATE supplier_ledger l
+                SET balance_due = LEAST(o.balance_due, GREATEST(o.running - ?, 0))
+                FROM open o
+                WHERE l.id = o.id AND o.running - o.balance_due < ?
+                RETURNING o.balance_due - l.balance_due AS settled
+            )
+            SELECT COALESCE(SUM(settled), 0) FROM applied
+            """.formatted(AGING_DATE);
+
+    private static final String AGING_SQL = """
+            UPDATE supplier_balance b
+            SET due_0_30 = a.d0, due_31_60 = a.d31, due_61_90 = a.d61, due_over_90 = a.d91,
+                aged_as_of = CAST(? AS date)
+            FROM (
+                SELECT s.supplier_id,
+                       COALESCE(SUM(l.balance_due) FILTER (WHERE CAST(? AS date) - %1$s <= 30), 0) AS d0,
+                       COALESCE(SUM(l.balance_due) FILTER (WHERE CAST(? AS date) - %1$s BETWEEN 31 AND 60), 0) AS d31,
+                       COALESCE(SUM(l.balance_due) FILTER (WHERE CAST(? AS date) - %1$s BETWEEN 61 AND 90), 0) AS d61,
+                       COALESCE(SUM(l.balance_due) FILTER (WHERE CAST(? AS date) - %1$s > 90), 0) AS d91
+                FROM supplier_balance s
+                LEFT JOIN supplier_ledger l ON l.supplier_id = s.supplier_id AND l.balance_due > 0
+                WHERE CAST(? AS bigint) IS NULL OR s.supplier_id = ?
+                GROUP BY s.supplier_id
+            ) a
+            WHERE b.supplier_id = a.supplier_id
+            """.formatted(AGING_DATE);
+
+    // Total payments settle each supplier's bills oldest due first.
+    private static final String REBUILD_BILLS_SQL = """
+            UPDATE supplier_ledger t
+            SET balance_due = r.due
+            FROM (
+                SELECT l.id,
+                       CASE WHEN COALESCE(l.bill_amount, 0) > 0
+                            THEN LEAST(l.bill_amount,
+                                       GREATEST(SUM(GREATEST(COALESCE(l.bill_amount, 0), 0)) OVER settle
+                                                - SUM(COALESCE(l.paid_amount, 0)) OVER (PARTITION BY l.supplier_id), 0))
+                            ELSE 0 END AS due
+                FROM supplier_ledger l
+                WINDOW settle AS (PARTITION BY l.supplier_id ORDER BY %1$s, l.id)
+            ) r
+            WHERE t.id = r.id AND t.balance_due IS DISTINCT FROM r.due
+            """.formatted(AGING_DATE);
+
+    private static final String REBUILD_BALANCES_SQL = """
+            INSERT INTO supplier_balance (supplier_id, total_billed, total_paid, unapplied_credit,
+                                          due_0_30, due_31_60, due_61_90, due_over_90,
+                                          last_invoice_number, last_due_date, aged_as_of)
+            SELECT l.supplier_id,
+                   SUM(COALESCE(l.bill_amount, 0)),
+                   SUM(COALESCE(l.paid_amount, 0)),
+                   GREATEST(SUM(COALESCE(l.paid_amount, 0)) - SUM(GREATEST(COALESCE(l.bill_amount, 0), 0)), 0),
+                   0, 0, 0, 0,
+                   (ARRAY_AGG(l.invoice_number ORDER BY COALESCE(l.invoice_date, l.transaction_date) DESC, l.id DESC)
+                        FILTER (WHERE l.invoice_number IS NOT NULL AND l.bill_amount > 0))[1],
+                   (ARRAY_AGG(l.due_date ORDER BY COALESCE(l.invoice_date, l.transaction_date) DESC, l.id DESC)
+                        FILTER (WHERE l.due_date IS NOT NULL))[1],
+                   CAST(? AS date)
+            FROM supplier_ledger l
+            GROUP BY l.supplier_id
+            ON CONFLICT (supplier_id) DO UPDATE
+                SET total_billed = EXCLUDED.total_billed, total_paid = EXCLUDED.total_paid,
+                    unapplied_credit = EXCLUDED.unapplied_credit,
+                    last_invoice_number = EXCLUDED.last_invoice_number,
+                    last_due_date = EXCLUDED.last_due_date
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    SupplierBalanceMaintenanceRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public BigDecimal lockBalance(Long supplierId, LocalDate asOf) {
+        jdbcTemplate.update(ENSURE_SQL, supplierId, Date.valueOf(asOf));
+        return jdbcTemplate.queryForObject(LOCK_SQL, BigDecimal.class, supplierId);
+    }
+
+    @Override
+    public void addToBalance(Long supplierId, BigDecimal billed, BigDecimal paid, BigDecimal creditDelta,
+            String invoiceNumber, LocalDate dueDate) {
+        jdbcTemplate.update(ADD_SQL, billed, paid, creditDelta, invoiceNumber,
+                dueDate != null ? Date.valueOf(dueDate) : null, supplierId);
+    }
+
+    @Override
+    public BigDecimal allocatePayment(Long supplierId, BigDecimal amount, String invoiceNumber) {
+        return jdbcTemplate.queryForObject(ALLOCATE_SQL, BigDecimal.class, invoiceNumber, supplierId, amount, amount);
+    }
+
+    @Override
+    public int refreshAging(Long supplierId, LocalDate asOf) {
+        Date day = Date.valueOf(asOf);
+        return jdbcTemplate.update(AGING_SQL, day, day, day, day, day, supplierId, supplierId);
+    }
+
+    @Override
+    public boolean isAgingStale(LocalDate asOf) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM supplier_balance WHERE aged_as_of < ?)", Boolean.class,
+                Date.valueOf(asOf)));
+    }
+
+    @Override
+    public int rebuild(LocalDate asOf) {
+        jdbcTemplate.update(REBUILD_BILLS_SQL);
+        int balances = jdbcTemplate.update(REBUILD_BALANCES_SQL, Date.valueOf(asOf));
+        refreshAging(null, asOf);
+        return balances;
+    }
+
+    @Override
+    public boolean needsRebuild() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM supplier_ledger)
+                   AND NOT EXISTS (SELECT 1 FROM supplier_balance)
+                """, Boolean.class));
+    }
+}
@@ -0,0 +1,39 @@
+package com.qdc.lims.repository;
+
+import com.qdc.lims.dto.SupplierBalanceRow;
+import com.qdc.lims.entity.SupplierBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for supplier balance snapshots. Maintenance statements live in
+ * {@link SupplierBalanceMaintenanceRepository}.
+ */
+public interface SupplierBalanceRepository
+        extends JpaRepository<SupplierBalance, Long>, SupplierBalanceMaintenanceRepository {
+
+    String ROW = """
+            SELECT new com.qdc.lims.dto.SupplierBalanceRow(
+                b.supplierId, s.companyName, b.totalBilled, b.totalPaid,
+                b.dueCurrent, b.due31To60, b.due61To90, b.dueOver90, b.unappliedCredit,
+                b.lastInvoiceNumber, b.lastDueDate)
+            FROM SupplierBalance b JOIN Supplier s ON s.id = b.supplierId
+            """;
+
+    /**
+     * @return one account summary per supplier with ledger activity, by name
+     */
+    @Query(ROW + " ORDER BY s.companyName")
+    List<SupplierBalanceRow> findRows();
+
+    /**
+     * @param supplierId supplier
+     * @return the supplier's account summary, if it has ledger activity
+     */
+    @Query(ROW + " WHERE b.supplierId = :supplierId")
+    Optional<SupplierBalanceRow> findRow(@Param("supplierId") Long supplierId);
+}
@@ -1,7 +1,11 @@
 package com.qdc.lims.repository;
 
+import com.qdc.lims.config.MasterDataCacheConfig;
 import com.qdc.lims.entity.TestCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.qdc.lims.entity.Department;
@@ -14,6 +18,17 @@ import java.util.List;
 @Repository
 public interface TestCategoryRepository extends JpaRepository<TestCategory, Long> {
 
+    /**
+     * All categories, served from the master data cache after the first call.
+     *
+     * @return all categories
+     */
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = MasterDataCacheConfig.QUERY_REGION) })
+    List<TestCategory> findAll();
+
     /**
      * Finds a category by its unique name.
      *
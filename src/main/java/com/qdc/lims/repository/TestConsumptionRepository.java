@@ -4,6 +4,10 @@ import com.qdc.lims.entity.TestConsumption;
 import com.qdc.lims.entity.InventoryItem;
 import com.qdc.lims.entity.TestDefinition;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,5 +25,15 @@ public interface TestConsumptionRepository extends JpaRepository<TestConsumption
 
     List<TestConsumption> findByTestId(Long testId);
 
+    /**
+     * Loads the recipes of several tests, with their inventory items, in one
+     * query.
+     *
+     * @param testIds test definition ids
+     * @return recipe rows for all given tests
+     */
+    @Query("SELECT c FROM TestConsumption c JOIN FETCH c.item WHERE c.test.id IN :testIds")
+    List<TestConsumption> findAllWithItemByTestIdIn(@Param("testIds") Collection<Long> testIds);
+
     Optional<TestConsumption> findByTestAndItem(TestDefinition test, InventoryItem item);
 }
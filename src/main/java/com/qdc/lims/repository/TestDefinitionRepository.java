@@ -1,7 +1,11 @@
 package com.qdc.lims.repository;
 
+import com.qdc.lims.config.MasterDataCacheConfig;
 import com.qdc.lims.entity.TestDefinition;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.List;
 
 /**
@@ -9,6 +13,32 @@ import java.util.List;
  * and custom queries.
  */
 public interface TestDefinitionRepository extends JpaRepository<TestDefinition, Long> {
+
+    /**
+     * All test definitions, served from the master data cache after the first
+     * call.
+     *
+     * @return all tests
+     */
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = MasterDataCacheConfig.QUERY_REGION) })
+    List<TestDefinition> findAll();
+
+    /**
+     * Test definitions by id, served from the master data cache after the
+     * first call with the same ids.
+     *
+     * @param ids test ids
+     * @return matching tests
+     */
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = MasterDataCacheConfig.QUERY_REGION) })
+    List<TestDefinition> findAllById(Iterable<Long> ids);
+
     /**
      * Finds a test definition by its short code.
      *
@@ -29,6 +59,9 @@ public interface TestDefinitionRepository extends JpaRepository<TestDefinition,
      * 
      * @return list of active tests
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = MasterDataCacheConfig.QUERY_REGION) })
     List<TestDefinition> findByActiveTrue();
 
     /**
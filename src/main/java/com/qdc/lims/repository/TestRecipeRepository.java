@@ -1,6 +1,7 @@
 package com.qdc.lims.repository;
 
 import com.qdc.lims.entity.TestRecipe;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -13,6 +14,10 @@ import java.util.List;
 @Repository
 public interface TestRecipeRepository extends JpaRepository<TestRecipe, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = { "test", "inventoryItem" })
+    List<TestRecipe> findAll();
+
     /**
      * Finds all recipe items for a given test id.
      *
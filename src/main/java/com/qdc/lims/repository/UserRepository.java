@@ -1,11 +1,15 @@
 package com.qdc.lims.repository;
 
 import com.qdc.lims.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for User entities, providing authentication-related queries.
+ * Roles are lazy on the entity; every read here fetches them because the
+ * session and permission checks run outside a transaction.
  */
 public interface UserRepository extends JpaRepository<User, Long> {
     /**
@@ -14,5 +18,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @param username the username to search for
      * @return an Optional containing the User if found
      */
+    @EntityGraph(attributePaths = { "roles" })
     Optional<User> findByUsername(String username);
+
+    @Override
+    @EntityGraph(attributePaths = { "roles" })
+    Optional<User> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = { "roles" })
+    List<User> findAll();
 }
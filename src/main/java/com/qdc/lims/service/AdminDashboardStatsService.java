@@ -1,13 +1,13 @@
 package com.qdc.lims.service;
 
-import com.qdc.lims.entity.LabOrder;
-import com.qdc.lims.entity.Payment;
+import com.qdc.lims.dto.OrderTotals;
 import com.qdc.lims.repository.DoctorRepository;
 import com.qdc.lims.repository.LabOrderRepository;
 import com.qdc.lims.repository.PaymentRepository;
 import com.qdc.lims.repository.TestDefinitionRepository;
 import com.qdc.lims.repository.UserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -16,10 +16,18 @@ import java.util.List;
 
 /**
  * Service for admin dashboard statistics.
+ *
+ * <p>
+ * Every figure is a scalar computed by an aggregate query, so loading the
+ * dashboard costs a fixed number of small queries however many orders and
+ * payments the day holds.
+ * </p>
  */
 @Service
 public class AdminDashboardStatsService {
 
+    private static final List<String> OPEN_STATUSES = List.of("PENDING", "IN_PROGRESS");
+
     private final UserRepository userRepository;
     private final DoctorRepository doctorRepository;
     private final TestDefinitionRepository testDefinitionRepository;
@@ -53,27 +61,65 @@ public class AdminDashboardStatsService {
         return userRepository.count();
     }
 
-    public String getTodayRevenueLabel() {
-        LocalDate today = LocalDate.now();
-        LocalDateTime start = today.atStartOfDay();
-        LocalDateTime end = today.atTime(23, 59, 59);
+    /**
+     * @return today's collections from lab orders plus miscellaneous income
+     */
+    public BigDecimal getTodayRevenue() {
+        LocalDateTime start = LocalDate.now().atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        BigDecimal orderIncome = labOrderRepository.sumTotalsInRange(start, end).collected();
+        BigDecimal miscIncome = paymentRepository.sumAmountByTypeInRange("INCOME", start, end);
+        return orderIncome.add(miscIncome);
+    }
 
-        BigDecimal orderIncome = BigDecimal.ZERO;
-        List<LabOrder> orders = labOrderRepository.findByOrderDateBetween(start, end);
-        for (LabOrder order : orders) {
-            if (order.getPaidAmount() != null && order.getPaidAmount().compareTo(BigDecimal.ZERO) > 0) {
-                orderIncome = orderIncome.add(order.getPaidAmount());
-            }
-        }
+    public String getTodayRevenueLabel() {
+        return localeFormatService.formatCurrency(getTodayRevenue());
+    }
 
-        BigDecimal miscIncome = BigDecimal.ZERO;
-        List<Payment> incomePayments = paymentRepository.findByTypeAndTransactionDateBetween("INCOME", start, end);
-        for (Payment payment : incomePayments) {
-            if (payment.getAmount() != null && payment.getAmount().compareTo(BigDecimal.ZERO) > 0) {
-                miscIncome = miscIncome.add(payment.getAmount());
-            }
-        }
+    /**
+     * Loads every KPI tile of the admin dashboard in one read-only
+     * transaction.
+     *
+     * @return current figures
+     */
+    @Transactional(readOnly = true)
+    public Kpis getKpis() {
+        LocalDateTime start = LocalDate.now().atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        OrderTotals today = labOrderRepository.sumTotalsInRange(start, end);
+        BigDecimal miscIncome = paymentRepository.sumAmountByTypeInRange("INCOME", start, end);
+        BigDecimal expenses = paymentRepository.sumAmountByTypeInRange("EXPENSE", start, end);
+        return new Kpis(
+                today.collected().add(miscIncome),
+                expenses,
+                today.orderCount(),
+                today.outstanding(),
+                labOrderRepository.countByStatusIn(OPEN_STATUSES),
+                getActiveDoctorsCount(),
+                getTotalTestsCount(),
+                getTotalUsersCount());
+    }
 
-        return localeFormatService.formatCurrency(orderIncome.add(miscIncome));
+    /**
+     * Figures shown on the admin dashboard tiles.
+     *
+     * @param todayRevenue     collections from today's orders plus other income
+     * @param todayExpenses    expenses recorded today
+     * @param todayOrders      orders booked today
+     * @param todayOutstanding balance still due on today's orders
+     * @param openOrders       orders not yet completed, any date
+     * @param activeDoctors    active referring doctors
+     * @param tests            configured test definitions
+     * @param users            system users
+     */
+    public record Kpis(
+            BigDecimal todayRevenue,
+            BigDecimal todayExpenses,
+            long todayOrders,
+            BigDecimal todayOutstanding,
+            long openOrders,
+            long activeDoctors,
+            long tests,
+            long users) {
     }
 }
@@ -0,0 +1,253 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.entity.CommissionRule;
+import com.qdc.lims.entity.Doctor;
+import com.qdc.lims.entity.Panel;
+import com.qdc.lims.entity.TestDefinition;
+import com.qdc.lims.repository.CommissionRuleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes referring-doctor commissions from {@link CommissionRule}s.
+ *
+ * <p>
+ * An order's billed lines are its priced panels plus its priced tests that no
+ * priced panel covers. Each line earns the rate of the most specific rule for
+ * the doctor (see {@link CommissionRule}), else the doctor's own rate. The
+ * commission is the price-weighted average of those rates applied to the
+ * order total, or to the total net of discount when
+ * {@code qdc.commission.deduct-discount} is set. At booking the doctor's
+ * rules are read once and indexed, so the cost is linear in the tests. When
+ * rules, rates or prices change, {@link #recompute(LocalDate, LocalDate)}
+ * reapplies them to a booking date range in a single SQL statement that uses
+ * the same definition. The commission screen, doctor editor and test editor
+ * call {@link #recomputeOpen()} after such saves.
+ * </p>
+ */
+@Service
+public class CommissionCalculationService {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final CommissionRuleRepository ruleRepository;
+    private final boolean deductDiscount;
+
+    public CommissionCalculationService(CommissionRuleRepository ruleRepository,
+            @Value("${qdc.commission.deduct-discount:false}") boolean deductDiscount) {
+        this.ruleRepository = ruleRepository;
+        this.deductDiscount = deductDiscount;
+    }
+
+    /**
+     * Builds the billed lines of an order.
+     *
+     * @param panels panels on the order
+     * @param tests  all tests on the order, including those from panels
+     * @return one line per priced panel and per priced test billed on its own
+     */
+    public List<Line> billedLines(Collection<Panel> panels, Collection<TestDefinition> tests) {
+        List<Line> lines = new ArrayList<>();
+        Set<Long> coveredTestIds = new HashSet<>();
+        for (Panel panel : panels) {
+            if (panel.getPrice() == null) {
+                continue;
+            }
+            lines.add(new Line(null, panel.getDepartment() != null ? panel.getDepartment().getId() : null,
+                    panel.getPrice()));
+            if (panel.getTests() != null) {
+                panel.getTests().forEach(test -> coveredTestIds.add(test.getId()));
+            }
+        }
+        for (TestDefinition test : tests) {
+            if (test.getPrice() != null && !coveredTestIds.contains(test.getId())) {
+                lines.add(new Line(test.getId(), test.getDepartment() != null ? test.getDepartment().getId() : null,
+                        test.getPrice()));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Computes the commission a doctor earns on an order.
+     *
+     * @param doctor   referring doctor
+     * @param lines    billed lines of the order
+     * @param total    order total
+     * @param discount order discount (nullable)
+     * @return blended rate and amount; zero when there is no doctor
+     */
+    public Commission calculate(Doctor doctor, List<Line> lines, BigDecimal total, BigDecimal discount) {
+        if (doctor == null) {
+            return Commission.NONE;
+        }
+        BigDecimal doctorRate = doctor.getCommissionPercentage() != null
+                ? doctor.getCommissionPercentage()
+                : BigDecimal.ZERO;
+        RuleIndex rules = new RuleIndex(doctor.getId(), ruleRepository.findApplicable(doctor.getId()));
+
+        BigDecimal weight = BigDecimal.ZERO;
+        BigDecimal weightedRate = BigDecimal.ZERO;
+        for (Line line : lines) {
+            BigDecimal rate = rules.rateFor(line);
+            weight = weight.add(line.weight());
+            weightedRate = weightedRate.add(line.weight().multiply(rate != null ? rate : doctorRate));
+        }
+
+        BigDecimal base = commissionBase(total, discount);
+        if (weight.signum() <= 0) {
+            return new Commission(doctorRate,
+                    base.multiply(doctorRate).divide(HUNDRED, 4, RoundingMode.HALF_UP));
+        }
+        return new Commission(weightedRate.divide(weight, 4, RoundingMode.HALF_UP),
+                base.multiply(weightedRate).divide(weight.multiply(HUNDRED), 4, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Reapplies the current rules, doctor rates and prices to the commissions
+     * of orders booked in a date range. Paid commissions are not changed.
+     *
+     * @param from first booking day
+     * @param to   last booking day
+     * @return number of commission rows updated or created
+     */
+    @Transactional
+    public int recompute(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("A valid date range is required to recompute commissions");
+        }
+        return ruleRepository.recompute(from, to, deductDiscount);
+    }
+
+    /**
+     * Reapplies the current rules, doctor rates and prices to the open
+     * period: from the oldest unpaid commission, or the first of this month if
+     * that is later, through today.
+     *
+     * @return number of commission rows updated or created
+     */
+    @Transactional
+    public int recomputeOpen() {
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.withDayOfMonth(1);
+        LocalDate earliestUnpaid = ruleRepository.findEarliestUnpaidDay();
+        if (earliestUnpaid != null && earliestUnpaid.isBefore(from)) {
+            from = earliestUnpaid;
+        }
+        return recompute(from, today);
+    }
+
+    /**
+     * Validates and stores a rule. Existing commissions keep their amounts
+     * until {@link #recompute(LocalDate, LocalDate)} or
+     * {@link #recomputeOpen()} is run.
+     *
+     * @param rule rule to save
+     * @return saved rule
+     */
+    @Transactional
+    public CommissionRule saveRule(CommissionRule rule) {
+        if ((rule.getTestId() == null) == (rule.getDepartmentId() == null)) {
+            throw new IllegalArgumentException("A commission rule must target either a test or a department");
+        }
+        if (rule.getPercentage() == null || rule.getPercentage().signum() < 0
+                || rule.getPercentage().compareTo(HUNDRED) > 0) {
+            throw new IllegalArgumentException("Commission percentage must be between 0 and 100");
+        }
+        return ruleRepository.save(rule);
+    }
+
+    /**
+     * @return all rules, active or not
+     */
+    public List<CommissionRule> findAllRules() {
+        return ruleRepository.findAll();
+    }
+
+    /**
+     * Removes a rule.
+     *
+     * @param ruleId rule id
+     */
+    @Transactional
+    public void deleteRule(Long ruleId) {
+        ruleRepository.deleteById(ruleId);
+    }
+
+    private BigDecimal commissionBase(BigDecimal total, BigDecimal discount) {
+        BigDecimal base = total != null ? total : BigDecimal.ZERO;
+        if (deductDiscount && discount != null) {
+            base = base.subtract(discount).max(BigDecimal.ZERO);
+        }
+        return base;
+    }
+
+    /**
+     * One billed line of an order.
+     *
+     * @param testId       test billed on its own, or {@code null} for a panel
+     * @param departmentId department of the test or panel (nullable)
+     * @param weight       line price
+     */
+    public record Line(Long testId, Integer departmentId, BigDecimal weight) {
+    }
+
+    /**
+     * Commission of one order.
+     *
+     * @param rate   price-weighted commission percentage
+     * @param amount commission amount
+     */
+    public record Commission(BigDecimal rate, BigDecimal amount) {
+        static final Commission NONE = new Commission(BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    /**
+     * A doctor's applicable rules keyed by target, in precedence order.
+     */
+    private static final class RuleIndex {
+        private final Map<Long, BigDecimal> doctorTest = new HashMap<>();
+        private final Map<Integer, BigDecimal> doctorDepartment = new HashMap<>();
+        private final Map<Long, BigDecimal> anyTest = new HashMap<>();
+        private final Map<Integer, BigDecimal> anyDepartment = new HashMap<>();
+
+        RuleIndex(Long doctorId, List<CommissionRule> rules) {
+            // Rules arrive oldest first; the first rule per target wins.
+            for (CommissionRule rule : rules) {
+                boolean own = rule.getDoctorId() != null && rule.getDoctorId().equals(doctorId);
+                if (rule.getTestId() != null) {
+                    (own ? doctorTest : anyTest).putIfAbsent(rule.getTestId(), rule.getPercentage());
+                } else if (rule.getDepartmentId() != null) {
+                    (own ? doctorDepartment : anyDepartment).putIfAbsent(rule.getDepartmentId(),
+                            rule.getPercentage());
+                }
+            }
+        }
+
+        BigDecimal rateFor(Line line) {
+            BigDecimal rate = line.testId() != null ? doctorTest.get(line.testId()) : null;
+            if (rate == null && line.departmentId() != null) {
+                rate = doctorDepartment.get(line.departmentId());
+            }
+            if (rate == null && line.testId() != null) {
+                rate = anyTest.get(line.testId());
+            }
+            if (rate == null && line.departmentId() != null) {
+                rate = anyDepartment.get(line.departmentId());
+            }
+            return rate;
+        }
+    }
+}
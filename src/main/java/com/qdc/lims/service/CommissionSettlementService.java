@@ -0,0 +1,134 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.entity.CommissionSettlement;
+import com.qdc.lims.repository.CommissionLedgerRepository;
+import com.qdc.lims.repository.CommissionSettlementRepository;
+import com.qdc.lims.ui.CurrentUserProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Pays and reopens doctor commissions.
+ *
+ * <p>
+ * Each payout is one {@link CommissionSettlement} row plus a single set-based
+ * {@code UPDATE} of the ledger, in one transaction, so settling a month of a
+ * busy doctor's commissions is atomic and costs the same few statements as
+ * settling one. The paid amount of every row is its commission amount, and
+ * the settlement records how many rows it paid and their total. Rows already
+ * paid are skipped, so two workstations settling the same doctor never pay a
+ * commission twice.
+ * </p>
+ */
+@Service
+public class CommissionSettlementService {
+
+    private final CommissionLedgerRepository commissionLedgerRepository;
+    private final CommissionSettlementRepository settlementRepository;
+    private final CurrentUserProvider currentUserProvider;
+
+    public CommissionSettlementService(CommissionLedgerRepository commissionLedgerRepository,
+            CommissionSettlementRepository settlementRepository,
+            CurrentUserProvider currentUserProvider) {
+        this.commissionLedgerRepository = commissionLedgerRepository;
+        this.settlementRepository = settlementRepository;
+        this.currentUserProvider = currentUserProvider;
+    }
+
+    /**
+     * Pays the given commissions today.
+     *
+     * @param commissionIds commission ledger ids
+     * @return number of commissions paid
+     */
+    @Transactional
+    public int settle(Collection<Long> commissionIds) {
+        if (commissionIds == null || commissionIds.isEmpty()) {
+            return 0;
+        }
+        CommissionSettlement settlement = openSettlement(null, null, null);
+        int paid = commissionLedgerRepository.settleByIds(settlement.getId(), settlement.getPaymentDate(),
+                commissionIds);
+        return closeSettlement(settlement, paid);
+    }
+
+    /**
+     * Pays every unpaid commission a doctor earned in a period today.
+     *
+     * @param doctorId doctor to pay
+     * @param from     first transaction day (nullable = from the start)
+     * @param to       last transaction day (nullable = up to today)
+     * @return number of commissions paid
+     */
+    @Transactional
+    public int settleDoctor(Long doctorId, LocalDate from, LocalDate to) {
+        if (doctorId == null) {
+            throw new IllegalArgumentException("Doctor is required to settle commissions");
+        }
+        CommissionSettlement settlement = openSettlement(doctorId, from, to);
+        int paid = commissionLedgerRepository.settleByDoctor(settlement.getId(), settlement.getPaymentDate(),
+                doctorId, from, to);
+        return closeSettlement(settlement, paid);
+    }
+
+    /**
+     * Pays the given commissions of one doctor today, recording the doctor
+     * on the settlement.
+     *
+     * @param doctorId      doctor to pay
+     * @param commissionIds commission ledger ids of that doctor
+     * @return number of commissions paid
+     */
+    @Transactional
+    public int settleDoctor(Long doctorId, Collection<Long> commissionIds) {
+        if (doctorId == null) {
+            throw new IllegalArgumentException("Doctor is required to settle commissions");
+        }
+        if (commissionIds == null || commissionIds.isEmpty()) {
+            return 0;
+        }
+        CommissionSettlement settlement = openSettlement(doctorId, null, null);
+        int paid = commissionLedgerRepository.settleByIds(settlement.getId(), settlement.getPaymentDate(),
+                commissionIds);
+        return closeSettlement(settlement, paid);
+    }
+
+    /**
+     * Returns paid commissions to unpaid, clearing their payment.
+     *
+     * @param commissionIds commission ledger ids
+     * @return number of commissions reopened
+     */
+    @Transactional
+    public int reopen(Collection<Long> commissionIds) {
+        if (commissionIds == null || commissionIds.isEmpty()) {
+            return 0;
+        }
+        return commissionLedgerRepository.reopen(commissionIds);
+    }
+
+    private CommissionSettlement openSettlement(Long doctorId, LocalDate from, LocalDate to) {
+        CommissionSettlement settlement = new CommissionSettlement();
+        settlement.setDoctorId(doctorId);
+        settlement.setPeriodFrom(from);
+        settlement.setPeriodTo(to);
+        settlement.setPaymentDate(LocalDate.now());
+        settlement.setSettledAt(LocalDateTime.now());
+        settlement.setSettledBy(currentUserProvider.getUsername());
+        return settlementRepository.save(settlement);
+    }
+
+    private int closeSettlement(CommissionSettlement settlement, int paid) {
+        if (paid == 0) {
+            // Nothing was unpaid; do not leave an empty payout behind.
+            settlementRepository.deleteById(settlement.getId());
+        } else {
+            settlementRepository.recordTotals(settlement.getId());
+        }
+        return paid;
+    }
+}
@@ -13,7 +13,9 @@ import java.util.Optional;
 
 /**
  * Service to manage system configuration settings.
- * Caches settings in memory for performance.
+ * Caches settings in memory for performance. The cache is replaced rather
+ * than modified, so the JavaFX thread can read it while settings are saved in
+ * the background.
  */
 @Service
 public class ConfigService {
@@ -24,7 +26,7 @@ public class ConfigService {
     @Autowired
     private SystemConfigurationRepository configRepository;
 
-    private Map<String, String> cache = new HashMap<>();
+    private volatile Map<String, String> cache = Map.of();
 
     @PostConstruct
     public void init() {
@@ -35,10 +37,11 @@ public class ConfigService {
 
     public void refreshCache() {
         List<SystemConfiguration> configs = configRepository.findAll();
-        cache.clear();
+        Map<String, String> loaded = new HashMap<>();
         for (SystemConfiguration config : configs) {
-            cache.put(config.getKey(), config.getValue());
+            loaded.put(config.getKey(), config.getValue());
         }
+        cache = loaded;
     }
 
     private void ensureDefaults() {
@@ -161,13 +164,19 @@ public class ConfigService {
 
         config.setValue(value);
         configRepository.save(config);
-        cache.put(key, value);
+        cacheValue(key, value);
 
         if (updateProfileFlag && isProfileField(key)) {
             updateLabProfileCompletionFlag();
         }
     }
 
+    private synchronized void cacheValue(String key, String value) {
+        Map<String, String> updated = new HashMap<>(cache);
+        updated.put(key, value);
+        cache = updated;
+    }
+
     private boolean isProfileField(String key) {
         return "CLINIC_NAME".equals(key)
                 || "CLINIC_ADDRESS".equals(key)
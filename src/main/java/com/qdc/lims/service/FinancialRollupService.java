@@ -0,0 +1,236 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.dto.FinancialCategorySummary;
+import com.qdc.lims.dto.FinancialRollupTotal;
+import com.qdc.lims.entity.DailyFinancialRollup;
+import com.qdc.lims.repository.DailyFinancialRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maintains and reads the per-day {@link DailyFinancialRollup} totals behind
+ * the finance screens.
+ *
+ * <p>
+ * Triggers on orders, payments, commissions, supplier ledger rows and doctor
+ * commission rates append a dirty mark for every day a change touches, in the
+ * writer's own transaction (migration V8). A catch-up job recomputes marked
+ * days in the background. A read first checks for marks and, when there are
+ * any and no other workstation is refreshing, recomputes them; otherwise it
+ * serves the current rollups, which the running refresh brings up to date.
+ * Only changed days are ever re-aggregated. Refreshes are serialized across
+ * workstations with an advisory lock.
+ * {@link #rebuildAll()} recomputes every day from scratch and runs
+ * automatically when the rollup table is empty.
+ * </p>
+ */
+@Service
+public class FinancialRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(FinancialRollupService.class);
+
+    /** Dirty marks claimed per refresh transaction. */
+    private static final int CLAIM_BATCH = 5_000;
+
+    private static final String INCOME = "INCOME";
+    private static final String EXPENSE = "EXPENSE";
+
+    private final DailyFinancialRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public FinancialRollupService(DailyFinancialRollupRepository rollupRepository,
+            TransactionTemplate transactionTemplate) {
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Builds the rollups on first start and catches up on marked days.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (rollupRepository.isEmpty()) {
+            log.info("Building daily financial rollups.");
+            rebuildAll();
+        } else {
+            refreshPending();
+        }
+    }
+
+    /**
+     * Recomputes every day that has been marked dirty since the last refresh.
+     *
+     * @return number of days recomputed
+     */
+    @Scheduled(fixedDelayString = "${qdc.finance.rollup-refresh-delay-ms:60000}",
+            initialDelayString = "${qdc.finance.rollup-refresh-delay-ms:60000}")
+    public int refreshPending() {
+        return refresh(true);
+    }
+
+    private int refresh(boolean waitForLock) {
+        int refreshed = 0;
+        while (true) {
+            Integer days = transactionTemplate.execute(status -> {
+                if (waitForLock) {
+                    rollupRepository.lockForRefresh();
+                } else if (!rollupRepository.tryLockForRefresh()) {
+                    return 0;
+                }
+                Set<LocalDate> claimed = rollupRepository.claimDirtyDays(CLAIM_BATCH);
+                rollupRepository.recomputeDays(claimed);
+                return claimed.size();
+            });
+            if (days == null || days == 0) {
+                break;
+            }
+            refreshed += days;
+        }
+        if (refreshed > 0) {
+            log.debug("Refreshed financial rollups for {} days.", refreshed);
+        }
+        return refreshed;
+    }
+
+    /**
+     * Recomputes the rollups of every day from the source tables. Use after
+     * bulk imports or direct database edits made while the triggers were
+     * missing.
+     *
+     * @return number of days recomputed
+     */
+    public int rebuildAll() {
+        transactionTemplate.executeWithoutResult(status -> {
+            rollupRepository.lockForRefresh();
+            rollupRepository.markAllDaysDirty();
+        });
+        return refreshPending();
+    }
+
+    /**
+     * Income, expense and liability totals for an inclusive date range.
+     *
+     * @param from first day
+     * @param to   last day
+     * @return summary read from the rollups
+     */
+    public Summary summarize(LocalDate from, LocalDate to) {
+        refreshBeforeRead();
+
+        List<FinancialCategorySummary> categories = new ArrayList<>();
+        BigDecimal billed = BigDecimal.ZERO;
+        long orderCount = 0;
+        BigDecimal collected = BigDecimal.ZERO;
+        BigDecimal receivable = BigDecimal.ZERO;
+        BigDecimal unpaidCommission = BigDecimal.ZERO;
+        BigDecimal supplierPayable = BigDecimal.ZERO;
+
+        for (FinancialRollupTotal total : rollupRepository.sumByMetricAndCategory(from, to)) {
+            BigDecimal amount = total.amount() != null ? total.amount() : BigDecimal.ZERO;
+            String metric = total.metric();
+            switch (metric) {
+                case DailyFinancialRollup.ORDER_BILLED -> {
+                    billed = amount;
+                    orderCount = total.count();
+                }
+                case DailyFinancialRollup.ORDER_COLLECTED -> {
+                    collected = amount;
+                    addCategory(categories, "Patient Services", INCOME, total.count(), amount);
+                }
+                case DailyFinancialRollup.ORDER_RECEIVABLE -> receivable = amount;
+                case DailyFinancialRollup.COMMISSION_PAID ->
+                    addCategory(categories, "Doctor Commissions", EXPENSE, total.count(), amount);
+                case DailyFinancialRollup.COMMISSION_UNPAID -> unpaidCommission = amount;
+                case DailyFinancialRollup.SUPPLIER_PAID ->
+                    addCategory(categories, "Supplier Payments", EXPENSE, total.count(), amount);
+                case DailyFinancialRollup.SUPPLIER_PAYABLE -> supplierPayable = amount;
+                default -> {
+                    if (metric.startsWith(DailyFinancialRollup.PAYMENT_PREFIX)) {
+                        categories.add(new FinancialCategorySummary(total.category(),
+                                metric.substring(DailyFinancialRollup.PAYMENT_PREFIX.length()),
+                                (int) total.count(), amount));
+                    }
+                }
+            }
+        }
+
+        BigDecimal totalIncome = sumByType(categories, INCOME);
+        BigDecimal totalExpense = sumByType(categories, EXPENSE);
+        return new Summary(categories, totalIncome, totalExpense, orderCount, billed, collected, receivable,
+                unpaidCommission, supplierPayable);
+    }
+
+    /**
+     * Totals of one per-doctor or per-supplier metric for an inclusive date
+     * range, largest first.
+     *
+     * @param metric {@link DailyFinancialRollup#COMMISSION_PAID},
+     *               {@link DailyFinancialRollup#COMMISSION_UNPAID},
+     *               {@link DailyFinancialRollup#SUPPLIER_PAID} or
+     *               {@link DailyFinancialRollup#SUPPLIER_PAYABLE}
+     * @param from   first day
+     * @param to     last day
+     * @return one total per doctor or supplier id
+     */
+    public List<FinancialRollupTotal> totalsByReference(String metric, LocalDate from, LocalDate to) {
+        refreshBeforeRead();
+        return rollupRepository.sumByReference(metric, from, to);
+    }
+
+    // Reads never wait for or take the refresh lock when nothing is marked.
+    private void refreshBeforeRead() {
+        if (rollupRepository.hasDirtyDays()) {
+            refresh(false);
+        }
+    }
+
+    private static void addCategory(List<FinancialCategorySummary> categories, String name, String type, long count,
+            BigDecimal amount) {
+        if (amount.compareTo(BigDecimal.ZERO) > 0) {
+            categories.add(new FinancialCategorySummary(name, type, (int) count, amount));
+        }
+    }
+
+    private static BigDecimal sumByType(List<FinancialCategorySummary> categories, String type) {
+        return categories.stream()
+                .filter(category -> type.equals(category.getType()))
+                .map(FinancialCategorySummary::getTotalAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * Financial totals of a date range.
+     *
+     * @param categories       income and expense totals per category
+     * @param totalIncome      sum of the INCOME categories
+     * @param totalExpense     sum of the EXPENSE categories
+     * @param orderCount       orders booked in the range
+     * @param billed           total billed on those orders
+     * @param collected        amount paid on those orders
+     * @param receivable       balance still due on those orders
+     * @param unpaidCommission commission still owed for the range
+     * @param supplierPayable  unpaid supplier bills of the range
+     */
+    public record Summary(
+            List<FinancialCategorySummary> categories,
+            BigDecimal totalIncome,
+            BigDecimal totalExpense,
+            long orderCount,
+            BigDecimal billed,
+            BigDecimal collected,
+            BigDecimal receivable,
+            BigDecimal unpaidCommission,
+            BigDecimal supplierPayable) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.util.IdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Allocates patient MRNs and daily order accession numbers.
+ *
+ * <p>
+ * Numbers are reserved from the database in blocks of {@link #BLOCK_SIZE}
+ * and handed out from memory, so most allocations cost no round trip and none
+ * needs an existence check. MRNs come from the {@code patient_mrn_seq}
+ * sequence (migration V7), whose increment equals the block size; accession
+ * numbers come from a per-day row in {@code id_counter} and restart at 1 every
+ * day. Blocks are reserved in their own transaction, so a rolled-back
+ * registration or order can never hand the same block out twice. Numbers left
+ * in a block when the application exits are skipped, leaving gaps.
+ * </p>
+ *
+ * <p>
+ * Both formats are {@link String#format} patterns with a trailing Luhn check
+ * digit, so a mistyped number is caught at the counter. MRN arguments are the
+ * number and the check digit; accession arguments are the date, the daily
+ * number and the check digit, computed over {@code yyyyMMdd} plus the number.
+ * </p>
+ */
+@Service
+public class IdentifierService {
+
+    /** Numbers reserved per database round trip. Fixed: it is baked into the sequence increment. */
+    static final int BLOCK_SIZE = 20;
+
+    private static final String MRN_SEQUENCE = "patient_mrn_seq";
+    private static final String ACCESSION_COUNTER = "ORDER_ACCESSION";
+
+    private static final String NEXT_MRN_BLOCK_SQL = "SELECT nextval('" + MRN_SEQUENCE + "')";
+
+    private static final String NEXT_COUNTER_BLOCK_SQL = """
+            INSERT INTO id_counter (counter_name, period, last_value)
+            VALUES (?, ?, ?)
+            ON CONFLICT (counter_name, period)
+                DO UPDATE SET last_value = id_counter.last_value + EXCLUDED.last_value
+            RETURNING last_value
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate reservationTransaction;
+    private final String mrnFormat;
+    private final String accessionFormat;
+
+    private Block mrnBlock;
+    private Block accessionBlock;
+
+    public IdentifierService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Value("${qdc.ids.mrn-format:MR-%06d-%d}") String mrnFormat,
+            @Value("${qdc.ids.accession-format:%1$ty%1$tm%1$td-%2$04d-%3$d}") String accessionFormat) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reservationTransaction = new TransactionTemplate(transactionManager);
+        this.reservationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.mrnFormat = mrnFormat;
+        this.accessionFormat = accessionFormat;
+
+        // Fail at startup rather than at the first registration.
+        formatMrn(1L);
+        formatAccession(LocalDate.now(), 1L);
+    }
+
+    /**
+     * @return a new, never before issued MRN
+     */
+    public synchronized String nextMrn() {
+        if (mrnBlock == null || mrnBlock.isExhausted()) {
+            mrnBlock = reservationTransaction.execute(status -> reserveMrnBlock());
+        }
+        return formatMrn(mrnBlock.next());
+    }
+
+    /**
+     * @return a new accession number for an order booked today
+     */
+    public synchronized String nextAccessionNumber() {
+        LocalDate today = LocalDate.now();
+        if (accessionBlock == null || accessionBlock.isExhausted() || !today.equals(accessionBlock.day)) {
+            accessionBlock = reservationTransaction.execute(status -> reserveCounterBlock(ACCESSION_COUNTER, today));
+        }
+        return formatAccession(today, accessionBlock.next());
+    }
+
+    String formatMrn(long number) {
+        return String.format(mrnFormat, number, IdGenerator.luhnCheckDigit(Long.toString(number)));
+    }
+
+    String formatAccession(LocalDate day, long number) {
+        String digits = day.format(DateTimeFormatter.BASIC_ISO_DATE) + number;
+        return String.format(accessionFormat, day, number, IdGenerator.luhnCheckDigit(digits));
+    }
+
+    private Block reserveMrnBlock() {
+        long first = jdbcTemplate.queryForObject(NEXT_MRN_BLOCK_SQL, Long.class);
+        return new Block(null, first, first + BLOCK_SIZE - 1);
+    }
+
+    private Block reserveCounterBlock(String counterName, LocalDate day) {
+        long last = jdbcTemplate.queryForObject(NEXT_COUNTER_BLOCK_SQL, Long.class,
+                counterName, Date.valueOf(day), BLOCK_SIZE);
+        return new Block(day, last - BLOCK_SIZE + 1, last);
+    }
+
+    /**
+     * Range of reserved numbers, optionally tied to the day it is valid for.
+     */
+    private static final class Block {
+        private final LocalDate day;
+        private final long last;
+        private long next;
+
+        private Block(LocalDate day, long first, long last) {
+            this.day = day;
+            this.next = first;
+            this.last = last;
+        }
+
+        private boolean isExhausted() {
+            return next > last;
+        }
+
+        private long next() {
+            return next++;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.dto.StockShortage;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Thrown when an order cannot be booked because one or more inventory items
+ * are short. Lists every short item, not just the first one found.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<StockShortage> shortages;
+
+    public InsufficientStockException(List<StockShortage> shortages) {
+        super("❌ OUT OF STOCK: " + shortages.stream()
+                .map(StockShortage::describe)
+                .collect(Collectors.joining("; ")) + ".");
+        this.shortages = List.copyOf(shortages);
+    }
+
+    /**
+     * @return the items that were short
+     */
+    public List<StockShortage> getShortages() {
+        return shortages;
+    }
+}
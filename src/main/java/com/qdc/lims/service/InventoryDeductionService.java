@@ -0,0 +1,143 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.dto.StockShortage;
+import com.qdc.lims.entity.InventoryItem;
+import com.qdc.lims.entity.StockMovement;
+import com.qdc.lims.entity.TestConsumption;
+import com.qdc.lims.entity.TestDefinition;
+import com.qdc.lims.repository.InventoryItemRepository;
+import com.qdc.lims.repository.TestConsumptionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Deducts the consumables an order's tests use from inventory.
+ *
+ * <p>
+ * Recipes for all tests are loaded in one query and summed per item, so a
+ * tube shared by ten tests is deducted once with the combined quantity. Each
+ * item is then decremented with a single guarded {@code UPDATE} that only
+ * succeeds while enough stock is on hand, so concurrent bookings never
+ * overdraw stock and never read-modify-write the item row. Items are always
+ * updated in ascending id order, so two orders sharing items take their row
+ * locks in the same order and cannot deadlock each other. Each test's share
+ * is then written to the stock ledger.
+ * </p>
+ */
+@Service
+public class InventoryDeductionService {
+
+    private final TestConsumptionRepository consumptionRepo;
+    private final InventoryItemRepository inventoryRepo;
+    private final StockLedgerService stockLedgerService;
+
+    public InventoryDeductionService(TestConsumptionRepository consumptionRepo,
+            InventoryItemRepository inventoryRepo, StockLedgerService stockLedgerService) {
+        this.consumptionRepo = consumptionRepo;
+        this.inventoryRepo = inventoryRepo;
+        this.stockLedgerService = stockLedgerService;
+    }
+
+    /**
+     * Deducts stock for one instance of each test. Must run inside the order's
+     * transaction so a failure rolls back any deductions already applied.
+     *
+     * @param orderId order the stock is consumed for
+     * @param tests   tests on the order
+     * @throws InsufficientStockException listing every short item
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deductForOrder(Long orderId, Collection<TestDefinition> tests) {
+        List<StockMovement> movements = new ArrayList<>();
+        Map<Long, Requirement> requirements = sumRequirements(tests, orderId, movements);
+        if (requirements.isEmpty()) {
+            return;
+        }
+
+        // Fail fast on stock already known to be short, before writing anything.
+        List<StockShortage> shortages = new ArrayList<>();
+        for (Requirement requirement : requirements.values()) {
+            BigDecimal available = requirement.item.getCurrentStock();
+            if (available == null || available.compareTo(requirement.quantity) < 0) {
+                shortages.add(requirement.toShortage(available));
+            }
+        }
+        if (!shortages.isEmpty()) {
+            throw new InsufficientStockException(shortages);
+        }
+
+        // Another workstation may have consumed stock since it was read.
+        for (Requirement requirement : requirements.values()) {
+            if (inventoryRepo.deductStock(requirement.item.getId(), requirement.quantity) == 0) {
+                shortages.add(requirement.toShortage(inventoryRepo.findCurrentStock(requirement.item.getId())));
+            }
+        }
+        if (!shortages.isEmpty()) {
+            throw new InsufficientStockException(shortages);
+        }
+
+        stockLedgerService.record(movements);
+    }
+
+    private Map<Long, Requirement> sumRequirements(Collection<TestDefinition> tests, Long orderId,
+            List<StockMovement> movements) {
+        Map<Long, TestDefinition> testsById = new LinkedHashMap<>();
+        for (TestDefinition test : tests) {
+            if (test != null && test.getId() != null) {
+                testsById.putIfAbsent(test.getId(), test);
+            }
+        }
+        Map<Long, Requirement> requirements = new TreeMap<>();
+        if (testsById.isEmpty()) {
+            return requirements;
+        }
+        for (TestConsumption ingredient : consumptionRepo.findAllWithItemByTestIdIn(testsById.keySet())) {
+            InventoryItem item = ingredient.getItem();
+            BigDecimal quantity = ingredient.getQuantity();
+            if (item == null || item.getId() == null || quantity == null || quantity.signum() <= 0) {
+                continue;
+            }
+            TestDefinition test = testsById.get(ingredient.getTest().getId());
+            requirements.computeIfAbsent(item.getId(), id -> new Requirement(item))
+                    .add(quantity, test != null ? test.getTestName() : null);
+
+            StockMovement movement = stockLedgerService.movement(StockMovement.ORDER_CONSUMPTION, item.getId(),
+                    quantity.negate());
+            movement.setTestId(ingredient.getTest().getId());
+            movement.setOrderId(orderId);
+            movements.add(movement);
+        }
+        return requirements;
+    }
+
+    private static final class Requirement {
+        private final InventoryItem item;
+        private final List<String> testNames = new ArrayList<>();
+        private BigDecimal quantity = BigDecimal.ZERO;
+
+        private Requirement(InventoryItem item) {
+            this.item = item;
+        }
+
+        private void add(BigDecimal amount, String testName) {
+            quantity = quantity.add(amount);
+            if (testName != null && !testNames.contains(testName)) {
+                testNames.add(testName);
+            }
+        }
+
+        private StockShortage toShortage(BigDecimal available) {
+            return new StockShortage(item.getId(), item.getItemName(), item.getUnit(), quantity, available,
+                    List.copyOf(testNames));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.config.MasterDataCacheConfig;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+/**
+ * Keeps the master data second-level cache (see {@link MasterDataCacheConfig})
+ * in step with the database on every workstation.
+ *
+ * <p>
+ * The change feed reports writes to master data tables from any PC, including
+ * writes that bypass JPA; each report evicts the cached entities, collections
+ * and queries, and reloads the reference range index and the order entry
+ * catalog when their tables changed. While the feed is not connected, all of
+ * them are reloaded every {@code qdc.master-cache.fallback-reload-ms} instead.
+ * When statistics are enabled ({@code qdc.master-cache.statistics=true}),
+ * cache hits and misses are logged on {@code qdc.master-cache.statistics-cron}.
+ * </p>
+ */
+@Service
+public class MasterDataCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(MasterDataCacheService.class);
+
+    private static final String REFERENCE_RANGE_TABLE = "reference_range";
+
+    private final SessionFactory sessionFactory;
+    private final OrderChangeFeedService orderChangeFeedService;
+    private final ReferenceRangeService referenceRangeService;
+    private final TestCatalogService testCatalogService;
+
+    private OrderChangeFeedService.Subscription subscription;
+
+    public MasterDataCacheService(EntityManagerFactory entityManagerFactory,
+            OrderChangeFeedService orderChangeFeedService,
+            ReferenceRangeService referenceRangeService,
+            TestCatalogService testCatalogService) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.orderChangeFeedService = orderChangeFeedService;
+        this.referenceRangeService = referenceRangeService;
+        this.testCatalogService = testCatalogService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (subscription == null) {
+            subscription = orderChangeFeedService.subscribe(OrderChangeFeedService.MASTER_DATA_TABLES,
+                    this::onMasterDataChanged);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (subscription != null) {
+            subscription.close();
+            subscription = null;
+        }
+    }
+
+    /**
+     * Drops all cached master data on this PC.
+     */
+    public void evictAll() {
+        Cache cache = sessionFactory.getCache();
+        cache.evictRegion(MasterDataCacheConfig.REGION);
+        cache.evictQueryRegion(MasterDataCacheConfig.QUERY_REGION);
+    }
+
+    /**
+     * Reloads all master data while the change feed is not connected, since
+     * edits from other PCs are not reported then.
+     */
+    @Scheduled(fixedDelayString = "${qdc.master-cache.fallback-reload-ms:60000}",
+            initialDelayString = "${qdc.master-cache.fallback-reload-ms:60000}")
+    public void reloadWhileFeedIsDown() {
+        if (!orderChangeFeedService.isConnected()) {
+            onMasterDataChanged(OrderChangeFeedService.MASTER_DATA_TABLES);
+        }
+    }
+
+    /**
+     * Logs master data cache hits and misses since the last report, when
+     * statistics are enabled.
+     */
+    @Scheduled(cron = "${qdc.master-cache.statistics-cron:0 0 * * * *}")
+    public void logStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return;
+        }
+        CacheRegionStatistics entities = statistics.getDomainDataRegionStatistics(MasterDataCacheConfig.REGION);
+        CacheRegionStatistics queries = statistics.getQueryRegionStatistics(MasterDataCacheConfig.QUERY_REGION);
+        log.info("Master data cache: {} hits / {} misses for entities, {} hits / {} misses for queries.",
+                entities.getHitCount(), entities.getMissCount(),
+                queries != null ? queries.getHitCount() : 0, queries != null ? queries.getMissCount() : 0);
+        statistics.clear();
+    }
+
+    private void onMasterDataChanged(Set<String> tables) {
+        evictAll();
+        if (tables.contains(REFERENCE_RANGE_TABLE)) {
+            referenceRangeService.reload();
+        }
+        if (tables.stream().anyMatch(TestCatalogService.CATALOG_TABLES::contains)) {
+            testCatalogService.reload();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.dto.LabOrderSummary;
+import com.qdc.lims.entity.LabOrder;
+import com.qdc.lims.repository.LabOrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps delivered orders older than {@code qdc.archive.after-days} out of the
+ * hot tables, and finds them again for patient history and reprints.
+ *
+ * <p>
+ * A nightly job moves settled, delivered orders with their results, panels,
+ * result edit audits and commissions into the {@code archive} schema, in
+ * batches of {@code qdc.archive.batch-size} with a pause between batches so
+ * the shared server stays responsive. Daily financial rollups read both
+ * schemas, so archiving never changes a day's totals.
+ * </p>
+ *
+ * <p>
+ * Screens go through this service instead of {@link LabOrderRepository} where
+ * they may reach old orders: date range and patient lookups merge archived
+ * summaries in, and an archived order is read in place for viewing and
+ * printing. Only a change to an archived order moves it back to the hot
+ * tables first ({@link #restoreForEdit}); it is archived again once it
+ * qualifies.
+ * </p>
+ *
+ * <p>
+ * Archiving is off unless {@code qdc.archive.enabled=true}, since the first
+ * run moves every qualifying order of an existing installation.
+ * </p>
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    private final LabOrderRepository labOrderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate archiveReadTransaction;
+    private final boolean enabled;
+    private final int afterDays;
+    private final int batchSize;
+    private final long batchPauseMillis;
+    private final int maxBatches;
+
+    public OrderArchiveService(LabOrderRepository labOrderRepository, TransactionTemplate transactionTemplate,
+            @Value("${qdc.archive.enabled:false}") boolean enabled,
+            @Value("${qdc.archive.after-days:365}") int afterDays,
+            @Value("${qdc.archive.batch-size:500}") int batchSize,
+            @Value("${qdc.archive.batch-pause-ms:250}") long batchPauseMillis,
+            @Value("${qdc.archive.max-batches-per-run:200}") int maxBatches) {
+        this.labOrderRepository = labOrderRepository;
+        this.transactionTemplate = transactionTemplate;
+        // Its own transaction, so the archive search path never leaks into a caller's.
+        this.archiveReadTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.archiveReadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.archiveReadTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.afterDays = afterDays;
+        this.batchSize = batchSize;
+        this.batchPauseMillis = batchPauseMillis;
+        this.maxBatches = maxBatches;
+    }
+
+    /**
+     * Archives eligible delivered orders in throttled batches, one transaction
+     * per batch, until none are left or the per-run batch limit is reached.
+     *
+     * @return number of orders archived
+     */
+    @Scheduled(cron = "${qdc.archive.cron:0 45 1 * * *}")
+    public int archiveDeliveredOrders() {
+        if (!enabled) {
+            return 0;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        int archived = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer moved = transactionTemplate.execute(
+                    status -> labOrderRepository.archiveDelivered(cutoff, batchSize));
+            archived += moved != null ? moved : 0;
+            if (moved == null || moved < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(batchPauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} delivered orders.", archived);
+        }
+        return archived;
+    }
+
+    /**
+     * @return the current archive version; it changes whenever orders move in
+     *         or out of the archive
+     */
+    public String archiveVersion() {
+        return labOrderRepository.archiveVersion();
+    }
+
+    /**
+     * Loads an order with its detail graph for viewing or printing, from the
+     * archive when it has been archived. Nothing is moved; call
+     * {@link #restoreForEdit} before saving changes to the order.
+     *
+     * @param id order id
+     * @return the order, or empty if it exists in neither tier
+     */
+    public Optional<LabOrder> findWithDetailsById(Long id) {
+        Optional<LabOrder> order = labOrderRepository.findWithDetailsById(id);
+        if (order.isPresent()) {
+            return order;
+        }
+        return archiveReadTransaction.execute(status -> {
+            labOrderRepository.readArchiveTier();
+            return labOrderRepository.findWithDetailsById(id);
+        });
+    }
+
+    /**
+     * Moves an order back to the hot tables if it has been archived, so it
+     * can be changed. A no-op for hot orders.
+     *
+     * @param id order id
+     * @return {@code true} if the order was moved back
+     */
+    public boolean restoreForEdit(Long id) {
+        boolean restored = Boolean.TRUE.equals(transactionTemplate.execute(status -> labOrderRepository.restore(id)));
+        if (restored) {
+            log.info("Restored archived order {}.", id);
+        }
+        return restored;
+    }
+
+    /**
+     * Order summaries booked within a date range, hot and archived.
+     *
+     * @param start the start of the order date range
+     * @param end   the end of the order date range
+     * @return order summaries in the range, oldest first
+     */
+    public List<LabOrderSummary> findSummariesByOrderDateBetween(LocalDateTime start, LocalDateTime end) {
+        return merge(labOrderRepository.findSummariesByOrderDateBetween(start, end),
+                labOrderRepository.findArchivedSummariesByOrderDateBetween(start, end),
+                Comparator.comparing(LabOrderSummary::id));
+    }
+
+    /**
+     * Order history of one patient, hot and archived.
+     *
+     * @param patientId patient id
+     * @return the patient's order summaries, newest first
+     */
+    public List<LabOrderSummary> findSummariesByPatientId(Long patientId) {
+        return merge(labOrderRepository.findSummariesByPatientId(patientId),
+                labOrderRepository.findArchivedSummariesByPatientId(patientId),
+                Comparator.comparing(LabOrderSummary::id).reversed());
+    }
+
+    private static List<LabOrderSummary> merge(List<LabOrderSummary> hot, List<LabOrderSummary> archived,
+            Comparator<LabOrderSummary> order) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        // An order archived between the two reads shows up in both.
+        Set<Long> hotIds = hot.stream().map(LabOrderSummary::id).collect(Collectors.toSet());
+        List<LabOrderSummary> merged = new ArrayList<>(hot.size() + archived.size());
+        merged.addAll(hot);
+        archived.stream().filter(summary -> !hotIds.contains(summary.id())).forEach(merged::add);
+        merged.sort(order);
+        return merged;
+    }
+}
@@ -1,10 +1,11 @@
 package com.qdc.lims.service;
 
+import com.qdc.lims.dto.LabOrderSummary;
 import com.qdc.lims.entity.CommissionLedger;
-import com.qdc.lims.entity.InventoryItem;
 import com.qdc.lims.entity.LabOrder;
 import com.qdc.lims.entity.LabResult;
 import com.qdc.lims.entity.Payment;
+import com.qdc.lims.entity.StockMovement;
 import com.qdc.lims.entity.TestConsumption;
 import com.qdc.lims.repository.CommissionLedgerRepository;
 import com.qdc.lims.repository.InventoryItemRepository;
@@ -16,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,19 +34,22 @@ public class OrderCancellationService {
     private final CommissionLedgerRepository commissionLedgerRepository;
     private final PaymentRepository paymentRepository;
     private final CancellationApprovalKeyService cancellationApprovalKeyService;
+    private final StockLedgerService stockLedgerService;
 
     public OrderCancellationService(LabOrderRepository labOrderRepository,
             TestConsumptionRepository testConsumptionRepository,
             InventoryItemRepository inventoryItemRepository,
             CommissionLedgerRepository commissionLedgerRepository,
             PaymentRepository paymentRepository,
-            CancellationApprovalKeyService cancellationApprovalKeyService) {
+            CancellationApprovalKeyService cancellationApprovalKeyService,
+            StockLedgerService stockLedgerService) {
         this.labOrderRepository = labOrderRepository;
         this.testConsumptionRepository = testConsumptionRepository;
         this.inventoryItemRepository = inventoryItemRepository;
         this.commissionLedgerRepository = commissionLedgerRepository;
         this.paymentRepository = paymentRepository;
         this.cancellationApprovalKeyService = cancellationApprovalKeyService;
+        this.stockLedgerService = stockLedgerService;
     }
 
     /**
@@ -86,6 +91,7 @@ public class OrderCancellationService {
     /**
      * Returns true if the order can still be cancelled by reception.
      */
+    @Transactional(readOnly = true)
     public boolean canCancel(Long orderId) {
         if (orderId == null) {
             return false;
@@ -107,6 +113,18 @@ public class OrderCancellationService {
         return !hasLabWorkStarted(order);
     }
 
+    /**
+     * Returns true if the summarized order can still be cancelled by reception.
+     * Uses the lab-started flag computed by the summary query, so table cells do
+     * not need the order's results.
+     */
+    public boolean canCancel(LabOrderSummary order) {
+        if (order == null || order.id() == null) {
+            return false;
+        }
+        return "PENDING".equals(order.status()) && !order.labWorkStarted();
+    }
+
     public boolean isCancellationKeyConfigured() {
         return cancellationApprovalKeyService.isKeyConfigured();
     }
@@ -158,6 +176,7 @@ public class OrderCancellationService {
         }
 
         Map<Long, BigDecimal> restockByItemId = new HashMap<>();
+        List<StockMovement> returns = new ArrayList<>();
 
         for (LabResult result : order.getResults()) {
             if (result == null || result.getTestDefinition() == null) {
@@ -175,16 +194,21 @@ public class OrderCancellationService {
                 }
                 Long itemId = ingredient.getItem().getId();
                 restockByItemId.put(itemId, restockByItemId.getOrDefault(itemId, BigDecimal.ZERO).add(qty));
+
+                StockMovement movement = stockLedgerService.movement(StockMovement.CANCELLATION_RETURN, itemId, qty);
+                movement.setTestId(result.getTestDefinition().getId());
+                movement.setOrderId(order.getId());
+                returns.add(movement);
             }
         }
 
         for (Map.Entry<Long, BigDecimal> entry : restockByItemId.entrySet()) {
-            InventoryItem item = inventoryItemRepository.findById(entry.getKey())
-                    .orElseThrow(() -> new IllegalStateException("Inventory item missing while rolling back: "
-                            + entry.getKey()));
-            item.setCurrentStock(normalize(item.getCurrentStock()).add(entry.getValue()));
-            inventoryItemRepository.save(item);
+            // Added in place, like booking deducts, so a concurrent booking cannot conflict.
+            if (inventoryItemRepository.addStock(entry.getKey(), entry.getValue()) == 0) {
+                throw new IllegalStateException("Inventory item missing while rolling back: " + entry.getKey());
+            }
         }
+        stockLedgerService.record(returns);
     }
 
     private void deleteCommissionRow(Long orderId) {
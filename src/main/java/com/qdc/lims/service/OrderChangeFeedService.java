@@ -0,0 +1,228 @@
+package com.qdc.lims.service;
+
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes lab order/result changes to open dashboards using PostgreSQL
+ * LISTEN/NOTIFY instead of having every dashboard poll the database.
+ *
+ * <p>
+ * Statement-level triggers on {@code lab_order} and {@code lab_result}
+ * (migration V9) call {@code pg_notify} with the table name. PostgreSQL only delivers a
+ * notification once the writing transaction commits and collapses duplicates
+ * within a transaction, so a multi-row save produces one event per table.
+ * Each JVM holds a single dedicated listener connection and fans events out to
+ * in-process subscribers. Bursts arriving within {@link #COALESCE_MILLIS} are
+ * merged into one callback.
+ * </p>
+ *
+ * <p>
+ * If the listener connection drops, it is re-established with backoff and
+ * subscribers receive a synthetic event for all tables, because notifications
+ * sent while disconnected are lost. While {@link #isConnected()} is false
+ * (feed disabled, a datasource other than PostgreSQL, or reconnect backoff)
+ * subscribers fall back to polling.
+ * </p>
+ *
+ * <p>
+ * Master data tables are watched on the same connection so every workstation
+ * can evict its cached catalog when any of them edits it; those changes only
+ * reach subscribers that ask for them.
+ * </p>
+ */
+@Service
+public class OrderChangeFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderChangeFeedService.class);
+
+    public static final String CHANNEL = "qdc_order_change";
+    public static final String LAB_ORDER_TABLE = "lab_order";
+    public static final String LAB_RESULT_TABLE = "lab_result";
+    public static final Set<String> ALL_TABLES = Set.of(LAB_ORDER_TABLE, LAB_RESULT_TABLE);
+    public static final Set<String> MASTER_DATA_TABLES = Set.of(
+            "test_definition", "panel", "panel_test", "department", "test_categories", "doctors",
+            "roles", "permissions", "role_permissions", "reference_range");
+    private static final Set<String> WATCHED_TABLES = union(ALL_TABLES, MASTER_DATA_TABLES);
+
+    private static final int WAIT_MILLIS = 5_000;
+    private static final int COALESCE_MILLIS = 250;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    @Value("${spring.datasource.username:}")
+    private String datasourceUsername;
+
+    @Value("${spring.datasource.password:}")
+    private String datasourcePassword;
+
+    @Value("${qdc.change-feed.enabled:true}")
+    private boolean enabled;
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private Thread listenerThread;
+
+    /**
+     * Registers a callback invoked with the set of changed lab order/result
+     * table names. The callback runs on the listener thread; UI code must hop
+     * to the JavaFX thread itself.
+     *
+     * @param subscriber change callback
+     * @return handle that removes the subscription when closed
+     */
+    public Subscription subscribe(Consumer<Set<String>> subscriber) {
+        return subscribe(ALL_TABLES, subscriber);
+    }
+
+    /**
+     * Registers a callback invoked with the changed names among the given
+     * tables, which must be in {@link #ALL_TABLES} or
+     * {@link #MASTER_DATA_TABLES}. The callback runs on the listener thread.
+     *
+     * @param tables     table names of interest
+     * @param subscriber change callback
+     * @return handle that removes the subscription when closed
+     */
+    public Subscription subscribe(Set<String> tables, Consumer<Set<String>> subscriber) {
+        Subscriber entry = new Subscriber(Set.copyOf(tables), subscriber);
+        subscribers.add(entry);
+        return () -> subscribers.remove(entry);
+    }
+
+    /**
+     * @return {@code true} while the listener connection is established
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running || datasourceUrl == null || !datasourceUrl.startsWith("jdbc:postgresql:")) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "order-change-feed");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            listenerThread = null;
+        }
+    }
+
+    private void listenLoop() {
+        long backoff = 1_000;
+        boolean resync = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    datasourceUrl, datasourceUsername, datasourcePassword)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                connected = true;
+                backoff = 1_000;
+                if (resync) {
+                    publish(WATCHED_TABLES);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    Set<String> changed = new LinkedHashSet<>();
+                    collect(pgConnection.getNotifications(WAIT_MILLIS), changed);
+                    if (changed.isEmpty()) {
+                        continue;
+                    }
+                    collect(pgConnection.getNotifications(COALESCE_MILLIS), changed);
+                    publish(changed);
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Order change feed disconnected ({}). Retrying in {} ms.", e.getMessage(), backoff);
+            } finally {
+                connected = false;
+            }
+            resync = true;
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                break;
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    private void collect(PGNotification[] notifications, Set<String> changed) {
+        if (notifications == null) {
+            return;
+        }
+        for (PGNotification notification : notifications) {
+            if (CHANNEL.equals(notification.getName())) {
+                changed.add(notification.getParameter());
+            }
+        }
+    }
+
+    private void publish(Set<String> changed) {
+        for (Subscriber subscriber : subscribers) {
+            Set<String> tables = changed.stream()
+                    .filter(subscriber.tables()::contains)
+                    .collect(Collectors.toUnmodifiableSet());
+            if (tables.isEmpty()) {
+                continue;
+            }
+            try {
+                subscriber.callback().accept(tables);
+            } catch (RuntimeException e) {
+                log.warn("Order change subscriber failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static Set<String> union(Set<String> first, Set<String> second) {
+        Set<String> tables = new LinkedHashSet<>(first);
+        tables.addAll(second);
+        return Set.copyOf(tables);
+    }
+
+    private record Subscriber(Set<String> tables, Consumer<Set<String>> callback) {
+    }
+
+    /**
+     * Handle returned by {@link #subscribe(Consumer)}.
+     */
+    @FunctionalInterface
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
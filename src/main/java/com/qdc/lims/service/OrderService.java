@@ -3,11 +3,13 @@ package com.qdc.lims.service;
 import com.qdc.lims.dto.OrderRequest;
 import com.qdc.lims.entity.*;
 import com.qdc.lims.repository.*;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Service for handling lab order creation and related business logic.
@@ -15,14 +17,22 @@ import java.util.List;
 @Service
 public class OrderService {
 
+    /**
+     * Attempts per order when a transaction loses a lock race.
+     */
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 50;
+
     private final LabOrderRepository orderRepo;
     private final PatientRepository patientRepo;
     private final TestDefinitionRepository testRepo;
     private final DoctorRepository doctorRepo;
     private final CommissionLedgerRepository commissionRepo;
-    private final TestConsumptionRepository consumptionRepo;
-    private final InventoryItemRepository inventoryRepo;
     private final PanelRepository panelRepo;
+    private final CommissionCalculationService commissionCalculationService;
+    private final InventoryDeductionService inventoryDeductionService;
+    private final IdentifierService identifierService;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Constructs an OrderService with all required repositories.
@@ -32,33 +42,68 @@ public class OrderService {
      * @param testRepo        TestDefinition repository
      * @param doctorRepo      Doctor repository
      * @param commissionRepo  CommissionLedger repository
-     * @param consumptionRepo TestConsumption repository
-     * @param inventoryRepo   InventoryItem repository
      * @param panelRepo       Panel repository
+     * @param commissionCalculationService commission rules applied at booking
+     * @param inventoryDeductionService stock deduction for ordered tests
+     * @param identifierService         allocator for accession numbers
+     * @param transactionTemplate       transaction boundary for each attempt
      */
     public OrderService(LabOrderRepository orderRepo, PatientRepository patientRepo,
             TestDefinitionRepository testRepo, DoctorRepository doctorRepo,
-            CommissionLedgerRepository commissionRepo, TestConsumptionRepository consumptionRepo,
-            InventoryItemRepository inventoryRepo, PanelRepository panelRepo) {
+            CommissionLedgerRepository commissionRepo, PanelRepository panelRepo,
+            CommissionCalculationService commissionCalculationService,
+            InventoryDeductionService inventoryDeductionService, IdentifierService identifierService,
+            TransactionTemplate transactionTemplate) {
         this.orderRepo = orderRepo;
         this.patientRepo = patientRepo;
         this.testRepo = testRepo;
         this.doctorRepo = doctorRepo;
         this.commissionRepo = commissionRepo;
-        this.consumptionRepo = consumptionRepo;
-        this.inventoryRepo = inventoryRepo;
         this.panelRepo = panelRepo;
+        this.commissionCalculationService = commissionCalculationService;
+        this.inventoryDeductionService = inventoryDeductionService;
+        this.identifierService = identifierService;
+        this.transactionTemplate = transactionTemplate;
     }
 
     /**
      * Creates a new lab order, handles inventory deduction, finance logic, and
      * commission calculation.
      *
+     * <p>
+     * Several reception workstations may book orders that consume the same
+     * items at once. Stock is decremented atomically, so they do not conflict
+     * on item versions, but a transaction can still lose a lock race (deadlock
+     * or lock timeout). Such transient failures are retried up to
+     * {@link #MAX_ATTEMPTS} times in a fresh transaction.
+     * </p>
+     *
      * @param request the order request data
      * @return the saved LabOrder entity
      */
-    @Transactional
     public LabOrder createOrder(OrderRequest request) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> createOrderOnce(request));
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                pauseBeforeRetry(attempt);
+            }
+        }
+    }
+
+    private void pauseBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MILLIS * attempt + ThreadLocalRandom.current().nextLong(RETRY_BACKOFF_MILLIS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying order creation", e);
+        }
+    }
+
+    private LabOrder createOrderOnce(OrderRequest request) {
         // 1. Find Patient
         Patient patient = patientRepo.findById(request.patientId())
                 .orElseThrow(() -> new RuntimeException("Patient not found"));
@@ -73,6 +118,7 @@ public class OrderService {
         LabOrder order = new LabOrder();
         order.setPatient(patient);
         order.setReferringDoctor(doctor);
+        order.setAccessionNumber(identifierService.nextAccessionNumber());
 
         BigDecimal totalAmount = BigDecimal.ZERO;
 
@@ -132,38 +178,6 @@ public class OrderService {
             result.setResultValue(""); // Waiting for Lab Tech
             result.setStatus("PENDING");
             order.getResults().add(result);
-
-            // C. INVENTORY LOGIC (Automatic Deduction)
-            List<TestConsumption> recipe = consumptionRepo.findByTest(test);
-            for (TestConsumption ingredient : recipe) {
-                InventoryItem item = ingredient.getItem();
-
-                BigDecimal needed = ingredient.getQuantity();
-                BigDecimal available = item.getCurrentStock();
-
-                // --- THE GUARD CHECK ---
-                if (available == null || needed == null || available.compareTo(needed) < 0) {
-                    throw new RuntimeException(
-                            "❌ OUT OF STOCK: Test '" + test.getTestName() + "' requires "
-                                    + (needed == null ? "0" : needed.toPlainString()) + " " + item.getUnit()
-                                    + " of '" + item.getItemName() + "', "
-                                    + "but only " + (available == null ? "0" : available.toPlainString())
-                                    + " is available.");
-                }
-                // -----------------------
-
-                // Subtract Stock
-                BigDecimal newStock = available.subtract(needed);
-                if (newStock.compareTo(BigDecimal.ZERO) < 0) {
-                    throw new RuntimeException(
-                            "❌ OUT OF STOCK: Not enough " + item.getItemName() + " to book this test.");
-                }
-
-                item.setCurrentStock(newStock);
-
-                // Save updated stock
-                inventoryRepo.save(item);
-            }
         }
 
         // --- NEW FINANCE LOGIC ---
@@ -177,16 +191,23 @@ public class OrderService {
         LabOrder savedOrder = orderRepo.save(order);
 
         // 4. COMMISSION LOGIC (Secret Table)
-        if (doctor != null
-                && doctor.getCommissionPercentage() != null
-                && doctor.getCommissionPercentage().compareTo(BigDecimal.ZERO) > 0) {
+        CommissionCalculationService.Commission commission = commissionCalculationService.calculate(doctor,
+                commissionCalculationService.billedLines(panels, allTests), totalAmount,
+                order.getDiscountAmount());
+        if (commission.amount().signum() > 0) {
             CommissionLedger ledger = new CommissionLedger();
             ledger.setLabOrder(savedOrder);
             ledger.setDoctor(doctor);
             ledger.setTotalBillAmount(totalAmount);
+            ledger.setCommissionPercentage(commission.rate());
+            ledger.setCalculatedAmount(commission.amount());
             commissionRepo.save(ledger);
         }
 
+        // 5. INVENTORY LOGIC (Automatic Deduction). Done last so the item row
+        // locks taken by the guarded updates are held only until commit.
+        inventoryDeductionService.deductForOrder(savedOrder.getId(), allTests);
+
         return savedOrder;
     }
 }
@@ -0,0 +1,133 @@
+package com.qdc.lims.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Optional monthly range partitioning of {@code lab_result} and
+ * {@code payments}, for retention and maintenance rather than speed.
+ *
+ * <p>
+ * The conversion and partition functions are installed by the V4
+ * migration. With {@code qdc.partitioning.enabled} set, startup converts
+ * whichever of the two tables is still a plain table. Results are keyed by
+ * their order's booking time, payments by transaction date, so old months can
+ * be detached, copied or dropped as a whole and vacuum works month by month.
+ * Screens do not get faster: those spanning many months plan more partitions
+ * (see {@code MonthlyPartitionBenchmarkTest}). {@code lab_order} and
+ * {@code commission_ledger} are not converted, because their accession number
+ * and one-commission-per-order keys would only be unique within a month.
+ * Conversion rewrites the tables under an exclusive lock, so enable it on one
+ * workstation in a maintenance window, after every workstation runs a version
+ * that writes {@code lab_result.order_date}.
+ * </p>
+ *
+ * <p>
+ * Foreign keys from other tables into a converted table are dropped, because
+ * they reference {@code id} alone and the partitioned primary key is
+ * {@code (id, month key)}. For {@code lab_result} that is
+ * {@code lab_result_edit_audit.result_id}; audit rows still carry their order.
+ * Each dropped key is logged as a warning before the conversion runs.
+ * </p>
+ *
+ * <p>
+ * Whether or not conversion is enabled, a daily job creates the partitions of
+ * the current month and the next {@code qdc.partitioning.months-ahead} months
+ * for every converted table, so new rows never fall into the default
+ * partition. Both steps are serialized across workstations with an advisory
+ * lock.
+ * </p>
+ */
+@Service
+public class PartitionMaintenanceService {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext('monthly_partitions'))";
+    private static final String CONVERT_SQL = "SELECT qdc_partition_high_volume_tables(?)";
+    private static final String INCOMING_KEYS_SQL = """
+            SELECT format('%s.%s -> %s', c.conrelid::regclass, c.conname, c.confrelid::regclass)
+            FROM pg_constraint c
+            WHERE c.contype = 'f' AND c.conrelid <> c.confrelid
+              AND c.confrelid IN (to_regclass('lab_result'), to_regclass('payments'))
+              AND NOT EXISTS (SELECT 1 FROM pg_partitioned_table pt WHERE pt.partrelid = c.confrelid)
+            """;
+    private static final String CREATE_AHEAD_SQL = "SELECT qdc_ensure_month_partitions(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            @Value("${qdc.partitioning.enabled:false}") boolean enabled,
+            @Value("${qdc.partitioning.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+    }
+
+    /**
+     * Converts the tables when partitioning is enabled, then makes sure the
+     * coming months have their partitions.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (enabled) {
+            try {
+                int converted = convert();
+                if (converted > 0) {
+                    log.info("Partitioned {} tables by month.", converted);
+                }
+            } catch (DataAccessException e) {
+                log.error("Monthly partitioning failed; the tables were left unchanged.", e);
+            }
+        }
+        createPartitionsAhead();
+    }
+
+    /**
+     * Creates missing partitions for the current month and the configured
+     * months ahead. Does nothing for tables that are not partitioned.
+     *
+     * @return number of partitions created
+     */
+    @Scheduled(cron = "${qdc.partitioning.create-ahead-cron:0 15 0 * * *}")
+    public int createPartitionsAhead() {
+        int created = inLockedTransaction(CREATE_AHEAD_SQL);
+        if (created > 0) {
+            log.info("Created {} monthly partitions.", created);
+        }
+        return created;
+    }
+
+    private int convert() {
+        Integer converted = transactionTemplate.execute(status -> {
+            jdbcTemplate.query(LOCK_SQL, rs -> {
+            });
+            for (String key : jdbcTemplate.queryForList(INCOMING_KEYS_SQL, String.class)) {
+                log.warn("Monthly partitioning drops foreign key {}.", key);
+            }
+            return jdbcTemplate.queryForObject(CONVERT_SQL, Integer.class, monthsAhead);
+        });
+        return converted != null ? converted : 0;
+    }
+
+    private int inLockedTransaction(String sql) {
+        Integer rows = transactionTemplate.execute(status -> {
+            jdbcTemplate.query(LOCK_SQL, rs -> {
+            });
+            return jdbcTemplate.queryForObject(sql, Integer.class, monthsAhead);
+        });
+        return rows != null ? rows : 0;
+    }
+}
@@ -2,29 +2,44 @@ package com.qdc.lims.service;
 
 import com.qdc.lims.entity.Patient;
 import com.qdc.lims.repository.PatientRepository;
-import com.qdc.lims.util.IdGenerator;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
 /**
- * Service for handling patient registration and related logic.
+ * Service for handling patient registration and search.
  */
 @Service
 public class PatientService {
 
+    /**
+     * Maximum number of patients a search returns.
+     */
+    public static final int SEARCH_LIMIT = 20;
+
+    // Shorter fragments have no trigram to look up, so they only match prefixes.
+    private static final int MIN_CONTAINS_LENGTH = 3;
+
     private final PatientRepository repository;
+    private final IdentifierService identifierService;
 
     /**
      * Constructs a PatientService with the specified PatientRepository.
      *
      * @param repository the repository for patient entities
+     * @param identifierService allocator for new MRNs
      */
-    public PatientService(PatientRepository repository) {
+    public PatientService(PatientRepository repository, IdentifierService identifierService) {
         this.repository = repository;
+        this.identifierService = identifierService;
     }
 
     /**
-     * Registers a new patient, checks for CNIC uniqueness, and generates a unique MRN.
+     * Registers a new patient, checks for CNIC uniqueness, and assigns a new MRN.
      *
      * @param patient the patient entity to register
      * @return the saved Patient entity
@@ -44,18 +59,75 @@ public class PatientService {
             }
         }
 
-        // 3. Generate a Unique MRN
-        String newMrn = "";
-        boolean isUnique = false;
+        // 3. Assign the next MRN (allocated numbers are never reused)
+        patient.setMrn(identifierService.nextMrn());
+        return repository.save(patient);
+    }
 
-        while (!isUnique) {
-            newMrn = IdGenerator.generateMrn();
-            if (!repository.existsByMrn(newMrn)) {
-                isUnique = true;
+    /**
+     * Searches patients by name, MRN or mobile number. Exact MRN or mobile
+     * number matches come first, then patients whose name, MRN or number
+     * starts with the query, then those containing it; within each group the
+     * most recently registered come first. The words of a multi-word query
+     * must appear in that order.
+     *
+     * @param query free-text search input
+     * @return up to {@link #SEARCH_LIMIT} matching patients, best first
+     */
+    @Transactional(readOnly = true)
+    public List<Patient> searchPatients(String query) {
+        String term = normalize(query);
+        if (term.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Patient> matches = new LinkedHashMap<>();
+        addMatches(matches, repository.findByExactIdentifier(term, SEARCH_LIMIT));
+        String pattern = toLikePattern(term);
+        if (matches.size() < SEARCH_LIMIT) {
+            addMatches(matches, repository.searchByPattern(pattern + "%", SEARCH_LIMIT));
+        }
+        if (matches.size() < SEARCH_LIMIT && term.length() >= MIN_CONTAINS_LENGTH) {
+            addMatches(matches, repository.searchByPattern("%" + pattern + "%", SEARCH_LIMIT));
+        }
+        return List.copyOf(matches.values());
+    }
+
+    /**
+     * Finds registered patients with the same name and mobile number, so
+     * registration can warn before creating a second record for someone.
+     *
+     * @param fullName     name being registered
+     * @param mobileNumber mobile number being registered
+     * @return likely existing records of the same patient
+     */
+    @Transactional(readOnly = true)
+    public List<Patient> findLikelyDuplicates(String fullName, String mobileNumber) {
+        String name = normalize(fullName);
+        if (name.isEmpty() || mobileNumber == null || mobileNumber.isBlank()) {
+            return List.of();
+        }
+        return repository.findByExactIdentifier(mobileNumber.trim(), SEARCH_LIMIT).stream()
+                .filter(patient -> name.equals(normalize(patient.getFullName())))
+                .toList();
+    }
+
+    private static void addMatches(Map<Long, Patient> matches, List<Patient> patients) {
+        for (Patient patient : patients) {
+            if (matches.size() == SEARCH_LIMIT) {
+                return;
             }
+            matches.putIfAbsent(patient.getId(), patient);
         }
+    }
 
-        patient.setMrn(newMrn);
-        return repository.save(patient);
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String toLikePattern(String term) {
+        return term.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_")
+                .replace(' ', '%');
     }
-}
\ No newline at end of file
+}
@@ -8,8 +8,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Service for handling inventory purchases and supplier ledger updates.
@@ -20,6 +22,8 @@ public class PurchaseService {
     private final InventoryItemRepository inventoryRepo;
     private final SupplierRepository supplierRepo;
     private final SupplierLedgerRepository ledgerRepo;
+    private final StockLedgerService stockLedgerService;
+    private final SupplierAccountService supplierAccountService;
 
     /**
      * Constructs a PurchaseService with the required repositories.
@@ -27,12 +31,17 @@ public class PurchaseService {
      * @param inventoryRepo repository for inventory items
      * @param supplierRepo repository for suppliers
      * @param ledgerRepo repository for supplier ledger entries
+     * @param stockLedgerService ledger that records the received stock
+     * @param supplierAccountService writes bills and payments and keeps supplier balances
      */
     public PurchaseService(InventoryItemRepository inventoryRepo, SupplierRepository supplierRepo,
-            SupplierLedgerRepository ledgerRepo) {
+            SupplierLedgerRepository ledgerRepo, StockLedgerService stockLedgerService,
+            SupplierAccountService supplierAccountService) {
         this.inventoryRepo = inventoryRepo;
         this.supplierRepo = supplierRepo;
         this.ledgerRepo = ledgerRepo;
+        this.stockLedgerService = stockLedgerService;
+        this.supplierAccountService = supplierAccountService;
     }
 
     /**
@@ -56,43 +65,33 @@ public class PurchaseService {
 
         Supplier supplier = supplierRepo.findById(request.supplierId()).orElseThrow();
         BigDecimal totalBill = BigDecimal.ZERO;
+        List<StockMovement> receipts = new ArrayList<>();
 
         // 1. Process Each Item
         for (PurchaseItemDTO itemDto : request.items()) {
-            InventoryItem stockItem = inventoryRepo.findById(itemDto.itemId()).orElseThrow();
-
-            // --- THE WAC MATH ---
-            BigDecimal oldStock = stockItem.getCurrentStock() != null ? stockItem.getCurrentStock()
-                    : BigDecimal.ZERO;
-            BigDecimal oldCost = stockItem.getAverageCost() != null ? stockItem.getAverageCost()
-                    : BigDecimal.ZERO;
-            BigDecimal oldTotalValue = oldStock.multiply(oldCost);
-
             BigDecimal newQty = itemDto.quantity() != null ? itemDto.quantity() : BigDecimal.ZERO;
             BigDecimal newCost = itemDto.costPrice() != null ? itemDto.costPrice() : BigDecimal.ZERO;
             BigDecimal newTotalValue = newQty.multiply(newCost);
 
-            BigDecimal finalQty = oldStock.add(newQty);
-            BigDecimal finalValue = oldTotalValue.add(newTotalValue);
-
-            // Calculate New Average (Avoid divide by zero)
-            BigDecimal newAverageCost = finalQty.compareTo(BigDecimal.ZERO) > 0
-                    ? finalValue.divide(finalQty, 4, RoundingMode.HALF_UP)
-                    : newCost;
-
             // --- UPDATE DB ---
-            stockItem.setCurrentStock(finalQty);
-            stockItem.setAverageCost(newAverageCost);
+            // Stock and weighted average cost are updated in one statement against the
+            // committed row, so bookings deducting the same item concurrently do not conflict.
+            if (inventoryRepo.receiveStock(itemDto.itemId(), newQty, newCost) == 0) {
+                throw new NoSuchElementException("Inventory item not found: " + itemDto.itemId());
+            }
 
             // Optional: Set Preferred Supplier if not set
-            if (stockItem.getPreferredSupplier() == null) {
-                stockItem.setPreferredSupplier(supplier);
-            }
+            inventoryRepo.setPreferredSupplierIfAbsent(itemDto.itemId(), supplier);
 
-            inventoryRepo.save(stockItem);
+            if (newQty.signum() != 0) {
+                StockMovement receipt = stockLedgerService.movement(StockMovement.PURCHASE, itemDto.itemId(), newQty);
+                receipt.setReference(request.invoiceNumber());
+                receipts.add(receipt);
+            }
 
             totalBill = totalBill.add(newTotalValue);
         }
+        stockLedgerService.record(receipts);
 
         // 2. Create Financial Ledger Entry
         SupplierLedger ledger = new SupplierLedger();
@@ -103,7 +102,7 @@ public class PurchaseService {
         ledger.setInvoiceNumber(request.invoiceNumber());
         ledger.setBillAmount(totalBill); // This increases what we owe
 
-        ledgerRepo.save(ledger);
+        supplierAccountService.recordBill(ledger);
 
         // --- NEW: 3. Handle Immediate Payment (The Cash) ---
         if (request.amountPaidNow() != null && request.amountPaidNow().compareTo(BigDecimal.ZERO) > 0) {
@@ -118,7 +117,7 @@ public class PurchaseService {
             payLedger.setBillAmount(BigDecimal.ZERO);
             payLedger.setPaidAmount(request.amountPaidNow()); // We paid this
 
-            ledgerRepo.save(payLedger);
+            supplierAccountService.recordPayment(payLedger);
         }
 
     }
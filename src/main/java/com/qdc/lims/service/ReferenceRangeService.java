@@ -0,0 +1,355 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.dto.ReferenceRangeRow;
+import com.qdc.lims.entity.Patient;
+import com.qdc.lims.entity.TestDefinition;
+import com.qdc.lims.repository.ReferenceRangeRepository;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the reference range that applies to a patient for a test and flags
+ * numeric results against it.
+ *
+ * <p>
+ * All ranges are held in an immutable in-memory index keyed by test, gender
+ * and age interval, so result entry and report printing never query the
+ * database per result. Within a test, an exact gender match beats "Both",
+ * which beats ranges without a gender; among those, the range with the lowest
+ * minimum age wins. The index is built on first use and rebuilt by
+ * {@link #reload()} whenever ranges are edited.
+ * </p>
+ */
+@Service
+public class ReferenceRangeService {
+
+    private static final String BOTH = "both";
+
+    private static final Comparator<ReferenceRangeRow> PREFERENCE = Comparator
+            .comparing(ReferenceRangeRow::minAge, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ReferenceRangeRow::id, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final ReferenceRangeRepository referenceRangeRepository;
+
+    private volatile Index index;
+
+    public ReferenceRangeService(ReferenceRangeRepository referenceRangeRepository) {
+        this.referenceRangeRepository = referenceRangeRepository;
+    }
+
+    /**
+     * Finds the reference limits for a test and patient.
+     *
+     * @param test    test definition
+     * @param patient patient (nullable; age and gender are then unknown)
+     * @return matching limits, or {@code null} when the test has no applicable
+     *         range
+     */
+    public Limits resolve(TestDefinition test, Patient patient) {
+        if (test == null || test.getId() == null) {
+            return null;
+        }
+        return resolve(test.getId(),
+                patient != null ? patient.getAge() : null,
+                patient != null ? patient.getGender() : null);
+    }
+
+    /**
+     * Finds the reference limits for a test, age and gender.
+     *
+     * @param testId test definition id
+     * @param age    patient age in years (nullable = any age)
+     * @param gender patient gender (nullable = any gender)
+     * @return matching limits, or {@code null} when none apply
+     */
+    public Limits resolve(Long testId, Integer age, String gender) {
+        if (testId == null) {
+            return null;
+        }
+        TestRanges ranges = currentIndex().byTest.get(testId);
+        return ranges != null ? ranges.find(age, gender) : null;
+    }
+
+    /**
+     * Flags a result value against the range that applies to the patient.
+     *
+     * @param test    test definition
+     * @param patient patient (nullable)
+     * @param value   entered result value
+     * @return LOW, HIGH or NORMAL for numeric values with a range, otherwise
+     *         UNCLASSIFIED
+     */
+    public Flag classify(TestDefinition test, Patient patient, String value) {
+        BigDecimal number = parseNumeric(value);
+        if (number == null) {
+            return Flag.UNCLASSIFIED;
+        }
+        return classify(number, resolve(test, patient));
+    }
+
+    /**
+     * Flags a numeric value against the given limits. A missing limit leaves
+     * that side unbounded.
+     *
+     * @param value  numeric value (nullable)
+     * @param limits reference limits (nullable)
+     * @return resulting flag
+     */
+    public Flag classify(BigDecimal value, Limits limits) {
+        if (value == null || limits == null || (limits.min() == null && limits.max() == null)) {
+            return Flag.UNCLASSIFIED;
+        }
+        if (limits.min() != null && value.compareTo(limits.min()) < 0) {
+            return Flag.LOW;
+        }
+        if (limits.max() != null && value.compareTo(limits.max()) > 0) {
+            return Flag.HIGH;
+        }
+        return Flag.NORMAL;
+    }
+
+    /**
+     * Rebuilds the index from the database. Call after ranges are saved or
+     * deleted.
+     */
+    public synchronized void reload() {
+        index = new Index(referenceRangeRepository.findAllRows());
+    }
+
+    /**
+     * Parses a plain decimal number ({@code 12}, {@code -0.5}, {@code 1.2e3})
+     * without relying on {@link NumberFormatException} for text results such as
+     * "Positive" or "&lt;0.5".
+     *
+     * @param value raw result text
+     * @return parsed value, or {@code null} when the text is not a number
+     */
+    public static BigDecimal parseNumeric(String value) {
+        if (value == null) {
+            return null;
+        }
+        String text = value.trim();
+        int length = text.length();
+        int i = 0;
+        if (i < length && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+            i++;
+        }
+        int digits = 0;
+        boolean dot = false;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return null;
+        }
+        if (i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+                i++;
+            }
+            int exponentDigits = 0;
+            while (i < length && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                i++;
+                exponentDigits++;
+            }
+            // More than 9 exponent digits would overflow BigDecimal's scale.
+            if (exponentDigits == 0 || exponentDigits > 9) {
+                return null;
+            }
+        }
+        return i == length ? new BigDecimal(text) : null;
+    }
+
+    private Index currentIndex() {
+        Index current = index;
+        if (current == null) {
+            synchronized (this) {
+                if (index == null) {
+                    reload();
+                }
+                current = index;
+            }
+        }
+        return current;
+    }
+
+    private static String genderKey(String gender) {
+        return gender.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Low/high limits of a reference range.
+     *
+     * @param min low limit (nullable)
+     * @param max high limit (nullable)
+     */
+    public record Limits(BigDecimal min, BigDecimal max) {
+    }
+
+    /**
+     * Outcome of flagging a result value.
+     */
+    public enum Flag {
+        LOW("LOW", true),
+        NORMAL("Normal", false),
+        HIGH("HIGH", true),
+        /** Non-numeric value, or no range applies. */
+        UNCLASSIFIED("", false);
+
+        private final String remarks;
+        private final boolean abnormal;
+
+        Flag(String remarks, boolean abnormal) {
+            this.remarks = remarks;
+            this.abnormal = abnormal;
+        }
+
+        /**
+         * @return text stored in {@code LabResult.remarks}
+         */
+        public String getRemarks() {
+            return remarks;
+        }
+
+        /**
+         * @return value stored in {@code LabResult.abnormal}
+         */
+        public boolean isAbnormal() {
+            return abnormal;
+        }
+    }
+
+    private static final class Index {
+        private final Map<Long, TestRanges> byTest;
+
+        private Index(List<ReferenceRangeRow> rows) {
+            Map<Long, List<ReferenceRangeRow>> grouped = rows.stream()
+                    .filter(row -> row.testId() != null)
+                    .collect(Collectors.groupingBy(ReferenceRangeRow::testId));
+            Map<Long, TestRanges> built = new HashMap<>();
+            grouped.forEach((testId, testRows) -> built.put(testId, new TestRanges(testRows)));
+            this.byTest = Map.copyOf(built);
+        }
+    }
+
+    /**
+     * Ranges of one test, split into the gender tiers used for matching.
+     */
+    private static final class TestRanges {
+        private final Map<String, AgeTable> byGender;
+        private final AgeTable withoutGender;
+        private final AgeTable allExceptBoth;
+
+        private TestRanges(List<ReferenceRangeRow> rows) {
+            Map<String, List<ReferenceRangeRow>> gendered = new HashMap<>();
+            List<ReferenceRangeRow> ungendered = new ArrayList<>();
+            List<ReferenceRangeRow> notBoth = new ArrayList<>();
+            for (ReferenceRangeRow row : rows) {
+                if (row.gender() == null) {
+                    ungendered.add(row);
+                } else {
+                    gendered.computeIfAbsent(genderKey(row.gender()), key -> new ArrayList<>()).add(row);
+                }
+                if (row.gender() == null || !BOTH.equals(genderKey(row.gender()))) {
+                    notBoth.add(row);
+                }
+            }
+            Map<String, AgeTable> tables = new HashMap<>();
+            gendered.forEach((key, genderRows) -> tables.put(key, AgeTable.of(genderRows)));
+            this.byGender = Map.copyOf(tables);
+            this.withoutGender = AgeTable.of(ungendered);
+            this.allExceptBoth = AgeTable.of(notBoth);
+        }
+
+        private Limits find(Integer age, String gender) {
+            if (gender != null) {
+                // A known gender excludes ranges for the other gender entirely.
+                Limits match = AgeTable.find(byGender.get(genderKey(gender)), age);
+                if (match == null) {
+                    match = AgeTable.find(byGender.get(BOTH), age);
+                }
+                return match != null ? match : AgeTable.find(withoutGender, age);
+            }
+            Limits match = AgeTable.find(byGender.get(BOTH), age);
+            return match != null ? match : AgeTable.find(allExceptBoth, age);
+        }
+    }
+
+    /**
+     * Age axis of one gender tier, cut at every range boundary. Each segment
+     * stores the preferred range covering it, so a lookup is one binary search.
+     */
+    private static final class AgeTable {
+        private final int[] segmentStarts;
+        private final Limits[] segmentLimits;
+        private final Limits anyAge;
+
+        private AgeTable(int[] segmentStarts, Limits[] segmentLimits, Limits anyAge) {
+            this.segmentStarts = segmentStarts;
+            this.segmentLimits = segmentLimits;
+            this.anyAge = anyAge;
+        }
+
+        private static AgeTable of(List<ReferenceRangeRow> rows) {
+            if (rows.isEmpty()) {
+                return null;
+            }
+            List<ReferenceRangeRow> preferred = new ArrayList<>(rows);
+            preferred.sort(PREFERENCE);
+
+            TreeSet<Integer> boundaries = new TreeSet<>();
+            boundaries.add(Integer.MIN_VALUE);
+            for (ReferenceRangeRow row : preferred) {
+                if (row.minAge() != null) {
+                    boundaries.add(row.minAge());
+                }
+                if (row.maxAge() != null && row.maxAge() < Integer.MAX_VALUE) {
+                    boundaries.add(row.maxAge() + 1);
+                }
+            }
+
+            int[] starts = boundaries.stream().mapToInt(Integer::intValue).toArray();
+            Limits[] limits = new Limits[starts.length];
+            for (int i = 0; i < starts.length; i++) {
+                int age = starts[i];
+                for (ReferenceRangeRow row : preferred) {
+                    if ((row.minAge() == null || age >= row.minAge())
+                            && (row.maxAge() == null || age <= row.maxAge())) {
+                        limits[i] = new Limits(row.minVal(), row.maxVal());
+                        break;
+                    }
+                }
+            }
+            ReferenceRangeRow first = preferred.get(0);
+            return new AgeTable(starts, limits, new Limits(first.minVal(), first.maxVal()));
+        }
+
+        private static Limits find(AgeTable table, Integer age) {
+            if (table == null) {
+                return null;
+            }
+            if (age == null) {
+                return table.anyAge;
+            }
+            int position = Arrays.binarySearch(table.segmentStarts, age);
+            return table.segmentLimits[position >= 0 ? position : -position - 2];
+        }
+    }
+}
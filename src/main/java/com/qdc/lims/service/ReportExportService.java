@@ -4,7 +4,7 @@ import com.lowagie.text.*;
 import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
-import com.qdc.lims.entity.LabOrder;
+import com.qdc.lims.dto.LabOrderSummary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -29,9 +29,9 @@ public class ReportExportService {
     private static final Font DATA_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10);
 
     /**
-     * Export a list of LabOrders to a formatted PDF report.
+     * Export a list of order summaries to a formatted PDF report.
      */
-    public void exportDailyRevenuePdf(List<LabOrder> orders, String dateStr, File destination) throws Exception {
+    public void exportDailyRevenuePdf(List<LabOrderSummary> orders, String dateStr, File destination) throws Exception {
         Document document = new Document(PageSize.A4);
         PdfWriter.getInstance(document, new FileOutputStream(destination));
         document.open();
@@ -59,26 +59,26 @@ public class ReportExportService {
         BigDecimal grandTotal = BigDecimal.ZERO;
         BigDecimal totalPaid = BigDecimal.ZERO;
 
-        for (LabOrder order : orders) {
-            addCell(table, order.getId().toString(), DATA_FONT, false);
-            addCell(table, order.getPatient().getFullName(), DATA_FONT, false);
-            addCell(table, order.getReferringDoctor() != null ? order.getReferringDoctor().getName() : "-", DATA_FONT,
+        for (LabOrderSummary order : orders) {
+            addCell(table, order.id().toString(), DATA_FONT, false);
+            addCell(table, order.patientName(), DATA_FONT, false);
+            addCell(table, order.doctorName() != null ? order.doctorName() : "-", DATA_FONT,
                     false);
             addCell(table,
-                    localeFormatService.formatCurrency(order.getTotalAmount() != null ? order.getTotalAmount()
+                    localeFormatService.formatCurrency(order.totalAmount() != null ? order.totalAmount()
                             : BigDecimal.ZERO),
                     DATA_FONT, false);
             addCell(table,
-                    localeFormatService.formatCurrency(order.getPaidAmount() != null ? order.getPaidAmount()
+                    localeFormatService.formatCurrency(order.paidAmount() != null ? order.paidAmount()
                             : BigDecimal.ZERO),
                     DATA_FONT, false);
             addCell(table,
-                    localeFormatService.formatCurrency(order.getBalanceDue() != null ? order.getBalanceDue()
+                    localeFormatService.formatCurrency(order.balanceDue() != null ? order.balanceDue()
                             : BigDecimal.ZERO),
                     DATA_FONT, false);
 
-            grandTotal = grandTotal.add(order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO);
-            totalPaid = totalPaid.add(order.getPaidAmount() != null ? order.getPaidAmount() : BigDecimal.ZERO);
+            grandTotal = grandTotal.add(order.totalAmount() != null ? order.totalAmount() : BigDecimal.ZERO);
+            totalPaid = totalPaid.add(order.paidAmount() != null ? order.paidAmount() : BigDecimal.ZERO);
         }
 
         document.add(table);
@@ -100,25 +100,25 @@ public class ReportExportService {
     /**
      * Export data to CSV format.
      */
-    public void exportDailyRevenueCsv(List<LabOrder> orders, File destination) throws IOException {
+    public void exportDailyRevenueCsv(List<LabOrderSummary> orders, File destination) throws IOException {
         try (FileWriter writer = new FileWriter(destination)) {
             // Header
             writer.write("Order ID,Date/Time,Patient Name,Doctor,Total Amount,Paid Amount,Balance Due\n");
 
-            for (LabOrder order : orders) {
+            for (LabOrderSummary order : orders) {
                 writer.write(String.format("%d,%s,\"%s\",\"%s\",%s,%s,%s\n",
-                        order.getId(),
-                        localeFormatService.formatDateTime(order.getOrderDate()),
-                        order.getPatient().getFullName(),
-                        order.getReferringDoctor() != null ? order.getReferringDoctor().getName() : "",
+                        order.id(),
+                        localeFormatService.formatDateTime(order.orderDate()),
+                        order.patientName(),
+                        order.doctorName() != null ? order.doctorName() : "",
                         localeFormatService
-                                .formatNumber(order.getTotalAmount() != null ? order.getTotalAmount()
+                                .formatNumber(order.totalAmount() != null ? order.totalAmount()
                                         : BigDecimal.ZERO),
                         localeFormatService
-                                .formatNumber(order.getPaidAmount() != null ? order.getPaidAmount()
+                                .formatNumber(order.paidAmount() != null ? order.paidAmount()
                                         : BigDecimal.ZERO),
                         localeFormatService
-                                .formatNumber(order.getBalanceDue() != null ? order.getBalanceDue()
+                                .formatNumber(order.balanceDue() != null ? order.balanceDue()
                                         : BigDecimal.ZERO)));
             }
         }
@@ -3,8 +3,6 @@ package com.qdc.lims.service;
 import com.lowagie.text.*;
 import com.lowagie.text.pdf.*;
 import com.qdc.lims.entity.*;
-import com.qdc.lims.repository.LabOrderRepository;
-import com.qdc.lims.repository.ReferenceRangeRepository;
 import org.springframework.stereotype.Service;
 
 import java.awt.Color;
@@ -22,25 +20,25 @@ import java.util.stream.Collectors;
 @Service
 public class ReportService {
 
-    private final LabOrderRepository orderRepo;
+    private final OrderArchiveService orderArchiveService;
     private final BrandingService brandingService;
     private final LocaleFormatService localeFormatService;
-    private final ReferenceRangeRepository referenceRangeRepository;
+    private final ReferenceRangeService referenceRangeService;
 
     /**
      * Creates the report service.
      *
-     * @param orderRepo       lab order repository
-     * @param brandingService branding and lab profile service
+     * @param orderArchiveService order lookup across the hot and archive tiers
+     * @param brandingService     branding and lab profile service
      */
-    public ReportService(LabOrderRepository orderRepo,
+    public ReportService(OrderArchiveService orderArchiveService,
             BrandingService brandingService,
             LocaleFormatService localeFormatService,
-            ReferenceRangeRepository referenceRangeRepository) {
-        this.orderRepo = orderRepo;
+            ReferenceRangeService referenceRangeService) {
+        this.orderArchiveService = orderArchiveService;
         this.brandingService = brandingService;
         this.localeFormatService = localeFormatService;
-        this.referenceRangeRepository = referenceRangeRepository;
+        this.referenceRangeService = referenceRangeService;
     }
 
     /**
@@ -50,7 +48,7 @@ public class ReportService {
      * @return PDF document bytes
      */
     public byte[] generatePdfReport(Long orderId) {
-        LabOrder order = orderRepo.findById(orderId)
+        LabOrder order = orderArchiveService.findWithDetailsById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
         Patient patient = order.getPatient();
 
@@ -185,10 +183,10 @@ public class ReportService {
     private String formatRange(TestDefinition testDefinition, Patient patient) {
         BigDecimal min = testDefinition.getMinRange();
         BigDecimal max = testDefinition.getMaxRange();
-        ReferenceRange range = findMatchingRange(testDefinition, patient);
+        ReferenceRangeService.Limits range = referenceRangeService.resolve(testDefinition, patient);
         if (range != null) {
-            min = range.getMinVal();
-            max = range.getMaxVal();
+            min = range.min();
+            max = range.max();
         }
         if (min != null && max != null) {
             return min + " - " + max;
@@ -196,76 +194,6 @@ public class ReportService {
         return "";
     }
 
-    private ReferenceRange findMatchingRange(TestDefinition testDefinition, Patient patient) {
-        if (testDefinition == null || testDefinition.getId() == null) {
-            return null;
-        }
-        List<ReferenceRange> ranges = referenceRangeRepository.findByTestId(testDefinition.getId());
-        if (ranges == null || ranges.isEmpty()) {
-            return null;
-        }
-        Integer age = patient != null ? patient.getAge() : null;
-        String gender = patient != null ? patient.getGender() : null;
-
-        return ranges.stream()
-                .filter(range -> matchesRange(range, age, gender))
-                .sorted((a, b) -> {
-                    int genderScoreA = genderScore(a, gender);
-                    int genderScoreB = genderScore(b, gender);
-                    if (genderScoreA != genderScoreB) {
-                        return Integer.compare(genderScoreB, genderScoreA);
-                    }
-                    Integer minA = a.getMinAge();
-                    Integer minB = b.getMinAge();
-                    if (minA == null && minB == null) {
-                        return 0;
-                    }
-                    if (minA == null) {
-                        return 1;
-                    }
-                    if (minB == null) {
-                        return -1;
-                    }
-                    return Integer.compare(minA, minB);
-                })
-                .findFirst()
-                .orElse(null);
-    }
-
-    private boolean matchesRange(ReferenceRange range, Integer age, String gender) {
-        if (range == null) {
-            return false;
-        }
-        String rangeGender = range.getGender();
-        if (gender != null && rangeGender != null && !"Both".equalsIgnoreCase(rangeGender)
-                && !rangeGender.equalsIgnoreCase(gender)) {
-            return false;
-        }
-        if (age != null) {
-            if (range.getMinAge() != null && age < range.getMinAge()) {
-                return false;
-            }
-            if (range.getMaxAge() != null && age > range.getMaxAge()) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    private int genderScore(ReferenceRange range, String gender) {
-        if (range == null) {
-            return 0;
-        }
-        String rangeGender = range.getGender();
-        if (gender != null && rangeGender != null && rangeGender.equalsIgnoreCase(gender)) {
-            return 2;
-        }
-        if (rangeGender != null && "Both".equalsIgnoreCase(rangeGender)) {
-            return 1;
-        }
-        return 0;
-    }
-
     private void addLabContactDetails(Document document) throws DocumentException {
         Font contactFont = FontFactory.getFont(FontFactory.HELVETICA, 11, Color.DARK_GRAY);
 
@@ -4,12 +4,10 @@ import com.qdc.lims.dto.ResultEntryRequest;
 import com.qdc.lims.entity.LabOrder;
 import com.qdc.lims.entity.LabResult;
 import com.qdc.lims.entity.LabResultEditAudit;
-import com.qdc.lims.entity.ReferenceRange;
 import com.qdc.lims.entity.TestDefinition;
 import com.qdc.lims.repository.LabOrderRepository;
 import com.qdc.lims.repository.LabResultEditAuditRepository;
 import com.qdc.lims.repository.LabResultRepository;
-import com.qdc.lims.repository.ReferenceRangeRepository;
 
 import com.qdc.lims.ui.CurrentUserProvider;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +15,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -28,7 +30,7 @@ public class ResultService {
     private final LabResultRepository repository;
     private final LabResultEditAuditRepository labResultEditAuditRepository;
     private final CurrentUserProvider currentUserProvider;
-    private final ReferenceRangeRepository referenceRangeRepository;
+    private final ReferenceRangeService referenceRangeService;
 
     @Autowired
     private LabOrderRepository orderRepo;
@@ -41,11 +43,11 @@ public class ResultService {
     public ResultService(LabResultRepository repository,
             LabResultEditAuditRepository labResultEditAuditRepository,
             CurrentUserProvider currentUserProvider,
-            ReferenceRangeRepository referenceRangeRepository) {
+            ReferenceRangeService referenceRangeService) {
         this.repository = repository;
         this.labResultEditAuditRepository = labResultEditAuditRepository;
         this.currentUserProvider = currentUserProvider;
-        this.referenceRangeRepository = referenceRangeRepository;
+        this.referenceRangeService = referenceRangeService;
     }
 
     /**
@@ -65,27 +67,11 @@ public class ResultService {
         // 2. Save the value
         result.setResultValue(request.value());
 
-        // 3. Auto-Validation Logic
-        try {
-            java.math.BigDecimal val = new java.math.BigDecimal(request.value());
-
-            ReferenceRange matchingRule = findMatchingRange(test, result.getLabOrder().getPatient());
-            if (matchingRule != null && matchingRule.getMinVal() != null && matchingRule.getMaxVal() != null) {
-                if (val.compareTo(matchingRule.getMinVal()) < 0) {
-                    result.setAbnormal(true);
-                    result.setRemarks("LOW");
-                } else if (val.compareTo(matchingRule.getMaxVal()) > 0) {
-                    result.setAbnormal(true);
-                    result.setRemarks("HIGH");
-                } else {
-                    result.setAbnormal(false);
-                    result.setRemarks("Normal");
-                }
-            }
-        } catch (NumberFormatException e) {
-            // If the result is text (e.g., "Positive"), we can't check ranges
-            result.setAbnormal(false);
-        }
+        // 3. Auto-Validation Logic (text results such as "Positive" are not flagged)
+        ReferenceRangeService.Flag flag = referenceRangeService.classify(test,
+                result.getLabOrder().getPatient(), request.value());
+        result.setAbnormal(flag.isAbnormal());
+        result.setRemarks(flag.getRemarks());
 
         return repository.save(result);
     }
@@ -94,6 +80,12 @@ public class ResultService {
      * Saves all lab results from a form, applies validation and audit logic, and
      * updates order status.
      *
+     * <p>
+     * The order's result rows are loaded in one query and changed in memory;
+     * Hibernate flushes the updates as one JDBC batch at commit. The order
+     * status is derived from the same in-memory rows.
+     * </p>
+     *
      * @param orderForm the LabOrder containing results to save
      */
     @Transactional
@@ -108,92 +100,56 @@ public class ResultService {
 
         // 1. Get Current User
         String currentUser = currentUserProvider.getUsername();
+        LocalDateTime performedAt = LocalDateTime.now();
+
+        List<LabResult> dbResults = repository.findAllByOrderIdWithTest(labOrder.getId());
+        Map<Long, LabResult> resultsById = indexById(dbResults);
 
         // Loop through the results submitted from the screen
         for (LabResult resultFromForm : orderForm.getResults()) {
-
-            // Fetch the real result from DB
-            LabResult dbResult = repository.findById(resultFromForm.getId()).orElseThrow();
+            LabResult dbResult = findOrderResult(resultsById, resultFromForm);
             String val = resultFromForm.getResultValue();
 
-            // =========================================================
-            // FIX START: Only update if the new value is NOT Empty/Null
-            // =========================================================
+            // Only update if the new value is NOT Empty/Null
             if (val != null && !val.trim().isEmpty()) {
 
                 dbResult.setResultValue(val);
 
                 // Audit Stamp
                 dbResult.setPerformedBy(currentUser);
-                dbResult.setPerformedAt(LocalDateTime.now());
+                dbResult.setPerformedAt(performedAt);
 
-                // --- Apply High/Low Logic (Moved inside the check) ---
-                TestDefinition test = dbResult.getTestDefinition();
-
-                try {
-                    // 2. Parse Number
-                    java.math.BigDecimal numVal = new java.math.BigDecimal(val);
-
-                    // 3. Get Patient
-                    com.qdc.lims.entity.Patient patient = dbResult.getLabOrder().getPatient();
-
-                    ReferenceRange matchingRule = findMatchingRange(test, patient);
-
-                    // 5. Apply High/Low Logic
-                    if (matchingRule != null) {
-                        if (numVal.compareTo(matchingRule.getMinVal()) < 0) {
-                            dbResult.setAbnormal(true);
-                            dbResult.setRemarks("LOW");
-                        } else if (numVal.compareTo(matchingRule.getMaxVal()) > 0) {
-                            dbResult.setAbnormal(true);
-                            dbResult.setRemarks("HIGH");
-                        } else {
-                            dbResult.setAbnormal(false);
-                            dbResult.setRemarks("Normal");
-                        }
-                    } else {
-                        dbResult.setAbnormal(false);
-                        dbResult.setRemarks("");
-                    }
-                } catch (NumberFormatException e) {
-                    // Handle Non-Numeric Results (Text like "Positive")
-                    dbResult.setAbnormal(false);
-                    dbResult.setRemarks("");
-                }
-
-                // Save only the modified result
-                repository.save(dbResult);
+                // --- Apply High/Low Logic ---
+                ReferenceRangeService.Flag flag = referenceRangeService.classify(
+                        dbResult.getTestDefinition(), labOrder.getPatient(), val);
+                dbResult.setAbnormal(flag.isAbnormal());
+                dbResult.setRemarks(flag.getRemarks());
             }
-            // =========================================================
-            // FIX END
-            // =========================================================
         }
 
-        // --- LOGIC UPDATE: Only Mark "COMPLETED" if ALL tests are done ---
-        // (Optional improvement: Prevent partial orders being marked complete)
-        LabOrder dbOrder = orderRepo.findById(orderForm.getId()).orElseThrow();
-
-        boolean allTestsDone = dbOrder.getResults().stream()
+        // --- Only Mark "COMPLETED" if ALL tests are done ---
+        boolean allTestsDone = dbResults.stream()
                 .allMatch(this::hasEnteredResult);
-        boolean anyTestStarted = dbOrder.getResults().stream()
+        boolean anyTestStarted = dbResults.stream()
                 .anyMatch(this::hasStartedActivity);
 
-        if (anyTestStarted && dbOrder.getLabStartedAt() == null) {
-            dbOrder.setLabStartedAt(LocalDateTime.now());
+        if (anyTestStarted && labOrder.getLabStartedAt() == null) {
+            labOrder.setLabStartedAt(performedAt);
         }
 
         if (allTestsDone) {
-            dbOrder.setStatus("COMPLETED");
-        } else if (anyTestStarted || dbOrder.getLabStartedAt() != null) {
-            dbOrder.setStatus("IN_PROGRESS");
+            labOrder.setStatus("COMPLETED");
+        } else if (anyTestStarted || labOrder.getLabStartedAt() != null) {
+            labOrder.setStatus("IN_PROGRESS");
         } else {
-            dbOrder.setStatus("PENDING");
+            labOrder.setStatus("PENDING");
         }
-        orderRepo.save(dbOrder);
     }
 
     /**
      * Saves edits to results for a completed order and records audit metadata.
+     * Result updates are flushed as one JDBC batch and the audit rows are
+     * inserted as another.
      *
      * @param orderForm   the LabOrder containing edited results
      * @param editReason  reason for editing (required for completed-result edits)
@@ -214,10 +170,11 @@ public class ResultService {
 
         String currentUser = currentUserProvider.getUsername();
         LocalDateTime editedAt = LocalDateTime.now();
-        int changeCount = 0;
+        Map<Long, LabResult> resultsById = indexById(repository.findAllByOrderIdWithTest(labOrder.getId()));
+        List<LabResultEditAudit> audits = new ArrayList<>();
 
         for (LabResult resultFromForm : orderForm.getResults()) {
-            LabResult dbResult = repository.findById(resultFromForm.getId()).orElseThrow();
+            LabResult dbResult = findOrderResult(resultsById, resultFromForm);
             String val = resultFromForm.getResultValue() != null ? resultFromForm.getResultValue().trim() : "";
 
             if (!val.isEmpty()) {
@@ -225,45 +182,22 @@ public class ResultService {
                 boolean oldAbnormal = dbResult.isAbnormal();
                 String oldRemarks = dbResult.getRemarks();
 
-                dbResult.setResultValue(val);
-                dbResult.setPerformedBy(currentUser);
-                dbResult.setPerformedAt(editedAt);
-
                 TestDefinition test = dbResult.getTestDefinition();
-                try {
-                    java.math.BigDecimal numVal = new java.math.BigDecimal(val);
-                    com.qdc.lims.entity.Patient patient = dbResult.getLabOrder().getPatient();
-
-                    ReferenceRange matchingRule = findMatchingRange(test, patient);
-
-                    if (matchingRule != null) {
-                        if (numVal.compareTo(matchingRule.getMinVal()) < 0) {
-                            dbResult.setAbnormal(true);
-                            dbResult.setRemarks("LOW");
-                        } else if (numVal.compareTo(matchingRule.getMaxVal()) > 0) {
-                            dbResult.setAbnormal(true);
-                            dbResult.setRemarks("HIGH");
-                        } else {
-                            dbResult.setAbnormal(false);
-                            dbResult.setRemarks("Normal");
-                        }
-                    } else {
-                        dbResult.setAbnormal(false);
-                        dbResult.setRemarks("");
-                    }
-                } catch (NumberFormatException e) {
-                    dbResult.setAbnormal(false);
-                    dbResult.setRemarks("");
-                }
+                ReferenceRangeService.Flag flag = referenceRangeService.classify(
+                        test, labOrder.getPatient(), val);
 
-                boolean valueChanged = !Objects.equals(normalize(oldValue), normalize(dbResult.getResultValue()));
-                boolean abnormalChanged = oldAbnormal != dbResult.isAbnormal();
-                boolean remarksChanged = !Objects.equals(normalize(oldRemarks), normalize(dbResult.getRemarks()));
+                boolean valueChanged = !Objects.equals(normalize(oldValue), val);
+                boolean abnormalChanged = oldAbnormal != flag.isAbnormal();
+                boolean remarksChanged = !Objects.equals(normalize(oldRemarks), flag.getRemarks());
                 if (!(valueChanged || abnormalChanged || remarksChanged)) {
                     continue;
                 }
 
-                repository.save(dbResult);
+                dbResult.setResultValue(val);
+                dbResult.setPerformedBy(currentUser);
+                dbResult.setPerformedAt(editedAt);
+                dbResult.setAbnormal(flag.isAbnormal());
+                dbResult.setRemarks(flag.getRemarks());
 
                 LabResultEditAudit audit = new LabResultEditAudit();
                 audit.setLabOrder(labOrder);
@@ -279,15 +213,16 @@ public class ResultService {
                 audit.setEditedAt(editedAt);
                 audit.setReason(normalizedReason);
                 audit.setReportDeliveredAtEdit(labOrder.isReportDelivered());
-                labResultEditAuditRepository.save(audit);
-                changeCount++;
+                audits.add(audit);
             }
         }
 
-        if (changeCount == 0) {
+        if (audits.isEmpty()) {
             throw new RuntimeException("No result changes detected to save.");
         }
 
+        labResultEditAuditRepository.insertAll(audits);
+
         labOrder.setResultsEdited(true);
         labOrder.setResultsEditedAt(editedAt);
         labOrder.setResultsEditedBy(currentUser);
@@ -296,8 +231,22 @@ public class ResultService {
         if (labOrder.isReportDelivered()) {
             labOrder.setReprintRequired(true);
         }
+    }
+
+    private Map<Long, LabResult> indexById(List<LabResult> results) {
+        Map<Long, LabResult> byId = new HashMap<>();
+        for (LabResult result : results) {
+            byId.put(result.getId(), result);
+        }
+        return byId;
+    }
 
-        orderRepo.save(labOrder);
+    private LabResult findOrderResult(Map<Long, LabResult> resultsById, LabResult resultFromForm) {
+        LabResult dbResult = resultFromForm != null ? resultsById.get(resultFromForm.getId()) : null;
+        if (dbResult == null) {
+            throw new RuntimeException("Result does not belong to this order.");
+        }
+        return dbResult;
     }
 
     private String normalize(String value) {
@@ -313,75 +262,4 @@ public class ResultService {
                 || (result != null && result.getPerformedAt() != null)
                 || (result != null && result.getPerformedBy() != null && !result.getPerformedBy().trim().isEmpty());
     }
-
-    private ReferenceRange findMatchingRange(TestDefinition test, com.qdc.lims.entity.Patient patient) {
-        if (test == null || test.getId() == null) {
-            return null;
-        }
-        var ranges = referenceRangeRepository.findByTestId(test.getId());
-        if (ranges == null || ranges.isEmpty()) {
-            return null;
-        }
-        Integer age = patient != null ? patient.getAge() : null;
-        String gender = patient != null ? patient.getGender() : null;
-
-        return ranges.stream()
-                .filter(range -> matchesRange(range, age, gender))
-                .sorted((a, b) -> {
-                    int genderScoreA = genderScore(a, gender);
-                    int genderScoreB = genderScore(b, gender);
-                    if (genderScoreA != genderScoreB) {
-                        return Integer.compare(genderScoreB, genderScoreA);
-                    }
-                    Integer minA = a.getMinAge();
-                    Integer minB = b.getMinAge();
-                    if (minA == null && minB == null) {
-                        return 0;
-                    }
-                    if (minA == null) {
-                        return 1;
-                    }
-                    if (minB == null) {
-                        return -1;
-                    }
-                    return Integer.compare(minA, minB);
-                })
-                .findFirst()
-                .orElse(null);
-    }
-
-    private boolean matchesRange(ReferenceRange range, Integer age, String gender) {
-        if (range == null) {
-            return false;
-        }
-        String rangeGender = range.getGender();
-        if (gender != null && rangeGender != null && !"Both".equalsIgnoreCase(rangeGender)
-                && !rangeGender.equalsIgnoreCase(gender)) {
-            return false;
-        }
-        if (age != null) {
-            if (range.getMinAge() != null && age < range.getMinAge()) {
-                return false;
-            }
-            if (range.getMaxAge() != null && age > range.getMaxAge()) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    private int genderScore(ReferenceRange range, String gender) {
-        if (range == null) {
-            return 0;
-        }
-        String rangeGender = range.getGender();
-        if (gender != null && rangeGender != null && rangeGender.equalsIgnoreCase(gender)) {
-            return 2;
-        }
-        if (rangeGender != null && "Both".equalsIgnoreCase(rangeGender)) {
-            return 1;
-        }
-        return 0;
-    }
-
 }
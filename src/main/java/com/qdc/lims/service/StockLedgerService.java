@@ -0,0 +1,206 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.dto.StockUsage;
+import com.qdc.lims.entity.InventoryItem;
+import com.qdc.lims.entity.StockBalanceSnapshot;
+import com.qdc.lims.entity.StockMovement;
+import com.qdc.lims.repository.InventoryItemRepository;
+import com.qdc.lims.repository.StockBalanceSnapshotRepository;
+import com.qdc.lims.repository.StockMovementRepository;
+import com.qdc.lims.ui.CurrentUserProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Records every stock change in the append-only {@link StockMovement} ledger
+ * and answers usage and balance questions from it.
+ *
+ * <p>
+ * {@code InventoryItem.currentStock} stays the live level that bookings check
+ * and decrement; the ledger is its history, written in the same transaction
+ * as the stock change so the two never disagree. Lines are appended with
+ * batched JDBC inserts and never updated, so writers do not contend on ledger
+ * rows. Balances are kept cheap by periodically folding old lines into a
+ * per-item {@link StockBalanceSnapshot}; a balance is the snapshot plus the
+ * short tail of newer lines.
+ * </p>
+ */
+@Service
+public class StockLedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedgerService.class);
+
+    /**
+     * Lines newer than this are left out of snapshots, so a transaction that
+     * stamped its lines shortly before committing is never skipped. Lines are
+     * stamped with their transaction's start time on the database server, so
+     * only transactions running longer than this could be missed.
+     */
+    private static final int COMPACTION_LAG_MINUTES = 10;
+
+    private static final List<String> USAGE_TYPES = List.of(
+            StockMovement.ORDER_CONSUMPTION, StockMovement.CANCELLATION_RETURN);
+
+    private final StockMovementRepository movementRepository;
+    private final StockBalanceSnapshotRepository snapshotRepository;
+    private final InventoryItemRepository inventoryRepository;
+    private final CurrentUserProvider currentUserProvider;
+
+    public StockLedgerService(StockMovementRepository movementRepository,
+            StockBalanceSnapshotRepository snapshotRepository,
+            InventoryItemRepository inventoryRepository,
+            CurrentUserProvider currentUserProvider) {
+        this.movementRepository = movementRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.currentUserProvider = currentUserProvider;
+    }
+
+    /**
+     * Creates an unsaved ledger line stamped with the current user. The time
+     * is stamped by the database when the line is recorded.
+     *
+     * @param type     one of the {@link StockMovement} type constants
+     * @param itemId   inventory item id
+     * @param quantity signed quantity (negative for stock leaving)
+     * @return new line; callers may set test, order and reference
+     */
+    public StockMovement movement(String type, Long itemId, BigDecimal quantity) {
+        StockMovement movement = new StockMovement();
+        movement.setMovementType(type);
+        movement.setItemId(itemId);
+        movement.setQuantity(quantity);
+        movement.setPerformedBy(currentUserProvider.getUsername());
+        return movement;
+    }
+
+    /**
+     * Appends ledger lines. Must run inside the transaction that changes the
+     * stock, so the lines commit or roll back with it.
+     *
+     * @param movements lines to append
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(List<StockMovement> movements) {
+        movementRepository.insertAll(movements);
+    }
+
+    /**
+     * Saves an item from the inventory form. A new item's stock is recorded
+     * as its opening balance; a changed stock level on an existing item is
+     * recorded as an adjustment.
+     *
+     * @param item item with the entered values
+     * @return saved item
+     */
+    @Transactional
+    public InventoryItem saveItem(InventoryItem item) {
+        BigDecimal level = normalize(item.getCurrentStock());
+        if (item.getId() == null) {
+            InventoryItem saved = inventoryRepository.save(item);
+            record(List.of(movement(StockMovement.OPENING, saved.getId(), level)));
+            return saved;
+        }
+        BigDecimal previous = normalize(inventoryRepository.lockCurrentStock(item.getId()));
+        InventoryItem saved = inventoryRepository.save(item);
+        recordAdjustment(saved.getId(), level.subtract(previous), "Item edited");
+        return saved;
+    }
+
+    /**
+     * Replaces an item's stock level, e.g. after a physical count, and records
+     * the difference as an adjustment.
+     *
+     * @param itemId inventory item id
+     * @param level  counted stock level
+     * @param note   reason stored on the ledger line (nullable)
+     */
+    @Transactional
+    public void setStockLevel(Long itemId, BigDecimal level, String note) {
+        Objects.requireNonNull(level, "level");
+        BigDecimal previous = normalize(inventoryRepository.lockCurrentStock(itemId));
+        if (inventoryRepository.setStockLevel(itemId, level) == 0) {
+            throw new IllegalArgumentException("Inventory item not found: " + itemId);
+        }
+        recordAdjustment(itemId, level.subtract(previous), note);
+    }
+
+    /**
+     * Net consumption per item and test over a date range, from the ledger.
+     *
+     * @param from   first day (inclusive)
+     * @param to     last day (inclusive)
+     * @param itemId restrict to one item (nullable)
+     * @param testId restrict to one test (nullable)
+     * @return usage rows ordered by item and test name
+     */
+    @Transactional(readOnly = true)
+    public List<StockUsage> usage(LocalDate from, LocalDate to, Long itemId, Long testId) {
+        return movementRepository.summarizeUsage(USAGE_TYPES, from.atStartOfDay(), to.plusDays(1).atStartOfDay(),
+                itemId, testId);
+    }
+
+    /**
+     * Ledger balance of an item: its snapshot plus all newer lines.
+     *
+     * @param itemId inventory item id
+     * @return balance, zero when the item has no history
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal balanceOf(Long itemId) {
+        StockBalanceSnapshot snapshot = snapshotRepository.findById(itemId).orElse(null);
+        if (snapshot == null) {
+            return movementRepository.sumQuantityAfter(itemId, null);
+        }
+        return snapshot.getBalance().add(movementRepository.sumQuantityAfter(itemId, snapshot.getAsOf()));
+    }
+
+    /**
+     * Folds settled ledger lines into the balance snapshots.
+     */
+    @Scheduled(cron = "${qdc.inventory.balance-compaction-cron:0 */15 * * * *}")
+    @Transactional
+    public void compactBalances() {
+        int written = snapshotRepository.compact(COMPACTION_LAG_MINUTES);
+        if (written > 0) {
+            log.debug("Compacted stock balances for {} items.", written);
+        }
+    }
+
+    /**
+     * Gives items without history (created before the ledger existed, or by
+     * seeders) an opening line matching their current stock.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void openMissingBalances() {
+        int opened = movementRepository.insertMissingOpenings();
+        if (opened > 0) {
+            log.info("Recorded opening stock balances for {} inventory items.", opened);
+        }
+    }
+
+    private void recordAdjustment(Long itemId, BigDecimal delta, String note) {
+        if (delta.signum() == 0) {
+            return;
+        }
+        StockMovement adjustment = movement(StockMovement.ADJUSTMENT, itemId, delta);
+        adjustment.setReference(note);
+        record(List.of(adjustment));
+    }
+
+    private BigDecimal normalize(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,160 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.dto.SupplierBalanceRow;
+import com.qdc.lims.entity.SupplierLedger;
+import com.qdc.lims.repository.SupplierBalanceRepository;
+import com.qdc.lims.repository.SupplierLedgerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Writes supplier bills and payments to the {@link SupplierLedger} and keeps
+ * each supplier's {@code SupplierBalance} current in the same transaction.
+ *
+ * <p>
+ * A bill's {@code balanceDue} is what is still open on it. Payments settle
+ * the open bills of their invoice first, then the oldest due; any excess is
+ * held as unapplied credit and settles the next bills received. Every write
+ * locks the supplier's balance row, so concurrent writers for one supplier
+ * queue instead of racing. Aging buckets are refreshed for the supplier on
+ * each write and for everyone once a day, so reading the payables screen or
+ * a statement costs one row per supplier.
+ * </p>
+ */
+@Service
+public class SupplierAccountService {
+
+    private static final Logger log = LoggerFactory.getLogger(SupplierAccountService.class);
+
+    private final SupplierLedgerRepository ledgerRepository;
+    private final SupplierBalanceRepository balanceRepository;
+
+    public SupplierAccountService(SupplierLedgerRepository ledgerRepository,
+            SupplierBalanceRepository balanceRepository) {
+        this.ledgerRepository = ledgerRepository;
+        this.balanceRepository = balanceRepository;
+    }
+
+    /**
+     * Records a bill, settling it from any unapplied credit first.
+     *
+     * @param bill ledger entry with a bill amount
+     * @return saved entry
+     */
+    @Transactional
+    public SupplierLedger recordBill(SupplierLedger bill) {
+        Long supplierId = bill.getSupplier().getId();
+        LocalDate today = LocalDate.now();
+        BigDecimal amount = nonNull(bill.getBillAmount());
+        BigDecimal credit = balanceRepository.lockBalance(supplierId, today);
+        BigDecimal applied = amount.signum() > 0 ? amount.min(nonNull(credit)) : BigDecimal.ZERO;
+
+        bill.setPaidAmount(nonNull(bill.getPaidAmount()));
+        bill.setBalanceDue(amount.subtract(applied).max(BigDecimal.ZERO));
+        SupplierLedger saved = ledgerRepository.saveAndFlush(bill);
+
+        balanceRepository.addToBalance(supplierId, amount, BigDecimal.ZERO, applied.negate(),
+                saved.getInvoiceNumber(), saved.getDueDate());
+        balanceRepository.refreshAging(supplierId, today);
+        return saved;
+    }
+
+    /**
+     * Records a payment and settles the supplier's open bills with it.
+     *
+     * @param payment ledger entry with a paid amount
+     * @return saved entry
+     */
+    @Transactional
+    public SupplierLedger recordPayment(SupplierLedger payment) {
+        Long supplierId = payment.getSupplier().getId();
+        LocalDate today = LocalDate.now();
+        BigDecimal amount = nonNull(payment.getPaidAmount());
+        balanceRepository.lockBalance(supplierId, today);
+
+        payment.setBillAmount(nonNull(payment.getBillAmount()));
+        payment.setBalanceDue(BigDecimal.ZERO);
+        SupplierLedger saved = ledgerRepository.saveAndFlush(payment);
+
+        BigDecimal allocated = amount.signum() > 0
+                ? balanceRepository.allocatePayment(supplierId, amount, saved.getInvoiceNumber())
+                : BigDecimal.ZERO;
+        balanceRepository.addToBalance(supplierId, BigDecimal.ZERO, amount, amount.subtract(allocated),
+                null, null);
+        balanceRepository.refreshAging(supplierId, today);
+        return saved;
+    }
+
+    /**
+     * @return account summary of every supplier with ledger activity, by name
+     */
+    @Transactional
+    public List<SupplierBalanceRow> findBalances() {
+        refreshAgingIfStale();
+        return balanceRepository.findRows();
+    }
+
+    /**
+     * @param supplierId supplier
+     * @return the supplier's account summary for a statement, if any
+     */
+    @Transactional
+    public Optional<SupplierBalanceRow> findBalance(Long supplierId) {
+        refreshAgingIfStale();
+        return balanceRepository.findRow(supplierId);
+    }
+
+    /**
+     * Re-buckets every supplier's open bills for the new day.
+     */
+    @Scheduled(cron = "${qdc.suppliers.aging-refresh-cron:0 5 0 * * *}")
+    @Transactional
+    public void refreshAging() {
+        int refreshed = balanceRepository.refreshAging(null, LocalDate.now());
+        log.debug("Refreshed supplier aging for {} suppliers.", refreshed);
+    }
+
+    /**
+     * Recomputes open bill balances and supplier balances from the whole
+     * ledger. Use after direct database edits to {@code supplier_ledger}.
+     *
+     * @return number of suppliers written
+     */
+    @Transactional
+    public int rebuildAll() {
+        return balanceRepository.rebuild(LocalDate.now());
+    }
+
+    /**
+     * Builds the balances on first start, when ledger history predates them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialize() {
+        if (balanceRepository.needsRebuild()) {
+            int built = balanceRepository.rebuild(LocalDate.now());
+            log.info("Built supplier balances for {} suppliers.", built);
+        }
+    }
+
+    private void refreshAgingIfStale() {
+        LocalDate today = LocalDate.now();
+        if (balanceRepository.isAgingStale(today)) {
+            balanceRepository.refreshAging(null, today);
+        }
+    }
+
+    private static BigDecimal nonNull(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+}
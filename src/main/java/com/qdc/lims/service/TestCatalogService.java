@@ -0,0 +1,343 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.entity.Panel;
+import com.qdc.lims.entity.TestDefinition;
+import com.qdc.lims.repository.PanelRepository;
+import com.qdc.lims.repository.TestDefinitionRepository;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory index of the orderable catalog (active tests and panels) used by
+ * order entry.
+ *
+ * <p>
+ * The catalog is loaded once and held as an immutable {@link Catalog}: every
+ * test and panel is indexed in a prefix trie by its short code, the words of
+ * its name and the initials of those words, so typing "CBC", "LFT" or "gluc"
+ * finds entries without scanning the list; the active tests of each panel and
+ * the panels each test belongs to are worked out at load time. The catalog is
+ * built on first use and rebuilt by {@link #reload()} whenever tests, panels,
+ * departments or categories change.
+ * </p>
+ */
+@Service
+public class TestCatalogService {
+
+    /**
+     * Tables whose changes invalidate the catalog.
+     */
+    public static final Set<String> CATALOG_TABLES = Set.of(
+            "test_definition", "panel", "panel_test", "department", "test_categories");
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final TestDefinitionRepository testDefinitionRepository;
+    private final PanelRepository panelRepository;
+
+    private volatile Catalog catalog;
+
+    public TestCatalogService(TestDefinitionRepository testDefinitionRepository, PanelRepository panelRepository) {
+        this.testDefinitionRepository = testDefinitionRepository;
+        this.panelRepository = panelRepository;
+    }
+
+    /**
+     * @return the current catalog; hold on to it for the life of one order so
+     *         selections and prices stay consistent
+     */
+    public Catalog current() {
+        Catalog current = catalog;
+        if (current == null) {
+            synchronized (this) {
+                if (catalog == null) {
+                    reload();
+                }
+                current = catalog;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Rebuilds the catalog from the database. Call after tests or panels are
+     * saved or deleted.
+     */
+    public synchronized void reload() {
+        catalog = new Catalog(testDefinitionRepository.findAll(), panelRepository.findAllWithTests());
+    }
+
+    /**
+     * Splits text into lower-case words at anything that is not a letter or
+     * digit.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(NON_ALPHANUMERIC.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    /**
+     * A test or a panel as offered on the order screen.
+     *
+     * @param test       the test, or {@code null} for a panel
+     * @param panel      the panel, or {@code null} for a test
+     * @param code       short code (tests only, nullable)
+     * @param name       display name
+     * @param department department name, "Other" when unassigned
+     * @param price      list price (nullable)
+     */
+    public record Entry(TestDefinition test, Panel panel, String code, String name, String department,
+            BigDecimal price) {
+
+        /**
+         * @return whether this entry bills a panel
+         */
+        public boolean isPanel() {
+            return panel != null;
+        }
+    }
+
+    /**
+     * Immutable snapshot of the orderable catalog.
+     */
+    public static final class Catalog {
+        private final List<Entry> entries;
+        private final Map<Long, TestDefinition> testsById;
+        private final Map<Integer, Panel> panelsById;
+        private final Map<Integer, List<TestDefinition>> panelTests;
+        private final Map<Long, Set<Integer>> panelsByTest;
+        private final String[] exactKeys;
+        private final TrieNode root = new TrieNode();
+
+        Catalog(List<TestDefinition> tests, List<Panel> panels) {
+            Map<Long, TestDefinition> activeTests = new LinkedHashMap<>();
+            tests.stream()
+                    .filter(test -> test.getId() != null && Boolean.TRUE.equals(test.getActive()))
+                    .sorted(Comparator.comparing(TestDefinition::getTestName, String.CASE_INSENSITIVE_ORDER))
+                    .forEach(test -> activeTests.put(test.getId(), test));
+
+            Map<Integer, Panel> activePanels = new LinkedHashMap<>();
+            Map<Integer, List<TestDefinition>> expanded = new HashMap<>();
+            Map<Long, Set<Integer>> membership = new HashMap<>();
+            panels.stream()
+                    .filter(panel -> panel.getId() != null && !Boolean.FALSE.equals(panel.getActive()))
+                    .sorted(Comparator.comparing(Panel::getPanelName, String.CASE_INSENSITIVE_ORDER))
+                    .forEach(panel -> {
+                        activePanels.put(panel.getId(), panel);
+                        Set<TestDefinition> members = new LinkedHashSet<>();
+                        if (panel.getTests() != null) {
+                            for (TestDefinition member : panel.getTests()) {
+                                // Panel members resolve to the catalog's own instances.
+                                TestDefinition test = member.getId() != null ? activeTests.get(member.getId()) : null;
+                                if (test != null && members.add(test)) {
+                                    membership.computeIfAbsent(test.getId(), id -> new HashSet<>())
+                                            .add(panel.getId());
+                                }
+                            }
+                        }
+                        expanded.put(panel.getId(), members.stream()
+                                .sorted(Comparator.comparing(TestDefinition::getTestName,
+                                        String.CASE_INSENSITIVE_ORDER))
+                                .toList());
+                    });
+
+            List<Entry> built = new ArrayList<>(activePanels.size() + activeTests.size());
+            for (Panel panel : activePanels.values()) {
+                built.add(new Entry(null, panel, null, panel.getPanelName(),
+                        panel.getDepartment() != null ? panel.getDepartment().getName() : "Other",
+                        panel.getPrice()));
+            }
+            for (TestDefinition test : activeTests.values()) {
+                built.add(new Entry(test, null, test.getShortCode(), test.getTestName(),
+                        test.getDepartment() != null ? test.getDepartment().getName() : "Other",
+                        test.getPrice()));
+            }
+
+            this.entries = List.copyOf(built);
+            this.testsById = Map.copyOf(activeTests);
+            this.panelsById = Map.copyOf(activePanels);
+            this.panelTests = Map.copyOf(expanded);
+            membership.replaceAll((testId, panelIds) -> Set.copyOf(panelIds));
+            this.panelsByTest = Map.copyOf(membership);
+            this.exactKeys = new String[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                index(i, entries.get(i));
+            }
+            root.trim();
+        }
+
+        /**
+         * @return all entries, panels first, each group by name
+         */
+        public List<Entry> entries() {
+            return entries;
+        }
+
+        /**
+         * Finds the entries matching every word of the query, each word as the
+         * prefix of a word of the name or code, or of the initials of the name.
+         * Entries whose code or initials equal the whole query come first.
+         *
+         * @param query text typed by the user
+         * @return matching entries; all entries for a blank query
+         */
+        public List<Entry> search(String query) {
+            List<String> tokens = tokenize(query);
+            if (tokens.isEmpty()) {
+                return entries;
+            }
+            int[] matches = null;
+            for (String token : tokens) {
+                TrieNode node = root.find(token);
+                if (node == null) {
+                    return List.of();
+                }
+                matches = matches == null ? node.entries : intersect(matches, node.entries);
+                if (matches.length == 0) {
+                    return List.of();
+                }
+            }
+            String exactKey = String.join("", tokens);
+            List<Entry> exact = new ArrayList<>();
+            List<Entry> rest = new ArrayList<>(matches.length);
+            for (int i : matches) {
+                (exactKey.equals(exactKeys[i]) ? exact : rest).add(entries.get(i));
+            }
+            exact.addAll(rest);
+            return exact;
+        }
+
+        /**
+         * @param testId test id
+         * @return the active test, or {@code null} when it is not orderable
+         */
+        public TestDefinition test(Long testId) {
+            return testId != null ? testsById.get(testId) : null;
+        }
+
+        /**
+         * @param panelId panel id
+         * @return the active panel, or {@code null} when it is not orderable
+         */
+        public Panel panel(Integer panelId) {
+            return panelId != null ? panelsById.get(panelId) : null;
+        }
+
+        /**
+         * @param panelId panel id
+         * @return the panel's active tests, by name
+         */
+        public List<TestDefinition> panelTests(Integer panelId) {
+            return panelId != null ? panelTests.getOrDefault(panelId, List.of()) : List.of();
+        }
+
+        /**
+         * @param testId test id
+         * @return ids of the active panels containing the test
+         */
+        public Set<Integer> panelsContaining(Long testId) {
+            return testId != null ? panelsByTest.getOrDefault(testId, Set.of()) : Set.of();
+        }
+
+        private void index(int position, Entry entry) {
+            List<String> words = tokenize(entry.name());
+            List<String> codeWords = tokenize(entry.code());
+            Set<String> keys = new LinkedHashSet<>(words);
+            keys.addAll(codeWords);
+            if (codeWords.size() > 1) {
+                keys.add(String.join("", codeWords));
+            }
+            StringBuilder initials = new StringBuilder();
+            for (String word : words) {
+                initials.append(word.charAt(0));
+            }
+            if (words.size() > 1) {
+                keys.add(initials.toString());
+            }
+            for (String key : keys) {
+                root.insert(key, position);
+            }
+            if (!codeWords.isEmpty()) {
+                exactKeys[position] = String.join("", codeWords);
+            } else {
+                exactKeys[position] = words.size() > 1 ? initials.toString() : String.join("", words);
+            }
+        }
+
+        private static int[] intersect(int[] left, int[] right) {
+            int[] result = new int[Math.min(left.length, right.length)];
+            int size = 0;
+            for (int i = 0, j = 0; i < left.length && j < right.length;) {
+                if (left[i] < right[j]) {
+                    i++;
+                } else if (left[i] > right[j]) {
+                    j++;
+                } else {
+                    result[size++] = left[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(result, size);
+        }
+    }
+
+    /**
+     * Trie node holding, in ascending order, every entry with a key starting
+     * with the node's prefix.
+     */
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>(4);
+        private int[] entries = new int[2];
+        private int size;
+
+        private void insert(String key, int position) {
+            TrieNode node = this;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new TrieNode());
+                node.add(position);
+            }
+        }
+
+        private TrieNode find(String prefix) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            return node;
+        }
+
+        // Entries are inserted in order, so only the last one can repeat.
+        private void add(int position) {
+            if (size > 0 && entries[size - 1] == position) {
+                return;
+            }
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = position;
+        }
+
+        private void trim() {
+            entries = Arrays.copyOf(entries, size);
+            children.values().forEach(TrieNode::trim);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.qdc.lims.ui;
+
+import jakarta.annotation.PreDestroy;
+import javafx.beans.property.ObjectProperty;
+import javafx.concurrent.Task;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.HBox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs controller database work off the JavaFX thread, so a slow network
+ * never freezes a window.
+ *
+ * <p>
+ * Work runs on a pool of {@code qdc.ui-load.workers} threads as a typed
+ * {@link Task}; its result or failure is handed back on the JavaFX thread.
+ * Views that can issue several loads for the same content (filters, paging,
+ * refresh) use a {@link Latest}: starting a load cancels the one in flight, so
+ * only the most recent request paints, and tables or lists attached to it show
+ * a loading placeholder while it runs. A cancelled load still finishes its
+ * query; its result is discarded.
+ * </p>
+ */
+@Component
+public class AsyncLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncLoader.class);
+
+    private final ExecutorService executor;
+
+    public AsyncLoader(@Value("${qdc.ui-load.workers:4}") int workers) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "ui-load-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs {@code work} in the background. Must be called on the JavaFX
+     * thread.
+     *
+     * @param work      database work; must not touch nodes
+     * @param onSuccess called on the JavaFX thread with the result
+     * @param onFailure called on the JavaFX thread with the failure
+     * @param <T>       result type
+     * @return the running task, which can be cancelled
+     */
+    public <T> Task<T> submit(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+        task.setOnSucceeded(event -> onSuccess.accept(task.getValue()));
+        task.setOnFailed(event -> onFailure.accept(task.getException()));
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * @param <T> result type of the loads
+     * @return a new latest-request-wins load channel
+     */
+    public <T> Latest<T> latest() {
+        return new Latest<>();
+    }
+
+    /**
+     * Message for showing a failure to the user.
+     *
+     * @param failure failure reported by a load
+     * @return the message of the innermost cause
+     */
+    public static String describe(Throwable failure) {
+        Throwable cause = failure;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    /**
+     * Load channel for one piece of content where only the most recent
+     * request may paint. Used on the JavaFX thread only.
+     *
+     * @param <T> result type of the loads
+     */
+    public final class Latest<T> {
+        private final List<ObjectProperty<Node>> placeholders = new ArrayList<>();
+        private final List<Node> idlePlaceholders = new ArrayList<>();
+        private Consumer<Throwable> onFailure = failure -> log.warn("Load failed: {}", describe(failure));
+        private Task<T> current;
+
+        private Latest() {
+        }
+
+        /**
+         * Shows a loading placeholder in the table while a load runs.
+         *
+         * @param table table to attach
+         * @return this channel
+         */
+        public Latest<T> showLoadingIn(TableView<?> table) {
+            return attach(table.placeholderProperty());
+        }
+
+        /**
+         * Shows a loading placeholder in the list while a load runs.
+         *
+         * @param list list to attach
+         * @return this channel
+         */
+        public Latest<T> showLoadingIn(ListView<?> list) {
+            return attach(list.placeholderProperty());
+        }
+
+        /**
+         * Sets what to do when a load fails; attached views also show the
+         * failure in their placeholder.
+         *
+         * @param onFailure called on the JavaFX thread
+         * @return this channel
+         */
+        public Latest<T> onFailure(Consumer<Throwable> onFailure) {
+            this.onFailure = onFailure;
+            return this;
+        }
+
+        /**
+         * Starts a load, cancelling the one in flight.
+         *
+         * @param work      database work; must not touch nodes
+         * @param onSuccess called on the JavaFX thread with the result, unless
+         *                  a newer load started meanwhile
+         */
+        public void load(Callable<T> work, Consumer<T> onSuccess) {
+            cancel();
+            // A node can have one parent only, so each view gets its own placeholder.
+            placeholders.forEach(placeholder -> placeholder.set(loadingPlaceholder()));
+            Task<T> task = submit(work,
+                    result -> finish(result, onSuccess),
+                    failure -> fail(failure));
+            current = task;
+        }
+
+        /**
+         * Cancels the load in flight, if any, and restores the placeholders.
+         */
+        public void cancel() {
+            if (current != null) {
+                // Interrupting would abort the JDBC connection; the result is discarded instead.
+                current.cancel(false);
+                current = null;
+                restorePlaceholders();
+            }
+        }
+
+        /**
+         * @return whether a load is in flight
+         */
+        public boolean isLoading() {
+            return current != null;
+        }
+
+        private void finish(T result, Consumer<T> onSuccess) {
+            current = null;
+            restorePlaceholders();
+            onSuccess.accept(result);
+        }
+
+        private void fail(Throwable failure) {
+            current = null;
+            String message = "Could not load: " + describe(failure);
+            placeholders.forEach(placeholder -> placeholder.set(new Label(message)));
+            onFailure.accept(failure);
+        }
+
+        private Latest<T> attach(ObjectProperty<Node> placeholder) {
+            placeholders.add(placeholder);
+            idlePlaceholders.add(placeholder.get());
+            return this;
+        }
+
+        private void restorePlaceholders() {
+            for (int i = 0; i < placeholders.size(); i++) {
+                placeholders.get(i).set(idlePlaceholders.get(i));
+            }
+        }
+
+        private Node loadingPlaceholder() {
+            ProgressIndicator indicator = new ProgressIndicator();
+            indicator.setPrefSize(24, 24);
+            HBox box = new HBox(8, indicator, new Label("Loading..."));
+            box.setAlignment(Pos.CENTER);
+            return box;
+        }
+    }
+}
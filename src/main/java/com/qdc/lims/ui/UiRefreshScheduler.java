@@ -0,0 +1,375 @@
+package com.qdc.lims.ui;
+
+import jakarta.annotation.PreDestroy;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * One application-wide scheduler for dashboard clocks and auto-refresh, so
+ * open dashboards share a fixed set of threads instead of starting their own.
+ *
+ * <p>
+ * A single timer thread drives a shared clock tick on the JavaFX thread every
+ * {@code qdc.ui-refresh.tick-ms}. Refresh loads run on a pool of
+ * {@code qdc.ui-refresh.workers} threads and their results are applied on the
+ * JavaFX thread. Every registration belongs to an owner node:
+ * </p>
+ * <ul>
+ * <li>a refresh requested while its previous run is still loading or applying
+ * is coalesced into one more run afterwards, so a slow database never stacks
+ * loads;</li>
+ * <li>while the owner is not showing (window hidden or minimized, or its tab
+ * not selected) clock ticks skip it and refresh requests are held, then run
+ * once on the first tick after it shows again. When nothing registered is
+ * showing, the clock slows to {@code qdc.ui-refresh.hidden-tick-ms};</li>
+ * <li>once an owner that was shown leaves its scene for good (tab closed or
+ * dashboard replaced), its registrations are dropped.</li>
+ * </ul>
+ * <p>
+ * Refreshes are normally requested by change notifications; a refresh can
+ * also poll on the clock while a condition holds, such as the change feed
+ * being down.
+ * </p>
+ */
+@Component
+public class UiRefreshScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(UiRefreshScheduler.class);
+
+    private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean tickQueued = new AtomicBoolean();
+    private final ScheduledExecutorService timer;
+    private final ExecutorService workers;
+    private final long tickMillis;
+    private final long hiddenTickMillis;
+
+    public UiRefreshScheduler(@Value("${qdc.ui-refresh.workers:2}") int workerCount,
+            @Value("${qdc.ui-refresh.tick-ms:1000}") long tickMillis,
+            @Value("${qdc.ui-refresh.hidden-tick-ms:5000}") long hiddenTickMillis) {
+        this.tickMillis = tickMillis;
+        this.hiddenTickMillis = Math.max(tickMillis, hiddenTickMillis);
+        ScheduledThreadPoolExecutor scheduled = new ScheduledThreadPoolExecutor(1, daemonThreads("ui-clock"));
+        scheduled.setRemoveOnCancelPolicy(true);
+        this.timer = scheduled;
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("ui-refresh"));
+        timer.schedule(this::queueTick, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        workers.shutdownNow();
+        registrations.clear();
+    }
+
+    /**
+     * Calls {@code onTick} on the JavaFX thread with the current time on every
+     * shared clock tick while {@code owner} is showing, and once right away.
+     * Must be called on the JavaFX thread.
+     *
+     * @param owner  node whose visibility gates the ticks
+     * @param onTick clock update
+     * @return handle that stops the ticks when closed
+     */
+    public Registration onClockTick(Node owner, Consumer<LocalDateTime> onTick) {
+        ClockRegistration registration = new ClockRegistration(owner, onTick);
+        registrations.add(registration);
+        onTick.accept(LocalDateTime.now());
+        return registration;
+    }
+
+    /**
+     * Registers a coalesced refresh that loads off the JavaFX thread and
+     * applies the result on it. Nothing runs until {@link Refresh#request()}.
+     *
+     * @param owner node whose visibility gates the refresh
+     * @param load  runs on a worker thread; must not touch nodes
+     * @param apply runs on the JavaFX thread with the loaded value
+     * @param <T>   loaded value type
+     * @return handle used to request runs and to stop them
+     */
+    public <T> Refresh register(Node owner, Supplier<T> load, Consumer<T> apply) {
+        RefreshRegistration<T> registration = new RefreshRegistration<>(owner, load, apply);
+        registrations.add(registration);
+        return registration;
+    }
+
+    /**
+     * Registers a coalesced refresh that runs entirely on the JavaFX thread.
+     *
+     * @param owner  node whose visibility gates the refresh
+     * @param action refresh to run
+     * @return handle used to request runs and to stop them
+     */
+    public Refresh register(Node owner, Runnable action) {
+        return register(owner, () -> null, ignored -> action.run());
+    }
+
+    // The tick schedules the next one, so a busy JavaFX thread delays ticks instead of queueing them.
+    private void queueTick() {
+        if (!tickQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Platform.runLater(this::tick);
+        } catch (IllegalStateException e) {
+            // JavaFX is not running (tests, shutdown); try again later.
+            tickQueued.set(false);
+            timer.schedule(this::queueTick, hiddenTickMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void tick() {
+        tickQueued.set(false);
+        LocalDateTime now = LocalDateTime.now();
+        boolean anyShowing = false;
+        for (Registration registration : registrations) {
+            Owner owner = registration.owner();
+            if (owner.isGone()) {
+                registration.close();
+                continue;
+            }
+            if (!owner.isShowing()) {
+                continue;
+            }
+            anyShowing = true;
+            try {
+                registration.onTick(now);
+            } catch (RuntimeException e) {
+                log.warn("Dashboard tick failed: {}", e.getMessage());
+            }
+        }
+        if (!timer.isShutdown()) {
+            timer.schedule(this::queueTick, anyShowing ? tickMillis : hiddenTickMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Handle for a clock or refresh registration.
+     */
+    public abstract class Registration implements AutoCloseable {
+        private final Owner owner;
+        volatile boolean closed;
+
+        private Registration(Node node) {
+            this.owner = new Owner(node);
+        }
+
+        Owner owner() {
+            return owner;
+        }
+
+        abstract void onTick(LocalDateTime now);
+
+        /**
+         * Stops further ticks or refreshes. Safe to call more than once.
+         */
+        @Override
+        public void close() {
+            closed = true;
+            registrations.remove(this);
+        }
+    }
+
+    /**
+     * Handle for a coalesced refresh.
+     */
+    public abstract class Refresh extends Registration {
+        private Refresh(Node owner) {
+            super(owner);
+        }
+
+        /**
+         * Asks for a refresh. Callable from any thread; requests made while a
+         * run is in flight or the owner is hidden collapse into one run.
+         */
+        public abstract void request();
+
+        /**
+         * Also requests a refresh every {@code interval} while
+         * {@code condition} holds and the owner is showing. Must be called on
+         * the JavaFX thread.
+         *
+         * @param condition checked on the JavaFX thread at each clock tick
+         * @param interval  time between polled refreshes
+         * @return this refresh
+         */
+        public abstract Refresh pollWhile(BooleanSupplier condition, Duration interval);
+    }
+
+    private final class ClockRegistration extends Registration {
+        private final Consumer<LocalDateTime> onTick;
+
+        private ClockRegistration(Node owner, Consumer<LocalDateTime> onTick) {
+            super(owner);
+            this.onTick = onTick;
+        }
+
+        @Override
+        void onTick(LocalDateTime now) {
+            onTick.accept(now);
+        }
+    }
+
+    private final class RefreshRegistration<T> extends Refresh {
+        private final Supplier<T> load;
+        private final Consumer<T> apply;
+        // Touched on the JavaFX thread only.
+        private boolean pending;
+        private boolean running;
+        private BooleanSupplier pollCondition;
+        private Duration pollInterval;
+        private LocalDateTime nextPoll;
+
+        private RefreshRegistration(Node owner, Supplier<T> load, Consumer<T> apply) {
+            super(owner);
+            this.load = load;
+            this.apply = apply;
+        }
+
+        @Override
+        public void request() {
+            if (closed) {
+                return;
+            }
+            if (Platform.isFxApplicationThread()) {
+                pending = true;
+                startIfReady();
+            } else {
+                Platform.runLater(this::request);
+            }
+        }
+
+        @Override
+        public Refresh pollWhile(BooleanSupplier condition, Duration interval) {
+            pollCondition = condition;
+            pollInterval = interval;
+            nextPoll = null;
+            return this;
+        }
+
+        @Override
+        void onTick(LocalDateTime now) {
+            if (pollCondition != null && (nextPoll == null || !now.isBefore(nextPoll))) {
+                if (pollCondition.getAsBoolean()) {
+                    pending = true;
+                    nextPoll = now.plus(pollInterval);
+                } else {
+                    nextPoll = null;
+                }
+            }
+            startIfReady();
+        }
+
+        private void startIfReady() {
+            if (closed || running || !pending || !owner().isShowing()) {
+                return;
+            }
+            pending = false;
+            running = true;
+            try {
+                workers.execute(this::loadAndApply);
+            } catch (RuntimeException e) {
+                running = false;
+                log.warn("Dashboard refresh rejected: {}", e.getMessage());
+            }
+        }
+
+        private void loadAndApply() {
+            T value;
+            try {
+                value = load.get();
+            } catch (RuntimeException e) {
+                log.warn("Dashboard refresh failed: {}", e.getMessage());
+                Platform.runLater(this::finish);
+                return;
+            }
+            Platform.runLater(() -> {
+                try {
+                    if (!closed) {
+                        apply.accept(value);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Dashboard refresh failed: {}", e.getMessage());
+                } finally {
+                    finish();
+                }
+            });
+        }
+
+        private void finish() {
+            running = false;
+            startIfReady();
+        }
+    }
+
+    /**
+     * Visibility of a registration's owner node, read on the JavaFX thread.
+     */
+    private static final class Owner {
+        private final Node node;
+        private boolean attached;
+
+        private Owner(Node node) {
+            this.node = node;
+        }
+
+        private boolean isShowing() {
+            Scene scene = node.getScene();
+            if (scene == null) {
+                return false;
+            }
+            attached = true;
+            Window window = scene.getWindow();
+            if (window == null || !window.isShowing()
+                    || (window instanceof Stage stage && stage.isIconified())) {
+                return false;
+            }
+            // Unselected tabs keep their content in the scene but invisible.
+            for (Node current = node; current != null; current = current.getParent()) {
+                if (!current.isVisible()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isGone() {
+            return attached && node.getScene() == null;
+        }
+    }
+}
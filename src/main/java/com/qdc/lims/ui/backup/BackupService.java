@@ -1,5 +1,6 @@
 package com.qdc.lims.ui.backup;
 
+import com.qdc.lims.service.OrderArchiveService;
 import com.qdc.lims.ui.AppPaths;
 import net.lingala.zip4j.ZipFile;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,11 +24,23 @@ import java.util.stream.Collectors;
 
 /**
  * Creates and restores encrypted backups.
+ *
+ * <p>
+ * Archived orders are not part of the daily dump. They are written to an
+ * {@code archive_<version>.zip} next to it whenever the archive has changed
+ * since the last one, and each backup names the archive backup it pairs with,
+ * so restoring a backup restores both.
+ * </p>
  */
 @Service
 public class BackupService {
 
+    private static final String ARCHIVE_REFERENCE = "archive-backup.txt";
+    private static final String ARCHIVE_PREFIX = "archive_";
+    private static final int BACKUP_ATTEMPTS = 3;
+
     private final BackupSettingsService settings;
+    private final OrderArchiveService orderArchiveService;
 
     @Value("${spring.datasource.url:}")
     private String jdbcUrl;
@@ -41,8 +54,9 @@ public class BackupService {
     @Value("${qdc.backup.retention-days:0}")
     private int retentionDays;
 
-    public BackupService(BackupSettingsService settings) {
+    public BackupService(BackupSettingsService settings, OrderArchiveService orderArchiveService) {
         this.settings = settings;
+        this.orderArchiveService = orderArchiveService;
     }
 
     public boolean isAutoBackupEnabled() {
@@ -63,13 +77,44 @@ public class BackupService {
             Path tempBackup = Files.createTempFile("lims-backup-", suffix);
             tempBackup.toFile().deleteOnExit();
 
-            runPostgresDump(tempBackup);
+            // The archive version is read again after the dumps: if orders moved in
+            // between, the two dumps would not match, so they are taken again.
+            Path archiveZip = null;
+            for (int attempt = 1; archiveZip == null; attempt++) {
+                String version = orderArchiveService.archiveVersion();
+                Path candidate = AppPaths.backupsDir().resolve(ARCHIVE_PREFIX + version + ".zip");
+                Path archiveDump = null;
+                if (!Files.exists(candidate)) {
+                    archiveDump = Files.createTempFile("lims-archive-", suffix);
+                    archiveDump.toFile().deleteOnExit();
+                    runPostgresArchiveDump(archiveDump);
+                }
+                runPostgresDump(tempBackup);
+                if (version.equals(orderArchiveService.archiveVersion())) {
+                    if (archiveDump != null) {
+                        try (ZipFile zipFile = new ZipFile(candidate.toFile(), password)) {
+                            zipFile.addFile(archiveDump.toFile());
+                        }
+                    }
+                    archiveZip = candidate;
+                } else if (attempt == BACKUP_ATTEMPTS) {
+                    throw new IllegalStateException("Orders were being archived during the backup; try again later.");
+                }
+                if (archiveDump != null) {
+                    Files.deleteIfExists(archiveDump);
+                }
+            }
+
+            Path referenceDir = Files.createTempDirectory("lims-backup-");
+            Path reference = Files.writeString(referenceDir.resolve(ARCHIVE_REFERENCE),
+                    archiveZip.getFileName().toString());
 
             String ts = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
             Path outZip = AppPaths.backupsDir().resolve("backup_" + ts + ".zip");
 
             try (ZipFile zipFile = new ZipFile(outZip.toFile(), password)) {
                 zipFile.addFile(tempBackup.toFile());
+                zipFile.addFile(reference.toFile());
             }
 
             // Update daily marker
@@ -81,6 +126,8 @@ public class BackupService {
             // Cleanup best-effort
             try {
                 Files.deleteIfExists(tempBackup);
+                Files.deleteIfExists(reference);
+                Files.deleteIfExists(referenceDir);
             } catch (IOException ignored) {
             }
 
@@ -133,6 +180,12 @@ public class BackupService {
             Path extracted = dbFiles.get(0);
             runPostgresRestore(extracted, sanitizedName);
 
+            Path reference = tempDir.resolve(ARCHIVE_REFERENCE);
+            if (Files.exists(reference)) {
+                restoreArchiveBackup(backupZip.resolveSibling(Files.readString(reference).trim()), password,
+                        sanitizedName);
+            }
+
             String jdbcSnapshot = buildJdbcUrl(info, sanitizedName);
             return new SnapshotRestoreResult(sanitizedName, jdbcSnapshot, jdbcUsername, jdbcPassword);
         } catch (Exception e) {
@@ -140,6 +193,26 @@ public class BackupService {
         }
     }
 
+    private void restoreArchiveBackup(Path archiveZip, char[] password, String databaseName) throws Exception {
+        if (!Files.exists(archiveZip)) {
+            throw new IllegalStateException("Archive backup " + archiveZip.getFileName()
+                    + " is missing; place it in the same folder as the backup.");
+        }
+        Path tempDir = Files.createTempDirectory("lims-restore-archive-");
+        tempDir.toFile().deleteOnExit();
+        try (ZipFile zipFile = new ZipFile(archiveZip.toFile(), password)) {
+            zipFile.extractAll(tempDir.toString());
+        }
+        Path dump;
+        try (var stream = Files.list(tempDir)) {
+            dump = stream.filter(p -> p.getFileName().toString().toLowerCase().endsWith(".dump"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "Archive backup does not contain a database file"));
+        }
+        runPostgresArchiveRestore(dump, databaseName);
+    }
+
     public void runDailyBackupIfNeeded() {
         if (settings.getBackupPassword().isEmpty()) {
             return;
@@ -171,9 +244,19 @@ public class BackupService {
                     .filter(p -> p.getFileName().toString().toLowerCase().endsWith(".zip"))
                     .sorted(Comparator.comparingLong(p -> p.toFile().lastModified()))
                     .collect(Collectors.toList());
+            List<Path> archives = zips.stream()
+                    .filter(p -> p.getFileName().toString().startsWith(ARCHIVE_PREFIX))
+                    .collect(Collectors.toList());
 
             for (Path p : zips) {
-                if (p.toFile().lastModified() < cutoff) {
+                if (archives.contains(p)) {
+                    // Backups pair with the archive backup current when they were taken, so one is
+                    // only unused once the archive backup after it has aged out too.
+                    int next = archives.indexOf(p) + 1;
+                    if (next < archives.size() && archives.get(next).toFile().lastModified() < cutoff) {
+                        Files.deleteIfExists(p);
+                    }
+                } else if (p.toFile().lastModified() < cutoff) {
                     Files.deleteIfExists(p);
                 }
             }
@@ -191,11 +274,38 @@ public class BackupService {
                 "--format=custom",
                 "--file", outFile.toString(),
                 "--dbname", conn,
+                "--exclude-table-data=archive.*",
                 "--no-owner",
                 "--no-privileges");
         runCommand(command, postgresEnv());
     }
 
+    private void runPostgresArchiveDump(Path outFile) throws Exception {
+        String conn = toPostgresUri(jdbcUrl);
+        List<String> command = List.of(
+                "pg_dump",
+                "--format=custom",
+                "--data-only",
+                "--schema=archive",
+                "--file", outFile.toString(),
+                "--dbname", conn,
+                "--no-owner",
+                "--no-privileges");
+        runCommand(command, postgresEnv());
+    }
+
+    private void runPostgresArchiveRestore(Path dumpFile, String databaseName) throws Exception {
+        String conn = toPostgresUriForDatabase(databaseName);
+        List<String> command = List.of(
+                "pg_restore",
+                "--data-only",
+                "--no-owner",
+                "--no-privileges",
+                "--dbname", conn,
+                dumpFile.toString());
+        runCommand(command, postgresEnv());
+    }
+
     private void runPostgresRestore(Path dumpFile, String databaseName) throws Exception {
         String conn = toPostgresUriForDatabase(databaseName);
         List<String> command = List.of(
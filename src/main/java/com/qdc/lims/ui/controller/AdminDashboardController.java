@@ -1,9 +1,12 @@
 package com.qdc.lims.ui.controller;
 
+import com.qdc.lims.ui.AsyncLoader;
 import com.qdc.lims.ui.DashboardNavigator;
 import com.qdc.lims.ui.SessionManager;
+import com.qdc.lims.ui.UiRefreshScheduler;
 import com.qdc.lims.ui.navigation.DashboardType;
 import com.qdc.lims.ui.util.LogoutUtil;
+import com.qdc.lims.service.AdminDashboardStatsService;
 import com.qdc.lims.service.BrandingService;
 import com.qdc.lims.service.CancellationApprovalKeyService;
 import com.qdc.lims.service.ConfigService;
@@ -36,7 +39,6 @@ import javafx.stage.Modality;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Controller;
 
-import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -45,6 +47,8 @@ import java.util.Optional;
  * ONLY.
  * For operational work (patient registration, orders, lab work), admins should
  * switch to Lab or Reception dashboards using the dashboard switcher.
+ * Key figures and settings writes run in the background through
+ * {@link AsyncLoader}.
  */
 @Controller
 public class AdminDashboardController {
@@ -56,6 +60,11 @@ public class AdminDashboardController {
     private final CancellationApprovalKeyService cancellationApprovalKeyService;
     private final LocaleFormatService localeFormatService;
     private final UpdateService updateService;
+    private final AdminDashboardStatsService statsService;
+    private final UiRefreshScheduler uiRefreshScheduler;
+    private final AsyncLoader asyncLoader;
+    private UiRefreshScheduler.Registration clockRegistration;
+    private AsyncLoader.Latest<AdminDashboardStatsService.Kpis> kpisLoad;
 
     @FXML
     private Label statusLabel;
@@ -79,6 +88,23 @@ public class AdminDashboardController {
     @FXML
     private Tab dashboardHomeTab;
 
+    @FXML
+    private Label todayRevenueKpi;
+    @FXML
+    private Label todayExpensesKpi;
+    @FXML
+    private Label todayOrdersKpi;
+    @FXML
+    private Label todayOutstandingKpi;
+    @FXML
+    private Label openOrdersKpi;
+    @FXML
+    private Label activeDoctorsKpi;
+    @FXML
+    private Label testsKpi;
+    @FXML
+    private Label usersKpi;
+
     private static final String TAB_FXML_PATH_KEY = "adminTabFxmlPath";
     private boolean updateCheckInProgress = false;
 
@@ -88,7 +114,10 @@ public class AdminDashboardController {
             ConfigService configService,
             CancellationApprovalKeyService cancellationApprovalKeyService,
             LocaleFormatService localeFormatService,
-            UpdateService updateService) {
+            UpdateService updateService,
+            AdminDashboardStatsService statsService,
+            UiRefreshScheduler uiRefreshScheduler,
+            AsyncLoader asyncLoader) {
         this.applicationContext = applicationContext;
         this.navigator = navigator;
         this.brandingService = brandingService;
@@ -96,10 +125,21 @@ public class AdminDashboardController {
         this.cancellationApprovalKeyService = cancellationApprovalKeyService;
         this.localeFormatService = localeFormatService;
         this.updateService = updateService;
+        this.statsService = statsService;
+        this.uiRefreshScheduler = uiRefreshScheduler;
+        this.asyncLoader = asyncLoader;
     }
 
     @FXML
     public void initialize() {
+        if (kpisLoad != null) {
+            kpisLoad.cancel();
+        }
+        kpisLoad = asyncLoader.<AdminDashboardStatsService.Kpis>latest().onFailure(e -> {
+            if (statusLabel != null) {
+                statusLabel.setText("Could not load key figures: " + AsyncLoader.describe(e));
+            }
+        });
         startClock();
 
         if (mainContainer != null) {
@@ -132,25 +172,41 @@ public class AdminDashboardController {
         applyBranding();
         syncReceptionLabPasswordToggle();
         syncSessionTimeoutToggle();
+        refreshKpis();
     }
 
-    private void startClock() {
-        Thread clockThread = new Thread(() -> {
-            while (true) {
-                try {
-                    String time = localeFormatService.formatDateTime(LocalDateTime.now());
-                    Platform.runLater(() -> {
-                        if (dateTimeLabel != null)
-                            dateTimeLabel.setText(time);
-                    });
-                    Thread.sleep(1000);
-                } catch (InterruptedException e) {
-                    break;
-                }
-            }
+    @FXML
+    private void handleRefreshKpis() {
+        refreshKpis();
+    }
+
+    /**
+     * Fills the key figure tiles from aggregate queries.
+     */
+    private void refreshKpis() {
+        if (todayRevenueKpi == null) {
+            return;
+        }
+        kpisLoad.load(statsService::getKpis, kpis -> {
+            todayRevenueKpi.setText(localeFormatService.formatCurrency(kpis.todayRevenue()));
+            todayExpensesKpi.setText(localeFormatService.formatCurrency(kpis.todayExpenses()));
+            todayOrdersKpi.setText(String.valueOf(kpis.todayOrders()));
+            todayOutstandingKpi.setText(localeFormatService.formatCurrency(kpis.todayOutstanding()));
+            openOrdersKpi.setText(String.valueOf(kpis.openOrders()));
+            activeDoctorsKpi.setText(String.valueOf(kpis.activeDoctors()));
+            testsKpi.setText(String.valueOf(kpis.tests()));
+            usersKpi.setText(String.valueOf(kpis.users()));
         });
-        clockThread.setDaemon(true);
-        clockThread.start();
+    }
+
+    private void startClock() {
+        if (clockRegistration != null) {
+            clockRegistration.close();
+        }
+        if (dateTimeLabel != null) {
+            clockRegistration = uiRefreshScheduler.onClockTick(dateTimeLabel,
+                    now -> dateTimeLabel.setText(localeFormatService.formatDateTime(now)));
+        }
     }
 
     /**
@@ -434,32 +490,43 @@ public class AdminDashboardController {
         });
 
         saveButton.addEventFilter(javafx.event.ActionEvent.ACTION, event -> {
+            // The dialog stays open until the key is checked and stored in the background.
+            event.consume();
             String current = currentFieldRef != null ? currentFieldRef.getText() : "";
             String newKey = newKeyField.getText() == null ? "" : newKeyField.getText().trim();
             String confirm = confirmKeyField.getText() == null ? "" : confirmKeyField.getText().trim();
 
-            if (configured && !cancellationApprovalKeyService.verifyKey(current)) {
-                errorLabel.setText("Current key is incorrect.");
-                event.consume();
-                return;
-            }
             if (!newKey.equals(confirm)) {
                 errorLabel.setText("New key and confirm key do not match.");
-                event.consume();
                 return;
             }
-            try {
-                cancellationApprovalKeyService.setKey(newKey);
-            } catch (IllegalArgumentException ex) {
-                errorLabel.setText(ex.getMessage());
-                event.consume();
-                return;
-            }
-
-            if (statusLabel != null) {
-                statusLabel.setText("Cancellation approval key updated.");
-            }
-            showAlert("Saved", "Cancellation approval key saved successfully.");
+            saveButton.setDisable(true);
+            asyncLoader.submit(() -> {
+                if (configured && !cancellationApprovalKeyService.verifyKey(current)) {
+                    return "Current key is incorrect.";
+                }
+                try {
+                    cancellationApprovalKeyService.setKey(newKey);
+                } catch (IllegalArgumentException ex) {
+                    return ex.getMessage();
+                }
+                return null;
+            }, error -> {
+                if (error != null) {
+                    errorLabel.setText(error);
+                    updateSaveState.run();
+                    return;
+                }
+                if (statusLabel != null) {
+                    statusLabel.setText("Cancellation approval key updated.");
+                }
+                dialog.setResult(saveType);
+                dialog.close();
+                showAlert("Saved", "Cancellation approval key saved successfully.");
+            }, e -> {
+                errorLabel.setText("Could not save key: " + AsyncLoader.describe(e));
+                updateSaveState.run();
+            });
         });
 
         Optional<ButtonType> result = dialog.showAndWait();
@@ -699,13 +766,10 @@ public class AdminDashboardController {
             return;
         }
         boolean requirePassword = receptionLabPasswordToggle.isSelected();
-        configService.set("REQUIRE_PASSWORD_RECEPTION_LAB", Boolean.toString(requirePassword));
         applyReceptionLabPasswordToggleStyle(requirePassword);
-        if (statusLabel != null) {
-            statusLabel.setText(requirePassword
-                    ? "Reception/Lab password requirement enabled."
-                    : "Reception/Lab password requirement disabled.");
-        }
+        saveSetting("REQUIRE_PASSWORD_RECEPTION_LAB", requirePassword, requirePassword
+                ? "Reception/Lab password requirement enabled."
+                : "Reception/Lab password requirement disabled.");
     }
 
     @FXML
@@ -714,14 +778,30 @@ public class AdminDashboardController {
             return;
         }
         boolean enabled = sessionTimeoutToggle.isSelected();
-        configService.set("SESSION_TIMEOUT_ENABLED", Boolean.toString(enabled));
         SessionManager.setSessionTimeoutEnabled(enabled);
         applySessionTimeoutToggleStyle(enabled);
-        if (statusLabel != null) {
-            statusLabel.setText(enabled
-                    ? "Session timeout enabled."
-                    : "Session timeout disabled.");
-        }
+        saveSetting("SESSION_TIMEOUT_ENABLED", enabled, enabled
+                ? "Session timeout enabled."
+                : "Session timeout disabled.");
+    }
+
+    /**
+     * Stores a toggle setting in the background and reports the outcome in
+     * the status bar.
+     */
+    private void saveSetting(String key, boolean value, String savedMessage) {
+        asyncLoader.submit(() -> {
+            configService.set(key, Boolean.toString(value));
+            return value;
+        }, saved -> {
+            if (statusLabel != null) {
+                statusLabel.setText(savedMessage);
+            }
+        }, e -> {
+            if (statusLabel != null) {
+                statusLabel.setText("Could not save setting: " + AsyncLoader.describe(e));
+            }
+        });
     }
 
     /**
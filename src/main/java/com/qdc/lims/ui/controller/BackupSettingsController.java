@@ -1,6 +1,7 @@
 package com.qdc.lims.ui.controller;
 
 import com.qdc.lims.ui.AppPaths;
+import com.qdc.lims.ui.AsyncLoader;
 import com.qdc.lims.ui.backup.BackupService;
 import com.qdc.lims.ui.backup.BackupSettingsService;
 import com.qdc.lims.ui.backup.SnapshotWindowService;
@@ -13,13 +14,13 @@ import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
 /**
- * Backup/Restore settings window.
+ * Backup/Restore settings window. Backups, restores and the backup listing run
+ * in the background through {@link AsyncLoader}.
  */
 @Component("backupSettingsController")
 public class BackupSettingsController {
@@ -36,6 +37,9 @@ public class BackupSettingsController {
     private final BackupSettingsService settings;
     private final BackupService backupService;
     private final SnapshotWindowService snapshotWindowService;
+    private final AsyncLoader asyncLoader;
+    private AsyncLoader.Latest<List<BackupFileInfo>> backupsLoad;
+    private boolean backupRunning;
 
     @FXML
     private ToggleButton autoBackupToggle;
@@ -48,15 +52,25 @@ public class BackupSettingsController {
 
     public BackupSettingsController(BackupSettingsService settings,
             BackupService backupService,
-            SnapshotWindowService snapshotWindowService) {
+            SnapshotWindowService snapshotWindowService,
+            AsyncLoader asyncLoader) {
         this.settings = settings;
         this.backupService = backupService;
         this.snapshotWindowService = snapshotWindowService;
+        this.asyncLoader = asyncLoader;
     }
 
     @FXML
     private void initialize() {
         statusLabel.setText("");
+        if (backupsLoad != null) {
+            backupsLoad.cancel();
+        }
+        backupsLoad = asyncLoader.<List<BackupFileInfo>>latest()
+                .onFailure(e -> showError("Failed to load backups: " + AsyncLoader.describe(e)));
+        if (backupListView != null) {
+            backupsLoad.showLoadingIn(backupListView);
+        }
 
         // If a password is already configured, show a hint only.
         if (settings.getBackupPassword().isPresent()) {
@@ -94,13 +108,19 @@ public class BackupSettingsController {
 
     @FXML
     private void handleBackupNow() {
-        try {
-            Path zip = backupService.backupNow();
+        if (backupRunning) {
+            return;
+        }
+        backupRunning = true;
+        showSuccess("Creating backup...");
+        asyncLoader.submit(backupService::backupNow, zip -> {
+            backupRunning = false;
             showSuccess("Backup created: " + zip.getFileName());
             loadBackups();
-        } catch (Exception e) {
-            showError(e.getMessage());
-        }
+        }, e -> {
+            backupRunning = false;
+            showError(AsyncLoader.describe(e));
+        });
     }
 
     @FXML
@@ -145,18 +165,21 @@ public class BackupSettingsController {
             return;
         }
 
-        try {
-            BackupService.SnapshotRestoreResult result = backupService.restoreBackupToNewDatabase(
-                    selected.path(), pass.get(), nameOpt.get().trim());
-            showSuccess("Snapshot database created: " + result.getDatabaseName());
-            snapshotWindowService.openSnapshotWindow(
-                    result.getJdbcUrl(),
-                    result.getUsername(),
-                    result.getPassword(),
-                    result.getDatabaseName());
-        } catch (Exception e) {
-            showError(e.getMessage());
-        }
+        String databaseName = nameOpt.get().trim();
+        showSuccess("Restoring snapshot...");
+        asyncLoader.submit(() -> backupService.restoreBackupToNewDatabase(selected.path(), pass.get(), databaseName),
+                result -> {
+                    showSuccess("Snapshot database created: " + result.getDatabaseName());
+                    try {
+                        snapshotWindowService.openSnapshotWindow(
+                                result.getJdbcUrl(),
+                                result.getUsername(),
+                                result.getPassword(),
+                                result.getDatabaseName());
+                    } catch (Exception e) {
+                        showError(e.getMessage());
+                    }
+                }, e -> showError(AsyncLoader.describe(e)));
     }
 
     @FXML
@@ -214,27 +237,27 @@ public class BackupSettingsController {
         if (backupListView == null) {
             return;
         }
-        List<BackupFileInfo> items = new ArrayList<>();
-        try {
-            Path dir = AppPaths.backupsDir();
-            if (java.nio.file.Files.exists(dir)) {
-                try (var stream = java.nio.file.Files.list(dir)) {
-                    items = stream
-                            .filter(p -> p.getFileName().toString().toLowerCase().endsWith(".zip"))
-                            .map(this::toBackupInfo)
-                            .sorted(Comparator.comparing(BackupFileInfo::lastModified).reversed())
-                            .toList();
-                }
+        backupsLoad.load(this::listBackups, items -> {
+            backupListView.getItems().setAll(items);
+            if (backupListStatusLabel != null) {
+                backupListStatusLabel.setText(items.isEmpty()
+                        ? "No backups found."
+                        : "Found " + items.size() + " backup(s).");
             }
-        } catch (Exception e) {
-            showError("Failed to load backups: " + e.getMessage());
-        }
+        });
+    }
 
-        backupListView.getItems().setAll(items);
-        if (backupListStatusLabel != null) {
-            backupListStatusLabel.setText(items.isEmpty()
-                    ? "No backups found."
-                    : "Found " + items.size() + " backup(s).");
+    private List<BackupFileInfo> listBackups() throws java.io.IOException {
+        Path dir = AppPaths.backupsDir();
+        if (!java.nio.file.Files.exists(dir)) {
+            return List.of();
+        }
+        try (var stream = java.nio.file.Files.list(dir)) {
+            return stream
+                    .filter(p -> p.getFileName().toString().toLowerCase().endsWith(".zip"))
+                    .map(this::toBackupInfo)
+                    .sorted(Comparator.comparing(BackupFileInfo::lastModified).reversed())
+                    .toList();
         }
     }
 
@@ -2,6 +2,7 @@ package com.qdc.lims.ui.controller;
 
 import com.qdc.lims.entity.Department;
 import com.qdc.lims.repository.DepartmentRepository;
+import com.qdc.lims.ui.AsyncLoader;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -10,11 +11,13 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Controller for managing {@link Department} records (labeled as categories in
- * parts of the UI).
+ * parts of the UI). Reads and writes run in the background through
+ * {@link AsyncLoader}.
  */
 @Controller
 public class CategoryManagementController {
@@ -32,7 +35,9 @@ public class CategoryManagementController {
     private TextArea descriptionArea;
 
     private final DepartmentRepository departmentRepository;
+    private final AsyncLoader asyncLoader;
     private final ObservableList<Department> categoryList = FXCollections.observableArrayList();
+    private AsyncLoader.Latest<List<Department>> categoriesLoad;
 
     private Runnable onUpdateCallback;
 
@@ -40,10 +45,12 @@ public class CategoryManagementController {
      * Creates the controller.
      *
      * @param departmentRepository department repository
+     * @param asyncLoader background loader for repository calls
      */
     @Autowired
-    public CategoryManagementController(DepartmentRepository departmentRepository) {
+    public CategoryManagementController(DepartmentRepository departmentRepository, AsyncLoader asyncLoader) {
         this.departmentRepository = departmentRepository;
+        this.asyncLoader = asyncLoader;
     }
 
     /**
@@ -51,6 +58,12 @@ public class CategoryManagementController {
      */
     @FXML
     public void initialize() {
+        if (categoriesLoad != null) {
+            categoriesLoad.cancel();
+        }
+        categoriesLoad = asyncLoader.<List<Department>>latest()
+                .showLoadingIn(categoryTable)
+                .onFailure(e -> showAlert("Error", "Failed to load departments: " + AsyncLoader.describe(e)));
         setupTable();
         loadCategories();
 
@@ -75,8 +88,7 @@ public class CategoryManagementController {
     }
 
     private void loadCategories() {
-        categoryList.clear();
-        categoryList.addAll(departmentRepository.findAll());
+        categoriesLoad.load(departmentRepository::findAll, categoryList::setAll);
     }
 
     private void showDetails(Department category) {
@@ -99,40 +111,32 @@ public class CategoryManagementController {
             return;
         }
 
-        try {
-            Department category = categoryTable.getSelectionModel().getSelectedItem();
-            if (category == null) {
-                Optional<Department> existing = departmentRepository.findByName(name.trim());
+        Department selected = categoryTable.getSelectionModel().getSelectedItem();
+        String trimmedName = name.trim();
+        String code = descriptionArea.getText() != null ? descriptionArea.getText().trim() : null;
+        asyncLoader.submit(() -> {
+            Department category = selected != null ? selected : new Department();
+            if (selected == null || !selected.getName().equals(trimmedName)) {
+                Optional<Department> existing = departmentRepository.findByName(trimmedName);
                 if (existing.isPresent()) {
-                    showAlert("Error", "Department with this name already exists.");
-                    return;
-                }
-                category = new Department();
-            } else {
-                if (!category.getName().equals(name.trim())) {
-                    Optional<Department> existing = departmentRepository.findByName(name.trim());
-                    if (existing.isPresent()) {
-                        showAlert("Error", "Department with this name already exists.");
-                        return;
-                    }
+                    throw new IllegalArgumentException("Department with this name already exists.");
                 }
             }
 
-            category.setName(name.trim());
-            category.setCode(descriptionArea.getText() != null ? descriptionArea.getText().trim() : null);
+            category.setName(trimmedName);
+            category.setCode(code);
             category.setActive(true);
-
-            departmentRepository.save(category);
+            return departmentRepository.save(category);
+        }, saved -> {
             loadCategories();
             handleClear();
 
             if (onUpdateCallback != null) {
                 onUpdateCallback.run();
             }
-
-        } catch (Exception e) {
-            showAlert("Error", "Failed to save department: " + e.getMessage());
-        }
+        }, e -> showAlert("Error", e instanceof IllegalArgumentException
+                ? e.getMessage()
+                : "Failed to save department: " + AsyncLoader.describe(e)));
     }
 
     /**
@@ -152,17 +156,17 @@ public class CategoryManagementController {
         alert.setContentText("Delete department: " + selected.getName() + "?");
 
         if (alert.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
-            try {
+            asyncLoader.submit(() -> {
                 departmentRepository.delete(selected);
+                return selected;
+            }, deleted -> {
                 loadCategories();
                 handleClear();
 
                 if (onUpdateCallback != null) {
                     onUpdateCallback.run();
                 }
-            } catch (Exception e) {
-                showAlert("Error", "Cannot delete department (it may be in use).");
-            }
+            }, e -> showAlert("Error", "Cannot delete department (it may be in use)."));
         }
     }
 
@@ -1,9 +1,21 @@
 package com.qdc.lims.ui.controller;
 
-import com.qdc.lims.entity.CommissionLedger;
+import com.qdc.lims.dto.CommissionFilter;
+import com.qdc.lims.dto.CommissionRow;
+import com.qdc.lims.dto.CommissionTotals;
+import com.qdc.lims.dto.DoctorCommissionTotal;
+import com.qdc.lims.entity.CommissionRule;
+import com.qdc.lims.entity.Department;
 import com.qdc.lims.entity.Doctor;
+import com.qdc.lims.entity.TestDefinition;
 import com.qdc.lims.repository.CommissionLedgerRepository;
+import com.qdc.lims.repository.DoctorRepository;
+import com.qdc.lims.service.CommissionCalculationService;
+import com.qdc.lims.service.CommissionSettlementService;
 import com.qdc.lims.service.LocaleFormatService;
+import com.qdc.lims.service.TestDefinitionService;
+import com.qdc.lims.ui.AsyncLoader;
+import com.qdc.lims.ui.util.TableScrollUtil;
 import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -14,7 +26,13 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.util.StringConverter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
@@ -22,11 +40,17 @@ import java.text.DecimalFormat;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Controller for Commission Management.
- * Manages doctor commissions, payments, and commission history.
+ * Manages doctor commissions, payments, and commission history. The ledger is
+ * read page by page as the table scrolls, with filters, totals and per-doctor
+ * sums evaluated in SQL, so lab orders are never loaded. Queries and
+ * settlements run in the background through {@link AsyncLoader}. Commission
+ * rules are maintained here too; each rule change reapplies the rules to the
+ * open commissions.
  */
 @Component
 public class CommissionManagementController {
@@ -34,7 +58,17 @@ public class CommissionManagementController {
     @Autowired
     private CommissionLedgerRepository commissionRepository;
     @Autowired
+    private CommissionSettlementService settlementService;
+    @Autowired
+    private CommissionCalculationService commissionCalculationService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private TestDefinitionService testDefinitionService;
+    @Autowired
     private LocaleFormatService localeFormatService;
+    @Autowired
+    private AsyncLoader asyncLoader;
 
     // Statistics Labels
     @FXML
@@ -69,27 +103,27 @@ public class CommissionManagementController {
 
     // Table and Columns
     @FXML
-    private TableView<CommissionLedger> commissionTable;
+    private TableView<CommissionRow> commissionTable;
     @FXML
-    private TableColumn<CommissionLedger, Boolean> selectColumn;
+    private TableColumn<CommissionRow, Boolean> selectColumn;
     @FXML
-    private TableColumn<CommissionLedger, Long> idColumn;
+    private TableColumn<CommissionRow, Long> idColumn;
     @FXML
-    private TableColumn<CommissionLedger, Long> orderIdColumn;
+    private TableColumn<CommissionRow, Long> orderIdColumn;
     @FXML
-    private TableColumn<CommissionLedger, String> doctorColumn;
+    private TableColumn<CommissionRow, String> doctorColumn;
     @FXML
-    private TableColumn<CommissionLedger, String> dateColumn;
+    private TableColumn<CommissionRow, String> dateColumn;
     @FXML
-    private TableColumn<CommissionLedger, BigDecimal> billAmountColumn;
+    private TableColumn<CommissionRow, BigDecimal> billAmountColumn;
     @FXML
-    private TableColumn<CommissionLedger, BigDecimal> commissionRateColumn;
+    private TableColumn<CommissionRow, BigDecimal> commissionRateColumn;
     @FXML
-    private TableColumn<CommissionLedger, BigDecimal> commissionAmountColumn;
+    private TableColumn<CommissionRow, BigDecimal> commissionAmountColumn;
     @FXML
-    private TableColumn<CommissionLedger, String> statusColumn;
+    private TableColumn<CommissionRow, String> statusColumn;
     @FXML
-    private TableColumn<CommissionLedger, Void> actionsColumn;
+    private TableColumn<CommissionRow, Void> actionsColumn;
 
     // Footer Labels
     @FXML
@@ -99,9 +133,21 @@ public class CommissionManagementController {
     @FXML
     private Label recordCountLabel;
 
-    private ObservableList<CommissionLedger> allCommissions = FXCollections.observableArrayList();
-    private ObservableList<CommissionLedger> filteredCommissions = FXCollections.observableArrayList();
+    // Rows fetched per round-trip while scrolling the ledger
+    private static final int PAGE_SIZE = 100;
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Order.desc("transactionDate"), Sort.Order.desc("id"));
+    private static final String ALL_DOCTORS = "All Doctors";
+
+    private final ObservableList<CommissionRow> loadedCommissions = FXCollections.observableArrayList();
     private Map<Long, Boolean> selectionMap = new HashMap<>();
+    private Map<String, Long> doctorIdsByName = new HashMap<>();
+    private CommissionFilter currentFilter;
+    private int nextPage = 0;
+    private boolean hasMorePages = false;
+    private boolean reloadingFilters = false;
+    private AsyncLoader.Latest<List<Doctor>> doctorsLoad;
+    private AsyncLoader.Latest<Page<CommissionRow>> pageLoad;
+    private AsyncLoader.Latest<CommissionTotals[]> statsLoad;
 
     private DecimalFormat percentFormat = new DecimalFormat("#0.0#");
 
@@ -111,10 +157,16 @@ public class CommissionManagementController {
     @FXML
     public void initialize() {
         localeFormatService.applyDatePickerLocale(startDatePicker, endDatePicker);
+        if (pageLoad != null) {
+            pageLoad.cancel();
+        }
+        doctorsLoad = asyncLoader.<List<Doctor>>latest()
+                .onFailure(e -> showError("Error loading commissions", AsyncLoader.describe(e)));
+        pageLoad = asyncLoader.<Page<CommissionRow>>latest().showLoadingIn(commissionTable);
+        statsLoad = asyncLoader.latest();
         setupTable();
         setupListeners();
         loadData();
-        updateStatistics();
     }
 
     /**
@@ -122,7 +174,7 @@ public class CommissionManagementController {
      */
     private void setupTable() {
         // Selection Column with Checkboxes
-        selectColumn.setCellFactory(column -> new TableCell<CommissionLedger, Boolean>() {
+        selectColumn.setCellFactory(column -> new TableCell<CommissionRow, Boolean>() {
             private final CheckBox checkBox = new CheckBox();
 
             @Override
@@ -131,10 +183,10 @@ public class CommissionManagementController {
                 if (empty || getTableRow() == null || getTableRow().getItem() == null) {
                     setGraphic(null);
                 } else {
-                    CommissionLedger commission = getTableRow().getItem();
-                    checkBox.setSelected(selectionMap.getOrDefault(commission.getId(), false));
+                    CommissionRow commission = getTableRow().getItem();
+                    checkBox.setSelected(selectionMap.getOrDefault(commission.id(), false));
                     checkBox.setOnAction(e -> {
-                        selectionMap.put(commission.getId(), checkBox.isSelected());
+                        selectionMap.put(commission.id(), checkBox.isSelected());
                         updateSelectionCount();
                         updateButtonStates();
                     });
@@ -145,31 +197,30 @@ public class CommissionManagementController {
         });
 
         // ID Column
-        idColumn.setCellValueFactory(cellData -> new SimpleLongProperty(cellData.getValue().getId()).asObject());
+        idColumn.setCellValueFactory(cellData -> new SimpleLongProperty(cellData.getValue().id()).asObject());
 
         // Order ID Column
         orderIdColumn.setCellValueFactory(cellData -> {
-            Long orderId = cellData.getValue().getLabOrder() != null ? cellData.getValue().getLabOrder().getId() : null;
+            Long orderId = cellData.getValue().orderId();
             return new SimpleLongProperty(orderId != null ? orderId : 0L).asObject();
         });
 
         // Doctor Column
         doctorColumn.setCellValueFactory(cellData -> {
-            Doctor doctor = cellData.getValue().getDoctor();
-            String doctorName = doctor != null ? doctor.getName() : "Unknown";
-            return new SimpleStringProperty(doctorName);
+            String doctorName = cellData.getValue().doctorName();
+            return new SimpleStringProperty(doctorName != null ? doctorName : "Unknown");
         });
 
         // Date Column
         dateColumn.setCellValueFactory(cellData -> {
-            LocalDate date = cellData.getValue().getTransactionDate();
+            LocalDate date = cellData.getValue().transactionDate();
             String dateStr = date != null ? localeFormatService.formatDate(date) : "";
             return new SimpleStringProperty(dateStr);
         });
 
         // Bill Amount Column
         billAmountColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(getBillAmount(cellData.getValue())));
-        billAmountColumn.setCellFactory(column -> new TableCell<CommissionLedger, BigDecimal>() {
+        billAmountColumn.setCellFactory(column -> new TableCell<CommissionRow, BigDecimal>() {
             @Override
             protected void updateItem(BigDecimal item, boolean empty) {
                 super.updateItem(item, empty);
@@ -184,7 +235,7 @@ public class CommissionManagementController {
         // Commission Rate Column
         commissionRateColumn
                 .setCellValueFactory(cellData -> new SimpleObjectProperty<>(getCommissionRate(cellData.getValue())));
-        commissionRateColumn.setCellFactory(column -> new TableCell<CommissionLedger, BigDecimal>() {
+        commissionRateColumn.setCellFactory(column -> new TableCell<CommissionRow, BigDecimal>() {
             @Override
             protected void updateItem(BigDecimal item, boolean empty) {
                 super.updateItem(item, empty);
@@ -199,7 +250,7 @@ public class CommissionManagementController {
         // Commission Amount Column
         commissionAmountColumn
                 .setCellValueFactory(cellData -> new SimpleObjectProperty<>(getCommissionAmount(cellData.getValue())));
-        commissionAmountColumn.setCellFactory(column -> new TableCell<CommissionLedger, BigDecimal>() {
+        commissionAmountColumn.setCellFactory(column -> new TableCell<CommissionRow, BigDecimal>() {
             @Override
             protected void updateItem(BigDecimal item, boolean empty) {
                 super.updateItem(item, empty);
@@ -218,8 +269,8 @@ public class CommissionManagementController {
         });
 
         // Status Column with color coding
-        statusColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getStatus()));
-        statusColumn.setCellFactory(column -> new TableCell<CommissionLedger, String>() {
+        statusColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().status()));
+        statusColumn.setCellFactory(column -> new TableCell<CommissionRow, String>() {
             @Override
             protected void updateItem(String item, boolean empty) {
                 super.updateItem(item, empty);
@@ -240,14 +291,14 @@ public class CommissionManagementController {
         });
 
         // Actions Column with Quick Pay button
-        actionsColumn.setCellFactory(column -> new TableCell<CommissionLedger, Void>() {
+        actionsColumn.setCellFactory(column -> new TableCell<CommissionRow, Void>() {
             private final Button payButton = new Button("Pay");
 
             {
                 payButton.setStyle(
                         "-fx-background-color: #27ae60; -fx-text-fill: white; -fx-font-size: 11px; -fx-padding: 3 10;");
                 payButton.setOnAction(e -> {
-                    CommissionLedger commission = getTableRow().getItem();
+                    CommissionRow commission = getTableRow().getItem();
                     if (commission != null) {
                         quickPayCommission(commission);
                     }
@@ -260,8 +311,8 @@ public class CommissionManagementController {
                 if (empty || getTableRow() == null || getTableRow().getItem() == null) {
                     setGraphic(null);
                 } else {
-                    CommissionLedger commission = getTableRow().getItem();
-                    if ("UNPAID".equals(commission.getStatus())) {
+                    CommissionRow commission = getTableRow().getItem();
+                    if ("UNPAID".equals(commission.status())) {
                         setGraphic(payButton);
                     } else {
                         setGraphic(null);
@@ -270,7 +321,10 @@ public class CommissionManagementController {
             }
         });
 
-        commissionTable.setItems(filteredCommissions);
+        commissionTable.setItems(loadedCommissions);
+        // Rows arrive in pages, so sorting the loaded rows only would mislead.
+        commissionTable.getColumns().forEach(column -> column.setSortable(false));
+        TableScrollUtil.onScrolledToEnd(commissionTable, this::loadNextPage);
     }
 
     /**
@@ -288,145 +342,103 @@ public class CommissionManagementController {
     }
 
     /**
-     * Load all commission records from the database.
+     * Load the doctor filter, statistics and first ledger page.
      */
-    // @Transactional(readOnly = true) // Removed to prevent Spring proxy
-    // interference with FXML injection
     private void loadData() {
-        try {
-            List<CommissionLedger> commissions = commissionRepository.findAll();
-            allCommissions.clear();
-            allCommissions.addAll(commissions);
-
-            // Populate doctor filter
-            List<String> doctors = commissions.stream()
-                    .map(CommissionLedger::getDoctor)
-                    .filter(Objects::nonNull)
-                    .filter(doctor -> doctor.getCommissionPercentage() != null
-                            && doctor.getCommissionPercentage().compareTo(BigDecimal.ZERO) > 0)
-                    .map(Doctor::getName)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList());
-
-            doctorFilter.getItems().clear();
-            doctorFilter.getItems().add("All Doctors");
-            doctorFilter.getItems().addAll(doctors);
-            doctorFilter.setValue("All Doctors");
+        doctorsLoad.load(commissionRepository::findDoctorsWithCommissions, doctorsWithCommissions -> {
+            reloadingFilters = true;
+            try {
+                String selectedDoctor = doctorFilter.getValue();
+                doctorIdsByName = new HashMap<>();
+                for (Doctor doctor : doctorsWithCommissions) {
+                    doctorIdsByName.putIfAbsent(doctor.getName(), doctor.getId());
+                }
+                List<String> doctors = new ArrayList<>(doctorIdsByName.keySet());
+                Collections.sort(doctors);
+
+                doctorFilter.getItems().clear();
+                doctorFilter.getItems().add(ALL_DOCTORS);
+                doctorFilter.getItems().addAll(doctors);
+                doctorFilter.setValue(doctors.contains(selectedDoctor) ? selectedDoctor : ALL_DOCTORS);
+            } finally {
+                reloadingFilters = false;
+            }
 
             applyFilters();
             updateStatistics();
             statusLabel.setText("Commissions loaded successfully");
-
-        } catch (Exception e) {
-            showError("Error loading commissions", e.getMessage());
-            e.printStackTrace();
-        }
+        });
     }
 
     /**
-     * Apply search and filter criteria.
+     * Apply filter criteria and reload the ledger from the first page.
      */
     private void applyFilters() {
         String doctorValue = doctorFilter.getValue();
         String statusValue = statusFilter.getValue();
-        LocalDate startDate = startDatePicker.getValue();
-        LocalDate endDate = endDatePicker.getValue();
-
-        List<CommissionLedger> filtered = allCommissions.stream()
-                .filter(commission -> {
-                    BigDecimal rate = getCommissionRate(commission);
-                    if (rate.compareTo(BigDecimal.ZERO) <= 0) {
-                        return false;
-                    }
-                    // Doctor filter
-                    boolean matchesDoctor = doctorValue == null ||
-                            "All Doctors".equals(doctorValue) ||
-                            (commission.getDoctor() != null && doctorValue.equals(commission.getDoctor().getName()));
-
-                    // Status filter
-                    boolean matchesStatus = statusValue == null ||
-                            "All".equals(statusValue) ||
-                            statusValue.equals(commission.getStatus());
-
-                    // Date range filter
-                    boolean matchesDate = true;
-                    if (startDate != null && commission.getTransactionDate() != null) {
-                        matchesDate = !commission.getTransactionDate().isBefore(startDate);
-                    }
-                    if (endDate != null && commission.getTransactionDate() != null && matchesDate) {
-                        matchesDate = !commission.getTransactionDate().isAfter(endDate);
-                    }
 
-                    return matchesDoctor && matchesStatus && matchesDate;
-                })
-                .collect(Collectors.toList());
+        currentFilter = new CommissionFilter(
+                doctorValue == null || ALL_DOCTORS.equals(doctorValue) ? null : doctorIdsByName.get(doctorValue),
+                statusValue == null || "All".equals(statusValue) ? null : statusValue,
+                startDatePicker.getValue(),
+                endDatePicker.getValue());
+        // A new filter supersedes any page still loading for the previous one.
+        pageLoad.cancel();
+        nextPage = 0;
+        hasMorePages = true;
+        loadedCommissions.clear();
+        loadNextPage();
+    }
 
-        filteredCommissions.clear();
-        filteredCommissions.addAll(filtered);
-        recordCountLabel.setText(filtered.size() + " record" + (filtered.size() != 1 ? "s" : ""));
+    private void loadNextPage() {
+        if (pageLoad.isLoading() || !hasMorePages || currentFilter == null) {
+            return;
+        }
+        CommissionFilter filter = currentFilter;
+        PageRequest request = PageRequest.of(nextPage, PAGE_SIZE, DEFAULT_SORT);
+        pageLoad.load(() -> commissionRepository.findRows(filter, request), page -> {
+            loadedCommissions.addAll(page.getContent());
+            hasMorePages = page.hasNext();
+            nextPage++;
+            long total = page.getTotalElements();
+            recordCountLabel.setText(total + " record" + (total != 1 ? "s" : ""));
+        });
     }
 
     /**
      * Update statistics labels.
      */
     private void updateStatistics() {
-        try {
-            // Total unpaid
-            BigDecimal totalUnpaid = allCommissions.stream()
-                    .filter(c -> "UNPAID".equals(c.getStatus()))
-                    .map(this::getCommissionAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            totalUnpaidLabel.setText(localeFormatService.formatCurrency(totalUnpaid));
-
-            // Total paid
-            BigDecimal totalPaid = allCommissions.stream()
-                    .filter(c -> "PAID".equals(c.getStatus()))
-                    .map(this::getCommissionAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            totalPaidLabel.setText(localeFormatService.formatCurrency(totalPaid));
-
-            // Pending count
-            long pendingCount = commissionRepository.countByStatus("UNPAID");
-            pendingCountLabel.setText(String.valueOf(pendingCount));
-
+        statsLoad.load(() -> {
+            CommissionTotals totals = commissionRepository.summarize(CommissionFilter.all());
             // This month's commissions
             YearMonth currentMonth = YearMonth.now();
-            LocalDate startOfMonth = currentMonth.atDay(1);
-            LocalDate endOfMonth = currentMonth.atEndOfMonth();
-
-            BigDecimal thisMonth = commissionRepository.findByTransactionDateBetween(startOfMonth, endOfMonth)
-                    .stream()
-                    .map(this::getCommissionAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            thisMonthLabel.setText(localeFormatService.formatCurrency(thisMonth));
+            CommissionTotals thisMonth = commissionRepository.summarize(
+                    new CommissionFilter(null, null, currentMonth.atDay(1), currentMonth.atEndOfMonth()));
+            return new CommissionTotals[] { totals, thisMonth };
+        }, loaded -> {
+            CommissionTotals totals = loaded[0];
+            totalUnpaidLabel.setText(localeFormatService.formatCurrency(totals.unpaidAmount()));
+            totalPaidLabel.setText(localeFormatService.formatCurrency(totals.paidAmount()));
+            pendingCountLabel.setText(String.valueOf(totals.unpaidCount()));
+            thisMonthLabel.setText(localeFormatService.formatCurrency(loaded[1].amount()));
+        });
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+    private BigDecimal getBillAmount(CommissionRow commission) {
+        return commission.billAmount() != null ? commission.billAmount() : BigDecimal.ZERO;
     }
 
-    private BigDecimal getBillAmount(CommissionLedger commission) {
-        if (commission.getLabOrder() == null || commission.getLabOrder().getTotalAmount() == null) {
-            return BigDecimal.ZERO;
-        }
-        return commission.getLabOrder().getTotalAmount();
+    private BigDecimal getCommissionRate(CommissionRow commission) {
+        return commission.rate() != null ? commission.rate() : BigDecimal.ZERO;
     }
 
-    private BigDecimal getCommissionRate(CommissionLedger commission) {
-        Doctor doctor = commission.getDoctor();
-        BigDecimal rate = doctor != null ? doctor.getCommissionPercentage() : null;
-        return rate != null ? rate : BigDecimal.ZERO;
+    private BigDecimal getCommissionAmount(CommissionRow commission) {
+        return commission.amount() != null ? commission.amount() : BigDecimal.ZERO;
     }
 
-    private BigDecimal getCommissionAmount(CommissionLedger commission) {
-        BigDecimal rate = getCommissionRate(commission);
-        if (rate.compareTo(BigDecimal.ZERO) <= 0) {
-            return BigDecimal.ZERO;
-        }
-        return getBillAmount(commission)
-                .multiply(rate)
-                .divide(BigDecimal.valueOf(100), 4, java.math.RoundingMode.HALF_UP);
+    private List<Long> idsOf(List<CommissionRow> commissions) {
+        return commissions.stream().map(CommissionRow::id).toList();
     }
 
     /**
@@ -449,29 +461,23 @@ public class CommissionManagementController {
     /**
      * Quick pay a single commission.
      */
-    private void quickPayCommission(CommissionLedger commission) {
+    private void quickPayCommission(CommissionRow commission) {
         Alert confirmation = new Alert(Alert.AlertType.CONFIRMATION);
         confirmation.setTitle("Confirm Payment");
         confirmation.setHeaderText("Mark commission as paid?");
         confirmation.setContentText(
-                "Doctor: " + commission.getDoctor().getName() + "\n" +
+                "Doctor: " + commission.doctorName() + "\n" +
                         "Amount: " + localeFormatService.formatCurrency(getCommissionAmount(commission)) + "\n\n" +
                         "Mark this commission as paid?");
 
         Optional<ButtonType> result = confirmation.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            try {
-                commission.setStatus("PAID");
-                commission.setPaymentDate(LocalDate.now());
-                commission.setPaidAmount(getCommissionAmount(commission));
-                commissionRepository.save(commission);
-                commissionTable.refresh();
+            asyncLoader.submit(() -> settlementService.settle(List.of(commission.id())), paidCount -> {
+                selectionMap.remove(commission.id());
+                applyFilters();
                 updateStatistics();
                 statusLabel.setText("Commission marked as paid");
-            } catch (Exception e) {
-                showError("Error updating commission", e.getMessage());
-                e.printStackTrace();
-            }
+            }, e -> showError("Error updating commission", AsyncLoader.describe(e)));
         }
     }
 
@@ -480,7 +486,7 @@ public class CommissionManagementController {
      */
     @FXML
     private void handleMarkPaid() {
-        List<CommissionLedger> selected = getSelectedCommissions();
+        List<CommissionRow> selected = getSelectedCommissions();
         if (selected.isEmpty()) {
             showWarning("No Selection", "Please select commissions to mark as paid.");
             return;
@@ -497,24 +503,15 @@ public class CommissionManagementController {
 
         Optional<ButtonType> result = confirmation.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            try {
-                for (CommissionLedger commission : selected) {
-                    commission.setStatus("PAID");
-                    commission.setPaymentDate(LocalDate.now());
-                    commission.setPaidAmount(getCommissionAmount(commission));
-                    commissionRepository.save(commission);
-                }
+            asyncLoader.submit(() -> settlementService.settle(idsOf(selected)), paidCount -> {
                 selectionMap.clear();
-                commissionTable.refresh();
+                applyFilters();
                 updateStatistics();
                 updateSelectionCount();
                 updateButtonStates();
-                statusLabel.setText(selected.size() + " commission(s) marked as paid");
+                statusLabel.setText(paidCount + " commission(s) marked as paid");
                 showInfo("Success", "Commissions marked as paid successfully!");
-            } catch (Exception e) {
-                showError("Error updating commissions", e.getMessage());
-                e.printStackTrace();
-            }
+            }, e -> showError("Error updating commissions", AsyncLoader.describe(e)));
         }
     }
 
@@ -523,7 +520,7 @@ public class CommissionManagementController {
      */
     @FXML
     private void handleMarkUnpaid() {
-        List<CommissionLedger> selected = getSelectedCommissions();
+        List<CommissionRow> selected = getSelectedCommissions();
         if (selected.isEmpty()) {
             showWarning("No Selection", "Please select commissions to mark as unpaid.");
             return;
@@ -536,23 +533,14 @@ public class CommissionManagementController {
 
         Optional<ButtonType> result = confirmation.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            try {
-                for (CommissionLedger commission : selected) {
-                    commission.setStatus("UNPAID");
-                    commission.setPaymentDate(null);
-                    commission.setPaidAmount(BigDecimal.ZERO);
-                    commissionRepository.save(commission);
-                }
+            asyncLoader.submit(() -> settlementService.reopen(idsOf(selected)), reopenedCount -> {
                 selectionMap.clear();
-                commissionTable.refresh();
+                applyFilters();
                 updateStatistics();
                 updateSelectionCount();
                 updateButtonStates();
-                statusLabel.setText(selected.size() + " commission(s) marked as unpaid");
-            } catch (Exception e) {
-                showError("Error updating commissions", e.getMessage());
-                e.printStackTrace();
-            }
+                statusLabel.setText(reopenedCount + " commission(s) marked as unpaid");
+            }, e -> showError("Error updating commissions", AsyncLoader.describe(e)));
         }
     }
 
@@ -561,7 +549,7 @@ public class CommissionManagementController {
      */
     @FXML
     private void handleViewDetails() {
-        CommissionLedger selected = commissionTable.getSelectionModel().getSelectedItem();
+        CommissionRow selected = commissionTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
             showWarning("No Selection", "Please select a commission to view details.");
             return;
@@ -573,10 +561,10 @@ public class CommissionManagementController {
     /**
      * Show commission details dialog.
      */
-    private void showCommissionDetails(CommissionLedger commission) {
+    private void showCommissionDetails(CommissionRow commission) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("Commission Details");
-        alert.setHeaderText("Commission Record #" + commission.getId());
+        alert.setHeaderText("Commission Record #" + commission.id());
 
         GridPane grid = new GridPane();
         grid.setHgap(10);
@@ -585,16 +573,15 @@ public class CommissionManagementController {
 
         int row = 0;
         grid.add(new Label("Order ID:"), 0, row);
-        grid.add(new Label(commission.getLabOrder() != null ? String.valueOf(commission.getLabOrder().getId()) : "N/A"),
-                1, row++);
+        grid.add(new Label(commission.orderId() != null ? String.valueOf(commission.orderId()) : "N/A"), 1, row++);
 
         grid.add(new Label("Doctor:"), 0, row);
-        grid.add(new Label(commission.getDoctor() != null ? commission.getDoctor().getName() : "N/A"), 1, row++);
+        grid.add(new Label(commission.doctorName() != null ? commission.doctorName() : "N/A"), 1, row++);
 
         grid.add(new Label("Date:"), 0, row);
         grid.add(new Label(
-                commission.getTransactionDate() != null
-                        ? localeFormatService.formatDate(commission.getTransactionDate())
+                commission.transactionDate() != null
+                        ? localeFormatService.formatDate(commission.transactionDate())
                         : "N/A"),
                 1, row++);
 
@@ -610,8 +597,8 @@ public class CommissionManagementController {
         grid.add(amountLabel, 1, row++);
 
         grid.add(new Label("Status:"), 0, row);
-        Label statusLabel = new Label(commission.getStatus());
-        if ("PAID".equals(commission.getStatus())) {
+        Label statusLabel = new Label(commission.status());
+        if ("PAID".equals(commission.status())) {
             statusLabel.setStyle("-fx-text-fill: #27ae60; -fx-font-weight: bold;");
         } else {
             statusLabel.setStyle("-fx-text-fill: #e74c3c; -fx-font-weight: bold;");
@@ -627,22 +614,25 @@ public class CommissionManagementController {
      */
     @FXML
     private void handleBulkPayment() {
-        // Get all unpaid commissions
-        List<CommissionLedger> unpaidCommissions = allCommissions.stream()
-                .filter(c -> "UNPAID".equals(c.getStatus()))
-                .collect(Collectors.toList());
+        // Unpaid totals per doctor, summed in SQL, with the ids they cover so only those are paid
+        asyncLoader.submit(
+                () -> commissionRepository.summarizeByDoctor(new CommissionFilter(null, "UNPAID", null, null))
+                        .stream()
+                        .map(total -> new UnpaidDoctor(total, commissionRepository.findIds(
+                                new CommissionFilter(total.doctorId(), "UNPAID", null, null))))
+                        .toList(),
+                this::showBulkPaymentDialog,
+                e -> showError("Error loading commissions", AsyncLoader.describe(e)));
+    }
 
-        if (unpaidCommissions.isEmpty()) {
+    private void showBulkPaymentDialog(List<UnpaidDoctor> byDoctor) {
+        if (byDoctor.isEmpty()) {
             showInfo("No Unpaid Commissions", "There are no unpaid commissions to process.");
             return;
         }
 
-        // Group by doctor
-        Map<Doctor, List<CommissionLedger>> byDoctor = unpaidCommissions.stream()
-                .collect(Collectors.groupingBy(CommissionLedger::getDoctor));
-
         // Show selection dialog
-        Dialog<Map<Doctor, Boolean>> dialog = new Dialog<>();
+        Dialog<ButtonType> dialog = new Dialog<>();
         dialog.setTitle("Bulk Payment");
         dialog.setHeaderText("Select doctors to pay");
 
@@ -651,24 +641,19 @@ public class CommissionManagementController {
         grid.setVgap(10);
         grid.setPadding(new Insets(20));
 
-        Map<Doctor, CheckBox> checkBoxes = new HashMap<>();
+        Map<UnpaidDoctor, CheckBox> checkBoxes = new LinkedHashMap<>();
         int row = 0;
 
-        for (Map.Entry<Doctor, List<CommissionLedger>> entry : byDoctor.entrySet()) {
-            Doctor doctor = entry.getKey();
-            List<CommissionLedger> commissions = entry.getValue();
-            BigDecimal total = commissions.stream()
-                    .map(this::getCommissionAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
+        for (UnpaidDoctor unpaid : byDoctor) {
+            DoctorCommissionTotal total = unpaid.total();
             CheckBox checkBox = new CheckBox();
             checkBox.setSelected(true);
-            checkBoxes.put(doctor, checkBox);
+            checkBoxes.put(unpaid, checkBox);
 
             grid.add(checkBox, 0, row);
-            grid.add(new Label(doctor.getName()), 1, row);
-            grid.add(new Label(localeFormatService.formatCurrency(total) + " (" + commissions.size() + " records)"), 2,
-                    row);
+            grid.add(new Label(total.doctorName()), 1, row);
+            grid.add(new Label(localeFormatService.formatCurrency(total.amount()) + " ("
+                    + unpaid.commissionIds().size() + " records)"), 2, row);
             row++;
         }
 
@@ -676,39 +661,183 @@ public class CommissionManagementController {
         ButtonType payButtonType = new ButtonType("Pay Selected", ButtonBar.ButtonData.OK_DONE);
         dialog.getDialogPane().getButtonTypes().addAll(payButtonType, ButtonType.CANCEL);
 
-        Optional<Map<Doctor, Boolean>> result = dialog.showAndWait();
-        if (result.isPresent()) {
-            try {
+        Optional<ButtonType> result = dialog.showAndWait();
+        if (result.isPresent() && result.get() == payButtonType) {
+            List<UnpaidDoctor> selected = checkBoxes.entrySet().stream()
+                    .filter(entry -> entry.getValue().isSelected())
+                    .map(Map.Entry::getKey)
+                    .toList();
+            asyncLoader.submit(() -> {
                 int paidCount = 0;
-                for (Map.Entry<Doctor, CheckBox> entry : checkBoxes.entrySet()) {
-                    if (entry.getValue().isSelected()) {
-                        List<CommissionLedger> doctorCommissions = byDoctor.get(entry.getKey());
-                        for (CommissionLedger commission : doctorCommissions) {
-                            commission.setStatus("PAID");
-                            commission.setPaymentDate(LocalDate.now());
-                            commission.setPaidAmount(getCommissionAmount(commission));
-                            commissionRepository.save(commission);
-                            paidCount++;
-                        }
-                    }
+                for (UnpaidDoctor unpaid : selected) {
+                    paidCount += settlementService.settleDoctor(unpaid.total().doctorId(), unpaid.commissionIds());
                 }
-
+                return paidCount;
+            }, paidCount -> {
+                selectionMap.clear();
                 loadData();
+                updateSelectionCount();
+                updateButtonStates();
                 statusLabel.setText(paidCount + " commission(s) paid");
                 showInfo("Success", "Bulk payment processed successfully!");
-            } catch (Exception e) {
-                showError("Error processing payment", e.getMessage());
-                e.printStackTrace();
-            }
+            }, e -> showError("Error processing payment", AsyncLoader.describe(e)));
         }
     }
 
+    /**
+     * Handle commission rules button click.
+     */
+    @FXML
+    private void handleRules() {
+        asyncLoader.submit(
+                () -> new RuleChoices(doctorRepository.findAll(), testDefinitionService.findAllDepartments(),
+                        testDefinitionService.findAll()),
+                this::showRulesDialog,
+                e -> showError("Error loading commission rules", AsyncLoader.describe(e)));
+    }
+
+    private void showRulesDialog(RuleChoices choices) {
+        Map<Long, String> doctorNames = choices.doctors().stream()
+                .collect(Collectors.toMap(Doctor::getId, Doctor::getName, (a, b) -> a));
+        Map<Integer, String> departmentNames = choices.departments().stream()
+                .collect(Collectors.toMap(Department::getId, Department::getName, (a, b) -> a));
+        Map<Long, String> testNames = choices.tests().stream()
+                .collect(Collectors.toMap(TestDefinition::getId, TestDefinition::getTestName, (a, b) -> a));
+
+        TableView<CommissionRule> rulesTable = new TableView<>();
+        rulesTable.setPrefSize(560, 260);
+        rulesTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        TableColumn<CommissionRule, String> doctorCol = new TableColumn<>("Doctor");
+        doctorCol.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getDoctorId() == null
+                ? "All doctors"
+                : doctorNames.getOrDefault(cellData.getValue().getDoctorId(), "Unknown")));
+        TableColumn<CommissionRule, String> targetCol = new TableColumn<>("Applies To");
+        targetCol.setCellValueFactory(cellData -> {
+            CommissionRule rule = cellData.getValue();
+            return new SimpleStringProperty(rule.getTestId() != null
+                    ? "Test: " + testNames.getOrDefault(rule.getTestId(), "Unknown")
+                    : "Department: " + departmentNames.getOrDefault(rule.getDepartmentId(), "Unknown"));
+        });
+        TableColumn<CommissionRule, String> rateCol = new TableColumn<>("Rate");
+        rateCol.setCellValueFactory(cellData -> new SimpleStringProperty(
+                percentFormat.format(cellData.getValue().getPercentage()) + "%"));
+        rulesTable.getColumns().addAll(List.of(doctorCol, targetCol, rateCol));
+
+        ComboBox<Doctor> doctorBox = new ComboBox<>();
+        doctorBox.getItems().add(null);
+        doctorBox.getItems().addAll(choices.doctors());
+        doctorBox.setConverter(namedConverter(doctor -> doctor == null ? "All doctors" : doctor.getName()));
+        doctorBox.setValue(null);
+        ComboBox<Department> departmentBox = new ComboBox<>(
+                FXCollections.observableArrayList(choices.departments()));
+        departmentBox.setPromptText("Department");
+        departmentBox.setConverter(namedConverter(department -> department == null ? "" : department.getName()));
+        ComboBox<TestDefinition> testBox = new ComboBox<>(FXCollections.observableArrayList(choices.tests()));
+        testBox.setPromptText("or Test");
+        testBox.setConverter(namedConverter(test -> test == null ? "" : test.getTestName()));
+        departmentBox.valueProperty().addListener((obs, oldValue, newValue) -> {
+            if (newValue != null) {
+                testBox.setValue(null);
+            }
+        });
+        testBox.valueProperty().addListener((obs, oldValue, newValue) -> {
+            if (newValue != null) {
+                departmentBox.setValue(null);
+            }
+        });
+        TextField rateField = new TextField();
+        rateField.setPromptText("Rate %");
+        rateField.setPrefWidth(70);
+
+        Button addButton = new Button("Add Rule");
+        Button deleteButton = new Button("Delete Selected");
+        deleteButton.disableProperty().bind(rulesTable.getSelectionModel().selectedItemProperty().isNull());
+        Label rulesStatus = new Label();
+
+        Runnable reloadRules = () -> asyncLoader.submit(commissionCalculationService::findAllRules,
+                rules -> rulesTable.getItems().setAll(rules),
+                e -> showError("Error loading commission rules", AsyncLoader.describe(e)));
+
+        addButton.setOnAction(e -> {
+            CommissionRule rule = new CommissionRule();
+            rule.setDoctorId(doctorBox.getValue() != null ? doctorBox.getValue().getId() : null);
+            rule.setDepartmentId(departmentBox.getValue() != null ? departmentBox.getValue().getId() : null);
+            rule.setTestId(testBox.getValue() != null ? testBox.getValue().getId() : null);
+            try {
+                rule.setPercentage(new BigDecimal(rateField.getText().trim()));
+            } catch (NumberFormatException ex) {
+                showWarning("Invalid Rate", "Please enter the commission rate as a number.");
+                return;
+            }
+            applyRuleChange(() -> commissionCalculationService.saveRule(rule), rulesStatus, reloadRules);
+        });
+        deleteButton.setOnAction(e -> {
+            CommissionRule selected = rulesTable.getSelectionModel().getSelectedItem();
+            applyRuleChange(() -> commissionCalculationService.deleteRule(selected.getId()), rulesStatus,
+                    reloadRules);
+        });
+
+        HBox form = new HBox(8, doctorBox, departmentBox, testBox, rateField, addButton);
+        form.setAlignment(Pos.CENTER_LEFT);
+        VBox content = new VBox(10, rulesTable, form, new HBox(8, deleteButton, rulesStatus));
+        content.setPadding(new Insets(10));
+
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Commission Rules");
+        dialog.setHeaderText("Rates per test or department; the most specific rule wins over the doctor's rate");
+        dialog.getDialogPane().setContent(content);
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+        reloadRules.run();
+        dialog.showAndWait();
+    }
+
+    /**
+     * Stores a rule change, then reapplies the rules to the open commissions
+     * and reloads the rules and the ledger.
+     */
+    private void applyRuleChange(Runnable change, Label rulesStatus, Runnable reloadRules) {
+        rulesStatus.setText("Saving and recalculating commissions...");
+        asyncLoader.submit(() -> {
+            change.run();
+            return commissionCalculationService.recomputeOpen();
+        }, recomputed -> {
+            rulesStatus.setText(recomputed + " open commission(s) recalculated");
+            reloadRules.run();
+            loadData();
+        }, e -> {
+            rulesStatus.setText("");
+            showError("Error saving commission rule", AsyncLoader.describe(e));
+        });
+    }
+
+    private static <T> StringConverter<T> namedConverter(Function<T, String> name) {
+        return new StringConverter<>() {
+            @Override
+            public String toString(T item) {
+                return name.apply(item);
+            }
+
+            @Override
+            public T fromString(String string) {
+                return null;
+            }
+        };
+    }
+
+    /** Doctors, departments and tests offered as rule targets. */
+    private record RuleChoices(List<Doctor> doctors, List<Department> departments, List<TestDefinition> tests) {
+    }
+
+    /** Unpaid total of one doctor and the commissions it was summed from. */
+    private record UnpaidDoctor(DoctorCommissionTotal total, List<Long> commissionIds) {
+    }
+
     /**
      * Get selected commissions from the table.
      */
-    private List<CommissionLedger> getSelectedCommissions() {
-        return filteredCommissions.stream()
-                .filter(commission -> selectionMap.getOrDefault(commission.getId(), false))
+    private List<CommissionRow> getSelectedCommissions() {
+        return loadedCommissions.stream()
+                .filter(commission -> selectionMap.getOrDefault(commission.id(), false))
                 .collect(Collectors.toList());
     }
 
@@ -717,7 +846,10 @@ public class CommissionManagementController {
      */
     @FXML
     private void handleFilterChange() {
-        applyFilters();
+        // Repopulating the doctor list fires change events; loadData reloads once afterwards.
+        if (!reloadingFilters) {
+            applyFilters();
+        }
     }
 
     /**
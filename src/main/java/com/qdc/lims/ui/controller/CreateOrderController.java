@@ -7,19 +7,19 @@ import com.qdc.lims.entity.Panel;
 import com.qdc.lims.entity.Patient;
 import com.qdc.lims.entity.TestDefinition;
 import com.qdc.lims.repository.DoctorRepository;
-import com.qdc.lims.repository.PatientRepository;
 import com.qdc.lims.repository.PanelRepository;
-import com.qdc.lims.repository.TestDefinitionRepository;
 import com.qdc.lims.service.LocaleFormatService;
 import com.qdc.lims.service.OrderService;
+import com.qdc.lims.service.PatientService;
+import com.qdc.lims.service.TestCatalogService;
+import com.qdc.lims.ui.AsyncLoader;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
-import javafx.scene.layout.FlowPane;
-import javafx.scene.layout.HBox;
+import javafx.scene.input.KeyCode;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.util.StringConverter;
@@ -30,7 +30,10 @@ import java.util.stream.Collectors;
 
 /**
  * JavaFX controller for creating lab orders.
- * Supports category-based test selection with checkboxes.
+ * Tests and panels are picked from a filterable list backed by the in-memory
+ * catalog of {@link TestCatalogService}. Doctors, the catalog, patient
+ * searches and the order save run in the background through
+ * {@link AsyncLoader}.
  */
 @Component("createOrderController")
 public class CreateOrderController {
@@ -51,7 +54,10 @@ public class CreateOrderController {
     private ComboBox<Doctor> doctorComboBox;
 
     @FXML
-    private TabPane categoryTabPane;
+    private TextField testFilterField;
+
+    @FXML
+    private ListView<TestCatalogService.Entry> catalogListView;
 
     @FXML
     private Label selectedTestsCountLabel;
@@ -74,49 +80,50 @@ public class CreateOrderController {
     @FXML
     private ListView<String> selectedTestsListView;
 
-    private final PatientRepository patientRepository;
+    private final PatientService patientService;
     private final DoctorRepository doctorRepository;
-    private final TestDefinitionRepository testRepository;
+    private final TestCatalogService testCatalogService;
     private final PanelRepository panelRepository;
     private final OrderService orderService;
     private final LocaleFormatService localeFormatService;
+    private final AsyncLoader asyncLoader;
 
+    private AsyncLoader.Latest<List<Patient>> patientSearch;
+    private boolean creatingOrder = false;
     private Patient selectedPatient;
-    // Map to track selected tests across all categories
-    private final Map<Long, CheckBox> testCheckboxMap = new HashMap<>();
-    private final Set<TestDefinition> selectedTests = new HashSet<>();
-
-    // Map to track selected panels
-    private final Map<Integer, CheckBox> panelCheckboxMap = new HashMap<>();
-    private final Set<Integer> selectedPanelIds = new HashSet<>();
-    private final Map<Integer, Panel> panelsById = new HashMap<>();
-    private final Map<Integer, List<TestDefinition>> panelTestsMap = new HashMap<>();
-    private final Map<Long, Set<Integer>> testPanelMembership = new HashMap<>();
-    private boolean bulkSelection = false;
+    // Catalog snapshot used for the whole order, so prices and panels stay consistent
+    private TestCatalogService.Catalog catalog;
+    private final Map<Long, TestDefinition> selectedTests = new LinkedHashMap<>();
+    private final Set<Integer> selectedPanelIds = new LinkedHashSet<>();
 
     private ObservableList<String> selectedTestNames = FXCollections.observableArrayList();
 
-    public CreateOrderController(PatientRepository patientRepository,
+    public CreateOrderController(PatientService patientService,
             DoctorRepository doctorRepository,
-            TestDefinitionRepository testRepository,
+            TestCatalogService testCatalogService,
             PanelRepository panelRepository,
             OrderService orderService,
-            LocaleFormatService localeFormatService) {
-        this.patientRepository = patientRepository;
+            LocaleFormatService localeFormatService,
+            AsyncLoader asyncLoader) {
+        this.patientService = patientService;
         this.doctorRepository = doctorRepository;
-        this.testRepository = testRepository;
+        this.testCatalogService = testCatalogService;
         this.panelRepository = panelRepository;
         this.orderService = orderService;
         this.localeFormatService = localeFormatService;
+        this.asyncLoader = asyncLoader;
     }
 
     @FXML
     private void initialize() {
+        patientSearch = asyncLoader.<List<Patient>>latest()
+                .onFailure(e -> showError("Patient search failed: " + AsyncLoader.describe(e)));
+
         // Load doctors
         loadDoctors();
 
-        // Load tests into category tabs
-        loadTestsIntoCategoryTabs();
+        // Load tests and panels into the picker
+        loadTestCatalog();
 
         // Add listeners for billing calculation
         discountField.textProperty().addListener((obs, old, newVal) -> calculateBalance(computeTotalAmount()));
@@ -154,18 +161,17 @@ public class CreateOrderController {
     }
 
     private void loadDoctors() {
-        List<Doctor> doctors = doctorRepository.findAll();
-
         // Add a "None" option
         Doctor noneDoctor = new Doctor();
         noneDoctor.setId(null);
         noneDoctor.setName("-- None / Self --");
 
         ObservableList<Doctor> doctorList = FXCollections.observableArrayList(noneDoctor);
-        doctorList.addAll(doctors);
 
         doctorComboBox.setItems(doctorList);
         doctorComboBox.setValue(noneDoctor);
+        asyncLoader.submit(doctorRepository::findAll, doctorList::addAll,
+                e -> showError("Could not load doctors: " + AsyncLoader.describe(e)));
 
         // Custom display - only show doctor name (commission is confidential)
         doctorComboBox.setConverter(new StringConverter<Doctor>() {
@@ -184,224 +190,144 @@ public class CreateOrderController {
     }
 
     /**
-     * Load tests into category tabs with checkboxes.
-     * Each category gets its own tab with a scrollable list of test checkboxes.
+     * Load the orderable catalog into the picker list. Typing in the filter
+     * narrows the list through the catalog's prefix index; Up/Down move the
+     * highlight and Enter adds the highlighted entry, then clears the filter
+     * for the next code.
      */
-    private void loadTestsIntoCategoryTabs() {
-        List<TestDefinition> allTests = testRepository.findAll().stream()
-                .filter(TestDefinition::getActive)
-                .sorted(Comparator.comparing(TestDefinition::getTestName))
-                .collect(Collectors.toList());
-
-        List<Panel> allPanels = panelRepository.findAllWithTests();
-
-        Map<String, List<TestDefinition>> testsByDept = allTests.stream()
-                .collect(Collectors.groupingBy(
-                        test -> test.getDepartment() != null ? test.getDepartment().getName() : "Other",
-                        LinkedHashMap::new,
-                        Collectors.toList()));
-
-        Map<String, List<Panel>> panelsByDept = allPanels.stream()
-                .collect(Collectors.groupingBy(
-                        panel -> panel.getDepartment() != null ? panel.getDepartment().getName() : "Other",
-                        LinkedHashMap::new,
-                        Collectors.toList()));
-
-        categoryTabPane.getTabs().clear();
-        testCheckboxMap.clear();
+    private void loadTestCatalog() {
         selectedTests.clear();
-        panelCheckboxMap.clear();
         selectedPanelIds.clear();
-        panelsById.clear();
-        panelTestsMap.clear();
-        testPanelMembership.clear();
-
-        for (Panel panel : allPanels) {
-            panelsById.put(panel.getId(), panel);
-            List<TestDefinition> panelTests = panel.getTests() != null
-                    ? panel.getTests().stream().filter(TestDefinition::getActive).collect(Collectors.toList())
-                    : List.of();
-            panelTestsMap.put(panel.getId(), panelTests);
-            for (TestDefinition test : panelTests) {
-                if (test.getId() == null) {
-                    continue;
-                }
-                testPanelMembership.computeIfAbsent(test.getId(), id -> new HashSet<>()).add(panel.getId());
-            }
-        }
 
-        for (String dept : testsByDept.keySet()) {
-            Tab tab = new Tab(dept);
-            tab.setClosable(false);
-
-            TabPane panelTabPane = new TabPane();
-            panelTabPane.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
-            panelTabPane.getStyleClass().add("category-tabs");
-
-            List<Panel> deptPanels = panelsByDept.getOrDefault(dept, List.of());
-            Set<Long> testsInPanels = new HashSet<>();
-
-            for (Panel panel : deptPanels) {
-                VBox panelContent = new VBox(8);
-                panelContent.setPadding(new Insets(10));
-                panelContent.setStyle("-fx-background-color: white;");
-
-                HBox panelHeader = new HBox(12);
-                panelHeader.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
-
-                CheckBox panelCheckBox = new CheckBox("Bill as panel");
-                panelCheckBox.setStyle("-fx-font-weight: bold; -fx-cursor: hand;");
-                panelCheckboxMap.put(panel.getId(), panelCheckBox);
-
-                Label priceLabel = new Label(buildPanelPriceLabel(panel));
-                priceLabel.setStyle("-fx-text-fill: #2c3e50; -fx-font-size: 12;");
-
-                panelHeader.getChildren().addAll(panelCheckBox, priceLabel);
-                panelContent.getChildren().add(panelHeader);
-
-                List<TestDefinition> panelTests = panelTestsMap.getOrDefault(panel.getId(), List.of()).stream()
-                        .sorted(Comparator.comparing(TestDefinition::getTestName))
-                        .collect(Collectors.toList());
-                panelContent.getChildren().add(buildGroupedTests(panelTests));
-
-                panelCheckBox.selectedProperty().addListener((obs, wasSelected, isSelected) -> {
-                    if (isSelected) {
-                        selectedPanelIds.add(panel.getId());
-                        bulkSelection = true;
-                        for (TestDefinition test : panelTests) {
-                            CheckBox testCheckBox = testCheckboxMap.get(test.getId());
-                            if (testCheckBox != null) {
-                                testCheckBox.setSelected(true);
-                            }
-                        }
-                        bulkSelection = false;
-                    } else {
-                        selectedPanelIds.remove(panel.getId());
-                    }
-                    updateTotalAmount();
-                    updateSelectedTestsListView();
+        catalogListView.setCellFactory(list -> new CatalogEntryCell());
+        asyncLoader.<TestCatalogService.Catalog>latest().showLoadingIn(catalogListView)
+                .load(testCatalogService::current, loaded -> {
+                    catalog = loaded;
+                    showCatalogEntries(catalog.search(testFilterField.getText()));
                 });
 
-                for (TestDefinition test : panelTests) {
-                    if (test.getId() != null) {
-                        testsInPanels.add(test.getId());
-                    }
-                }
-
-                ScrollPane panelScrollPane = new ScrollPane(panelContent);
-                panelScrollPane.setFitToWidth(true);
-                panelScrollPane.setStyle("-fx-background-color: transparent;");
-                Tab panelTab = new Tab(panel.getPanelName(), panelScrollPane);
-                panelTab.setClosable(false);
-                panelTabPane.getTabs().add(panelTab);
+        testFilterField.textProperty().addListener((obs, old, query) -> {
+            if (catalog != null) {
+                showCatalogEntries(catalog.search(query));
             }
-
-            List<TestDefinition> standaloneTests = testsByDept.get(dept).stream()
-                    .filter(test -> !testsInPanels.contains(test.getId()))
-                    .collect(Collectors.toList());
-
-            if (!standaloneTests.isEmpty() || deptPanels.isEmpty()) {
-                VBox standaloneContent = new VBox(8);
-                standaloneContent.setPadding(new Insets(10));
-                standaloneContent.setStyle("-fx-background-color: white;");
-                standaloneContent.getChildren().add(buildGroupedTests(standaloneTests));
-
-                ScrollPane standaloneScrollPane = new ScrollPane(standaloneContent);
-                standaloneScrollPane.setFitToWidth(true);
-                standaloneScrollPane.setStyle("-fx-background-color: transparent;");
-                String standaloneTitle = deptPanels.isEmpty() ? "Tests" : "Other Tests";
-                Tab standaloneTab = new Tab(standaloneTitle, standaloneScrollPane);
-                standaloneTab.setClosable(false);
-                panelTabPane.getTabs().add(standaloneTab);
+        });
+        testFilterField.setOnKeyPressed(event -> {
+            if (event.getCode() == KeyCode.DOWN) {
+                catalogListView.getSelectionModel().selectNext();
+                catalogListView.scrollTo(catalogListView.getSelectionModel().getSelectedIndex());
+                event.consume();
+            } else if (event.getCode() == KeyCode.UP) {
+                catalogListView.getSelectionModel().selectPrevious();
+                catalogListView.scrollTo(catalogListView.getSelectionModel().getSelectedIndex());
+                event.consume();
             }
-
-            tab.setContent(panelTabPane);
-            categoryTabPane.getTabs().add(tab);
-        }
+        });
+        testFilterField.setOnAction(event -> {
+            TestCatalogService.Entry entry = catalogListView.getSelectionModel().getSelectedItem();
+            if (entry != null) {
+                setEntrySelected(entry, true);
+                testFilterField.clear();
+            }
+        });
+        catalogListView.setOnKeyPressed(event -> {
+            TestCatalogService.Entry entry = catalogListView.getSelectionModel().getSelectedItem();
+            if (entry != null && (event.getCode() == KeyCode.SPACE || event.getCode() == KeyCode.ENTER)) {
+                setEntrySelected(entry, !isEntrySelected(entry));
+                event.consume();
+            }
+        });
     }
 
-    private VBox buildGroupedTests(List<TestDefinition> tests) {
-        VBox container = new VBox(6);
-        if (tests == null || tests.isEmpty()) {
-            return container;
+    private void showCatalogEntries(List<TestCatalogService.Entry> entries) {
+        // The catalog's lists are immutable, so the list view can use them as they are.
+        catalogListView.setItems(FXCollections.observableList(entries));
+        if (!entries.isEmpty()) {
+            catalogListView.getSelectionModel().selectFirst();
+            catalogListView.scrollTo(0);
         }
+    }
 
-        List<TestDefinition> sorted = tests.stream()
-                .filter(TestDefinition::getActive)
-                .sorted(Comparator
-                        .comparing((TestDefinition test) -> categoryName(test))
-                        .thenComparing(TestDefinition::getTestName))
-                .collect(Collectors.toList());
-
-        String currentCategory = null;
-        FlowPane currentPane = null;
-        for (TestDefinition test : sorted) {
-            String category = categoryName(test);
-            if (!category.equals(currentCategory)) {
-                Label categoryLabel = new Label(category);
-                categoryLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #34495e;");
-                container.getChildren().add(categoryLabel);
-
-                currentPane = new FlowPane();
-                currentPane.setHgap(15);
-                currentPane.setVgap(8);
-                currentPane.setPadding(new Insets(4, 0, 6, 0));
-                container.getChildren().add(currentPane);
-                currentCategory = category;
-            }
-            if (currentPane != null) {
-                currentPane.getChildren().add(createTestCheckBox(test));
-            }
-        }
-        return container;
+    private boolean isEntrySelected(TestCatalogService.Entry entry) {
+        return entry.isPanel()
+                ? selectedPanelIds.contains(entry.panel().getId())
+                : selectedTests.containsKey(entry.test().getId());
     }
 
-    private CheckBox createTestCheckBox(TestDefinition test) {
-        CheckBox checkBox = new CheckBox(test.getTestName());
-        checkBox.setStyle("-fx-font-size: 12; -fx-cursor: hand;");
-        checkBox.setMinWidth(200);
-        checkBox.setMaxWidth(280);
-        checkBox.selectedProperty().addListener((obs, wasSelected, isSelected) -> {
-            if (isSelected) {
-                selectedTests.add(test);
-            } else {
-                selectedTests.remove(test);
-                Set<Integer> panels = testPanelMembership.get(test.getId());
-                if (panels != null) {
-                    for (Integer panelId : panels) {
-                        CheckBox panelCheckBox = panelCheckboxMap.get(panelId);
-                        if (panelCheckBox != null && panelCheckBox.isSelected()) {
-                            panelCheckBox.setSelected(false);
-                        }
-                    }
+    /**
+     * Selecting a panel selects its tests; deselecting a test stops billing
+     * the panels that contain it.
+     */
+    private void setEntrySelected(TestCatalogService.Entry entry, boolean selected) {
+        if (entry.isPanel()) {
+            Integer panelId = entry.panel().getId();
+            if (selected) {
+                selectedPanelIds.add(panelId);
+                for (TestDefinition test : catalog.panelTests(panelId)) {
+                    selectedTests.put(test.getId(), test);
                 }
+            } else {
+                selectedPanelIds.remove(panelId);
             }
-            if (!bulkSelection) {
-                updateTotalAmount();
-                updateSelectedTestsListView();
+        } else {
+            TestDefinition test = entry.test();
+            if (selected) {
+                selectedTests.put(test.getId(), test);
+            } else {
+                selectedTests.remove(test.getId());
+                selectedPanelIds.removeAll(catalog.panelsContaining(test.getId()));
             }
-        });
-        if (test.getShortCode() != null && !test.getShortCode().isEmpty()) {
-            checkBox.setTooltip(new Tooltip("Code: " + test.getShortCode()));
         }
-        if (test.getId() != null) {
-            testCheckboxMap.put(test.getId(), checkBox);
-        }
-        return checkBox;
+        catalogListView.refresh();
+        updateTotalAmount();
+        updateSelectedTestsListView();
     }
 
-    private String categoryName(TestDefinition test) {
-        if (test != null && test.getCategory() != null && test.getCategory().getName() != null) {
-            return test.getCategory().getName();
+    private String describeEntry(TestCatalogService.Entry entry) {
+        String price = entry.price() != null ? localeFormatService.formatCurrency(entry.price()) : "N/A";
+        if (entry.isPanel()) {
+            return String.format("[Panel] %s  -  %d tests  -  %s  (%s)",
+                    entry.name(), catalog.panelTests(entry.panel().getId()).size(), price, entry.department());
         }
-        return "Other";
+        String code = entry.code() != null && !entry.code().isBlank() ? entry.code() + "  " : "";
+        return String.format("%s%s  -  %s  (%s)", code, entry.name(), price, entry.department());
     }
 
-    private String buildPanelPriceLabel(Panel panel) {
-        if (panel != null && panel.getPrice() != null) {
-            return "Panel Price: " + localeFormatService.formatCurrency(panel.getPrice());
+    /**
+     * Reuses one checkbox per visible row, so the picker stays light however
+     * large the catalog is.
+     */
+    private final class CatalogEntryCell extends ListCell<TestCatalogService.Entry> {
+        private final CheckBox checkBox = new CheckBox();
+
+        private CatalogEntryCell() {
+            checkBox.setOnAction(event -> {
+                if (getItem() != null) {
+                    setEntrySelected(getItem(), checkBox.isSelected());
+                }
+            });
+        }
+
+        @Override
+        protected void updateItem(TestCatalogService.Entry entry, boolean empty) {
+            super.updateItem(entry, empty);
+            setText(null);
+            if (empty || entry == null) {
+                setGraphic(null);
+                setTooltip(null);
+                return;
+            }
+            checkBox.setText(describeEntry(entry));
+            checkBox.setSelected(isEntrySelected(entry));
+            checkBox.setStyle(entry.isPanel()
+                    ? "-fx-font-size: 12; -fx-font-weight: bold; -fx-cursor: hand;"
+                    : "-fx-font-size: 12; -fx-cursor: hand;");
+            setTooltip(entry.isPanel()
+                    ? new Tooltip(catalog.panelTests(entry.panel().getId()).stream()
+                            .map(TestDefinition::getTestName)
+                            .collect(Collectors.joining("\n")))
+                    : null);
+            setGraphic(checkBox);
         }
-        return "Panel Price: N/A";
     }
 
     @FXML
@@ -409,39 +335,32 @@ public class CreateOrderController {
         String searchTerm = patientSearchField.getText().trim();
 
         if (searchTerm.isEmpty()) {
-            showError("Please enter patient MRN or name");
+            showError("Please enter patient MRN, name or mobile");
             return;
         }
 
-        Patient patient = null;
+        // Exact MRN / mobile matches are listed first, then name matches
+        patientSearch.load(() -> patientService.searchPatients(searchTerm),
+                matchingPatients -> showPatientMatches(searchTerm, matchingPatients));
+    }
 
-        // Try to find by MRN first (exact match)
-        if (searchTerm.contains("-") || searchTerm.length() == 6) {
-            patient = patientRepository.findByMrn(searchTerm).orElse(null);
-        }
+    private void showPatientMatches(String searchTerm, List<Patient> matchingPatients) {
+        Patient patient;
 
-        // If not found by MRN, search by name
-        if (patient == null) {
-            List<Patient> matchingPatients = patientRepository.findAll().stream()
-                    .filter(p -> p.getFullName() != null &&
-                            p.getFullName().toLowerCase().contains(searchTerm.toLowerCase()))
-                    .collect(java.util.stream.Collectors.toList());
-
-            if (matchingPatients.isEmpty()) {
-                showError("No patient found with MRN or name: " + searchTerm);
-                patientInfoBox.setVisible(false);
-                patientInfoBox.setManaged(false);
-                selectedPatient = null;
+        if (matchingPatients.isEmpty()) {
+            showError("No patient found with MRN, name or mobile: " + searchTerm);
+            patientInfoBox.setVisible(false);
+            patientInfoBox.setManaged(false);
+            selectedPatient = null;
+            return;
+        } else if (matchingPatients.size() == 1) {
+            patient = matchingPatients.get(0);
+        } else {
+            // Multiple matches - show in dialog
+            patient = showPatientSelectionDialog(matchingPatients);
+            if (patient == null) {
+                showError("Please select a patient from the list");
                 return;
-            } else if (matchingPatients.size() == 1) {
-                patient = matchingPatients.get(0);
-            } else {
-                // Multiple matches - show in dialog
-                patient = showPatientSelectionDialog(matchingPatients);
-                if (patient == null) {
-                    showError("Please select a patient from the list");
-                    return;
-                }
             }
         }
 
@@ -472,13 +391,13 @@ public class CreateOrderController {
         java.util.Set<Long> panelTestIds = getSelectedPanelTestIds();
 
         for (Integer panelId : selectedPanelIds) {
-            Panel panel = panelsById.get(panelId);
+            Panel panel = catalog.panel(panelId);
             if (panel != null && panel.getPrice() != null) {
                 total = total.add(panel.getPrice());
             }
         }
 
-        for (TestDefinition test : selectedTests) {
+        for (TestDefinition test : selectedTests.values()) {
             if (!panelTestIds.contains(test.getId()) && test.getPrice() != null) {
                 total = total.add(test.getPrice());
             }
@@ -489,12 +408,11 @@ public class CreateOrderController {
     private java.util.Set<Long> getSelectedPanelTestIds() {
         java.util.Set<Long> panelTestIds = new java.util.HashSet<>();
         for (Integer panelId : selectedPanelIds) {
-            Panel panel = panelsById.get(panelId);
+            Panel panel = catalog.panel(panelId);
             if (panel == null || panel.getPrice() == null) {
                 continue;
             }
-            List<TestDefinition> tests = panelTestsMap.getOrDefault(panelId, List.of());
-            for (TestDefinition test : tests) {
+            for (TestDefinition test : catalog.panelTests(panelId)) {
                 if (test.getId() != null) {
                     panelTestIds.add(test.getId());
                 }
@@ -540,7 +458,7 @@ public class CreateOrderController {
                 : null;
 
         // Get test IDs
-        List<Long> testIds = selectedTests.stream().map(TestDefinition::getId).collect(Collectors.toList());
+        List<Long> testIds = new ArrayList<>(selectedTests.keySet());
         List<Integer> panelIds = new ArrayList<>(selectedPanelIds);
 
         // Create order request
@@ -555,22 +473,33 @@ public class CreateOrderController {
                 discount,
                 cashPaid);
 
-        // Create order
-        try {
+        // Create order; a second click while saving would book it twice
+        if (creatingOrder) {
+            return;
+        }
+        creatingOrder = true;
+        asyncLoader.submit(() -> {
             LabOrder order = orderService.createOrder(request);
-
+            return new CreatedOrder(order, getPanelTestIds(order));
+        }, created -> {
+            creatingOrder = false;
             // Show print receipt dialog
-            showPrintReceiptDialog(order);
+            showPrintReceiptDialog(created);
+        }, e -> {
+            creatingOrder = false;
+            showError("Failed to create order: " + AsyncLoader.describe(e));
+        });
+    }
 
-        } catch (Exception e) {
-            showError("Failed to create order: " + e.getMessage());
-        }
+    /** A saved order and the tests its priced panels cover, for the receipt. */
+    private record CreatedOrder(LabOrder order, Set<Long> panelTestIds) {
     }
 
     /**
      * Show print receipt dialog after order creation.
      */
-    private void showPrintReceiptDialog(LabOrder order) {
+    private void showPrintReceiptDialog(CreatedOrder created) {
+        LabOrder order = created.order();
         javafx.scene.control.Dialog<String> dialog = new javafx.scene.control.Dialog<>();
         dialog.setTitle("Order Created Successfully!");
         dialog.setHeaderText("Order #" + order.getId() + " created for " + order.getPatient().getFullName());
@@ -606,7 +535,7 @@ public class CreateOrderController {
         Button printNormalBtn = new Button("🖨 Normal Print");
         printNormalBtn.getStyleClass().add("btn-primary");
         printNormalBtn.setOnAction(e -> {
-            printReceipt(order, "NORMAL");
+            printReceipt(created, "NORMAL");
             dialog.close();
             closeCreateOrderWindow();
         });
@@ -614,7 +543,7 @@ public class CreateOrderController {
         Button printThermalBtn = new Button("🧾 Thermal Print");
         printThermalBtn.getStyleClass().add("btn-purple");
         printThermalBtn.setOnAction(e -> {
-            printReceipt(order, "THERMAL");
+            printReceipt(created, "THERMAL");
             dialog.close();
             closeCreateOrderWindow();
         });
@@ -654,16 +583,16 @@ public class CreateOrderController {
      * Print receipt using system print dialog.
      * Supports both NORMAL (A4/Letter) and THERMAL (58mm/80mm) formats.
      */
-    private void printReceipt(LabOrder order, String printerType) {
+    private void printReceipt(CreatedOrder created, String printerType) {
         // Build receipt content based on printer type
         String receiptText;
         String fontStyle;
 
         if ("THERMAL".equals(printerType)) {
-            receiptText = buildThermalReceipt(order);
+            receiptText = buildThermalReceipt(created.order(), created.panelTestIds());
             fontStyle = "-fx-font-family: 'Courier New'; -fx-font-size: 9;";
         } else {
-            receiptText = buildNormalReceipt(order);
+            receiptText = buildNormalReceipt(created.order(), created.panelTestIds());
             fontStyle = "-fx-font-family: 'Courier New'; -fx-font-size: 11;";
         }
 
@@ -694,7 +623,7 @@ public class CreateOrderController {
     /**
      * Build receipt content for normal printers (A4/Letter size).
      */
-    private String buildNormalReceipt(LabOrder order) {
+    private String buildNormalReceipt(LabOrder order, java.util.Set<Long> panelTestIds) {
         StringBuilder sb = new StringBuilder();
         sb.append("========== LIMS LABORATORY ==========\n");
         sb.append("          RECEIPT / INVOICE\n");
@@ -708,8 +637,6 @@ public class CreateOrderController {
         sb.append("MRN: ").append(order.getPatient().getMrn()).append("\n");
         sb.append("Age/Gender: ").append(order.getPatient().getAge()).append(" / ")
                 .append(order.getPatient().getGender()).append("\n\n");
-        java.util.Set<Long> panelTestIds = getPanelTestIds(order);
-
         if (order.getPanels() != null && !order.getPanels().isEmpty()) {
             sb.append("--- PANELS ---\n");
             for (Panel panel : order.getPanels()) {
@@ -753,7 +680,7 @@ public class CreateOrderController {
      * Build receipt content optimized for thermal printers (58mm/80mm paper).
      * Compact format with shorter lines and condensed layout.
      */
-    private String buildThermalReceipt(LabOrder order) {
+    private String buildThermalReceipt(LabOrder order, java.util.Set<Long> panelTestIds) {
         StringBuilder sb = new StringBuilder();
 
         // Header - centered, compact
@@ -774,8 +701,6 @@ public class CreateOrderController {
                 .append(" | ").append(order.getPatient().getGender()).append("\n");
         sb.append("--------------------------------\n");
 
-        java.util.Set<Long> panelTestIds = getPanelTestIds(order);
-
         if (order.getPanels() != null && !order.getPanels().isEmpty()) {
             sb.append("PANELS:\n");
             for (Panel panel : order.getPanels()) {
@@ -871,17 +796,12 @@ public class CreateOrderController {
 
         doctorComboBox.getSelectionModel().selectFirst();
 
-        // Clear all test checkboxes
-        for (CheckBox checkBox : testCheckboxMap.values()) {
-            checkBox.setSelected(false);
-        }
+        // Clear selected tests and panels
         selectedTests.clear();
-
-        // Clear all panel checkboxes
-        for (CheckBox checkBox : panelCheckboxMap.values()) {
-            checkBox.setSelected(false);
-        }
         selectedPanelIds.clear();
+        testFilterField.clear();
+        catalogListView.refresh();
+        updateSelectedTestsListView();
 
         discountField.setText("0");
         cashPaidField.setText("0");
@@ -935,7 +855,9 @@ public class CreateOrderController {
 
         Dialog<Patient> dialog = new Dialog<>();
         dialog.setTitle("Multiple Patients Found");
-        dialog.setHeaderText(patients.size() + " patients match your search. Please select one:");
+        dialog.setHeaderText(patients.size() < PatientService.SEARCH_LIMIT
+                ? patients.size() + " patients match your search. Please select one:"
+                : "Showing the best " + patients.size() + " matches. Please select one or refine your search:");
         Label selectionHint = new Label("Double-click a patient or click OK to confirm selection.");
         selectionHint.setStyle("-fx-text-fill: #7f8c8d;");
         Label errorLabel = new Label();
@@ -1015,7 +937,7 @@ public class CreateOrderController {
 
     // Call this method whenever tests are added/removed
     private void updateSelectedTestsListView() {
-        List<String> testNames = selectedTests.stream()
+        List<String> testNames = selectedTests.values().stream()
                 .map(TestDefinition::getTestName)
                 .collect(Collectors.toList());
         selectedTestNames.setAll(testNames);
@@ -3,6 +3,7 @@ package com.qdc.lims.ui.controller;
 import com.qdc.lims.entity.CommissionLedger;
 import com.qdc.lims.repository.CommissionLedgerRepository;
 import com.qdc.lims.service.LocaleFormatService;
+import com.qdc.lims.ui.AsyncLoader;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -19,7 +20,8 @@ import java.util.stream.Collectors;
 
 /**
  * Controller that summarizes doctor commissions over a date range and exposes
- * aggregate paid/due totals.
+ * aggregate paid/due totals. The ledger is read in the background through
+ * {@link AsyncLoader}.
  */
 @Component
 public class DoctorCommissionLedgerController {
@@ -28,6 +30,8 @@ public class DoctorCommissionLedgerController {
     private CommissionLedgerRepository commissionRepository;
     @Autowired
     private LocaleFormatService localeFormatService;
+    @Autowired
+    private AsyncLoader asyncLoader;
 
     @FXML
     private DatePicker startDatePicker;
@@ -56,11 +60,17 @@ public class DoctorCommissionLedgerController {
     @FXML
     private Button closeButton;
 
+    private AsyncLoader.Latest<List<CommissionLedger>> ledgerLoad;
+
     /**
      * Initializes date defaults and loads the initial summary.
      */
     @FXML
     public void initialize() {
+        if (ledgerLoad != null) {
+            ledgerLoad.cancel();
+        }
+        ledgerLoad = asyncLoader.<List<CommissionLedger>>latest().showLoadingIn(summaryTable);
         localeFormatService.applyDatePickerLocale(startDatePicker, endDatePicker);
         startDatePicker.setValue(LocalDate.now().withDayOfMonth(1));
         endDatePicker.setValue(LocalDate.now());
@@ -88,8 +98,10 @@ public class DoctorCommissionLedgerController {
             return;
         }
 
-        List<CommissionLedger> commissions = commissionRepository.findByTransactionDateBetween(start, end);
+        ledgerLoad.load(() -> commissionRepository.findByTransactionDateBetween(start, end), this::showSummary);
+    }
 
+    private void showSummary(List<CommissionLedger> commissions) {
         List<CommissionLedger> eligibleCommissions = commissions.stream()
                 .filter(c -> c.getDoctor() != null)
                 .filter(c -> {
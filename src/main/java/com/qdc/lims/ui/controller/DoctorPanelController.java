@@ -2,6 +2,8 @@ package com.qdc.lims.ui.controller;
 
 import com.qdc.lims.entity.Doctor;
 import com.qdc.lims.repository.DoctorRepository;
+import com.qdc.lims.service.CommissionCalculationService;
+import com.qdc.lims.ui.AsyncLoader;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -20,6 +22,8 @@ import java.util.Optional;
 /**
  * Controller for the Doctor Management Panel.
  * Handles CRUD operations for doctors including commission management.
+ * Changing a doctor's rate reapplies it to the open commissions. Reads and
+ * writes run in the background through {@link AsyncLoader}.
  */
 @Component
 public class DoctorPanelController {
@@ -64,16 +68,33 @@ public class DoctorPanelController {
     private Label statusLabel;
 
     private final DoctorRepository doctorRepository;
-    private ObservableList<Doctor> doctorList;
-    private ObservableList<Doctor> filteredList;
-
-    public DoctorPanelController(DoctorRepository doctorRepository) {
+    private final CommissionCalculationService commissionCalculationService;
+    private final AsyncLoader asyncLoader;
+    private final ObservableList<Doctor> doctorList = FXCollections.observableArrayList();
+    private final ObservableList<Doctor> filteredList = FXCollections.observableArrayList();
+    private AsyncLoader.Latest<List<Doctor>> doctorsLoad;
+
+    public DoctorPanelController(DoctorRepository doctorRepository,
+            CommissionCalculationService commissionCalculationService, AsyncLoader asyncLoader) {
         this.doctorRepository = doctorRepository;
+        this.commissionCalculationService = commissionCalculationService;
+        this.asyncLoader = asyncLoader;
     }
 
     @FXML
     private void initialize() {
+        if (doctorsLoad != null) {
+            doctorsLoad.cancel();
+        }
+        doctorsLoad = asyncLoader.<List<Doctor>>latest()
+                .showLoadingIn(doctorTable)
+                .onFailure(e -> {
+                    statusLabel.setText("Error loading doctors: " + AsyncLoader.describe(e));
+                    statusLabel.setStyle("-fx-text-fill: #e74c3c;");
+                    showAlert("Error", "Failed to load doctors", AsyncLoader.describe(e), Alert.AlertType.ERROR);
+                });
         setupTableColumns();
+        doctorTable.setItems(filteredList);
         loadDoctors();
         updateStatistics();
     }
@@ -194,27 +215,22 @@ public class DoctorPanelController {
      * Load all doctors from database.
      */
     private void loadDoctors() {
-        try {
-            List<Doctor> doctors = doctorRepository.findAll();
-            doctorList = FXCollections.observableArrayList(doctors);
-            filteredList = FXCollections.observableArrayList(doctors);
-            doctorTable.setItems(filteredList);
+        doctorsLoad.load(doctorRepository::findAll, doctors -> {
+            doctorList.setAll(doctors);
+            filteredList.setAll(doctors);
+            updateStatistics();
 
             statusLabel.setText("Loaded " + doctors.size() + " doctor(s)");
             statusLabel.setStyle("-fx-text-fill: #27ae60;");
-        } catch (Exception e) {
-            statusLabel.setText("Error loading doctors: " + e.getMessage());
-            statusLabel.setStyle("-fx-text-fill: #e74c3c;");
-            showAlert("Error", "Failed to load doctors", e.getMessage(), Alert.AlertType.ERROR);
-        }
+        });
     }
 
     /**
      * Update statistics labels.
      */
     private void updateStatistics() {
-        long total = doctorList != null ? doctorList.size() : 0;
-        long active = doctorList != null ? doctorList.stream().filter(Doctor::isActive).count() : 0;
+        long total = doctorList.size();
+        long active = doctorList.stream().filter(Doctor::isActive).count();
         long inactive = total - active;
 
         totalDoctorsLabel.setText(String.valueOf(total));
@@ -252,25 +268,22 @@ public class DoctorPanelController {
         Dialog<Doctor> dialog = createDoctorDialog(null);
         Optional<Doctor> result = dialog.showAndWait();
 
-        result.ifPresent(doctor -> {
-            try {
-                Doctor savedDoctor = doctorRepository.save(doctor);
-                doctorList.add(savedDoctor);
-                filteredList.add(savedDoctor);
-                updateStatistics();
+        result.ifPresent(doctor -> asyncLoader.submit(() -> doctorRepository.save(doctor), savedDoctor -> {
+            doctorList.add(savedDoctor);
+            filteredList.add(savedDoctor);
+            updateStatistics();
 
-                statusLabel.setText("Doctor added successfully: " + savedDoctor.getName());
-                statusLabel.setStyle("-fx-text-fill: #27ae60;");
+            statusLabel.setText("Doctor added successfully: " + savedDoctor.getName());
+            statusLabel.setStyle("-fx-text-fill: #27ae60;");
 
-                showAlert("Success", "Doctor Added",
-                        "Dr. " + savedDoctor.getName() + " has been added successfully!",
-                        Alert.AlertType.INFORMATION);
-            } catch (Exception e) {
-                statusLabel.setText("Error adding doctor: " + e.getMessage());
-                statusLabel.setStyle("-fx-text-fill: #e74c3c;");
-                showAlert("Error", "Failed to add doctor", e.getMessage(), Alert.AlertType.ERROR);
-            }
-        });
+            showAlert("Success", "Doctor Added",
+                    "Dr. " + savedDoctor.getName() + " has been added successfully!",
+                    Alert.AlertType.INFORMATION);
+        }, e -> {
+            statusLabel.setText("Error adding doctor: " + AsyncLoader.describe(e));
+            statusLabel.setStyle("-fx-text-fill: #e74c3c;");
+            showAlert("Error", "Failed to add doctor", AsyncLoader.describe(e), Alert.AlertType.ERROR);
+        }));
     }
 
     /**
@@ -281,10 +294,10 @@ public class DoctorPanelController {
         Optional<Doctor> result = dialog.showAndWait();
 
         result.ifPresent(updatedDoctor -> {
-            try {
-                updatedDoctor.setId(doctor.getId());
-                Doctor savedDoctor = doctorRepository.save(updatedDoctor);
-
+            boolean rateChanged = !sameRate(doctor.getCommissionPercentage(),
+                    updatedDoctor.getCommissionPercentage());
+            updatedDoctor.setId(doctor.getId());
+            asyncLoader.submit(() -> doctorRepository.save(updatedDoctor), savedDoctor -> {
                 // Update in list
                 int index = doctorList.indexOf(doctor);
                 if (index >= 0) {
@@ -298,14 +311,36 @@ public class DoctorPanelController {
 
                 statusLabel.setText("Doctor updated successfully: " + savedDoctor.getName());
                 statusLabel.setStyle("-fx-text-fill: #27ae60;");
-            } catch (Exception e) {
-                statusLabel.setText("Error updating doctor: " + e.getMessage());
+                if (rateChanged) {
+                    recomputeCommissions(savedDoctor);
+                }
+            }, e -> {
+                statusLabel.setText("Error updating doctor: " + AsyncLoader.describe(e));
                 statusLabel.setStyle("-fx-text-fill: #e74c3c;");
-                showAlert("Error", "Failed to update doctor", e.getMessage(), Alert.AlertType.ERROR);
-            }
+                showAlert("Error", "Failed to update doctor", AsyncLoader.describe(e), Alert.AlertType.ERROR);
+            });
         });
     }
 
+    /**
+     * Reapplies a changed doctor rate to the open commissions in the
+     * background.
+     */
+    private void recomputeCommissions(Doctor doctor) {
+        asyncLoader.submit(commissionCalculationService::recomputeOpen, recomputed -> {
+            statusLabel.setText("Doctor updated successfully: " + doctor.getName() + " ("
+                    + recomputed + " open commission(s) recalculated)");
+            statusLabel.setStyle("-fx-text-fill: #27ae60;");
+        }, e -> {
+            statusLabel.setText("Error recalculating commissions: " + AsyncLoader.describe(e));
+            statusLabel.setStyle("-fx-text-fill: #e74c3c;");
+        });
+    }
+
+    private static boolean sameRate(BigDecimal before, BigDecimal after) {
+        return before == null ? after == null : after != null && before.compareTo(after) == 0;
+    }
+
     /**
      * Handle toggle doctor active status.
      */
@@ -318,21 +353,20 @@ public class DoctorPanelController {
 
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    doctor.setActive(!doctor.isActive());
-                    doctorRepository.save(doctor);
-
+                doctor.setActive(!doctor.isActive());
+                asyncLoader.submit(() -> doctorRepository.save(doctor), saved -> {
                     doctorTable.refresh();
                     updateStatistics();
 
                     statusLabel.setText("Doctor " + (doctor.isActive() ? "activated" : "deactivated") +
                             " successfully: " + doctor.getName());
                     statusLabel.setStyle("-fx-text-fill: #27ae60;");
-                } catch (Exception e) {
-                    statusLabel.setText("Error changing status: " + e.getMessage());
+                }, e -> {
+                    doctor.setActive(!doctor.isActive());
+                    statusLabel.setText("Error changing status: " + AsyncLoader.describe(e));
                     statusLabel.setStyle("-fx-text-fill: #e74c3c;");
-                    showAlert("Error", "Failed to change status", e.getMessage(), Alert.AlertType.ERROR);
-                }
+                    showAlert("Error", "Failed to change status", AsyncLoader.describe(e), Alert.AlertType.ERROR);
+                });
             }
         });
     }
@@ -349,19 +383,21 @@ public class DoctorPanelController {
 
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
+                asyncLoader.submit(() -> {
                     doctorRepository.delete(doctor);
+                    return doctor;
+                }, deleted -> {
                     doctorList.remove(doctor);
                     filteredList.remove(doctor);
                     updateStatistics();
 
                     statusLabel.setText("Doctor deleted successfully: " + doctor.getName());
                     statusLabel.setStyle("-fx-text-fill: #27ae60;");
-                } catch (Exception e) {
-                    statusLabel.setText("Error deleting doctor: " + e.getMessage());
+                }, e -> {
+                    statusLabel.setText("Error deleting doctor: " + AsyncLoader.describe(e));
                     statusLabel.setStyle("-fx-text-fill: #e74c3c;");
-                    showAlert("Error", "Failed to delete doctor", e.getMessage(), Alert.AlertType.ERROR);
-                }
+                    showAlert("Error", "Failed to delete doctor", AsyncLoader.describe(e), Alert.AlertType.ERROR);
+                });
             }
         });
     }
@@ -372,10 +408,9 @@ public class DoctorPanelController {
     @FXML
     private void handleRefresh() {
         searchField.clear();
-        loadDoctors();
-        updateStatistics();
-        statusLabel.setText("Data refreshed");
+        statusLabel.setText("Refreshing...");
         statusLabel.setStyle("-fx-text-fill: #3498db;");
+        loadDoctors();
     }
 
     /**
@@ -3,6 +3,7 @@ package com.qdc.lims.ui.controller;
 import com.qdc.lims.entity.Payment;
 import com.qdc.lims.repository.PaymentRepository;
 import com.qdc.lims.service.LocaleFormatService;
+import com.qdc.lims.ui.AsyncLoader;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
@@ -16,7 +17,7 @@ import java.util.List;
 
 /**
  * Controller for recording operational expenses and querying them over a date
- * range.
+ * range. Saves and queries run in the background through {@link AsyncLoader}.
  */
 @Component
 public class ExpenseController {
@@ -25,6 +26,8 @@ public class ExpenseController {
     private PaymentRepository paymentRepository;
     @Autowired
     private LocaleFormatService localeFormatService;
+    @Autowired
+    private AsyncLoader asyncLoader;
 
     @FXML
     private Button closeButton;
@@ -61,11 +64,17 @@ public class ExpenseController {
     @FXML
     private TableColumn<Payment, String> amountCol;
 
+    private AsyncLoader.Latest<List<Payment>> expensesLoad;
+
     /**
      * Initializes defaults and loads the initial expense view.
      */
     @FXML
     public void initialize() {
+        if (expensesLoad != null) {
+            expensesLoad.cancel();
+        }
+        expensesLoad = asyncLoader.<List<Payment>>latest().showLoadingIn(expenseTable);
         setupTable();
         setupForm();
 
@@ -119,12 +128,12 @@ public class ExpenseController {
             payment.setPaymentMethod(paymentMethodCombo.getValue());
             payment.setTransactionDate(expenseDate.getValue().atStartOfDay());
 
-            paymentRepository.save(payment);
+            asyncLoader.submit(() -> paymentRepository.save(payment), saved -> {
+                descriptionField.clear();
+                amountField.clear();
 
-            descriptionField.clear();
-            amountField.clear();
-
-            handleSearch();
+                handleSearch();
+            }, e -> showAlert("Error", "Failed to save: " + AsyncLoader.describe(e)));
 
         } catch (NumberFormatException e) {
             showAlert("Error", "Invalid amount format.");
@@ -143,15 +152,15 @@ public class ExpenseController {
         LocalDate end = filterEndDate.getValue();
 
         if (start != null && end != null) {
-            List<Payment> expenses = paymentRepository.findByTypeAndTransactionDateBetween(
-                    "EXPENSE", start.atStartOfDay(), end.atTime(23, 59, 59));
-
-            expenseTable.setItems(FXCollections.observableArrayList(expenses));
-
-            java.math.BigDecimal total = expenses.stream()
-                    .map(p -> p.getAmount() != null ? p.getAmount() : java.math.BigDecimal.ZERO)
-                    .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
-            totalExpensesLabel.setText(localeFormatService.formatCurrency(total));
+            expensesLoad.load(() -> paymentRepository.findByTypeAndTransactionDateBetween(
+                    "EXPENSE", start.atStartOfDay(), end.atTime(23, 59, 59)), expenses -> {
+                        expenseTable.setItems(FXCollections.observableArrayList(expenses));
+
+                        java.math.BigDecimal total = expenses.stream()
+                                .map(p -> p.getAmount() != null ? p.getAmount() : java.math.BigDecimal.ZERO)
+                                .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
+                        totalExpensesLabel.setText(localeFormatService.formatCurrency(total));
+                    });
         }
     }
 
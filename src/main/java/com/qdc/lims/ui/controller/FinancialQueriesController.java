@@ -1,15 +1,9 @@
 package com.qdc.lims.ui.controller;
 
 import com.qdc.lims.dto.FinancialCategorySummary;
-import com.qdc.lims.entity.CommissionLedger;
-import com.qdc.lims.entity.LabOrder;
-import com.qdc.lims.entity.Payment;
-import com.qdc.lims.entity.SupplierLedger;
-import com.qdc.lims.repository.CommissionLedgerRepository;
-import com.qdc.lims.repository.LabOrderRepository;
-import com.qdc.lims.repository.PaymentRepository;
-import com.qdc.lims.repository.SupplierLedgerRepository;
+import com.qdc.lims.service.FinancialRollupService;
 import com.qdc.lims.service.LocaleFormatService;
+import com.qdc.lims.ui.AsyncLoader;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -20,30 +14,25 @@ import javafx.scene.control.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
- * Controller for financial reporting queries. It aggregates income and expenses
- * across orders, payments, commissions, and supplier ledgers.
+ * Controller for financial reporting queries. It shows income and expenses
+ * across orders, payments, commissions, and supplier ledgers from the daily
+ * financial rollups.
  */
 @Component
 public class FinancialQueriesController {
 
     @Autowired
-    private LabOrderRepository orderRepository;
-    @Autowired
-    private PaymentRepository paymentRepository;
-    @Autowired
-    private CommissionLedgerRepository commissionRepository;
-    @Autowired
-    private SupplierLedgerRepository supplierRepository;
+    private FinancialRollupService financialRollupService;
     @Autowired
     private LocaleFormatService localeFormatService;
+    @Autowired
+    private AsyncLoader asyncLoader;
+
+    private AsyncLoader.Latest<FinancialRollupService.Summary> reportLoad;
 
     @FXML
     private Button closeButton;
@@ -85,6 +74,10 @@ public class FinancialQueriesController {
      */
     @FXML
     public void initialize() {
+        if (reportLoad != null) {
+            reportLoad.cancel();
+        }
+        reportLoad = asyncLoader.<FinancialRollupService.Summary>latest().showLoadingIn(categoryTable);
         setupTable();
         localeFormatService.applyDatePickerLocale(startDatePicker, endDatePicker);
         startDatePicker.setValue(LocalDate.now().withDayOfMonth(1));
@@ -122,7 +115,8 @@ public class FinancialQueriesController {
     }
 
     /**
-     * Aggregates and displays financial summaries for the selected date range.
+     * Displays the financial summaries of the selected date range, read from
+     * the daily rollups.
      */
     @FXML
     private void handleGenerateReport() {
@@ -133,109 +127,25 @@ public class FinancialQueriesController {
             return;
         }
 
-        Map<String, FinancialCategorySummary> summaryMap = new HashMap<>();
-
-        // 1. Patient Income (Lab Orders)
-        List<LabOrder> orders = orderRepository.findByOrderDateBetween(start.atStartOfDay(), end.atTime(23, 59, 59));
-        BigDecimal patientIncome = BigDecimal.ZERO;
-        int patientCount = 0;
-        for (LabOrder o : orders) {
-            if (o.getPaidAmount() != null && o.getPaidAmount().compareTo(BigDecimal.ZERO) > 0) {
-                patientIncome = patientIncome.add(o.getPaidAmount());
-                patientCount++;
-            }
-        }
-        if (patientIncome.compareTo(BigDecimal.ZERO) > 0) {
-            summaryMap.put("Patient Services",
-                    new FinancialCategorySummary("Patient Services", "INCOME", patientCount, patientIncome));
-        }
-
-        // 2. Misc Payments
-        List<Payment> payments = paymentRepository.findByTransactionDateBetween(start.atStartOfDay(),
-                end.atTime(23, 59, 59));
-        for (Payment p : payments) {
-            String cat = p.getCategory() != null ? p.getCategory() : "Misc";
-            summaryMap.putIfAbsent(cat, new FinancialCategorySummary(cat, p.getType(), 0, BigDecimal.ZERO));
-            FinancialCategorySummary s = summaryMap.get(cat);
-            s.setCount(s.getCount() + 1);
-            BigDecimal amount = p.getAmount() != null ? p.getAmount() : BigDecimal.ZERO;
-            s.setTotalAmount(s.getTotalAmount().add(amount));
-        }
-
-        // 3. Doctor Commissions (Paid)
-        List<CommissionLedger> commissions = commissionRepository.findByTransactionDateBetween(start, end);
-        BigDecimal commTotal = BigDecimal.ZERO;
-        int commCount = 0;
-        for (CommissionLedger c : commissions) {
-            if ("PAID".equals(c.getStatus())) {
-                commTotal = commTotal.add(getCommissionAmount(c));
-                commCount++;
-            }
-        }
-        if (commTotal.compareTo(BigDecimal.ZERO) > 0) {
-            summaryMap.put("Doctor Commissions",
-                    new FinancialCategorySummary("Doctor Commissions", "EXPENSE", commCount, commTotal));
-        }
-
-        // 4. Supplier Payments
-        List<SupplierLedger> supplierTxs = supplierRepository.findByTransactionDateBetween(start, end);
-        BigDecimal supTotal = BigDecimal.ZERO;
-        int supCount = 0;
-        for (SupplierLedger s : supplierTxs) {
-            if (s.getPaidAmount() != null && s.getPaidAmount().compareTo(BigDecimal.ZERO) > 0) {
-                supTotal = supTotal.add(s.getPaidAmount());
-                supCount++;
-            }
-        }
-        if (supTotal.compareTo(BigDecimal.ZERO) > 0) {
-            summaryMap.put("Supplier Payments",
-                    new FinancialCategorySummary("Supplier Payments", "EXPENSE", supCount, supTotal));
-        }
-
-        // Liabilities & Receivables (point-in-time)
-        BigDecimal patientReceivable = orders.stream()
-                .map(o -> o.getBalanceDue() != null ? o.getBalanceDue() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal unpaidCommission = commissions.stream()
-                .filter(c -> !"PAID".equals(c.getStatus()))
-                .map(c -> {
-                    BigDecimal calculated = getCommissionAmount(c);
-                    BigDecimal paid = c.getPaidAmount() != null ? c.getPaidAmount() : BigDecimal.ZERO;
-                    return calculated.subtract(paid).max(BigDecimal.ZERO);
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal supplierPayable = supplierTxs.stream()
-                .map(s -> {
-                    BigDecimal bill = s.getBillAmount() != null ? s.getBillAmount() : BigDecimal.ZERO;
-                    BigDecimal paid = s.getPaidAmount() != null ? s.getPaidAmount() : BigDecimal.ZERO;
-                    return bill.subtract(paid).max(BigDecimal.ZERO);
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        reportLoad.load(() -> financialRollupService.summarize(start, end), this::showReport);
+    }
 
-        // Update UI
-        List<FinancialCategorySummary> list = new ArrayList<>(summaryMap.values());
+    private void showReport(FinancialRollupService.Summary summary) {
+        List<FinancialCategorySummary> list = summary.categories();
         categoryTable.setItems(FXCollections.observableArrayList(list));
 
-        BigDecimal totalIncome = list.stream().filter(s -> "INCOME".equals(s.getType()))
-                .map(FinancialCategorySummary::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal totalExpense = list.stream().filter(s -> "EXPENSE".equals(s.getType()))
-                .map(FinancialCategorySummary::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        totalIncomeLabel.setText(localeFormatService.formatCurrency(totalIncome));
-        totalExpenseLabel.setText(localeFormatService.formatCurrency(totalExpense));
-        netProfitLabel.setText(localeFormatService.formatCurrency(totalIncome.subtract(totalExpense)));
+        totalIncomeLabel.setText(localeFormatService.formatCurrency(summary.totalIncome()));
+        totalExpenseLabel.setText(localeFormatService.formatCurrency(summary.totalExpense()));
+        netProfitLabel.setText(
+                localeFormatService.formatCurrency(summary.totalIncome().subtract(summary.totalExpense())));
         if (patientReceivableLabel != null) {
-            patientReceivableLabel.setText(localeFormatService.formatCurrency(patientReceivable));
+            patientReceivableLabel.setText(localeFormatService.formatCurrency(summary.receivable()));
         }
         if (unpaidCommissionLabel != null) {
-            unpaidCommissionLabel.setText(localeFormatService.formatCurrency(unpaidCommission));
+            unpaidCommissionLabel.setText(localeFormatService.formatCurrency(summary.unpaidCommission()));
         }
         if (supplierPayableLabel != null) {
-            supplierPayableLabel.setText(localeFormatService.formatCurrency(supplierPayable));
+            supplierPayableLabel.setText(localeFormatService.formatCurrency(summary.supplierPayable()));
         }
 
         // Pie Chart (Expenses Only)
@@ -247,30 +157,36 @@ public class FinancialQueriesController {
     }
 
     /**
-     * Closes the financial queries window.
+     * Recomputes the daily rollups of every day, then regenerates the report.
      */
     @FXML
-    private void handleClose() {
-        com.qdc.lims.ui.util.ViewCloseUtil.closeCurrentTabOrWindow(closeButton);
+    private void handleRebuildTotals() {
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION,
+                "Recompute the financial totals of every day from the source records?");
+        confirm.setTitle("Rebuild Totals");
+        confirm.setHeaderText(null);
+        if (confirm.showAndWait().orElse(ButtonType.CANCEL) != ButtonType.OK) {
+            return;
+        }
+        asyncLoader.submit(financialRollupService::rebuildAll, days -> {
+            handleGenerateReport();
+            Alert done = new Alert(Alert.AlertType.INFORMATION, "Recomputed totals for " + days + " days.");
+            done.setTitle("Rebuild Totals");
+            done.setHeaderText(null);
+            done.show();
+        }, e -> {
+            Alert failed = new Alert(Alert.AlertType.ERROR, "Could not rebuild totals: " + AsyncLoader.describe(e));
+            failed.setTitle("Rebuild Totals");
+            failed.setHeaderText(null);
+            failed.show();
+        });
     }
 
     /**
-     * Calculates a commission amount from the underlying doctor rate and lab order
-     * total.
+     * Closes the financial queries window.
      */
-    private BigDecimal getCommissionAmount(CommissionLedger commission) {
-        if (commission.getDoctor() == null || commission.getDoctor().getCommissionPercentage() == null) {
-            return BigDecimal.ZERO;
-        }
-        BigDecimal rate = commission.getDoctor().getCommissionPercentage();
-        if (rate.compareTo(BigDecimal.ZERO) <= 0) {
-            return BigDecimal.ZERO;
-        }
-        if (commission.getLabOrder() == null || commission.getLabOrder().getTotalAmount() == null) {
-            return BigDecimal.ZERO;
-        }
-        return commission.getLabOrder().getTotalAmount()
-                .multiply(rate)
-                .divide(BigDecimal.valueOf(100), 4, java.math.RoundingMode.HALF_UP);
+    @FXML
+    private void handleClose() {
+        com.qdc.lims.ui.util.ViewCloseUtil.closeCurrentTabOrWindow(closeButton);
     }
 }
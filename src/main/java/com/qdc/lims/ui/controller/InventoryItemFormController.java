@@ -2,8 +2,9 @@ package com.qdc.lims.ui.controller;
 
 import com.qdc.lims.entity.InventoryItem;
 import com.qdc.lims.entity.Supplier;
-import com.qdc.lims.repository.InventoryItemRepository;
 import com.qdc.lims.repository.SupplierRepository;
+import com.qdc.lims.service.StockLedgerService;
+import com.qdc.lims.ui.AsyncLoader;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -39,31 +40,36 @@ public class InventoryItemFormController {
     @FXML
     private CheckBox activeCheckBox;
 
-    private final InventoryItemRepository inventoryRepository;
     private final SupplierRepository supplierRepository;
+    private final StockLedgerService stockLedgerService;
+    private final AsyncLoader asyncLoader;
 
     private InventoryItem item;
     private Runnable onSaveCallback;
+    private boolean saving;
 
     /**
      * Creates the form controller.
      */
-    public InventoryItemFormController(InventoryItemRepository inventoryRepository,
-            SupplierRepository supplierRepository) {
-        this.inventoryRepository = inventoryRepository;
+    public InventoryItemFormController(SupplierRepository supplierRepository,
+            StockLedgerService stockLedgerService,
+            AsyncLoader asyncLoader) {
         this.supplierRepository = supplierRepository;
+        this.stockLedgerService = stockLedgerService;
+        this.asyncLoader = asyncLoader;
     }
 
     /**
-     * Loads reference data such as units and suppliers.
+     * Loads reference data such as units and suppliers; suppliers arrive in the
+     * background.
      */
     @FXML
     public void initialize() {
         unitComboBox.setItems(FXCollections.observableArrayList(
                 "pcs", "ml", "liters", "units", "boxes", "tests", "strips"));
 
-        List<Supplier> suppliers = supplierRepository.findAll();
-        supplierComboBox.setItems(FXCollections.observableArrayList(suppliers));
+        asyncLoader.submit(supplierRepository::findAll, this::showSuppliers,
+                e -> showAlert("Could not load suppliers: " + AsyncLoader.describe(e)));
 
         supplierComboBox.setConverter(new StringConverter<>() {
             @Override
@@ -78,6 +84,12 @@ public class InventoryItemFormController {
         });
     }
 
+    private void showSuppliers(List<Supplier> suppliers) {
+        Supplier selected = supplierComboBox.getValue();
+        supplierComboBox.setItems(FXCollections.observableArrayList(suppliers));
+        supplierComboBox.setValue(selected);
+    }
+
     /**
      * Sets the item to edit (or creates a new one) and updates the form title.
      *
@@ -116,7 +128,7 @@ public class InventoryItemFormController {
      */
     @FXML
     private void handleSave() {
-        if (!validateInput()) {
+        if (saving || !validateInput()) {
             return;
         }
 
@@ -131,16 +143,19 @@ public class InventoryItemFormController {
         item.setPreferredSupplier(supplierComboBox.getValue());
         item.setActive(activeCheckBox.isSelected());
 
-        try {
-            inventoryRepository.save(item);
+        saving = true;
+        InventoryItem toSave = item;
+        asyncLoader.submit(() -> stockLedgerService.saveItem(toSave), saved -> {
+            saving = false;
             if (onSaveCallback != null) {
                 onSaveCallback.run();
             }
             handleCancel();
-        } catch (Exception e) {
-            Alert alert = new Alert(Alert.AlertType.ERROR, "Could not save item: " + e.getMessage());
+        }, e -> {
+            saving = false;
+            Alert alert = new Alert(Alert.AlertType.ERROR, "Could not save item: " + AsyncLoader.describe(e));
             alert.showAndWait();
-        }
+        });
     }
 
     /**
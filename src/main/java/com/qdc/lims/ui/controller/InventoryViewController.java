@@ -2,6 +2,8 @@ package com.qdc.lims.ui.controller;
 
 import com.qdc.lims.entity.InventoryItem;
 import com.qdc.lims.repository.InventoryItemRepository;
+import com.qdc.lims.service.StockLedgerService;
+import com.qdc.lims.ui.AsyncLoader;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -20,7 +22,8 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 /**
- * JavaFX controller for inventory management view.
+ * JavaFX controller for inventory management view. Items are loaded in the
+ * background.
  */
 @Component("inventoryViewController")
 public class InventoryViewController {
@@ -74,16 +77,27 @@ public class InventoryViewController {
     private TableColumn<InventoryItem, String> statusColumn;
 
     private final InventoryItemRepository inventoryRepository;
+    private final StockLedgerService stockLedgerService;
     private final ApplicationContext applicationContext;
-    private List<InventoryItem> allItems;
+    private final AsyncLoader asyncLoader;
+    private List<InventoryItem> allItems = List.of();
+    private AsyncLoader.Latest<List<InventoryItem>> inventoryLoad;
 
-    public InventoryViewController(InventoryItemRepository inventoryRepository, ApplicationContext applicationContext) {
+    public InventoryViewController(InventoryItemRepository inventoryRepository, StockLedgerService stockLedgerService,
+            ApplicationContext applicationContext, AsyncLoader asyncLoader) {
         this.inventoryRepository = inventoryRepository;
+        this.stockLedgerService = stockLedgerService;
         this.applicationContext = applicationContext;
+        this.asyncLoader = asyncLoader;
     }
 
     @FXML
     private void initialize() {
+        if (inventoryLoad != null) {
+            inventoryLoad.cancel();
+        }
+        allItems = List.of();
+        inventoryLoad = asyncLoader.<List<InventoryItem>>latest().showLoadingIn(inventoryTable);
         // Setup table columns
         itemNameColumn.setCellValueFactory(new PropertyValueFactory<>("itemName"));
         categoryColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty("General")); // No
@@ -140,7 +154,6 @@ public class InventoryViewController {
 
         // Load data
         loadInventory();
-        updateStats();
 
         // Double click to edit
         inventoryTable.setRowFactory(tv -> {
@@ -155,8 +168,15 @@ public class InventoryViewController {
     }
 
     private void loadInventory() {
-        allItems = inventoryRepository.findAll();
-        applyCurrentFilter();
+        inventoryLoad.load(inventoryRepository::findAll, items -> {
+            allItems = items;
+            if (searchField.getText().isBlank()) {
+                applyCurrentFilter();
+            } else {
+                handleSearch();
+            }
+            updateStats();
+        });
     }
 
     private void applyCurrentFilter() {
@@ -231,7 +251,6 @@ public class InventoryViewController {
         searchField.clear();
         allItemsRadio.setSelected(true);
         loadInventory();
-        updateStats();
     }
 
     @FXML
@@ -293,9 +312,10 @@ public class InventoryViewController {
         dialog.showAndWait().ifPresent(result -> {
             try {
                 BigDecimal newStock = new BigDecimal(result);
-                selected.setCurrentStock(newStock);
-                inventoryRepository.save(selected);
-                handleRefresh();
+                asyncLoader.submit(() -> {
+                    stockLedgerService.setStockLevel(selected.getId(), newStock, "Quick adjustment");
+                    return null;
+                }, ignored -> handleRefresh(), this::showWriteError);
             } catch (NumberFormatException e) {
                 Alert alert = new Alert(Alert.AlertType.ERROR, "Invalid number format.");
                 alert.showAndWait();
@@ -312,11 +332,18 @@ public class InventoryViewController {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION,
                 "Are you sure you want to delete '" + selected.getItemName() + "'?");
         if (alert.showAndWait().get() == ButtonType.OK) {
-            inventoryRepository.delete(selected);
-            handleRefresh();
+            asyncLoader.submit(() -> {
+                inventoryRepository.delete(selected);
+                return null;
+            }, ignored -> handleRefresh(), this::showWriteError);
         }
     }
 
+    private void showWriteError(Throwable failure) {
+        Alert alert = new Alert(Alert.AlertType.ERROR, "Could not save: " + AsyncLoader.describe(failure));
+        alert.show();
+    }
+
     @FXML
     private void handleManageSuppliers() {
         try {
@@ -1,14 +1,13 @@
 package com.qdc.lims.ui.controller;
 
+import com.qdc.lims.dto.LabWorklistFilter;
 import com.qdc.lims.service.BrandingService;
+import com.qdc.lims.service.OrderChangeFeedService;
 import com.qdc.lims.ui.DashboardNavigator;
+import com.qdc.lims.ui.UiRefreshScheduler;
 import com.qdc.lims.ui.navigation.DashboardType;
 import com.qdc.lims.ui.util.LogoutUtil;
 import com.qdc.lims.repository.LabOrderRepository;
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
@@ -17,10 +16,10 @@ import javafx.scene.Scene;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
-import javafx.util.Duration;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.LocalDate;
 
 /**
@@ -29,6 +28,9 @@ import java.time.LocalDate;
 @Component("labDashboardController")
 public class LabDashboardController {
 
+    /** Count refresh interval while the order change feed is down. */
+    private static final Duration FALLBACK_POLL = Duration.ofSeconds(10);
+
     @FXML
     private BorderPane mainContainer;
 
@@ -43,22 +45,29 @@ public class LabDashboardController {
     @FXML
     private Button switchRoleButton;
 
-    // Auto-refresh timer for real-time count updates (every 10 seconds)
-    private Timeline autoRefreshTimeline;
+    // Live count updates pushed by the order change feed
+    private OrderChangeFeedService.Subscription changeSubscription;
+    private UiRefreshScheduler.Refresh countsRefresh;
 
     private final ApplicationContext springContext;
     private final DashboardNavigator navigator;
     private final LabOrderRepository labOrderRepository;
     private final BrandingService brandingService;
+    private final OrderChangeFeedService orderChangeFeedService;
+    private final UiRefreshScheduler uiRefreshScheduler;
 
     public LabDashboardController(ApplicationContext springContext,
             DashboardNavigator navigator,
             LabOrderRepository labOrderRepository,
-            BrandingService brandingService) {
+            BrandingService brandingService,
+            OrderChangeFeedService orderChangeFeedService,
+            UiRefreshScheduler uiRefreshScheduler) {
         this.springContext = springContext;
         this.navigator = navigator;
         this.labOrderRepository = labOrderRepository;
         this.brandingService = brandingService;
+        this.orderChangeFeedService = orderChangeFeedService;
+        this.uiRefreshScheduler = uiRefreshScheduler;
     }
 
     @FXML
@@ -68,12 +77,12 @@ public class LabDashboardController {
             switchRoleButton.setVisible(false);
         }
 
-        // Load stats even if user isn't available yet
-        loadDashboardStats();
-
         // Start auto-refresh for real-time count updates
         startAutoRefresh();
 
+        // Load stats even if user isn't available yet
+        loadDashboardStats();
+
         if (mainContainer != null) {
             mainContainer.sceneProperty().addListener((obs, oldScene, newScene) -> {
                 if (newScene != null) {
@@ -81,8 +90,8 @@ public class LabDashboardController {
                         if (newWindow instanceof Stage stage) {
                             stage.setOnShown(e -> {
                                 brandingService.tagStage(stage, DashboardType.LAB.getWindowTitle());
-                                loadDashboardStats();
                                 startAutoRefresh();
+                                loadDashboardStats();
                                 applyBranding();
                             });
                             stage.setOnHidden(e -> stopAutoRefresh());
@@ -96,66 +105,49 @@ public class LabDashboardController {
     }
 
     /**
-     * Starts automatic refresh of order counts every 10 seconds.
-     * This ensures the "Pending" and "Completed" counts update in real-time
-     * when Reception creates new orders or Lab Tech completes tests.
+     * Subscribes to order/result change notifications so the "Pending" and
+     * "Completed" counts update as soon as Reception creates orders or the Lab
+     * Tech completes tests, without polling the database. While the feed is
+     * not connected the counts are polled every 10 seconds instead. They are
+     * queried on the shared refresh workers, coalesced, and held while the
+     * dashboard is not showing.
      */
     private void startAutoRefresh() {
-        if (autoRefreshTimeline != null) {
-            autoRefreshTimeline.stop();
-        }
-        autoRefreshTimeline = new Timeline(new KeyFrame(Duration.seconds(10), event -> {
-            // Run database query in background thread to avoid UI freeze
-            new Thread(() -> {
-                try {
-                    long newPendingCount = labOrderRepository.countPendingWithResults();
-                    long newCompletedCount = countCompletedTodayWithResults();
-
-                    // Update UI on JavaFX thread
-                    Platform.runLater(() -> {
-                        String currentPendingCount = pendingCountLabel.getText();
-                        String currentCompletedCount = completedCountLabel.getText();
-
-                        // Only update if counts have changed
-                        if (!String.valueOf(newPendingCount).equals(currentPendingCount) ||
-                                !String.valueOf(newCompletedCount).equals(currentCompletedCount)) {
-                            pendingCountLabel.setText(String.valueOf(newPendingCount));
-                            completedCountLabel.setText(String.valueOf(newCompletedCount));
-                        }
-                    });
-                } catch (Exception e) {
-                    System.err.println("Auto-refresh error: " + e.getMessage());
-                }
-            }).start();
-        }));
-        autoRefreshTimeline.setCycleCount(Animation.INDEFINITE);
-        autoRefreshTimeline.play();
+        stopAutoRefresh();
+        countsRefresh = uiRefreshScheduler.register(mainContainer,
+                () -> new long[] { labOrderRepository.countPendingWithResults(), countCompletedTodayWithResults() },
+                counts -> {
+                    pendingCountLabel.setText(String.valueOf(counts[0]));
+                    completedCountLabel.setText(String.valueOf(counts[1]));
+                })
+                .pollWhile(() -> !orderChangeFeedService.isConnected(), FALLBACK_POLL);
+        UiRefreshScheduler.Refresh refresh = countsRefresh;
+        changeSubscription = orderChangeFeedService.subscribe(changedTables -> refresh.request());
     }
 
     /**
-     * Stops the auto-refresh timer. Should be called when navigating away from this
-     * dashboard.
+     * Stops listening for order changes. Should be called when navigating away
+     * from this dashboard.
      */
     public void stopAutoRefresh() {
-        if (autoRefreshTimeline != null) {
-            autoRefreshTimeline.stop();
+        if (changeSubscription != null) {
+            changeSubscription.close();
+            changeSubscription = null;
+        }
+        if (countsRefresh != null) {
+            countsRefresh.close();
+            countsRefresh = null;
         }
     }
 
     /**
-     * Load dashboard statistics (pending and completed tests).
+     * Load dashboard statistics (pending and completed tests) on the refresh
+     * workers. Pending is anything not completed and not cancelled, the same
+     * logic as Reception.
      */
     private void loadDashboardStats() {
-        try {
-            // Pending = anything NOT completed and NOT cancelled (same logic as Reception)
-            long pendingCount = labOrderRepository.countPendingWithResults();
-            long completedCount = countCompletedTodayWithResults();
-
-            pendingCountLabel.setText(String.valueOf(pendingCount));
-            completedCountLabel.setText(String.valueOf(completedCount));
-
-        } catch (Exception e) {
-            System.err.println("Error loading lab stats: " + e.getMessage());
+        if (countsRefresh != null) {
+            countsRefresh.request();
         }
     }
 
@@ -273,12 +265,12 @@ public class LabDashboardController {
 
     private long countCompletedTodayWithResults() {
         LocalDate today = LocalDate.now();
-        return labOrderRepository.findByStatusAndOrderDateBetween(
-                "COMPLETED",
+        return labOrderRepository.countWorklist(new LabWorklistFilter(
+                LabWorklistFilter.COMPLETED_STATUSES,
                 today.atStartOfDay(),
-                today.atTime(23, 59, 59)).stream()
-                .filter(order -> order.getResults() != null && !order.getResults().isEmpty())
-                .count();
+                today.atTime(23, 59, 59),
+                null,
+                true));
     }
 
     private Tab findCurrentSessionTab() {
@@ -1,9 +1,12 @@
 package com.qdc.lims.ui.controller;
 
-import com.qdc.lims.entity.LabOrder;
+import com.qdc.lims.dto.LabWorklistFilter;
+import com.qdc.lims.dto.LabOrderSummary;
 import com.qdc.lims.repository.LabOrderRepository;
 import com.qdc.lims.service.LocaleFormatService;
 import com.qdc.lims.service.OrderCancellationService;
+import com.qdc.lims.ui.AsyncLoader;
+import com.qdc.lims.ui.util.TableScrollUtil;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -12,16 +15,19 @@ import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.input.MouseButton;
 import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
 import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * JavaFX controller for lab worklist.
@@ -54,37 +60,49 @@ public class LabWorklistController {
     private Label totalOrdersLabel;
 
     @FXML
-    private TableView<LabOrder> ordersTable;
+    private TableView<LabOrderSummary> ordersTable;
 
     @FXML
-    private TableColumn<LabOrder, Long> orderIdColumn;
+    private TableColumn<LabOrderSummary, Long> orderIdColumn;
 
     @FXML
-    private TableColumn<LabOrder, String> mrnColumn;
+    private TableColumn<LabOrderSummary, String> mrnColumn;
 
     @FXML
-    private TableColumn<LabOrder, String> patientNameColumn;
+    private TableColumn<LabOrderSummary, String> patientNameColumn;
 
     @FXML
-    private TableColumn<LabOrder, String> ageGenderColumn;
+    private TableColumn<LabOrderSummary, String> ageGenderColumn;
 
     @FXML
-    private TableColumn<LabOrder, Integer> testCountColumn;
+    private TableColumn<LabOrderSummary, Integer> testCountColumn;
 
     @FXML
-    private TableColumn<LabOrder, String> orderDateColumn;
+    private TableColumn<LabOrderSummary, String> orderDateColumn;
 
     @FXML
-    private TableColumn<LabOrder, String> statusColumn;
+    private TableColumn<LabOrderSummary, String> statusColumn;
 
     @FXML
-    private TableColumn<LabOrder, Void> actionColumn;
+    private TableColumn<LabOrderSummary, Void> actionColumn;
+
+    // Rows fetched per round-trip while scrolling the worklist
+    private static final int PAGE_SIZE = 50;
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.ASC, "id");
 
     private final LabOrderRepository orderRepository;
     private final ApplicationContext springContext;
     private final LocaleFormatService localeFormatService;
     private final OrderCancellationService orderCancellationService;
-    private List<LabOrder> allOrders;
+    private final AsyncLoader asyncLoader;
+    private AsyncLoader.Latest<Page<LabOrderSummary>> pageLoad;
+    private AsyncLoader.Latest<WorklistStats> statsLoad;
+    private final ObservableList<LabOrderSummary> loadedOrders = FXCollections.observableArrayList();
+    private Map<TableColumn<LabOrderSummary, ?>, String> sortProperties = Map.of();
+    private LabWorklistFilter currentFilter;
+    private Sort currentSort = DEFAULT_SORT;
+    private int nextPage = 0;
+    private boolean hasMorePages = false;
     private Runnable closeAction;
 
     // Flag to show completed tests on initialization
@@ -93,11 +111,13 @@ public class LabWorklistController {
     public LabWorklistController(LabOrderRepository orderRepository,
             ApplicationContext springContext,
             LocaleFormatService localeFormatService,
-            OrderCancellationService orderCancellationService) {
+            OrderCancellationService orderCancellationService,
+            AsyncLoader asyncLoader) {
         this.orderRepository = orderRepository;
         this.springContext = springContext;
         this.localeFormatService = localeFormatService;
         this.orderCancellationService = orderCancellationService;
+        this.asyncLoader = asyncLoader;
     }
 
     /**
@@ -117,7 +137,7 @@ public class LabWorklistController {
         completedRadio.setToggleGroup(filterGroup);
         allRadio.setToggleGroup(filterGroup);
         ordersTable.setRowFactory(table -> {
-            TableRow<LabOrder> row = new TableRow<>();
+            TableRow<LabOrderSummary> row = new TableRow<>();
             row.setOnMouseClicked(event -> {
                 if (event.getButton() == MouseButton.PRIMARY && event.getClickCount() == 2 && !row.isEmpty()) {
                     openResultEntryForm(row.getItem());
@@ -126,7 +146,14 @@ public class LabWorklistController {
             return row;
         });
 
+        if (pageLoad != null) {
+            pageLoad.cancel();
+        }
+        pageLoad = asyncLoader.<Page<LabOrderSummary>>latest().showLoadingIn(ordersTable);
+        statsLoad = asyncLoader.latest();
+
         setupTableColumns();
+        setupPaging();
         loadOrders();
         updateStats();
 
@@ -140,42 +167,34 @@ public class LabWorklistController {
     }
 
     private void setupTableColumns() {
-        orderIdColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
+        orderIdColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleObjectProperty<>(
+                cellData.getValue().id()));
 
         mrnColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
-                cellData.getValue().getPatient() != null && cellData.getValue().getPatient().getMrn() != null
-                        ? cellData.getValue().getPatient().getMrn()
-                        : "-"));
+                cellData.getValue().mrn() != null ? cellData.getValue().mrn() : "-"));
 
         patientNameColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
-                cellData.getValue().getPatient() != null && cellData.getValue().getPatient().getFullName() != null
-                        ? cellData.getValue().getPatient().getFullName()
-                        : "-"));
+                cellData.getValue().patientName() != null ? cellData.getValue().patientName() : "-"));
 
-        ageGenderColumn.setCellValueFactory(cellData -> {
-            var patient = cellData.getValue().getPatient();
-            if (patient == null) {
-                return new javafx.beans.property.SimpleStringProperty("-");
-            }
-            return new javafx.beans.property.SimpleStringProperty(
-                    patient.getAge() + " / " + patient.getGender());
-        });
+        ageGenderColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue().patientAge() + " / " + cellData.getValue().patientGender()));
 
         testCountColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleIntegerProperty(
-                cellData.getValue().getResults() != null ? cellData.getValue().getResults().size() : 0).asObject());
+                (int) cellData.getValue().testCount()).asObject());
 
         orderDateColumn.setCellValueFactory(cellData -> {
-            if (cellData.getValue().getOrderDate() == null) {
+            if (cellData.getValue().orderDate() == null) {
                 return new javafx.beans.property.SimpleStringProperty("-");
             }
             return new javafx.beans.property.SimpleStringProperty(
-                    localeFormatService.formatDateTime(cellData.getValue().getOrderDate()));
+                    localeFormatService.formatDateTime(cellData.getValue().orderDate()));
         });
 
-        statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
+        statusColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue().status()));
 
         // Color-code status
-        statusColumn.setCellFactory(column -> new TableCell<LabOrder, String>() {
+        statusColumn.setCellFactory(column -> new TableCell<LabOrderSummary, String>() {
             @Override
             protected void updateItem(String item, boolean empty) {
                 super.updateItem(item, empty);
@@ -201,13 +220,13 @@ public class LabWorklistController {
             {
                 viewTestsBtn.setStyle("-fx-background-color: #3498db; -fx-text-fill: white; -fx-padding: 5 10;");
                 viewTestsBtn.setOnAction(event -> {
-                    LabOrder order = getTableView().getItems().get(getIndex());
+                    LabOrderSummary order = getTableView().getItems().get(getIndex());
                     openResultEntryForm(order);
                 });
 
                 editResultsBtn.setStyle("-fx-background-color: #e67e22; -fx-text-fill: white; -fx-padding: 5 10;");
                 editResultsBtn.setOnAction(event -> {
-                    LabOrder order = getTableView().getItems().get(getIndex());
+                    LabOrderSummary order = getTableView().getItems().get(getIndex());
                     openResultEntryForm(order);
                 });
             }
@@ -218,7 +237,7 @@ public class LabWorklistController {
                 if (empty) {
                     setGraphic(null);
                 } else {
-                    LabOrder order = getTableView().getItems().get(getIndex());
+                    LabOrderSummary order = getTableView().getItems().get(getIndex());
                     if (isPendingStatus(order)) {
                         setGraphic(viewTestsBtn);
                     } else {
@@ -230,56 +249,102 @@ public class LabWorklistController {
         });
     }
 
+    private void setupPaging() {
+        ordersTable.setItems(loadedOrders);
+        sortProperties = Map.of(
+                orderIdColumn, "id",
+                mrnColumn, "patient.mrn",
+                patientNameColumn, "patient.fullName",
+                orderDateColumn, "orderDate",
+                statusColumn, "status");
+        ageGenderColumn.setSortable(false);
+        testCountColumn.setSortable(false);
+        actionColumn.setSortable(false);
+
+        // Column clicks re-query the server instead of sorting the loaded page only.
+        ordersTable.setSortPolicy(table -> {
+            Sort requested = resolveSort();
+            if (!requested.equals(currentSort)) {
+                currentSort = requested;
+                loadOrders();
+            }
+            return true;
+        });
+        TableScrollUtil.onScrolledToEnd(ordersTable, this::loadNextPage);
+    }
+
     private void loadOrders() {
-        allOrders = orderRepository.findAll();
         applyFilter();
     }
 
     private void applyFilter() {
-        List<LabOrder> filteredOrders = allOrders;
-        String searchTerm = searchField.getText().trim().toLowerCase();
-
-        // Do not show orders that have no tests/results attached.
-        filteredOrders = filteredOrders.stream()
-                .filter(order -> order.getResults() != null && !order.getResults().isEmpty())
-                .collect(Collectors.toList());
+        // A new filter supersedes any page still loading for the previous one.
+        pageLoad.cancel();
+        currentFilter = buildFilter();
+        nextPage = 0;
+        hasMorePages = true;
+        loadedOrders.clear();
+        loadNextPage();
+    }
 
+    private LabWorklistFilter buildFilter() {
+        List<String> statuses = List.of();
         if (pendingRadio.isSelected()) {
-            filteredOrders = filteredOrders.stream()
-                    .filter(this::isPendingStatus)
-                    .collect(Collectors.toList());
+            statuses = LabWorklistFilter.OPEN_STATUSES;
         } else if (completedRadio.isSelected()) {
-            filteredOrders = filteredOrders.stream()
-                    .filter(order -> "COMPLETED".equals(order.getStatus()))
-                    .collect(Collectors.toList());
+            statuses = LabWorklistFilter.COMPLETED_STATUSES;
         }
+        // Do not show orders that have no tests/results attached.
+        return new LabWorklistFilter(statuses, null, null, searchField.getText(), true);
+    }
 
-        if (!searchTerm.isEmpty()) {
-            filteredOrders = filteredOrders.stream()
-                    .filter(order -> matchesSearch(order, searchTerm))
-                    .collect(Collectors.toList());
+    private void loadNextPage() {
+        if (pageLoad.isLoading() || !hasMorePages || currentFilter == null) {
+            return;
         }
+        LabWorklistFilter filter = currentFilter;
+        PageRequest request = PageRequest.of(nextPage, PAGE_SIZE, currentSort);
+        pageLoad.load(() -> orderRepository.findWorklistPage(filter, request), page -> {
+            loadedOrders.addAll(page.getContent());
+            hasMorePages = page.hasNext();
+            nextPage++;
+        });
+    }
 
-        ObservableList<LabOrder> observableOrders = FXCollections.observableArrayList(filteredOrders);
-        ordersTable.setItems(observableOrders);
+    private Sort resolveSort() {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (TableColumn<LabOrderSummary, ?> column : ordersTable.getSortOrder()) {
+            String property = sortProperties.get(column);
+            if (property == null) {
+                continue;
+            }
+            orders.add(column.getSortType() == TableColumn.SortType.DESCENDING
+                    ? Sort.Order.desc(property)
+                    : Sort.Order.asc(property));
+        }
+        return orders.isEmpty() ? DEFAULT_SORT : Sort.by(orders).and(DEFAULT_SORT);
     }
 
     private void updateStats() {
-        long pending = orderRepository.countPendingWithResults();
-        LocalDate today = LocalDate.now();
-        long completedToday = orderRepository.findByStatusAndOrderDateBetween(
-                "COMPLETED",
-                today.atStartOfDay(),
-                today.atTime(23, 59, 59)).stream()
-                .filter(order -> order.getResults() != null && !order.getResults().isEmpty())
-                .count();
-        long total = orderRepository.findAll().stream()
-                .filter(order -> order.getResults() != null && !order.getResults().isEmpty())
-                .count();
-
-        pendingCountLabel.setText(String.valueOf(pending));
-        completedTodayLabel.setText(String.valueOf(completedToday));
-        totalOrdersLabel.setText(String.valueOf(total));
+        statsLoad.load(() -> {
+            long pending = orderRepository.countPendingWithResults();
+            LocalDate today = LocalDate.now();
+            long completedToday = orderRepository.countWorklist(new LabWorklistFilter(
+                    LabWorklistFilter.COMPLETED_STATUSES,
+                    today.atStartOfDay(),
+                    today.atTime(23, 59, 59),
+                    null,
+                    true));
+            long total = orderRepository.countWorklist(new LabWorklistFilter(List.of(), null, null, null, true));
+            return new WorklistStats(pending, completedToday, total);
+        }, stats -> {
+            pendingCountLabel.setText(String.valueOf(stats.pending()));
+            completedTodayLabel.setText(String.valueOf(stats.completedToday()));
+            totalOrdersLabel.setText(String.valueOf(stats.total()));
+        });
+    }
+
+    private record WorklistStats(long pending, long completedToday, long total) {
     }
 
     @FXML
@@ -321,23 +386,9 @@ public class LabWorklistController {
         this.closeAction = closeAction;
     }
 
-    private boolean matchesSearch(LabOrder order, String searchTerm) {
-        if (order.getPatient() != null) {
-            if (order.getPatient().getMrn() != null
-                    && order.getPatient().getMrn().toLowerCase().contains(searchTerm)) {
-                return true;
-            }
-            if (order.getPatient().getFullName() != null
-                    && order.getPatient().getFullName().toLowerCase().contains(searchTerm)) {
-                return true;
-            }
-        }
-        return String.valueOf(order.getId()).contains(searchTerm);
-    }
-
     @FXML
     private void handleEnterResults() {
-        LabOrder selectedOrder = ordersTable.getSelectionModel().getSelectedItem();
+        LabOrderSummary selectedOrder = ordersTable.getSelectionModel().getSelectedItem();
         if (selectedOrder == null) {
             showAlert("Please select an order to enter or edit results");
             return;
@@ -348,7 +399,7 @@ public class LabWorklistController {
 
     @FXML
     private void handleViewDetails() {
-        LabOrder selectedOrder = ordersTable.getSelectionModel().getSelectedItem();
+        LabOrderSummary selectedOrder = ordersTable.getSelectionModel().getSelectedItem();
         if (selectedOrder == null) {
             showAlert("Please select an order to view");
             return;
@@ -357,24 +408,29 @@ public class LabWorklistController {
         openResultEntryForm(selectedOrder);
     }
 
-    private void openResultEntryForm(LabOrder order) {
-        if (order == null || order.getId() == null) {
+    private void openResultEntryForm(LabOrderSummary order) {
+        if (order == null || order.id() == null) {
             return;
         }
-        boolean manageLock = shouldManageCancellationLock(order);
-        boolean lockAcquired = false;
-        try {
-            if (manageLock) {
-                orderCancellationService.markUnderLabReview(order.getId());
-                lockAcquired = true;
-            }
+        if (!shouldManageCancellationLock(order)) {
+            showResultEntryForm(order, false);
+            return;
+        }
+        asyncLoader.submit(() -> {
+            orderCancellationService.markUnderLabReview(order.id());
+            return order.id();
+        }, locked -> showResultEntryForm(order, true),
+                e -> showAlert("Failed to open result entry: " + AsyncLoader.describe(e)));
+    }
 
+    private void showResultEntryForm(LabOrderSummary order, boolean releaseLockOnClose) {
+        try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/result_entry.fxml"));
             loader.setControllerFactory(springContext::getBean);
             Parent root = loader.load();
 
             ResultEntryController controller = loader.getController();
-            controller.setOrder(order);
+            controller.setOrderId(order.id());
 
             Tab currentTab = findCurrentSessionTab();
             if (currentTab != null) {
@@ -382,17 +438,12 @@ public class LabWorklistController {
                 String originalTitle = currentTab.getText();
                 Tooltip originalTooltip = currentTab.getTooltip();
 
-                currentTab.setText(buildResultEntryTabTitle(originalTitle, order.getId()));
-                currentTab.setTooltip(new Tooltip("Result Entry - Order #" + order.getId()));
+                currentTab.setText(buildResultEntryTabTitle(originalTitle, order.id()));
+                currentTab.setTooltip(new Tooltip("Result Entry - Order #" + order.id()));
 
-                boolean releaseLockOnClose = manageLock && lockAcquired;
                 controller.setCloseAction(() -> {
                     if (releaseLockOnClose) {
-                        try {
-                            orderCancellationService.releaseLabReview(order.getId());
-                        } catch (Exception ignored) {
-                            // Ignore lock-release failures during close to avoid blocking UI flow.
-                        }
+                        releaseLabReview(order.id());
                     }
                     currentTab.setContent(previousContent);
                     currentTab.setText(originalTitle);
@@ -405,50 +456,50 @@ public class LabWorklistController {
             }
 
             Stage stage = new Stage();
-            stage.setTitle("Enter Results - Order #" + order.getId());
+            stage.setTitle("Enter Results - Order #" + order.id());
             stage.setScene(new Scene(root));
-            boolean releaseLockOnClose = manageLock && lockAcquired;
             stage.setOnHidden(e -> {
                 if (releaseLockOnClose) {
-                    try {
-                        orderCancellationService.releaseLabReview(order.getId());
-                    } catch (Exception ignored) {
-                        // Ignore lock-release failures during close to avoid blocking UI flow.
-                    }
+                    releaseLabReview(order.id());
                 }
                 refreshWorklistData();
             });
             stage.show();
         } catch (Exception e) {
-            if (manageLock && lockAcquired) {
-                try {
-                    orderCancellationService.releaseLabReview(order.getId());
-                } catch (Exception ignored) {
-                    // Ignore secondary unlock errors while surfacing primary failure.
-                }
+            if (releaseLockOnClose) {
+                releaseLabReview(order.id());
             }
             e.printStackTrace();
             showAlert("Failed to open result entry: " + e.getMessage());
         }
     }
 
-    private boolean isPendingStatus(LabOrder order) {
-        if (order == null || order.getStatus() == null) {
+    private void releaseLabReview(Long orderId) {
+        asyncLoader.submit(() -> {
+            orderCancellationService.releaseLabReview(orderId);
+            return orderId;
+        }, released -> {
+        }, e -> {
+            // Ignore lock-release failures to avoid blocking UI flow.
+        });
+    }
+
+    private boolean isPendingStatus(LabOrderSummary order) {
+        if (order == null || order.status() == null) {
             return false;
         }
-        return "PENDING".equals(order.getStatus()) || "IN_PROGRESS".equals(order.getStatus());
+        return "PENDING".equals(order.status()) || "IN_PROGRESS".equals(order.status());
     }
 
-    private boolean shouldManageCancellationLock(LabOrder order) {
+    private boolean shouldManageCancellationLock(LabOrderSummary order) {
         return order != null
-                && order.getId() != null
-                && ("PENDING".equals(order.getStatus()) || "IN_PROGRESS".equals(order.getStatus()));
+                && order.id() != null
+                && ("PENDING".equals(order.status()) || "IN_PROGRESS".equals(order.status()));
     }
 
     private void refreshWorklistData() {
         loadOrders();
         updateStats();
-        applyFilter();
     }
 
     private Tab findCurrentSessionTab() {
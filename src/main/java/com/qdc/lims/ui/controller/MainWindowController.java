@@ -1,5 +1,6 @@
 package com.qdc.lims.ui.controller;
 
+import com.qdc.lims.ui.AsyncLoader;
 import com.qdc.lims.ui.SessionManager;
 import com.qdc.lims.ui.navigation.DashboardType;
 import com.qdc.lims.entity.Role;
@@ -58,6 +59,8 @@ import java.util.stream.Collectors;
  * - Each logged-in session opens as a new tab
  * - Users can have multiple simultaneous sessions
  * - Closing a tab logs out that session
+ * Login and first-admin checks run in the background through
+ * {@link AsyncLoader}.
  */
 @Controller
 public class MainWindowController {
@@ -70,6 +73,7 @@ public class MainWindowController {
     private final UserService userService;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final AsyncLoader asyncLoader;
 
     @FXML
     private BorderPane mainContainer;
@@ -146,7 +150,8 @@ public class MainWindowController {
             PasswordPolicyService passwordPolicyService,
             UserService userService,
             UserRepository userRepository,
-            RoleRepository roleRepository) {
+            RoleRepository roleRepository,
+            AsyncLoader asyncLoader) {
         this.applicationContext = applicationContext;
         this.authService = authService;
         this.brandingService = brandingService;
@@ -155,6 +160,7 @@ public class MainWindowController {
         this.userService = userService;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
+        this.asyncLoader = asyncLoader;
     }
 
     @FXML
@@ -586,6 +592,8 @@ public class MainWindowController {
         confirmField.textProperty().addListener((obs, old, val) -> validateReady.run());
 
         createButton.addEventFilter(ActionEvent.ACTION, event -> {
+            // The dialog stays open until the account is stored in the background.
+            event.consume();
             errorLabel.setText("");
             String username = usernameField.getText().trim();
             String fullName = fullNameField.getText().trim();
@@ -595,24 +603,18 @@ public class MainWindowController {
 
             if (!password.equals(confirm)) {
                 errorLabel.setText("Passwords do not match.");
-                event.consume();
-                return;
-            }
-
-            if (userRepository.findByUsername(username).isPresent()) {
-                errorLabel.setText("Username already exists.");
-                event.consume();
                 return;
             }
 
-            Role adminRole = roleRepository.findByName("ROLE_ADMIN").orElse(null);
-            if (adminRole == null) {
-                errorLabel.setText("Admin role is missing. Please restart the app.");
-                event.consume();
-                return;
-            }
+            createButton.setDisable(true);
+            asyncLoader.submit(() -> {
+                if (userRepository.findByUsername(username).isPresent()) {
+                    throw new IllegalArgumentException("Username already exists.");
+                }
+                Role adminRole = roleRepository.findByName("ROLE_ADMIN")
+                        .orElseThrow(() -> new IllegalArgumentException(
+                                "Admin role is missing. Please restart the app."));
 
-            try {
                 User admin = new User();
                 admin.setUsername(username);
                 admin.setFullName(fullName);
@@ -622,12 +624,14 @@ public class MainWindowController {
                 admin.setPassword(password);
                 admin.getRoles().add(adminRole);
                 userService.createUser(admin);
+                return admin;
+            }, admin -> {
                 dialog.setResult(admin);
                 dialog.close();
-            } catch (RuntimeException ex) {
-                errorLabel.setText(ex.getMessage());
-                event.consume();
-            }
+            }, e -> {
+                errorLabel.setText(e instanceof IllegalArgumentException ? e.getMessage() : AsyncLoader.describe(e));
+                validateReady.run();
+            });
         });
 
         dialog.setResultConverter(button -> button == createButtonType ? dialog.getResult() : null);
@@ -949,6 +953,45 @@ public class MainWindowController {
                 && (targetRole == DashboardType.RECEPTION || targetRole == DashboardType.LAB);
     }
 
+    /**
+     * Checks the credentials from the login dialog. Runs in the background.
+     */
+    private LoginAttempt attemptLogin(String username, String password, boolean passwordlessAllowed) {
+        if (passwordlessAllowed) {
+            User user = authService.getUser(username);
+            String statusError = getAccountStatusError(user);
+            if (statusError != null) {
+                return LoginAttempt.failed(statusError);
+            }
+            if (isAdminUser(user)) {
+                return LoginAttempt.failed("Admin requires a password.");
+            }
+            User authenticated = authService.authenticateWithoutPassword(username);
+            return authenticated != null
+                    ? new LoginAttempt(authenticated, null)
+                    : LoginAttempt.failed("Login failed. Please try again.");
+        }
+
+        if (authService.authenticate(username, password)) {
+            User user = authService.getUser(username);
+            return user != null
+                    ? new LoginAttempt(user, null)
+                    : LoginAttempt.failed("Login failed. Please try again.");
+        }
+
+        String statusError = getAccountStatusError(authService.getUser(username));
+        return LoginAttempt.failed(statusError != null ? statusError : "Incorrect password.");
+    }
+
+    /**
+     * Outcome of a login attempt: the signed-in user, or the message to show.
+     */
+    private record LoginAttempt(User user, String error) {
+        static LoginAttempt failed(String error) {
+            return new LoginAttempt(null, error);
+        }
+    }
+
     private String getAccountStatusError(User user) {
         if (user == null) {
             return "Username not found.";
@@ -1233,60 +1276,24 @@ public class MainWindowController {
         }
 
         loginButton.addEventFilter(ActionEvent.ACTION, event -> {
+            // The dialog stays open until the credentials are checked in the background.
+            event.consume();
             String username = usernameField.getText().trim();
             String password = passwordField.getText();
 
-            if (passwordlessAllowed) {
-                User user = authService.getUser(username);
-                String statusError = getAccountStatusError(user);
-                if (statusError != null) {
-                    errorLabel.setText(statusError);
-                    event.consume();
-                    return;
-                }
-                if (isAdminUser(user)) {
-                    errorLabel.setText("Admin requires a password.");
-                    event.consume();
-                    return;
-                }
-                User authenticated = authService.authenticateWithoutPassword(username);
-                if (authenticated != null) {
-                    dialog.setResult(authenticated);
+            loginButton.setDisable(true);
+            asyncLoader.submit(() -> attemptLogin(username, password, passwordlessAllowed), attempt -> {
+                if (attempt.user() != null) {
+                    dialog.setResult(attempt.user());
                     dialog.close();
                     return;
                 }
-                errorLabel.setText("Login failed. Please try again.");
-                event.consume();
-                return;
-            }
-
-            if (authService.authenticate(username, password)) {
-                User user = authService.getUser(username);
-                if (user != null) {
-                    dialog.setResult(user);
-                    dialog.close();
-                    return;
-                }
-                errorLabel.setText("Login failed. Please try again.");
-                event.consume();
-                return;
-            }
-
-            User user = authService.getUser(username);
-            if (user == null) {
-                errorLabel.setText("Username not found.");
-            } else if (!user.isEnabled()) {
-                errorLabel.setText("Account is disabled. Contact an administrator.");
-            } else if (!user.isAccountNonLocked()) {
-                errorLabel.setText("Account is locked. Contact an administrator.");
-            } else if (!user.isAccountNonExpired()) {
-                errorLabel.setText("Account has expired. Contact an administrator.");
-            } else if (!user.isCredentialsNonExpired()) {
-                errorLabel.setText("Password has expired. Contact an administrator.");
-            } else {
-                errorLabel.setText("Incorrect password.");
-            }
-            event.consume();
+                errorLabel.setText(attempt.error());
+                loginButton.setDisable(username.isEmpty() || (!passwordlessAllowed && password.isEmpty()));
+            }, e -> {
+                errorLabel.setText("Login failed: " + AsyncLoader.describe(e));
+                loginButton.setDisable(false);
+            });
         });
 
         dialog.setResultConverter(dialogButton -> dialogButton == loginButtonType ? dialog.getResult() : null);
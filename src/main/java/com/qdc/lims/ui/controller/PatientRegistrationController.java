@@ -2,6 +2,7 @@ package com.qdc.lims.ui.controller;
 
 import com.qdc.lims.entity.Patient;
 import com.qdc.lims.service.PatientService;
+import com.qdc.lims.ui.AsyncLoader;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -12,8 +13,12 @@ import javafx.stage.Stage;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
- * JavaFX controller for patient registration.
+ * JavaFX controller for patient registration. The duplicate check and the
+ * save run in the background through {@link AsyncLoader}.
  */
 @Component("patientRegistrationController")
 public class PatientRegistrationController {
@@ -50,10 +55,14 @@ public class PatientRegistrationController {
 
     private final PatientService patientService;
     private final ApplicationContext springContext;
+    private final AsyncLoader asyncLoader;
+    private boolean registering;
 
-    public PatientRegistrationController(PatientService patientService, ApplicationContext springContext) {
+    public PatientRegistrationController(PatientService patientService, ApplicationContext springContext,
+            AsyncLoader asyncLoader) {
         this.patientService = patientService;
         this.springContext = springContext;
+        this.asyncLoader = asyncLoader;
     }
 
     @FXML
@@ -121,6 +130,9 @@ public class PatientRegistrationController {
 
     @FXML
     private void handleRegister() {
+        if (registering) {
+            return;
+        }
         // Clear previous messages
         messageLabel.setText("");
         messageLabel.setStyle("");
@@ -164,9 +176,23 @@ public class PatientRegistrationController {
         patient.setMobileNumber(mobileField.getText().trim());
         patient.setCity(cityField.getText().trim());
 
-        // Register patient
-        try {
-            Patient savedPatient = patientService.registerPatient(patient);
+        registering = true;
+        asyncLoader.submit(() -> patientService.findLikelyDuplicates(patient.getFullName(), patient.getMobileNumber()),
+                existing -> {
+                    if (confirmNotAlreadyRegistered(existing)) {
+                        register(patient);
+                    } else {
+                        registering = false;
+                    }
+                }, e -> {
+                    registering = false;
+                    showError("Failed to register patient: " + AsyncLoader.describe(e));
+                });
+    }
+
+    private void register(Patient patient) {
+        asyncLoader.submit(() -> patientService.registerPatient(patient), savedPatient -> {
+            registering = false;
             // Show success with option to create order
             Alert alert = new Alert(Alert.AlertType.INFORMATION);
             alert.setTitle("Success");
@@ -187,9 +213,24 @@ public class PatientRegistrationController {
                     handleClear();
                 }
             });
-        } catch (Exception e) {
-            showError("Failed to register patient: " + e.getMessage());
+        }, e -> {
+            registering = false;
+            showError("Failed to register patient: " + AsyncLoader.describe(e));
+        });
+    }
+
+    private boolean confirmNotAlreadyRegistered(List<Patient> existing) {
+        if (existing.isEmpty()) {
+            return true;
         }
+        String records = existing.stream()
+                .map(p -> p.getFullName() + " (MRN: " + p.getMrn() + ")")
+                .collect(Collectors.joining("\n"));
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Possible Duplicate");
+        alert.setHeaderText("A patient with this name and mobile number is already registered");
+        alert.setContentText(records + "\n\nRegister a new record anyway?");
+        return alert.showAndWait().filter(response -> response == ButtonType.OK).isPresent();
     }
 
     @FXML
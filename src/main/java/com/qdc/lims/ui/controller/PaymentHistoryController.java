@@ -1,15 +1,17 @@
 package com.qdc.lims.ui.controller;
 
 import com.qdc.lims.dto.FinanceTransaction;
+import com.qdc.lims.dto.LabOrderSummary;
 import com.qdc.lims.entity.CommissionLedger;
-import com.qdc.lims.entity.LabOrder;
 import com.qdc.lims.entity.Payment;
 import com.qdc.lims.entity.SupplierLedger;
 import com.qdc.lims.repository.CommissionLedgerRepository;
-import com.qdc.lims.repository.LabOrderRepository;
 import com.qdc.lims.repository.PaymentRepository;
 import com.qdc.lims.repository.SupplierLedgerRepository;
+import com.qdc.lims.service.FinancialRollupService;
 import com.qdc.lims.service.LocaleFormatService;
+import com.qdc.lims.service.OrderArchiveService;
+import com.qdc.lims.ui.AsyncLoader;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -32,12 +34,14 @@ import java.util.stream.Collectors;
  * 2. General Payments (Misc Income/Expenses) - INCOME/EXPENSE
  * 3. Doctor Commissions (Paid Commissions) - EXPENSE
  * 4. Supplier Ledger (Payments to Suppliers) - EXPENSE
+ * The income and expense totals are read from the daily financial rollups.
+ * The sources are queried in the background.
  */
 @Component
 public class PaymentHistoryController {
 
     @Autowired
-    private LabOrderRepository orderRepository;
+    private OrderArchiveService orderArchiveService;
     @Autowired
     private PaymentRepository paymentRepository;
     @Autowired
@@ -45,7 +49,11 @@ public class PaymentHistoryController {
     @Autowired
     private SupplierLedgerRepository supplierRepository;
     @Autowired
+    private FinancialRollupService financialRollupService;
+    @Autowired
     private LocaleFormatService localeFormatService;
+    @Autowired
+    private AsyncLoader asyncLoader;
 
     @FXML
     private Button closeButton;
@@ -83,9 +91,14 @@ public class PaymentHistoryController {
     private TableColumn<FinanceTransaction, String> statusCol;
 
     private ObservableList<FinanceTransaction> allTransactions = FXCollections.observableArrayList();
+    private AsyncLoader.Latest<SearchResult> searchLoad;
 
     @FXML
     public void initialize() {
+        if (searchLoad != null) {
+            searchLoad.cancel();
+        }
+        searchLoad = asyncLoader.<SearchResult>latest().showLoadingIn(transactionTable);
         setupTable();
         setupFilters();
 
@@ -151,6 +164,20 @@ public class PaymentHistoryController {
             return;
         }
 
+        searchLoad.load(() -> search(start, end, typeSelection), result -> {
+            allTransactions.setAll(result.transactions());
+            transactionTable.setItems(allTransactions);
+
+            BigDecimal totalIncome = result.totalIncome();
+            BigDecimal totalExpense = result.totalExpense();
+            totalIncomeLabel.setText(localeFormatService.formatCurrency(totalIncome));
+            totalExpenseLabel.setText(localeFormatService.formatCurrency(totalExpense));
+            netCashFlowLabel.setText(localeFormatService.formatCurrency(totalIncome.subtract(totalExpense)));
+            recordCountLabel.setText(result.transactions().size() + " records found");
+        });
+    }
+
+    private SearchResult search(LocalDate start, LocalDate end, String typeSelection) {
         List<FinanceTransaction> transactions = new ArrayList<>();
 
         // 1. Load Patient Income (Lab Orders) - consider partially paid or fully paid
@@ -159,16 +186,17 @@ public class PaymentHistoryController {
         // Currently LabOrder only has orderDate. We will use orderDate as proxy for
         // transaction date for now.
         // Ideally we would have a separate PaymentReceipt entity linked to order.
-        List<LabOrder> orders = orderRepository.findByOrderDateBetween(start.atStartOfDay(), end.atTime(23, 59, 59));
-        for (LabOrder order : orders) {
-            if (order.getPaidAmount() != null && order.getPaidAmount().compareTo(BigDecimal.ZERO) > 0) {
+        List<LabOrderSummary> orders = orderArchiveService.findSummariesByOrderDateBetween(start.atStartOfDay(),
+                end.atTime(23, 59, 59));
+        for (LabOrderSummary order : orders) {
+            if (order.paidAmount() != null && order.paidAmount().compareTo(BigDecimal.ZERO) > 0) {
                 transactions.add(new FinanceTransaction(
-                        "ORD-" + order.getId(),
-                        order.getOrderDate().toLocalDate(),
+                        "ORD-" + order.id(),
+                        order.orderDate().toLocalDate(),
                         "INCOME",
                         "Patient Payment",
-                        "Lab Order for " + order.getPatient().getFullName(),
-                        order.getPaidAmount(),
+                        "Lab Order for " + order.patientName(),
+                        order.paidAmount(),
                         "COMPLETED"));
             }
         }
@@ -187,30 +215,16 @@ public class PaymentHistoryController {
                     "COMPLETED"));
         }
 
-        // 3. Paid Doctor Commissions
-        // Only include PAID status
-        List<CommissionLedger> paidCommissions = commissionRepository.findByTransactionDateBetween(start, end)
-                .stream()
-                .filter(c -> "PAID".equals(c.getStatus()))
-                .collect(Collectors.toList());
-
-        for (CommissionLedger c : paidCommissions) {
-            // Check if paymentDate exists (added recently), else fallback to
-            // transactionDate
-            LocalDate txDate = c.getPaymentDate() != null ? c.getPaymentDate() : c.getTransactionDate();
-
-            // Re-filter by date if using paymentDate which might differ from
-            // transactionDate
-            if (!txDate.isBefore(start) && !txDate.isAfter(end)) {
-                transactions.add(new FinanceTransaction(
-                        "COM-" + c.getId(),
-                        txDate,
-                        "EXPENSE",
-                        "Doctor Commission",
-                        "Commission for Dr. " + c.getDoctor().getName(),
-                        getCommissionAmount(c),
-                        "COMPLETED"));
-            }
+        // 3. Paid Doctor Commissions, dated by the day they were paid
+        for (CommissionLedger c : commissionRepository.findPaidBetween(start, end)) {
+            transactions.add(new FinanceTransaction(
+                    "COM-" + c.getId(),
+                    c.getPaymentDate() != null ? c.getPaymentDate() : c.getTransactionDate(),
+                    "EXPENSE",
+                    "Doctor Commission",
+                    "Commission for Dr. " + c.getDoctor().getName(),
+                    getCommissionAmount(c),
+                    "COMPLETED"));
         }
 
         // 4. Supplier Payments
@@ -243,21 +257,11 @@ public class PaymentHistoryController {
                 .sorted(Comparator.comparing(FinanceTransaction::getDate).reversed())
                 .collect(Collectors.toList());
 
-        allTransactions.setAll(filtered);
-        transactionTable.setItems(allTransactions);
-
-        // Update Stats
-        BigDecimal totalIncome = filtered.stream().filter(t -> "INCOME".equals(t.getType()))
-                .map(t -> t.getAmount() != null ? t.getAmount() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal totalExpense = filtered.stream().filter(t -> "EXPENSE".equals(t.getType()))
-                .map(t -> t.getAmount() != null ? t.getAmount() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        totalIncomeLabel.setText(localeFormatService.formatCurrency(totalIncome));
-        totalExpenseLabel.setText(localeFormatService.formatCurrency(totalExpense));
-        netCashFlowLabel.setText(localeFormatService.formatCurrency(totalIncome.subtract(totalExpense)));
-        recordCountLabel.setText(filtered.size() + " records found");
+        // Totals come from the daily rollups rather than the rows above.
+        FinancialRollupService.Summary summary = financialRollupService.summarize(start, end);
+        BigDecimal totalIncome = "Expense Only".equals(typeSelection) ? BigDecimal.ZERO : summary.totalIncome();
+        BigDecimal totalExpense = "Income Only".equals(typeSelection) ? BigDecimal.ZERO : summary.totalExpense();
+        return new SearchResult(filtered, totalIncome, totalExpense);
     }
 
     @FXML
@@ -275,6 +279,9 @@ public class PaymentHistoryController {
     }
 
     private BigDecimal getCommissionAmount(CommissionLedger commission) {
+        if (commission.getCalculatedAmount() != null) {
+            return commission.getCalculatedAmount();
+        }
         if (commission.getDoctor() == null || commission.getDoctor().getCommissionPercentage() == null) {
             return BigDecimal.ZERO;
         }
@@ -289,4 +296,8 @@ public class PaymentHistoryController {
                 .multiply(rate)
                 .divide(BigDecimal.valueOf(100), 4, java.math.RoundingMode.HALF_UP);
     }
+
+    private record SearchResult(List<FinanceTransaction> transactions, BigDecimal totalIncome,
+            BigDecimal totalExpense) {
+    }
 }
@@ -1,24 +1,26 @@
 package com.qdc.lims.ui.controller;
 
+import com.qdc.lims.dto.LabOrderSummary;
 import com.qdc.lims.service.BrandingService;
+import com.qdc.lims.ui.AsyncLoader;
 import com.qdc.lims.ui.SessionManager;
+import com.qdc.lims.ui.UiRefreshScheduler;
 import com.qdc.lims.ui.navigation.DashboardType;
 import com.qdc.lims.ui.util.LogoutUtil;
 import com.qdc.lims.entity.LabOrder;
 import com.qdc.lims.entity.LabResult;
 import com.qdc.lims.entity.Panel;
 import com.qdc.lims.entity.Patient;
-import com.qdc.lims.entity.ReferenceRange;
 import com.qdc.lims.entity.TestDefinition;
 import com.qdc.lims.entity.User;
 import com.qdc.lims.repository.LabOrderRepository;
 import com.qdc.lims.repository.PanelRepository;
-import com.qdc.lims.repository.ReferenceRangeRepository;
 import com.qdc.lims.service.LocaleFormatService;
+import com.qdc.lims.service.OrderArchiveService;
 import com.qdc.lims.service.OrderCancellationService;
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import com.qdc.lims.service.OrderChangeFeedService;
+import com.qdc.lims.service.PatientService;
+import com.qdc.lims.service.ReferenceRangeService;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -49,36 +51,50 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
-import javafx.util.Duration;
 
 /**
  * Controller for the Reception Dashboard.
  * Handles patient registration, order creation, and report delivery workflow.
+ * Order reads, cancellations and delivery updates run in the background
+ * through {@link AsyncLoader}.
  */
 @Component("receptionDashboardController")
 public class ReceptionDashboardController {
 
+    /** Order table refresh interval while the order change feed is down. */
+    private static final Duration FALLBACK_POLL = Duration.ofSeconds(3);
+
     private final ApplicationContext applicationContext;
     private final LabOrderRepository labOrderRepository;
     private final PanelRepository panelRepository;
-    private final ReferenceRangeRepository referenceRangeRepository;
+    private final ReferenceRangeService referenceRangeService;
     private final BrandingService brandingService;
     private final LocaleFormatService localeFormatService;
     private final OrderCancellationService orderCancellationService;
-
-    // Auto-refresh timer for real-time count updates
-    private Timeline autoRefreshTimeline;
-    private long lastReadyCount = -1;
-    private long lastPendingCount = -1;
-    private long lastInProgressCount = -1;
+    private final OrderChangeFeedService orderChangeFeedService;
+    private final OrderArchiveService orderArchiveService;
+    private final PatientService patientService;
+    private final UiRefreshScheduler uiRefreshScheduler;
+    private final AsyncLoader asyncLoader;
+
+    // Live refresh pushed by the order change feed
+    private OrderChangeFeedService.Subscription changeSubscription;
+    private UiRefreshScheduler.Refresh ordersRefresh;
+    private AsyncLoader.Latest<OrderLists> ordersLoad;
+    // Delivered range of the last load, kept for background refreshes that cannot read the pickers.
+    private volatile DeliveredRange deliveredRange;
+    private AsyncLoader.Latest<List<LabOrderSummary>> deliveredSearch;
+    private UiRefreshScheduler.Registration clockRegistration;
 
     // FXML Components
     @FXML
@@ -118,69 +134,79 @@ public class ReceptionDashboardController {
 
     // Ready Orders Table
     @FXML
-    private TableView<LabOrder> readyOrdersTable;
+    private TableView<LabOrderSummary> readyOrdersTable;
     @FXML
-    private TableColumn<LabOrder, String> readyOrderIdCol;
+    private TableColumn<LabOrderSummary, String> readyOrderIdCol;
     @FXML
-    private TableColumn<LabOrder, String> readyMrnCol;
+    private TableColumn<LabOrderSummary, String> readyMrnCol;
     @FXML
-    private TableColumn<LabOrder, String> readyPatientCol;
+    private TableColumn<LabOrderSummary, String> readyPatientCol;
     @FXML
-    private TableColumn<LabOrder, String> readyDateCol;
+    private TableColumn<LabOrderSummary, String> readyDateCol;
     @FXML
-    private TableColumn<LabOrder, String> readyBalanceCol;
+    private TableColumn<LabOrderSummary, String> readyBalanceCol;
     @FXML
-    private TableColumn<LabOrder, Void> readyActionCol;
+    private TableColumn<LabOrderSummary, Void> readyActionCol;
 
     // Pending Orders Table
     @FXML
-    private TableView<LabOrder> pendingOrdersTable;
+    private TableView<LabOrderSummary> pendingOrdersTable;
     @FXML
-    private TableColumn<LabOrder, String> pendingOrderIdCol;
+    private TableColumn<LabOrderSummary, String> pendingOrderIdCol;
     @FXML
-    private TableColumn<LabOrder, String> pendingMrnCol;
+    private TableColumn<LabOrderSummary, String> pendingMrnCol;
     @FXML
-    private TableColumn<LabOrder, String> pendingPatientCol;
+    private TableColumn<LabOrderSummary, String> pendingPatientCol;
     @FXML
-    private TableColumn<LabOrder, String> pendingDateCol;
+    private TableColumn<LabOrderSummary, String> pendingDateCol;
     @FXML
-    private TableColumn<LabOrder, String> pendingStatusCol;
+    private TableColumn<LabOrderSummary, String> pendingStatusCol;
     @FXML
-    private TableColumn<LabOrder, Void> pendingActionCol;
+    private TableColumn<LabOrderSummary, Void> pendingActionCol;
     @FXML
-    private TableView<LabOrder> deliveredOrdersTable;
+    private TableView<LabOrderSummary> deliveredOrdersTable;
     @FXML
-    private TableColumn<LabOrder, String> deliveredOrderIdCol;
+    private TableColumn<LabOrderSummary, String> deliveredOrderIdCol;
     @FXML
-    private TableColumn<LabOrder, String> deliveredMrnCol;
+    private TableColumn<LabOrderSummary, String> deliveredMrnCol;
     @FXML
-    private TableColumn<LabOrder, String> deliveredPatientCol;
+    private TableColumn<LabOrderSummary, String> deliveredPatientCol;
     @FXML
-    private TableColumn<LabOrder, String> deliveredOrderDateCol;
+    private TableColumn<LabOrderSummary, String> deliveredOrderDateCol;
     @FXML
-    private TableColumn<LabOrder, String> deliveredDeliveryDateCol;
+    private TableColumn<LabOrderSummary, String> deliveredDeliveryDateCol;
     @FXML
-    private TableColumn<LabOrder, Void> deliveredActionCol;
+    private TableColumn<LabOrderSummary, Void> deliveredActionCol;
 
     // Data
-    private ObservableList<LabOrder> readyOrders = FXCollections.observableArrayList();
-    private ObservableList<LabOrder> pendingOrders = FXCollections.observableArrayList();
-    private ObservableList<LabOrder> deliveredOrders = FXCollections.observableArrayList();
+    private ObservableList<LabOrderSummary> readyOrders = FXCollections.observableArrayList();
+    private ObservableList<LabOrderSummary> pendingOrders = FXCollections.observableArrayList();
+    private ObservableList<LabOrderSummary> deliveredOrders = FXCollections.observableArrayList();
 
     public ReceptionDashboardController(ApplicationContext applicationContext,
             LabOrderRepository labOrderRepository,
             PanelRepository panelRepository,
-            ReferenceRangeRepository referenceRangeRepository,
+            ReferenceRangeService referenceRangeService,
             BrandingService brandingService,
             LocaleFormatService localeFormatService,
-            OrderCancellationService orderCancellationService) {
+            OrderCancellationService orderCancellationService,
+            OrderChangeFeedService orderChangeFeedService,
+            OrderArchiveService orderArchiveService,
+            PatientService patientService,
+            UiRefreshScheduler uiRefreshScheduler,
+            AsyncLoader asyncLoader) {
         this.applicationContext = applicationContext;
         this.labOrderRepository = labOrderRepository;
         this.panelRepository = panelRepository;
-        this.referenceRangeRepository = referenceRangeRepository;
+        this.referenceRangeService = referenceRangeService;
         this.brandingService = brandingService;
         this.localeFormatService = localeFormatService;
         this.orderCancellationService = orderCancellationService;
+        this.orderChangeFeedService = orderChangeFeedService;
+        this.orderArchiveService = orderArchiveService;
+        this.patientService = patientService;
+        this.uiRefreshScheduler = uiRefreshScheduler;
+        this.asyncLoader = asyncLoader;
     }
 
     @FXML
@@ -189,6 +215,18 @@ public class ReceptionDashboardController {
         setupReadyOrdersTable();
         setupPendingOrdersTable();
         setupDeliveredOrdersTable();
+        if (ordersLoad != null) {
+            ordersLoad.cancel();
+            deliveredSearch.cancel();
+        }
+        ordersLoad = asyncLoader.<OrderLists>latest()
+                .showLoadingIn(readyOrdersTable)
+                .showLoadingIn(pendingOrdersTable)
+                .showLoadingIn(deliveredOrdersTable)
+                .onFailure(e -> showError("Failed to load orders: " + AsyncLoader.describe(e)));
+        deliveredSearch = asyncLoader.<List<LabOrderSummary>>latest()
+                .showLoadingIn(deliveredOrdersTable)
+                .onFailure(e -> showError("Failed to search delivered orders: " + AsyncLoader.describe(e)));
         localeFormatService.applyDatePickerLocale(deliveredFromDatePicker, deliveredToDatePicker);
         initializeDeliveredDateRange();
         loadOrders();
@@ -221,102 +259,65 @@ public class ReceptionDashboardController {
     }
 
     /**
-     * Starts automatic refresh of order counts every 10 seconds.
+     * Reloads the order tables whenever lab orders change, as reported by the
+     * database change feed. Result entry alone does not move an order between
+     * the reception tables, so {@code lab_result} changes are ignored; an
+     * order completing updates its status. While the feed is not connected
+     * the tables are polled every 3 seconds instead. Reloads query on a worker
+     * thread, are coalesced and are held while the dashboard is not showing.
      */
     private void startAutoRefresh() {
-        autoRefreshTimeline = new Timeline(new KeyFrame(Duration.seconds(3), event -> {
-            new Thread(() -> {
-                try {
-                    LocalDateTime startDate = LocalDateTime.now().minusDays(30);
-                    LocalDateTime endDate = LocalDateTime.now().plusDays(1);
-                    List<LabOrder> allOrders = labOrderRepository.findByOrderDateBetween(startDate, endDate);
-
-                    allOrders = allOrders.stream()
-                            .filter(o -> o.getResults() != null && !o.getResults().isEmpty())
-                            .collect(Collectors.toList());
-
-                    long newReadyCount = allOrders.stream()
-                            .filter(o -> "COMPLETED".equals(o.getStatus()) && !o.isReportDelivered())
-                            .count();
-
-                    long newPendingCount = allOrders.stream()
-                            .filter(o -> !"COMPLETED".equals(o.getStatus()) && !"CANCELLED".equals(o.getStatus()))
-                            .count();
-
-                    long newInProgressCount = allOrders.stream()
-                            .filter(o -> "IN_PROGRESS".equals(o.getStatus()))
-                            .count();
-
-                    Platform.runLater(() -> {
-                        if (newReadyCount != lastReadyCount
-                                || newPendingCount != lastPendingCount
-                                || newInProgressCount != lastInProgressCount) {
-                            loadOrders();
-                            lastReadyCount = newReadyCount;
-                            lastPendingCount = newPendingCount;
-                            lastInProgressCount = newInProgressCount;
-                        }
-                    });
-                } catch (Exception e) {
-                    System.err.println("Auto-refresh error: " + e.getMessage());
-                }
-            }).start();
-        }));
-        autoRefreshTimeline.setCycleCount(Animation.INDEFINITE);
-        autoRefreshTimeline.play();
+        stopAutoRefresh();
+        ordersRefresh = uiRefreshScheduler.register(mainContainer, this::fetchOrders, lists -> {
+            // A reload started by the user, or one for another delivered range, supersedes this one.
+            if (!ordersLoad.isLoading() && lists.deliveredRange().equals(deliveredRange)) {
+                showOrders(lists);
+            }
+        }).pollWhile(() -> !orderChangeFeedService.isConnected(), FALLBACK_POLL);
+        UiRefreshScheduler.Refresh refresh = ordersRefresh;
+        changeSubscription = orderChangeFeedService.subscribe(Set.of(OrderChangeFeedService.LAB_ORDER_TABLE),
+                changedTables -> refresh.request());
     }
 
     public void stopAutoRefresh() {
-        if (autoRefreshTimeline != null) {
-            autoRefreshTimeline.stop();
+        if (changeSubscription != null) {
+            changeSubscription.close();
+            changeSubscription = null;
+        }
+        if (ordersRefresh != null) {
+            ordersRefresh.close();
+            ordersRefresh = null;
         }
     }
 
     private void startClock() {
-        Thread clockThread = new Thread(() -> {
-            while (true) {
-                try {
-                    String time = localeFormatService.formatDateTime(LocalDateTime.now());
-                    Platform.runLater(() -> {
-                        if (dateTimeLabel != null) {
-                            dateTimeLabel.setText(time);
-                        }
-                    });
-                    Thread.sleep(60000);
-                } catch (InterruptedException e) {
-                    break;
-                }
-            }
-        });
-        clockThread.setDaemon(true);
-        clockThread.start();
-        dateTimeLabel.setText(localeFormatService.formatDateTime(LocalDateTime.now()));
+        if (clockRegistration != null) {
+            clockRegistration.close();
+        }
+        clockRegistration = uiRefreshScheduler.onClockTick(dateTimeLabel,
+                now -> dateTimeLabel.setText(localeFormatService.formatDateTime(now)));
     }
 
     private void setupReadyOrdersTable() {
-        readyOrderIdCol.setCellValueFactory(data -> new SimpleStringProperty(String.valueOf(data.getValue().getId())));
-        readyMrnCol.setCellValueFactory(data -> {
-            Patient p = data.getValue().getPatient();
-            return new SimpleStringProperty(p != null ? p.getMrn() : "-");
-        });
-        readyPatientCol.setCellValueFactory(data -> {
-            Patient p = data.getValue().getPatient();
-            return new SimpleStringProperty(p != null ? p.getFullName() : "-");
-        });
+        readyOrderIdCol.setCellValueFactory(data -> new SimpleStringProperty(String.valueOf(data.getValue().id())));
+        readyMrnCol.setCellValueFactory(data -> new SimpleStringProperty(
+                data.getValue().mrn() != null ? data.getValue().mrn() : "-"));
+        readyPatientCol.setCellValueFactory(data -> new SimpleStringProperty(
+                data.getValue().patientName() != null ? data.getValue().patientName() : "-"));
         readyDateCol.setCellValueFactory(data -> {
-            LocalDateTime dt = data.getValue().getOrderDate();
+            LocalDateTime dt = data.getValue().orderDate();
             return new SimpleStringProperty(
                     dt != null ? localeFormatService.formatDateTime(dt) : "-");
         });
         readyBalanceCol.setCellValueFactory(data -> {
-            java.math.BigDecimal balance = data.getValue().getBalanceDue();
+            java.math.BigDecimal balance = data.getValue().balanceDue();
             if (balance == null || balance.compareTo(java.math.BigDecimal.ZERO) <= 0) {
                 return new SimpleStringProperty("PAID");
             }
             return new SimpleStringProperty(localeFormatService.formatCurrency(balance));
         });
 
-        readyBalanceCol.setCellFactory(col -> new TableCell<LabOrder, String>() {
+        readyBalanceCol.setCellFactory(col -> new TableCell<LabOrderSummary, String>() {
             @Override
             protected void updateItem(String item, boolean empty) {
                 super.updateItem(item, empty);
@@ -334,13 +335,13 @@ public class ReceptionDashboardController {
             }
         });
 
-        readyActionCol.setCellFactory(col -> new TableCell<LabOrder, Void>() {
+        readyActionCol.setCellFactory(col -> new TableCell<LabOrderSummary, Void>() {
             private final Button deliverBtn = new Button("Deliver");
             {
                 deliverBtn.setStyle(
                         "-fx-background-color: #27ae60; -fx-text-fill: white; -fx-font-size: 11; -fx-padding: 3 10;");
                 deliverBtn.setOnAction(e -> {
-                    LabOrder order = getTableView().getItems().get(getIndex());
+                    LabOrderSummary order = getTableView().getItems().get(getIndex());
                     deliverReport(order);
                 });
             }
@@ -357,31 +358,27 @@ public class ReceptionDashboardController {
 
     private void setupPendingOrdersTable() {
         pendingOrderIdCol
-                .setCellValueFactory(data -> new SimpleStringProperty(String.valueOf(data.getValue().getId())));
-        pendingMrnCol.setCellValueFactory(data -> {
-            Patient p = data.getValue().getPatient();
-            return new SimpleStringProperty(p != null ? p.getMrn() : "-");
-        });
-        pendingPatientCol.setCellValueFactory(data -> {
-            Patient p = data.getValue().getPatient();
-            return new SimpleStringProperty(p != null ? p.getFullName() : "-");
-        });
+                .setCellValueFactory(data -> new SimpleStringProperty(String.valueOf(data.getValue().id())));
+        pendingMrnCol.setCellValueFactory(data -> new SimpleStringProperty(
+                data.getValue().mrn() != null ? data.getValue().mrn() : "-"));
+        pendingPatientCol.setCellValueFactory(data -> new SimpleStringProperty(
+                data.getValue().patientName() != null ? data.getValue().patientName() : "-"));
         pendingDateCol.setCellValueFactory(data -> {
-            LocalDateTime dt = data.getValue().getOrderDate();
+            LocalDateTime dt = data.getValue().orderDate();
             return new SimpleStringProperty(
                     dt != null ? localeFormatService.formatDateTime(dt) : "-");
         });
-        pendingStatusCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getStatus()));
+        pendingStatusCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().status()));
 
         if (pendingActionCol != null) {
-            pendingActionCol.setCellFactory(col -> new TableCell<LabOrder, Void>() {
+            pendingActionCol.setCellFactory(col -> new TableCell<LabOrderSummary, Void>() {
                 private final Button cancelBtn = new Button("Cancel");
 
                 {
                     cancelBtn.setStyle(
                             "-fx-background-color: #c0392b; -fx-text-fill: white; -fx-font-size: 11; -fx-padding: 3 10;");
                     cancelBtn.setOnAction(e -> {
-                        LabOrder order = getTableView().getItems().get(getIndex());
+                        LabOrderSummary order = getTableView().getItems().get(getIndex());
                         handleCancelOrder(order);
                     });
                 }
@@ -394,7 +391,7 @@ public class ReceptionDashboardController {
                         return;
                     }
 
-                    LabOrder order = getTableView().getItems().get(getIndex());
+                    LabOrderSummary order = getTableView().getItems().get(getIndex());
                     if (order == null) {
                         setGraphic(null);
                         return;
@@ -424,33 +421,29 @@ public class ReceptionDashboardController {
 
     private void setupDeliveredOrdersTable() {
         deliveredOrderIdCol
-                .setCellValueFactory(data -> new SimpleStringProperty(String.valueOf(data.getValue().getId())));
-        deliveredMrnCol.setCellValueFactory(data -> {
-            Patient p = data.getValue().getPatient();
-            return new SimpleStringProperty(p != null ? p.getMrn() : "-");
-        });
-        deliveredPatientCol.setCellValueFactory(data -> {
-            Patient p = data.getValue().getPatient();
-            return new SimpleStringProperty(p != null ? p.getFullName() : "-");
-        });
+                .setCellValueFactory(data -> new SimpleStringProperty(String.valueOf(data.getValue().id())));
+        deliveredMrnCol.setCellValueFactory(data -> new SimpleStringProperty(
+                data.getValue().mrn() != null ? data.getValue().mrn() : "-"));
+        deliveredPatientCol.setCellValueFactory(data -> new SimpleStringProperty(
+                data.getValue().patientName() != null ? data.getValue().patientName() : "-"));
         deliveredOrderDateCol.setCellValueFactory(data -> {
-            LocalDateTime dt = data.getValue().getOrderDate();
+            LocalDateTime dt = data.getValue().orderDate();
             return new SimpleStringProperty(
                     dt != null ? localeFormatService.formatDateTime(dt) : "-");
         });
         deliveredDeliveryDateCol.setCellValueFactory(data -> {
-            LocalDateTime dt = data.getValue().getDeliveryDate();
+            LocalDateTime dt = data.getValue().deliveryDate();
             return new SimpleStringProperty(
                     dt != null ? localeFormatService.formatDateTime(dt) : "-");
         });
 
-        deliveredActionCol.setCellFactory(col -> new TableCell<LabOrder, Void>() {
+        deliveredActionCol.setCellFactory(col -> new TableCell<LabOrderSummary, Void>() {
             private final Button reprintBtn = new Button("Reprint");
             {
                 reprintBtn.setStyle(
                         "-fx-background-color: #3498db; -fx-text-fill: white; -fx-font-size: 11; -fx-padding: 3 10;");
                 reprintBtn.setOnAction(e -> {
-                    LabOrder order = getTableView().getItems().get(getIndex());
+                    LabOrderSummary order = getTableView().getItems().get(getIndex());
                     handleReprintReport(order);
                 });
             }
@@ -462,13 +455,13 @@ public class ReceptionDashboardController {
                     setGraphic(null);
                     return;
                 }
-                LabOrder order = getTableView().getItems().get(getIndex());
+                LabOrderSummary order = getTableView().getItems().get(getIndex());
                 if (order == null) {
                     setGraphic(null);
                     return;
                 }
 
-                if (order.isReprintRequired()) {
+                if (order.reprintRequired()) {
                     reprintBtn.setText("Reprint");
                     reprintBtn.setTooltip(new Tooltip("Reprint required due to edited delivered report."));
                     reprintBtn.setStyle(
@@ -487,28 +480,33 @@ public class ReceptionDashboardController {
     }
 
     private void loadOrders() {
-        try {
-            LocalDateTime startDate = LocalDateTime.now().minusDays(30);
-            LocalDateTime endDate = LocalDateTime.now().plusDays(1);
-            List<LabOrder> allOrders = labOrderRepository.findByOrderDateBetween(startDate, endDate);
-            LocalDateTime deliveredStart = getDeliveredRangeStart();
-            LocalDateTime deliveredEnd = getDeliveredRangeEnd();
-            List<LabOrder> delivered = labOrderRepository
-                    .findByIsReportDeliveredTrueAndDeliveryDateBetween(deliveredStart, deliveredEnd);
-            List<LabOrder> reprintRequired = labOrderRepository.findByReprintRequiredTrue();
-            delivered = mergeDeliveredLists(delivered, reprintRequired);
-
-            // Align with lab worklist: ignore orders that have no tests/results attached.
-            allOrders = allOrders.stream()
-                    .filter(o -> o.getResults() != null && !o.getResults().isEmpty())
-                    .collect(Collectors.toList());
+        // The date pickers are read here, on the JavaFX thread.
+        deliveredRange = new DeliveredRange(getDeliveredRangeStart(), getDeliveredRangeEnd());
+        ordersLoad.load(this::fetchOrders, this::showOrders);
+    }
+
+    // Runs on a worker thread.
+    private OrderLists fetchOrders() {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(30);
+        LocalDateTime endDate = LocalDateTime.now().plusDays(1);
+        DeliveredRange range = deliveredRange;
+        return new OrderLists(
+                // Orders without tests/results attached are excluded in SQL, aligned with the lab worklist.
+                labOrderRepository.findOpenOrderSummaries(startDate, endDate),
+                labOrderRepository.findDeliveredOrderSummaries(range.start(), range.end()),
+                range);
+    }
 
-            List<LabOrder> ready = allOrders.stream()
-                    .filter(o -> "COMPLETED".equals(o.getStatus()) && !o.isReportDelivered())
+    private void showOrders(OrderLists lists) {
+        List<LabOrderSummary> openOrders = lists.open();
+        List<LabOrderSummary> delivered = lists.delivered();
+        try {
+            List<LabOrderSummary> ready = openOrders.stream()
+                    .filter(o -> "COMPLETED".equals(o.status()))
                     .collect(Collectors.toList());
 
-            List<LabOrder> pending = allOrders.stream()
-                    .filter(o -> !"COMPLETED".equals(o.getStatus()) && !"CANCELLED".equals(o.getStatus()))
+            List<LabOrderSummary> pending = openOrders.stream()
+                    .filter(o -> !"COMPLETED".equals(o.status()))
                     .collect(Collectors.toList());
 
             readyOrders.setAll(ready);
@@ -517,9 +515,6 @@ public class ReceptionDashboardController {
 
             readyCountLabel.setText(String.valueOf(ready.size()));
             pendingCountLabel.setText(String.valueOf(pending.size()));
-            lastReadyCount = ready.size();
-            lastPendingCount = pending.size();
-            lastInProgressCount = pending.stream().filter(o -> "IN_PROGRESS".equals(o.getStatus())).count();
             statusLabel
                     .setText("Last refreshed: " + localeFormatService.formatTime(LocalDateTime.now().toLocalTime()));
 
@@ -529,36 +524,39 @@ public class ReceptionDashboardController {
         }
     }
 
-    private void handleCancelOrder(LabOrder order) {
+    private void handleCancelOrder(LabOrderSummary order) {
         if (order == null) {
             return;
         }
 
-        if (!orderCancellationService.canCancel(order.getId())) {
-            showError("Order #" + order.getId() + " cannot be cancelled because lab work has already started.");
-            loadOrders();
-            return;
-        }
+        asyncLoader.submit(() -> orderCancellationService.canCancel(order.id()), canCancel -> {
+            if (!canCancel) {
+                showError("Order #" + order.id() + " cannot be cancelled because lab work has already started.");
+                loadOrders();
+                return;
+            }
+            confirmCancelOrder(order);
+        }, e -> showError("Failed to cancel order: " + AsyncLoader.describe(e)));
+    }
 
-        BigDecimal refundAmount = order.getPaidAmount() != null ? order.getPaidAmount() : BigDecimal.ZERO;
+    private void confirmCancelOrder(LabOrderSummary order) {
+        BigDecimal refundAmount = order.paidAmount() != null ? order.paidAmount() : BigDecimal.ZERO;
         Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
         confirm.setTitle("Cancel Order");
-        confirm.setHeaderText("Cancel Order #" + order.getId() + "?");
-        confirm.setContentText(buildCancellationConfirmationText(order.getId(), refundAmount));
+        confirm.setHeaderText("Cancel Order #" + order.id() + "?");
+        confirm.setContentText(buildCancellationConfirmationText(order.id(), refundAmount));
 
         Optional<ButtonType> response = confirm.showAndWait();
         if (response.isEmpty() || response.get() != ButtonType.OK) {
             return;
         }
 
-        try {
-            String approvalKey = promptCancellationApprovalKey();
-            if (approvalKey == null) {
-                return;
-            }
+        String approvalKey = promptCancellationApprovalKey();
+        if (approvalKey == null) {
+            return;
+        }
 
-            OrderCancellationService.CancellationResult result = orderCancellationService
-                    .cancelOrderAuthorized(order.getId(), approvalKey);
+        asyncLoader.submit(() -> orderCancellationService.cancelOrderAuthorized(order.id(), approvalKey), result -> {
             String message = "Order #" + result.orderId() + " cancelled and deleted successfully.";
             if (result.refundAmount() != null && result.refundAmount().compareTo(BigDecimal.ZERO) > 0) {
                 message += "\nRefund recorded: " + localeFormatService.formatCurrency(result.refundAmount());
@@ -568,15 +566,14 @@ public class ReceptionDashboardController {
             message += "\nApproved using admin cancellation key.";
             showAlert("Order Cancelled", message);
             loadOrders();
-        } catch (SecurityException ex) {
-            showError(ex.getMessage());
-            loadOrders();
-        } catch (IllegalStateException ex) {
-            showError(ex.getMessage());
-            loadOrders();
-        } catch (Exception ex) {
-            showError("Failed to cancel order: " + ex.getMessage());
-        }
+        }, e -> {
+            if (e instanceof SecurityException || e instanceof IllegalStateException) {
+                showError(e.getMessage());
+                loadOrders();
+            } else {
+                showError("Failed to cancel order: " + AsyncLoader.describe(e));
+            }
+        });
     }
 
     private String promptCancellationApprovalKey() {
@@ -618,23 +615,31 @@ public class ReceptionDashboardController {
         });
 
         approveButton.addEventFilter(javafx.event.ActionEvent.ACTION, event -> {
+            // The dialog stays open until the key is checked in the background.
+            event.consume();
             String key = keyField.getText();
             if (!orderCancellationService.isCancellationKeyConfigured()) {
                 errorLabel.setText("Cancellation key is not configured.");
-                event.consume();
                 return;
             }
             if (key == null || key.trim().isEmpty()) {
                 errorLabel.setText("Cancellation key is required.");
-                event.consume();
                 return;
             }
-            if (!orderCancellationService.verifyCancellationKey(key.trim())) {
-                errorLabel.setText("Invalid cancellation key.");
-                event.consume();
-                return;
-            }
-            dialog.setResult(key.trim());
+            String trimmedKey = key.trim();
+            approveButton.setDisable(true);
+            asyncLoader.submit(() -> orderCancellationService.verifyCancellationKey(trimmedKey), valid -> {
+                if (!valid) {
+                    errorLabel.setText("Invalid cancellation key.");
+                    approveButton.setDisable(false);
+                    return;
+                }
+                dialog.setResult(trimmedKey);
+                dialog.close();
+            }, e -> {
+                errorLabel.setText("Could not check the key: " + AsyncLoader.describe(e));
+                approveButton.setDisable(false);
+            });
         });
 
         dialog.setResultConverter(button -> button == approveButtonType ? dialog.getResult() : null);
@@ -667,17 +672,44 @@ public class ReceptionDashboardController {
     private void handleSearchOrder() {
         TextInputDialog dialog = new TextInputDialog();
         dialog.setTitle("Search Order");
-        dialog.setHeaderText("Search by MRN");
-        dialog.setContentText("Enter MRN:");
+        dialog.setHeaderText("Search by patient MRN, name or mobile");
+        dialog.setContentText("Enter MRN, name or mobile:");
 
-        dialog.showAndWait().ifPresent(mrn -> {
-            if (!mrn.trim().isEmpty()) {
-                searchField.setText(mrn.trim());
-                handleSearchInTable();
+        dialog.showAndWait().ifPresent(query -> {
+            if (query.trim().isEmpty()) {
+                return;
             }
+            asyncLoader.submit(() -> patientService.searchPatients(query), patients -> {
+                if (patients.isEmpty()) {
+                    showAlert("Search Order", "No patient found with MRN, name or mobile: " + query.trim());
+                    return;
+                }
+                Patient patient = patients.size() == 1 ? patients.get(0) : choosePatient(patients);
+                if (patient != null) {
+                    searchField.setText(patient.getMrn());
+                    handleSearchInTable();
+                }
+            }, e -> showError("Failed to search patients: " + AsyncLoader.describe(e)));
         });
     }
 
+    private Patient choosePatient(List<Patient> patients) {
+        Map<String, Patient> byLabel = new java.util.LinkedHashMap<>();
+        for (Patient patient : patients) {
+            String mobile = patient.getMobileNumber() != null && !patient.getMobileNumber().isBlank()
+                    ? " - " + patient.getMobileNumber()
+                    : "";
+            byLabel.put(patient.getFullName() + " (MRN: " + patient.getMrn() + ")" + mobile, patient);
+        }
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(byLabel.keySet().iterator().next(), byLabel.keySet());
+        dialog.setTitle("Search Order");
+        dialog.setHeaderText(patients.size() < PatientService.SEARCH_LIMIT
+                ? patients.size() + " patients match your search."
+                : "Showing the best " + patients.size() + " matches.");
+        dialog.setContentText("Patient:");
+        return dialog.showAndWait().map(byLabel::get).orElse(null);
+    }
+
     @FXML
     private void handleShowReadyOrders() {
         ordersTabPane.setVisible(true);
@@ -709,17 +741,12 @@ public class ReceptionDashboardController {
             return;
         }
 
-        LocalDateTime startDate = LocalDateTime.now().minusDays(30);
-        LocalDateTime endDate = LocalDateTime.now().plusDays(1);
-        List<LabOrder> allOrders = labOrderRepository.findByOrderDateBetween(startDate, endDate);
-
-        List<LabOrder> filteredReady = allOrders.stream()
-                .filter(o -> "COMPLETED".equals(o.getStatus()) && !o.isReportDelivered())
+        loadOrders();
+        List<LabOrderSummary> filteredReady = readyOrders.stream()
                 .filter(o -> matchesSearch(o, searchTerm))
                 .collect(Collectors.toList());
 
-        List<LabOrder> filteredPending = allOrders.stream()
-                .filter(o -> !"COMPLETED".equals(o.getStatus()) && !"CANCELLED".equals(o.getStatus()))
+        List<LabOrderSummary> filteredPending = pendingOrders.stream()
                 .filter(o -> matchesSearch(o, searchTerm))
                 .collect(Collectors.toList());
 
@@ -736,30 +763,26 @@ public class ReceptionDashboardController {
 
         LocalDateTime startDate = getDeliveredRangeStart();
         LocalDateTime endDate = getDeliveredRangeEnd();
-        List<LabOrder> deliveredOrdersAll = labOrderRepository
-                .findByIsReportDeliveredTrueAndDeliveryDateBetween(startDate, endDate);
-        List<LabOrder> reprintRequired = labOrderRepository.findByReprintRequiredTrue();
-        deliveredOrdersAll = mergeDeliveredLists(deliveredOrdersAll, reprintRequired);
-        if (searchTerm.isEmpty()) {
-            deliveredOrdersTable.setItems(FXCollections.observableArrayList(deliveredOrdersAll));
-            return;
-        }
+        deliveredSearch.load(() -> labOrderRepository.findDeliveredOrderSummaries(startDate, endDate),
+                deliveredOrdersAll -> {
+                    if (searchTerm.isEmpty()) {
+                        deliveredOrdersTable.setItems(FXCollections.observableArrayList(deliveredOrdersAll));
+                        return;
+                    }
 
-        List<LabOrder> filteredDelivered = deliveredOrdersAll.stream()
-                .filter(o -> matchesSearch(o, searchTerm))
-                .collect(Collectors.toList());
-        deliveredOrdersTable.setItems(FXCollections.observableArrayList(filteredDelivered));
+                    List<LabOrderSummary> filteredDelivered = deliveredOrdersAll.stream()
+                            .filter(o -> matchesSearch(o, searchTerm))
+                            .collect(Collectors.toList());
+                    deliveredOrdersTable.setItems(FXCollections.observableArrayList(filteredDelivered));
+                });
     }
 
-    private boolean matchesSearch(LabOrder order, String searchTerm) {
-        if (order.getPatient() != null) {
-            if (order.getPatient().getMrn() != null && order.getPatient().getMrn().toLowerCase().contains(searchTerm))
-                return true;
-            if (order.getPatient().getFullName() != null
-                    && order.getPatient().getFullName().toLowerCase().contains(searchTerm))
-                return true;
-        }
-        return String.valueOf(order.getId()).contains(searchTerm);
+    private boolean matchesSearch(LabOrderSummary order, String searchTerm) {
+        if (order.mrn() != null && order.mrn().toLowerCase().contains(searchTerm))
+            return true;
+        if (order.patientName() != null && order.patientName().toLowerCase().contains(searchTerm))
+            return true;
+        return String.valueOf(order.id()).contains(searchTerm);
     }
 
     @FXML
@@ -769,6 +792,7 @@ public class ReceptionDashboardController {
             deliveredSearchField.clear();
         }
         resetDeliveredDateRange();
+        deliveredSearch.cancel();
         loadOrders();
         readyOrdersTable.setItems(readyOrders);
         pendingOrdersTable.setItems(pendingOrders);
@@ -827,7 +851,7 @@ public class ReceptionDashboardController {
 
     @FXML
     private void handleDeliverReport() {
-        LabOrder selectedOrder = readyOrdersTable.getSelectionModel().getSelectedItem();
+        LabOrderSummary selectedOrder = readyOrdersTable.getSelectionModel().getSelectedItem();
         if (selectedOrder == null) {
             showAlert("Selection Required", "Please select an order from the Ready for Pickup table.");
             return;
@@ -835,18 +859,22 @@ public class ReceptionDashboardController {
         deliverReport(selectedOrder);
     }
 
-    private void deliverReport(LabOrder order) {
-        java.math.BigDecimal balance = order.getBalanceDue();
-        if (balance != null && balance.compareTo(java.math.BigDecimal.ZERO) > 0) {
-            boolean paid = showPaymentDialog(order);
-            if (!paid)
+    private void deliverReport(LabOrderSummary summary) {
+        withFullOrder(summary, order -> {
+            java.math.BigDecimal balance = order.getBalanceDue();
+            if (balance != null && balance.compareTo(java.math.BigDecimal.ZERO) > 0) {
+                showPaymentDialog(order, this::showReportDeliveryDialog);
                 return;
-            order = labOrderRepository.findById(order.getId()).orElse(order);
-        }
-        showReportDeliveryDialog(order);
+            }
+            showReportDeliveryDialog(order);
+        });
     }
 
-    private boolean showPaymentDialog(LabOrder order) {
+    /**
+     * Collects the outstanding balance and, once it is stored in the
+     * background, hands the reloaded order to {@code onPaid}.
+     */
+    private void showPaymentDialog(LabOrder order, java.util.function.Consumer<LabOrder> onPaid) {
         Dialog<ButtonType> dialog = new Dialog<>();
         dialog.setTitle("Payment Required");
         dialog.setHeaderText("Outstanding Balance: " + localeFormatService.formatCurrency(order.getBalanceDue()));
@@ -880,20 +908,19 @@ public class ReceptionDashboardController {
                             : java.math.BigDecimal.ZERO;
                     order.setPaidAmount(currentPaid.add(payment));
                     order.calculateBalance();
-                    try {
+                    asyncLoader.submit(() -> {
                         labOrderRepository.save(order);
+                        return labOrderRepository.findWithDetailsById(order.getId()).orElse(order);
+                    }, reloaded -> {
                         showAlert("Payment Recorded",
                                 "Payment of " + localeFormatService.formatCurrency(payment) + " has been recorded.");
-                        return true;
-                    } catch (ObjectOptimisticLockingFailureException e) {
-                        showError("This order was updated by another user. Please refresh and try again.");
-                    }
+                        onPaid.accept(reloaded);
+                    }, this::showSaveError);
                 }
             } catch (NumberFormatException e) {
                 showError("Invalid payment amount");
             }
         }
-        return false;
     }
 
     private void showReportDeliveryDialog(LabOrder order) {
@@ -974,38 +1001,43 @@ public class ReceptionDashboardController {
     }
 
     private void markAsDelivered(LabOrder order) {
-        try {
-            order.setReportDelivered(true);
-            order.setDeliveryDate(LocalDateTime.now());
-            labOrderRepository.save(order);
+        order.setReportDelivered(true);
+        order.setDeliveryDate(LocalDateTime.now());
+        asyncLoader.submit(() -> labOrderRepository.save(order), saved -> {
             showAlert("Report Delivered", "Report for Order #" + order.getId() + " has been marked as delivered.");
             loadOrders();
-        } catch (ObjectOptimisticLockingFailureException e) {
-            showError("This order was updated by another user. Please refresh and try again.");
-        } catch (Exception e) {
-            showError("Failed to mark as delivered: " + e.getMessage());
-        }
+        }, e -> showSaveError(e, "Failed to mark as delivered: "));
     }
 
-    private void handleReprintReport(LabOrder order) {
-        if (printReport(order)) {
-            markReprintCompleted(order);
-        }
+    private void handleReprintReport(LabOrderSummary summary) {
+        withFullOrder(summary, order -> {
+            if (printReport(order)) {
+                markReprintCompleted(order);
+            }
+        });
     }
 
     private void markReprintCompleted(LabOrder order) {
-        try {
-            order.setReprintRequired(false);
-            int count = order.getReprintCount() != null ? order.getReprintCount() : 0;
-            order.setReprintCount(count + 1);
-            order.setLastReprintAt(LocalDateTime.now());
-            order.setLastReprintBy(getCurrentUsername());
-            labOrderRepository.save(order);
-            loadOrders();
-        } catch (ObjectOptimisticLockingFailureException e) {
+        order.setReprintRequired(false);
+        int count = order.getReprintCount() != null ? order.getReprintCount() : 0;
+        order.setReprintCount(count + 1);
+        order.setLastReprintAt(LocalDateTime.now());
+        order.setLastReprintBy(getCurrentUsername());
+        asyncLoader.submit(() -> {
+            orderArchiveService.restoreForEdit(order.getId());
+            return labOrderRepository.save(order);
+        }, saved -> loadOrders(), e -> showSaveError(e, "Failed to record reprint: "));
+    }
+
+    private void showSaveError(Throwable failure) {
+        showSaveError(failure, "Failed to save: ");
+    }
+
+    private void showSaveError(Throwable failure, String prefix) {
+        if (failure instanceof ObjectOptimisticLockingFailureException) {
             showError("This order was updated by another user. Please refresh and try again.");
-        } catch (Exception e) {
-            showError("Failed to record reprint: " + e.getMessage());
+        } else {
+            showError(prefix + AsyncLoader.describe(failure));
         }
     }
 
@@ -1300,16 +1332,13 @@ public class ReceptionDashboardController {
         if (test == null) {
             return "-";
         }
-        Integer age = patient != null ? patient.getAge() : null;
-        String gender = patient != null ? patient.getGender() : null;
-
-        ReferenceRange matchingRange = findMatchingRange(test, age, gender);
+        ReferenceRangeService.Limits matchingRange = referenceRangeService.resolve(test, patient);
         if (matchingRange != null) {
-            String min = matchingRange.getMinVal() != null
-                    ? localeFormatService.formatNumber(matchingRange.getMinVal())
+            String min = matchingRange.min() != null
+                    ? localeFormatService.formatNumber(matchingRange.min())
                     : null;
-            String max = matchingRange.getMaxVal() != null
-                    ? localeFormatService.formatNumber(matchingRange.getMaxVal())
+            String max = matchingRange.max() != null
+                    ? localeFormatService.formatNumber(matchingRange.max())
                     : null;
             return formatMinMax(min, max);
         }
@@ -1323,72 +1352,6 @@ public class ReceptionDashboardController {
         return formatMinMax(min, max);
     }
 
-    private ReferenceRange findMatchingRange(TestDefinition test, Integer age, String gender) {
-        if (test == null || test.getId() == null) {
-            return null;
-        }
-        var ranges = referenceRangeRepository.findByTestId(test.getId());
-        if (ranges == null || ranges.isEmpty()) {
-            return null;
-        }
-        return ranges.stream()
-                .filter(range -> matchesRange(range, age, gender))
-                .sorted((a, b) -> {
-                    int genderScoreA = genderScore(a, gender);
-                    int genderScoreB = genderScore(b, gender);
-                    if (genderScoreA != genderScoreB) {
-                        return Integer.compare(genderScoreB, genderScoreA);
-                    }
-                    Integer minA = a.getMinAge();
-                    Integer minB = b.getMinAge();
-                    if (minA == null && minB == null) {
-                        return 0;
-                    }
-                    if (minA == null) {
-                        return 1;
-                    }
-                    if (minB == null) {
-                        return -1;
-                    }
-                    return Integer.compare(minA, minB);
-                })
-                .findFirst()
-                .orElse(null);
-    }
-
-    private boolean matchesRange(ReferenceRange range, Integer age, String gender) {
-        if (range == null) {
-            return false;
-        }
-        if (gender != null && range.getGender() != null && !"Both".equalsIgnoreCase(range.getGender())
-                && !range.getGender().equalsIgnoreCase(gender)) {
-            return false;
-        }
-        if (age != null) {
-            if (range.getMinAge() != null && age < range.getMinAge()) {
-                return false;
-            }
-            if (range.getMaxAge() != null && age > range.getMaxAge()) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    private int genderScore(ReferenceRange range, String gender) {
-        if (range == null) {
-            return 0;
-        }
-        String rangeGender = range.getGender();
-        if (gender != null && rangeGender != null && rangeGender.equalsIgnoreCase(gender)) {
-            return 2;
-        }
-        if (rangeGender != null && "Both".equalsIgnoreCase(rangeGender)) {
-            return 1;
-        }
-        return 0;
-    }
-
     private String formatMinMax(String min, String max) {
         if (min != null && max != null) {
             return min + " - " + max;
@@ -1454,15 +1417,22 @@ public class ReceptionDashboardController {
         return fallback != null && fallback.getUsername() != null ? fallback.getUsername() : "UNKNOWN";
     }
 
-    private List<LabOrder> mergeDeliveredLists(List<LabOrder> delivered, List<LabOrder> reprintRequired) {
-        Map<Long, LabOrder> merged = new java.util.LinkedHashMap<>();
-        for (LabOrder order : delivered) {
-            merged.put(order.getId(), order);
-        }
-        for (LabOrder order : reprintRequired) {
-            merged.put(order.getId(), order);
+    /**
+     * Table rows are summaries; the full order graph is loaded only when a row
+     * is opened for delivery or printing. Archived orders are read in place.
+     */
+    private void withFullOrder(LabOrderSummary summary, java.util.function.Consumer<LabOrder> action) {
+        if (summary == null) {
+            return;
         }
-        return new java.util.ArrayList<>(merged.values());
+        asyncLoader.submit(() -> orderArchiveService.findWithDetailsById(summary.id()), order -> {
+            if (order.isEmpty()) {
+                showError("Order #" + summary.id() + " no longer exists. Please refresh.");
+                loadOrders();
+                return;
+            }
+            action.accept(order.get());
+        }, e -> showError("Failed to load order #" + summary.id() + ": " + AsyncLoader.describe(e)));
     }
 
     @FXML
@@ -1471,34 +1441,37 @@ public class ReceptionDashboardController {
     }
 
     private void printReceipt(LabOrder order) {
-        TextFlow receiptContent = createReceiptContent(order);
-        PrinterJob job = PrinterJob.createPrinterJob();
-        if (job != null && job.showPrintDialog(mainContainer.getScene().getWindow())) {
-            boolean success = job.printPage(receiptContent);
-            if (success)
-                job.endJob();
-            else
-                showError("Failed to print receipt");
-        }
+        asyncLoader.submit(() -> panelRepository.findAllWithTestsByOrderId(order.getId()), orderPanels -> {
+            TextFlow receiptContent = createReceiptContent(order, orderPanels);
+            PrinterJob job = PrinterJob.createPrinterJob();
+            if (job != null && job.showPrintDialog(mainContainer.getScene().getWindow())) {
+                boolean success = job.printPage(receiptContent);
+                if (success)
+                    job.endJob();
+                else
+                    showError("Failed to print receipt");
+            }
+        }, e -> showError("Failed to print receipt: " + AsyncLoader.describe(e)));
     }
 
-    private TextFlow createReceiptContent(LabOrder order) {
+    private TextFlow createReceiptContent(LabOrder order, List<Panel> orderPanels) {
         TextFlow flow = new TextFlow();
         Patient patient = order.getPatient();
         Text header = new Text("LIMS LABORATORY - RECEIPT\n\n");
         header.setStyle("-fx-font-size: 16; -fx-font-weight: bold;");
 
         Text orderInfo = new Text("Order #: " + order.getId() + "\n" +
+                (order.getAccessionNumber() != null ? "Accession: " + order.getAccessionNumber() + "\n" : "") +
                 "Date: " + localeFormatService.formatDateTime(order.getOrderDate()) + "\n\n" +
                 "Patient: " + patient.getFullName() + "\n" +
                 "MRN: " + patient.getMrn() + "\n\n");
 
-        java.util.Set<Long> panelTestIds = getPanelTestIds(order);
+        java.util.Set<Long> panelTestIds = getPanelTestIds(orderPanels);
         StringBuilder tests = new StringBuilder("ITEMS ORDERED\n" + "-".repeat(30) + "\n");
 
-        if (order.getPanels() != null && !order.getPanels().isEmpty()) {
+        if (!orderPanels.isEmpty()) {
             tests.append("PANELS\n");
-            for (Panel panel : order.getPanels()) {
+            for (Panel panel : orderPanels) {
                 tests.append(panel.getPanelName()).append(" - ")
                         .append(localeFormatService.formatCurrency(
                                 panel.getPrice() != null ? panel.getPrice() : java.math.BigDecimal.ZERO))
@@ -1544,18 +1517,7 @@ public class ReceptionDashboardController {
         return flow;
     }
 
-    private java.util.Set<Long> getPanelTestIds(LabOrder order) {
-        if (order == null || order.getPanels() == null || order.getPanels().isEmpty()) {
-            return java.util.Set.of();
-        }
-        List<Integer> panelIds = order.getPanels().stream()
-                .map(Panel::getId)
-                .filter(java.util.Objects::nonNull)
-                .collect(java.util.stream.Collectors.toList());
-        if (panelIds.isEmpty()) {
-            return java.util.Set.of();
-        }
-        List<Panel> panels = panelRepository.findAllWithTestsById(panelIds);
+    private java.util.Set<Long> getPanelTestIds(List<Panel> panels) {
         java.util.Set<Long> panelTestIds = new java.util.HashSet<>();
         for (Panel panel : panels) {
             if (panel.getPrice() == null) {
@@ -1605,51 +1567,51 @@ public class ReceptionDashboardController {
         Label status = new Label("Enter filters and click Search.");
         status.setStyle("-fx-text-fill: #7f8c8d;");
 
-        TableView<LabOrder> table = new TableView<>();
-        TableColumn<LabOrder, String> idCol = new TableColumn<>("Order #");
+        TableView<LabOrderSummary> table = new TableView<>();
+        TableColumn<LabOrderSummary, String> idCol = new TableColumn<>("Order #");
         idCol.setCellValueFactory(data -> new SimpleStringProperty(
-                data.getValue() != null ? String.valueOf(data.getValue().getId()) : ""));
+                data.getValue() != null ? String.valueOf(data.getValue().id()) : ""));
 
-        TableColumn<LabOrder, String> dateCol = new TableColumn<>("Date");
+        TableColumn<LabOrderSummary, String> dateCol = new TableColumn<>("Date");
         dateCol.setCellValueFactory(data -> new SimpleStringProperty(
-                data.getValue() != null && data.getValue().getOrderDate() != null
-                        ? localeFormatService.formatDateTime(data.getValue().getOrderDate())
+                data.getValue() != null && data.getValue().orderDate() != null
+                        ? localeFormatService.formatDateTime(data.getValue().orderDate())
                         : ""));
 
-        TableColumn<LabOrder, String> patientCol = new TableColumn<>("Patient");
+        TableColumn<LabOrderSummary, String> patientCol = new TableColumn<>("Patient");
         patientCol.setCellValueFactory(data -> new SimpleStringProperty(
-                data.getValue() != null && data.getValue().getPatient() != null
-                        ? data.getValue().getPatient().getFullName()
+                data.getValue() != null && data.getValue().patientName() != null
+                        ? data.getValue().patientName()
                         : ""));
 
-        TableColumn<LabOrder, String> mrnCol = new TableColumn<>("MRN");
+        TableColumn<LabOrderSummary, String> mrnCol = new TableColumn<>("MRN");
         mrnCol.setCellValueFactory(data -> new SimpleStringProperty(
-                data.getValue() != null && data.getValue().getPatient() != null
-                        ? data.getValue().getPatient().getMrn()
+                data.getValue() != null && data.getValue().mrn() != null
+                        ? data.getValue().mrn()
                         : ""));
 
-        TableColumn<LabOrder, String> totalCol = new TableColumn<>("Total");
+        TableColumn<LabOrderSummary, String> totalCol = new TableColumn<>("Total");
         totalCol.setCellValueFactory(data -> new SimpleStringProperty(
-                data.getValue() != null && data.getValue().getTotalAmount() != null
-                        ? localeFormatService.formatCurrency(data.getValue().getTotalAmount())
+                data.getValue() != null && data.getValue().totalAmount() != null
+                        ? localeFormatService.formatCurrency(data.getValue().totalAmount())
                         : localeFormatService.formatCurrency(java.math.BigDecimal.ZERO)));
 
-        TableColumn<LabOrder, String> paidCol = new TableColumn<>("Paid");
+        TableColumn<LabOrderSummary, String> paidCol = new TableColumn<>("Paid");
         paidCol.setCellValueFactory(data -> new SimpleStringProperty(
-                data.getValue() != null && data.getValue().getPaidAmount() != null
-                        ? localeFormatService.formatCurrency(data.getValue().getPaidAmount())
+                data.getValue() != null && data.getValue().paidAmount() != null
+                        ? localeFormatService.formatCurrency(data.getValue().paidAmount())
                         : localeFormatService.formatCurrency(java.math.BigDecimal.ZERO)));
 
-        TableColumn<LabOrder, String> balanceCol = new TableColumn<>("Balance");
+        TableColumn<LabOrderSummary, String> balanceCol = new TableColumn<>("Balance");
         balanceCol.setCellValueFactory(data -> new SimpleStringProperty(
-                data.getValue() != null && data.getValue().getBalanceDue() != null
-                        ? localeFormatService.formatCurrency(data.getValue().getBalanceDue())
+                data.getValue() != null && data.getValue().balanceDue() != null
+                        ? localeFormatService.formatCurrency(data.getValue().balanceDue())
                         : localeFormatService.formatCurrency(java.math.BigDecimal.ZERO)));
 
         table.getColumns().setAll(List.of(idCol, dateCol, patientCol, mrnCol, totalCol, paidCol, balanceCol));
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
 
-        ObservableList<LabOrder> rows = FXCollections.observableArrayList();
+        ObservableList<LabOrderSummary> rows = FXCollections.observableArrayList();
         table.setItems(rows);
 
         Button printBtn = new Button("Print Receipt");
@@ -1666,6 +1628,9 @@ public class ReceptionDashboardController {
             printBtn.setDisable(newVal == null);
         });
 
+        AsyncLoader.Latest<List<LabOrderSummary>> receiptSearch = asyncLoader.<List<LabOrderSummary>>latest()
+                .showLoadingIn(table)
+                .onFailure(e -> showError("Failed to search orders: " + AsyncLoader.describe(e)));
         Runnable runSearch = () -> {
             LocalDate start = fromDate.getValue();
             LocalDate end = toDate.getValue();
@@ -1682,15 +1647,12 @@ public class ReceptionDashboardController {
             LocalDateTime startDt = start.atStartOfDay();
             LocalDateTime endDt = end.atTime(23, 59, 59);
 
-            List<LabOrder> orders = labOrderRepository.findByOrderDateBetween(startDt, endDt);
-            if (!query.isEmpty()) {
-                orders = orders.stream()
-                        .filter(order -> matchesReceiptQuery(order, query))
-                        .collect(Collectors.toList());
-            }
-
-            rows.setAll(orders);
-            status.setText(rows.size() + " order(s) found");
+            receiptSearch.load(() -> orderArchiveService.findSummariesByOrderDateBetween(startDt, endDt).stream()
+                    .filter(order -> query.isEmpty() || matchesReceiptQuery(order, query))
+                    .collect(Collectors.toList()), orders -> {
+                        rows.setAll(orders);
+                        status.setText(rows.size() + " order(s) found");
+                    });
         };
 
         searchBtn.setOnAction(e -> runSearch.run());
@@ -1702,23 +1664,16 @@ public class ReceptionDashboardController {
             runSearch.run();
         });
 
-        printBtn.setOnAction(e -> {
-            LabOrder selected = table.getSelectionModel().getSelectedItem();
-            if (selected != null) {
-                printReceipt(selected);
-            }
-        });
+        printBtn.setOnAction(e -> withFullOrder(table.getSelectionModel().getSelectedItem(), this::printReceipt));
 
         table.setOnMouseClicked(event -> {
             if (event.getClickCount() == 2) {
-                LabOrder selected = table.getSelectionModel().getSelectedItem();
-                if (selected != null) {
-                    printReceipt(selected);
-                }
+                withFullOrder(table.getSelectionModel().getSelectedItem(), this::printReceipt);
             }
         });
 
         closeBtn.setOnAction(e -> stage.close());
+        stage.setOnHidden(e -> receiptSearch.cancel());
 
         VBox root = new VBox(12, header, filters, status, table, actions);
         root.setPadding(new Insets(15));
@@ -1729,24 +1684,20 @@ public class ReceptionDashboardController {
         stage.show();
     }
 
-    private boolean matchesReceiptQuery(LabOrder order, String query) {
+    private boolean matchesReceiptQuery(LabOrderSummary order, String query) {
         if (order == null) {
             return false;
         }
-        if (String.valueOf(order.getId()).contains(query)) {
+        if (String.valueOf(order.id()).contains(query)) {
             return true;
         }
-        Patient patient = order.getPatient();
-        if (patient == null) {
-            return false;
-        }
-        if (patient.getFullName() != null && patient.getFullName().toLowerCase().contains(query)) {
+        if (order.patientName() != null && order.patientName().toLowerCase().contains(query)) {
             return true;
         }
-        if (patient.getMrn() != null && patient.getMrn().toLowerCase().contains(query)) {
+        if (order.mrn() != null && order.mrn().toLowerCase().contains(query)) {
             return true;
         }
-        if (patient.getMobileNumber() != null && patient.getMobileNumber().toLowerCase().contains(query)) {
+        if (order.patientMobile() != null && order.patientMobile().toLowerCase().contains(query)) {
             return true;
         }
         return false;
@@ -1805,4 +1756,11 @@ public class ReceptionDashboardController {
         alert.setContentText(message);
         alert.showAndWait();
     }
+
+    private record DeliveredRange(LocalDateTime start, LocalDateTime end) {
+    }
+
+    private record OrderLists(List<LabOrderSummary> open, List<LabOrderSummary> delivered,
+            DeliveredRange deliveredRange) {
+    }
 }
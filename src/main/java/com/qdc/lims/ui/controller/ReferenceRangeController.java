@@ -4,6 +4,8 @@ import com.qdc.lims.entity.ReferenceRange;
 import com.qdc.lims.entity.TestDefinition;
 import com.qdc.lims.repository.ReferenceRangeRepository;
 import com.qdc.lims.repository.TestDefinitionRepository;
+import com.qdc.lims.service.ReferenceRangeService;
+import com.qdc.lims.ui.AsyncLoader;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -15,11 +17,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Controller for managing gender and age-specific {@link ReferenceRange}
- * entries for a selected {@link TestDefinition}.
+ * entries for a selected {@link TestDefinition}. Reads and writes run in the
+ * background through {@link AsyncLoader}.
  */
 @Component
 public class ReferenceRangeController {
@@ -30,6 +34,12 @@ public class ReferenceRangeController {
     @Autowired
     private TestDefinitionRepository testDefinitionRepository;
 
+    @Autowired
+    private ReferenceRangeService referenceRangeService;
+
+    @Autowired
+    private AsyncLoader asyncLoader;
+
     @FXML
     private Label testNameLabel;
 
@@ -71,12 +81,19 @@ public class ReferenceRangeController {
 
     private TestDefinition currentTest;
     private final ObservableList<ReferenceRange> rangesList = FXCollections.observableArrayList();
+    private AsyncLoader.Latest<List<ReferenceRange>> rangesLoad;
 
     /**
      * Initializes table bindings and form restrictions.
      */
     @FXML
     public void initialize() {
+        if (rangesLoad != null) {
+            rangesLoad.cancel();
+        }
+        rangesLoad = asyncLoader.<List<ReferenceRange>>latest()
+                .showLoadingIn(rangesTable)
+                .onFailure(e -> showAlert("Error", "Could not load reference ranges: " + AsyncLoader.describe(e)));
         setupTable();
         setupForm();
         setupTestSelector();
@@ -130,10 +147,11 @@ public class ReferenceRangeController {
     }
 
     private void setupTestSelector() {
-        testCombo.setItems(FXCollections.observableArrayList(
-                testDefinitionRepository.findAll().stream()
-                        .sorted(Comparator.comparing(TestDefinition::getTestName, String.CASE_INSENSITIVE_ORDER))
-                        .toList()));
+        asyncLoader.submit(() -> testDefinitionRepository.findAll().stream()
+                .sorted(Comparator.comparing(TestDefinition::getTestName, String.CASE_INSENSITIVE_ORDER))
+                .toList(),
+                tests -> testCombo.setItems(FXCollections.observableArrayList(tests)),
+                e -> showAlert("Error", "Could not load tests: " + AsyncLoader.describe(e)));
         testCombo.setConverter(new StringConverter<>() {
             @Override
             public String toString(TestDefinition test) {
@@ -177,9 +195,12 @@ public class ReferenceRangeController {
      */
     public void refreshData() {
         rangesList.clear();
-        if (currentTest != null && currentTest.getId() != null) {
-            rangesList.addAll(referenceRangeRepository.findByTestId(currentTest.getId()));
+        if (currentTest == null || currentTest.getId() == null) {
+            rangesLoad.cancel();
+            return;
         }
+        Long testId = currentTest.getId();
+        rangesLoad.load(() -> referenceRangeRepository.findByTestId(testId), rangesList::setAll);
     }
 
     /**
@@ -220,9 +241,14 @@ public class ReferenceRangeController {
             range.setMinVal(minVal);
             range.setMaxVal(maxVal);
 
-            referenceRangeRepository.save(range);
-            refreshData();
-            clearForm();
+            asyncLoader.submit(() -> {
+                ReferenceRange saved = referenceRangeRepository.save(range);
+                referenceRangeService.reload();
+                return saved;
+            }, saved -> {
+                refreshData();
+                clearForm();
+            }, e -> showAlert("Save Failed", AsyncLoader.describe(e)));
 
         } catch (NumberFormatException e) {
             showAlert("Error", "Invalid number format.");
@@ -246,8 +272,11 @@ public class ReferenceRangeController {
 
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            referenceRangeRepository.delete(selected);
-            refreshData();
+            asyncLoader.submit(() -> {
+                referenceRangeRepository.delete(selected);
+                referenceRangeService.reload();
+                return selected;
+            }, deleted -> refreshData(), e -> showAlert("Delete Failed", AsyncLoader.describe(e)));
         }
     }
 
@@ -1,10 +1,14 @@
 package com.qdc.lims.ui.controller;
 
-import com.qdc.lims.entity.LabResultEditAudit;
+import com.qdc.lims.dto.ResultEditAuditFilter;
+import com.qdc.lims.dto.ResultEditAuditRow;
 import com.qdc.lims.repository.LabResultEditAuditRepository;
 import com.qdc.lims.service.LocaleFormatService;
+import com.qdc.lims.ui.AsyncLoader;
+import com.qdc.lims.ui.util.TableScrollUtil;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
@@ -18,16 +22,20 @@ import org.springframework.stereotype.Component;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Locale;
-import java.util.stream.Collectors;
 
 /**
- * Displays completed-result correction audit records.
+ * Displays completed-result correction audit records, newest first, loading
+ * further pages in the background through {@link AsyncLoader} as the table is
+ * scrolled.
  */
 @Component
 public class ResultEditAuditController {
 
+    private static final int PAGE_SIZE = 100;
+
     private final LabResultEditAuditRepository auditRepository;
     private final LocaleFormatService localeFormatService;
+    private final AsyncLoader asyncLoader;
 
     @FXML
     private DatePicker fromDatePicker;
@@ -45,35 +53,47 @@ public class ResultEditAuditController {
     private Label recordCountLabel;
 
     @FXML
-    private TableView<LabResultEditAudit> auditTable;
+    private TableView<ResultEditAuditRow> auditTable;
     @FXML
-    private TableColumn<LabResultEditAudit, String> editedAtCol;
+    private TableColumn<ResultEditAuditRow, String> editedAtCol;
     @FXML
-    private TableColumn<LabResultEditAudit, String> orderIdCol;
+    private TableColumn<ResultEditAuditRow, String> orderIdCol;
     @FXML
-    private TableColumn<LabResultEditAudit, String> resultIdCol;
+    private TableColumn<ResultEditAuditRow, String> resultIdCol;
     @FXML
-    private TableColumn<LabResultEditAudit, String> testNameCol;
+    private TableColumn<ResultEditAuditRow, String> testNameCol;
     @FXML
-    private TableColumn<LabResultEditAudit, String> editedByCol;
+    private TableColumn<ResultEditAuditRow, String> editedByCol;
     @FXML
-    private TableColumn<LabResultEditAudit, String> oldValueCol;
+    private TableColumn<ResultEditAuditRow, String> oldValueCol;
     @FXML
-    private TableColumn<LabResultEditAudit, String> newValueCol;
+    private TableColumn<ResultEditAuditRow, String> newValueCol;
     @FXML
-    private TableColumn<LabResultEditAudit, String> reasonCol;
+    private TableColumn<ResultEditAuditRow, String> reasonCol;
     @FXML
-    private TableColumn<LabResultEditAudit, String> deliveredCol;
+    private TableColumn<ResultEditAuditRow, String> deliveredCol;
+
+    private final ObservableList<ResultEditAuditRow> loadedAudits = FXCollections.observableArrayList();
+    private ResultEditAuditFilter currentFilter;
+    private boolean hasMorePages = false;
+    private AsyncLoader.Latest<List<ResultEditAuditRow>> pageLoad;
 
     public ResultEditAuditController(LabResultEditAuditRepository auditRepository,
-            LocaleFormatService localeFormatService) {
+            LocaleFormatService localeFormatService, AsyncLoader asyncLoader) {
         this.auditRepository = auditRepository;
         this.localeFormatService = localeFormatService;
+        this.asyncLoader = asyncLoader;
     }
 
     @FXML
     public void initialize() {
+        if (pageLoad != null) {
+            pageLoad.cancel();
+        }
+        pageLoad = asyncLoader.<List<ResultEditAuditRow>>latest().showLoadingIn(auditTable);
         setupTable();
+        auditTable.setItems(loadedAudits);
+        TableScrollUtil.onScrolledToEnd(auditTable, this::loadNextPage);
         localeFormatService.applyDatePickerLocale(fromDatePicker, toDatePicker);
         resetFilters();
         handleSearch();
@@ -81,22 +101,18 @@ public class ResultEditAuditController {
 
     private void setupTable() {
         editedAtCol.setCellValueFactory(data -> new SimpleStringProperty(
-                data.getValue().getEditedAt() != null ? localeFormatService.formatDateTime(data.getValue().getEditedAt()) : ""));
+                data.getValue().editedAt() != null ? localeFormatService.formatDateTime(data.getValue().editedAt()) : ""));
         orderIdCol.setCellValueFactory(data -> new SimpleStringProperty(
-                data.getValue().getLabOrder() != null && data.getValue().getLabOrder().getId() != null
-                        ? String.valueOf(data.getValue().getLabOrder().getId())
-                        : "-"));
+                data.getValue().orderId() != null ? String.valueOf(data.getValue().orderId()) : "-"));
         resultIdCol.setCellValueFactory(data -> new SimpleStringProperty(
-                data.getValue().getLabResult() != null && data.getValue().getLabResult().getId() != null
-                        ? String.valueOf(data.getValue().getLabResult().getId())
-                        : "-"));
-        testNameCol.setCellValueFactory(data -> new SimpleStringProperty(safe(data.getValue().getTestName())));
-        editedByCol.setCellValueFactory(data -> new SimpleStringProperty(safe(data.getValue().getEditedBy())));
-        oldValueCol.setCellValueFactory(data -> new SimpleStringProperty(safe(data.getValue().getPreviousValue())));
-        newValueCol.setCellValueFactory(data -> new SimpleStringProperty(safe(data.getValue().getNewValue())));
-        reasonCol.setCellValueFactory(data -> new SimpleStringProperty(safe(data.getValue().getReason())));
+                data.getValue().resultId() != null ? String.valueOf(data.getValue().resultId()) : "-"));
+        testNameCol.setCellValueFactory(data -> new SimpleStringProperty(safe(data.getValue().testName())));
+        editedByCol.setCellValueFactory(data -> new SimpleStringProperty(safe(data.getValue().editedBy())));
+        oldValueCol.setCellValueFactory(data -> new SimpleStringProperty(safe(data.getValue().previousValue())));
+        newValueCol.setCellValueFactory(data -> new SimpleStringProperty(safe(data.getValue().newValue())));
+        reasonCol.setCellValueFactory(data -> new SimpleStringProperty(safe(data.getValue().reason())));
         deliveredCol.setCellValueFactory(data -> new SimpleStringProperty(
-                data.getValue().isReportDeliveredAtEdit() ? "Yes" : "No"));
+                data.getValue().reportDeliveredAtEdit() ? "Yes" : "No"));
     }
 
     @FXML
@@ -113,19 +129,26 @@ public class ResultEditAuditController {
             return;
         }
 
-        String editedBy = normalize(editedByField.getText());
-        String testName = normalize(testNameField.getText());
-
-        List<LabResultEditAudit> filtered = auditRepository.findAllByOrderByEditedAtDesc().stream()
-                .filter(audit -> matchesDateRange(audit, from, to))
-                .filter(audit -> orderId == null
-                        || (audit.getLabOrder() != null && orderId.equals(audit.getLabOrder().getId())))
-                .filter(audit -> containsIgnoreCase(audit.getEditedBy(), editedBy))
-                .filter(audit -> containsIgnoreCase(audit.getTestName(), testName))
-                .collect(Collectors.toList());
+        currentFilter = new ResultEditAuditFilter(from, to, orderId, editedByField.getText(),
+                testNameField.getText());
+        // A new filter supersedes any page still loading for the previous one.
+        pageLoad.cancel();
+        hasMorePages = true;
+        loadedAudits.clear();
+        loadNextPage();
+    }
 
-        auditTable.setItems(FXCollections.observableArrayList(filtered));
-        recordCountLabel.setText(filtered.size() + " record(s) found");
+    private void loadNextPage() {
+        if (pageLoad.isLoading() || !hasMorePages || currentFilter == null) {
+            return;
+        }
+        ResultEditAuditFilter filter = currentFilter;
+        ResultEditAuditRow last = loadedAudits.isEmpty() ? null : loadedAudits.get(loadedAudits.size() - 1);
+        pageLoad.load(() -> auditRepository.findPage(filter, last, PAGE_SIZE), page -> {
+            loadedAudits.addAll(page);
+            hasMorePages = page.size() == PAGE_SIZE;
+            recordCountLabel.setText(loadedAudits.size() + (hasMorePages ? "+" : "") + " record(s) found");
+        });
     }
 
     @FXML
@@ -160,27 +183,6 @@ public class ResultEditAuditController {
         }
     }
 
-    private boolean matchesDateRange(LabResultEditAudit audit, LocalDate from, LocalDate to) {
-        if (audit.getEditedAt() == null) {
-            return false;
-        }
-        LocalDate date = audit.getEditedAt().toLocalDate();
-        if (from != null && date.isBefore(from)) {
-            return false;
-        }
-        if (to != null && date.isAfter(to)) {
-            return false;
-        }
-        return true;
-    }
-
-    private boolean containsIgnoreCase(String value, String filter) {
-        if (filter == null || filter.isEmpty()) {
-            return true;
-        }
-        return normalize(value).contains(filter);
-    }
-
     private String safe(String value) {
         String normalized = normalize(value);
         return normalized.isEmpty() ? "-" : value;
@@ -1,13 +1,13 @@
 package com.qdc.lims.ui.controller;
 
+import com.qdc.lims.ui.AsyncLoader;
 import com.qdc.lims.ui.SessionManager;
 import com.qdc.lims.entity.LabOrder;
 import com.qdc.lims.entity.LabResult;
-import com.qdc.lims.entity.ReferenceRange;
 import com.qdc.lims.entity.TestDefinition;
 import com.qdc.lims.repository.LabOrderRepository;
 import com.qdc.lims.repository.LabResultRepository;
-import com.qdc.lims.repository.ReferenceRangeRepository;
+import com.qdc.lims.service.ReferenceRangeService;
 import com.qdc.lims.service.LocaleFormatService;
 import com.qdc.lims.service.ResultService;
 import javafx.application.Platform;
@@ -21,11 +21,13 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
 
 /**
- * JavaFX controller for entering test results.
+ * JavaFX controller for entering test results. The order is loaded and the
+ * results are saved in the background.
  */
 @Component("resultEntryController")
 public class ResultEntryController {
@@ -61,8 +63,11 @@ public class ResultEntryController {
     private final LabResultRepository resultRepository;
     private final ResultService resultService;
     private final LocaleFormatService localeFormatService;
-    private final ReferenceRangeRepository referenceRangeRepository;
+    private final ReferenceRangeService referenceRangeService;
+    private final AsyncLoader asyncLoader;
+    private AsyncLoader.Latest<LabOrder> orderLoad;
     private LabOrder currentOrder;
+    private Long currentOrderId;
     private Runnable closeAction;
 
     // Flag to prevent selection listener loops during programmatic navigation
@@ -72,16 +77,22 @@ public class ResultEntryController {
             LabResultRepository resultRepository,
             ResultService resultService,
             LocaleFormatService localeFormatService,
-            ReferenceRangeRepository referenceRangeRepository) {
+            ReferenceRangeService referenceRangeService,
+            AsyncLoader asyncLoader) {
         this.orderRepository = orderRepository;
         this.resultRepository = resultRepository;
         this.resultService = resultService;
         this.localeFormatService = localeFormatService;
-        this.referenceRangeRepository = referenceRangeRepository;
+        this.referenceRangeService = referenceRangeService;
+        this.asyncLoader = asyncLoader;
     }
 
-    public void setOrder(LabOrder order) {
-        this.currentOrder = order;
+    /**
+     * Opens the given order. Callers pass only the id from their table row; the
+     * full order graph is loaded here.
+     */
+    public void setOrderId(Long orderId) {
+        this.currentOrderId = orderId;
         loadOrderData();
     }
 
@@ -94,6 +105,13 @@ public class ResultEntryController {
 
     @FXML
     private void initialize() {
+        if (orderLoad != null) {
+            orderLoad.cancel();
+        }
+        currentOrder = null;
+        orderLoad = asyncLoader.<LabOrder>latest()
+                .showLoadingIn(resultsTable)
+                .onFailure(e -> showError("Could not load order: " + AsyncLoader.describe(e)));
         setupResultsTable();
         messageLabel.setText("");
     }
@@ -260,12 +278,13 @@ public class ResultEntryController {
 
         referenceRangeColumn.setCellValueFactory(cellData -> {
             TestDefinition test = cellData.getValue().getTestDefinition();
-            ReferenceRange range = findMatchingRange(test, currentOrder != null ? currentOrder.getPatient() : null);
+            ReferenceRangeService.Limits range = referenceRangeService.resolve(test,
+                    currentOrder != null ? currentOrder.getPatient() : null);
             if (range == null)
                 return new SimpleStringProperty("N/A");
 
-            String min = range.getMinVal() != null ? localeFormatService.formatNumber(range.getMinVal()) : "";
-            String max = range.getMaxVal() != null ? localeFormatService.formatNumber(range.getMaxVal()) : "";
+            String min = range.min() != null ? localeFormatService.formatNumber(range.min()) : "";
+            String max = range.max() != null ? localeFormatService.formatNumber(range.max()) : "";
 
             return (min.isEmpty() && max.isEmpty()) ? new SimpleStringProperty("N/A")
                     : new SimpleStringProperty(min + " - " + max);
@@ -297,11 +316,21 @@ public class ResultEntryController {
     }
 
     private void loadOrderData() {
-        if (currentOrder == null)
+        if (currentOrderId == null)
             return;
 
-        currentOrder = orderRepository.findById(currentOrder.getId())
-                .orElseThrow(() -> new RuntimeException("Order not found"));
+        Long orderId = currentOrderId;
+        currentOrder = null;
+        if (saveButton != null)
+            saveButton.setDisable(true);
+        orderLoad.load(() -> orderRepository.findWithDetailsById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found")), this::showOrder);
+    }
+
+    private void showOrder(LabOrder order) {
+        currentOrder = order;
+        if (saveButton != null)
+            saveButton.setDisable(false);
 
         boolean isEditMode = "COMPLETED".equals(currentOrder.getStatus());
 
@@ -332,75 +361,17 @@ public class ResultEntryController {
         if (value == null || value.trim().isEmpty())
             return;
 
-        try {
-            java.math.BigDecimal numValue = new java.math.BigDecimal(value.trim());
-            ReferenceRange range = findMatchingRange(result.getTestDefinition(),
-                    currentOrder != null ? currentOrder.getPatient() : null);
-
-            if (range != null && range.getMinVal() != null && range.getMaxVal() != null) {
-                if (numValue.compareTo(range.getMinVal()) < 0) {
-                    result.setAbnormal(true);
-                    result.setRemarks("LOW");
-                } else if (numValue.compareTo(range.getMaxVal()) > 0) {
-                    result.setAbnormal(true);
-                    result.setRemarks("HIGH");
-                } else {
-                    result.setAbnormal(false);
-                    result.setRemarks("Normal");
-                }
-            }
-        } catch (NumberFormatException e) {
-            result.setAbnormal(false);
-            result.setRemarks("");
-        }
-    }
-
-    private ReferenceRange findMatchingRange(TestDefinition test, com.qdc.lims.entity.Patient patient) {
-        if (test == null || test.getId() == null)
-            return null;
-        var ranges = referenceRangeRepository.findByTestId(test.getId());
-        if (ranges == null || ranges.isEmpty())
-            return null;
-
-        Integer age = patient != null ? patient.getAge() : null;
-        String gender = patient != null ? patient.getGender() : null;
-
-        return ranges.stream()
-                .filter(range -> matchesRange(range, age, gender))
-                .sorted((a, b) -> Integer.compare(genderScore(b, gender), genderScore(a, gender)))
-                .findFirst()
-                .orElse(null);
-    }
-
-    private boolean matchesRange(ReferenceRange range, Integer age, String gender) {
-        if (range == null)
-            return false;
-        String rangeGender = range.getGender();
-        if (gender != null && rangeGender != null && !"Both".equalsIgnoreCase(rangeGender)
-                && !rangeGender.equalsIgnoreCase(gender))
-            return false;
-        if (age != null) {
-            if (range.getMinAge() != null && age < range.getMinAge())
-                return false;
-            if (range.getMaxAge() != null && age > range.getMaxAge())
-                return false;
-        }
-        return true;
-    }
-
-    private int genderScore(ReferenceRange range, String gender) {
-        if (range == null)
-            return 0;
-        String rg = range.getGender();
-        if (gender != null && rg != null && rg.equalsIgnoreCase(gender))
-            return 2;
-        if (rg != null && "Both".equalsIgnoreCase(rg))
-            return 1;
-        return 0;
+        ReferenceRangeService.Flag flag = referenceRangeService.classify(result.getTestDefinition(),
+                currentOrder != null ? currentOrder.getPatient() : null, value);
+        result.setAbnormal(flag.isAbnormal());
+        result.setRemarks(flag.getRemarks());
     }
 
     @FXML
     private void handleSaveResults() {
+        if (currentOrder == null) {
+            return;
+        }
         try {
             resultsTable.refresh();
             String currentUser = SessionManager.getCurrentUser() != null ? SessionManager.getCurrentUser().getUsername()
@@ -428,32 +399,50 @@ public class ResultEntryController {
                     showError("Edit reason is required.");
                     return;
                 }
-                currentOrder.setResults(new ArrayList<>(resultsTable.getItems()));
-                resultService.saveEditedResults(currentOrder, editReason);
-                showSuccess("Results corrected!");
+                LabOrder order = currentOrder;
+                order.setResults(new ArrayList<>(resultsTable.getItems()));
+                saveInBackground(() -> resultService.saveEditedResults(order, editReason), "Results corrected!");
             } else {
                 // Pending Logic
+                List<LabResult> entered = new ArrayList<>();
                 for (LabResult result : resultsTable.getItems()) {
                     if (result.getResultValue() != null && !result.getResultValue().trim().isEmpty()) {
                         result.setPerformedBy(currentUser);
                         result.setPerformedAt(LocalDateTime.now());
-                        resultRepository.save(result);
+                        entered.add(result);
                     }
                 }
-                currentOrder.setResults(new ArrayList<>(resultsTable.getItems()));
-                resultService.saveResultsFromForm(currentOrder);
-                showSuccess("Results saved!");
+                LabOrder order = currentOrder;
+                order.setResults(new ArrayList<>(resultsTable.getItems()));
+                saveInBackground(() -> {
+                    resultRepository.saveAll(entered);
+                    resultService.saveResultsFromForm(order);
+                }, "Results saved!");
             }
+        } catch (Exception e) {
+            showError("Save failed: " + e.getMessage());
+        }
+    }
 
+    private void saveInBackground(Runnable save, String successMessage) {
+        if (saveButton != null)
+            saveButton.setDisable(true);
+        asyncLoader.submit(() -> {
+            save.run();
+            return null;
+        }, ignored -> {
+            showSuccess(successMessage);
             new Timer().schedule(new TimerTask() {
                 @Override
                 public void run() {
                     Platform.runLater(() -> handleClose());
                 }
             }, 1500);
-        } catch (Exception e) {
-            showError("Save failed: " + e.getMessage());
-        }
+        }, e -> {
+            if (saveButton != null)
+                saveButton.setDisable(false);
+            showError("Save failed: " + AsyncLoader.describe(e));
+        });
     }
 
     @FXML
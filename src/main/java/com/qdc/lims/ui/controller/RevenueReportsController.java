@@ -1,8 +1,10 @@
 package com.qdc.lims.ui.controller;
 
-import com.qdc.lims.entity.LabOrder;
-import com.qdc.lims.repository.LabOrderRepository;
+import com.qdc.lims.dto.LabOrderSummary;
+import com.qdc.lims.service.FinancialRollupService;
 import com.qdc.lims.service.LocaleFormatService;
+import com.qdc.lims.service.OrderArchiveService;
+import com.qdc.lims.ui.AsyncLoader;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
@@ -23,17 +25,22 @@ import java.util.List;
 
 /**
  * Controller for Revenue Reports.
- * Rebuilt from scratch to ensure FXML compatibility and stability.
+ * Rebuilt from scratch to ensure FXML compatibility and stability. Reports
+ * are queried in the background through {@link AsyncLoader}.
  */
 @Component
 public class RevenueReportsController {
 
     @Autowired
-    private LabOrderRepository orderRepository;
+    private OrderArchiveService orderArchiveService;
+    @Autowired
+    private FinancialRollupService financialRollupService;
     @Autowired
     private ApplicationContext applicationContext;
     @Autowired
     private LocaleFormatService localeFormatService;
+    @Autowired
+    private AsyncLoader asyncLoader;
 
     @FXML
     private Button closeButton;
@@ -54,17 +61,17 @@ public class RevenueReportsController {
     @FXML
     private Label periodLabel;
     @FXML
-    private TableView<LabOrder> reportTable;
+    private TableView<LabOrderSummary> reportTable;
     @FXML
-    private TableColumn<LabOrder, String> orderIdCol;
+    private TableColumn<LabOrderSummary, String> orderIdCol;
     @FXML
-    private TableColumn<LabOrder, String> dateCol;
+    private TableColumn<LabOrderSummary, String> dateCol;
     @FXML
-    private TableColumn<LabOrder, String> patientCol;
+    private TableColumn<LabOrderSummary, String> patientCol;
     @FXML
-    private TableColumn<LabOrder, String> amountCol;
+    private TableColumn<LabOrderSummary, String> amountCol;
     @FXML
-    private TableColumn<LabOrder, String> statusCol;
+    private TableColumn<LabOrderSummary, String> statusCol;
 
     @FXML
     private CheckBox outstandingOnlyBox;
@@ -73,10 +80,18 @@ public class RevenueReportsController {
     @FXML
     private VBox detailsBox;
 
+    private AsyncLoader.Latest<Report> reportLoad;
+
     @FXML
     public void initialize() {
         System.out.println("RevenueReportsController initialized.");
 
+        reportLoad = asyncLoader.<Report>latest()
+                .onFailure(e -> System.err.println("Error generating report: " + AsyncLoader.describe(e)));
+        if (reportTable != null) {
+            reportLoad.showLoadingIn(reportTable);
+        }
+
         // Setup table columns safely
         setupTableColumns();
 
@@ -93,97 +108,107 @@ public class RevenueReportsController {
 
     private void setupTableColumns() {
         if (orderIdCol != null) {
-            orderIdCol.setCellValueFactory(data -> new SimpleStringProperty(String.valueOf(data.getValue().getId())));
+            orderIdCol.setCellValueFactory(data -> new SimpleStringProperty(String.valueOf(data.getValue().id())));
         }
         if (dateCol != null) {
             dateCol.setCellValueFactory(data -> {
-                LocalDateTime date = data.getValue().getOrderDate();
+                LocalDateTime date = data.getValue().orderDate();
                 return new SimpleStringProperty(
                         date != null ? localeFormatService.formatDateTime(date) : "");
             });
         }
         if (patientCol != null) {
             patientCol.setCellValueFactory(data -> new SimpleStringProperty(
-                    data.getValue().getPatient() != null ? data.getValue().getPatient().getFullName() : "Unknown"));
+                    data.getValue().patientName() != null ? data.getValue().patientName() : "Unknown"));
         }
         if (amountCol != null) {
             amountCol.setCellValueFactory(data -> new SimpleStringProperty(
                     localeFormatService.formatCurrency(
-                            data.getValue().getTotalAmount() != null ? data.getValue().getTotalAmount()
+                            data.getValue().totalAmount() != null ? data.getValue().totalAmount()
                                     : java.math.BigDecimal.ZERO)));
         }
         if (statusCol != null) {
-            statusCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getStatus()));
+            statusCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().status()));
         }
     }
 
     @FXML
     private void handleGenerateReport() {
-        if (orderRepository == null) {
-            System.err.println("OrderRepository is null! Spring injection failed.");
+        if (orderArchiveService == null) {
+            System.err.println("OrderArchiveService is null! Spring injection failed.");
             return;
         }
 
-        try {
-            LocalDate start = startDatePicker.getValue();
-            LocalDate end = endDatePicker.getValue();
-
-            if (start != null && end != null) {
-                LocalDateTime startDateTime = start.atStartOfDay();
-                LocalDateTime endDateTime = end.atTime(23, 59, 59);
+        LocalDate start = startDatePicker.getValue();
+        LocalDate end = endDatePicker.getValue();
+        if (start == null || end == null) {
+            return;
+        }
+        boolean outstandingOnly = outstandingOnlyBox.isSelected();
+        reportLoad.load(() -> buildReport(start, end, outstandingOnly), report -> showReport(start, end, report));
+    }
 
-                List<LabOrder> orders = orderRepository.findByOrderDateBetween(startDateTime, endDateTime);
+    private Report buildReport(LocalDate start, LocalDate end, boolean outstandingOnly) {
+        LocalDateTime startDateTime = start.atStartOfDay();
+        LocalDateTime endDateTime = end.atTime(23, 59, 59);
 
-                // Filter for outstanding payments if checkbox is selected
-                if (outstandingOnlyBox.isSelected()) {
-                    orders = orders.stream()
-                            .filter(o -> o.getBalanceDue() != null
-                                    && o.getBalanceDue().compareTo(java.math.BigDecimal.ZERO) > 0)
-                            .toList();
-                }
+        List<LabOrderSummary> orders = orderArchiveService.findSummariesByOrderDateBetween(startDateTime,
+                endDateTime);
 
-                java.math.BigDecimal total = orders.stream()
-                        .map(o -> o.getTotalAmount() != null ? o.getTotalAmount() : java.math.BigDecimal.ZERO)
-                        .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
-                java.math.BigDecimal totalPaid = orders.stream()
-                        .map(o -> o.getPaidAmount() != null ? o.getPaidAmount() : java.math.BigDecimal.ZERO)
-                        .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
-                java.math.BigDecimal totalOutstanding = orders.stream()
-                        .map(o -> o.getBalanceDue() != null ? o.getBalanceDue() : java.math.BigDecimal.ZERO)
-                        .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
+        // Filter for outstanding payments if checkbox is selected
+        if (outstandingOnly) {
+            orders = orders.stream()
+                    .filter(LabOrderSummary::hasBalanceDue)
+                    .toList();
+            java.math.BigDecimal total = orders.stream()
+                    .map(o -> o.totalAmount() != null ? o.totalAmount() : java.math.BigDecimal.ZERO)
+                    .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
+            java.math.BigDecimal totalPaid = orders.stream()
+                    .map(o -> o.paidAmount() != null ? o.paidAmount() : java.math.BigDecimal.ZERO)
+                    .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
+            java.math.BigDecimal totalOutstanding = orders.stream()
+                    .map(o -> o.balanceDue() != null ? o.balanceDue() : java.math.BigDecimal.ZERO)
+                    .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
+            return new Report(orders, total, totalPaid, totalOutstanding, orders.size());
+        }
+        FinancialRollupService.Summary summary = financialRollupService.summarize(start, end);
+        return new Report(orders, summary.billed(), summary.collected(), summary.receivable(),
+                summary.orderCount());
+    }
 
-                if (totalRevenueLabel != null) {
-                    totalRevenueLabel.setText(localeFormatService.formatCurrency(total));
-                }
-                if (totalPaidLabel != null) {
-                    totalPaidLabel.setText(localeFormatService.formatCurrency(totalPaid));
-                }
-                if (totalOutstandingLabel != null) {
-                    totalOutstandingLabel.setText(localeFormatService.formatCurrency(totalOutstanding));
-                }
-                if (totalCountLabel != null) {
-                    totalCountLabel.setText(String.valueOf(orders.size()));
-                }
-                if (averageOrderLabel != null) {
-                    java.math.BigDecimal avg = orders.isEmpty()
-                            ? java.math.BigDecimal.ZERO
-                            : total.divide(java.math.BigDecimal.valueOf(orders.size()), 4,
-                                    java.math.RoundingMode.HALF_UP);
-                    averageOrderLabel.setText(localeFormatService.formatCurrency(avg));
-                }
-                if (periodLabel != null) {
-                    periodLabel.setText("Period: " + localeFormatService.formatDate(start) + " to "
-                            + localeFormatService.formatDate(end) + " | Source: Patient lab orders");
-                }
-                if (reportTable != null) {
-                    reportTable.setItems(FXCollections.observableArrayList(orders));
-                }
-                showDetails(true);
-            }
-        } catch (Exception e) {
-            System.err.println("Error generating report: " + e.getMessage());
-            e.printStackTrace();
+    private void showReport(LocalDate start, LocalDate end, Report report) {
+        if (totalRevenueLabel != null) {
+            totalRevenueLabel.setText(localeFormatService.formatCurrency(report.total()));
+        }
+        if (totalPaidLabel != null) {
+            totalPaidLabel.setText(localeFormatService.formatCurrency(report.totalPaid()));
+        }
+        if (totalOutstandingLabel != null) {
+            totalOutstandingLabel.setText(localeFormatService.formatCurrency(report.totalOutstanding()));
+        }
+        if (totalCountLabel != null) {
+            totalCountLabel.setText(String.valueOf(report.orderCount()));
         }
+        if (averageOrderLabel != null) {
+            java.math.BigDecimal avg = report.orderCount() == 0
+                    ? java.math.BigDecimal.ZERO
+                    : report.total().divide(java.math.BigDecimal.valueOf(report.orderCount()), 4,
+                            java.math.RoundingMode.HALF_UP);
+            averageOrderLabel.setText(localeFormatService.formatCurrency(avg));
+        }
+        if (periodLabel != null) {
+            periodLabel.setText("Period: " + localeFormatService.formatDate(start) + " to "
+                    + localeFormatService.formatDate(end) + " | Source: Patient lab orders");
+        }
+        if (reportTable != null) {
+            reportTable.setItems(FXCollections.observableArrayList(report.orders()));
+        }
+        showDetails(true);
+    }
+
+    /** Orders of a report period and their totals. */
+    private record Report(List<LabOrderSummary> orders, java.math.BigDecimal total, java.math.BigDecimal totalPaid,
+            java.math.BigDecimal totalOutstanding, long orderCount) {
     }
 
     @FXML
@@ -2,14 +2,17 @@ package com.qdc.lims.ui.controller;
 
 import com.qdc.lims.entity.Supplier;
 import com.qdc.lims.repository.SupplierRepository;
+import com.qdc.lims.ui.AsyncLoader;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
- * Controller for maintaining supplier master data.
+ * Controller for maintaining supplier master data. Reads and writes run in the
+ * background through {@link AsyncLoader}.
  */
 @Component
 public class SupplierManagementController {
@@ -30,13 +33,16 @@ public class SupplierManagementController {
     private TextArea addressArea;
 
     private final SupplierRepository supplierRepository;
+    private final AsyncLoader asyncLoader;
     private Supplier currentSupplier = null;
+    private AsyncLoader.Latest<List<Supplier>> suppliersLoad;
 
     /**
      * Creates the controller.
      */
-    public SupplierManagementController(SupplierRepository supplierRepository) {
+    public SupplierManagementController(SupplierRepository supplierRepository, AsyncLoader asyncLoader) {
         this.supplierRepository = supplierRepository;
+        this.asyncLoader = asyncLoader;
     }
 
     /**
@@ -44,6 +50,12 @@ public class SupplierManagementController {
      */
     @FXML
     public void initialize() {
+        if (suppliersLoad != null) {
+            suppliersLoad.cancel();
+        }
+        suppliersLoad = asyncLoader.<List<Supplier>>latest()
+                .showLoadingIn(supplierListView)
+                .onFailure(e -> showAlert("Error", "Failed to load suppliers: " + AsyncLoader.describe(e)));
         supplierListView.setCellFactory(param -> new ListCell<>() {
             @Override
             protected void updateItem(Supplier item, boolean empty) {
@@ -67,8 +79,8 @@ public class SupplierManagementController {
     }
 
     private void loadSuppliers() {
-        ObservableList<Supplier> suppliers = FXCollections.observableArrayList(supplierRepository.findAll());
-        supplierListView.setItems(suppliers);
+        suppliersLoad.load(supplierRepository::findAll,
+                suppliers -> supplierListView.setItems(FXCollections.observableArrayList(suppliers)));
     }
 
     private void populateForm(Supplier supplier) {
@@ -90,21 +102,18 @@ public class SupplierManagementController {
             return;
         }
 
-        if (currentSupplier == null) {
-            currentSupplier = new Supplier();
-        }
-
-        currentSupplier.setCompanyName(name);
-        currentSupplier.setContactPerson(contactPersonField.getText().trim());
-        currentSupplier.setMobile(mobileField.getText().trim());
-        currentSupplier.setAddress(addressArea.getText().trim());
-        currentSupplier.setActive(true);
-
-        supplierRepository.save(currentSupplier);
+        Supplier supplier = currentSupplier != null ? currentSupplier : new Supplier();
+        supplier.setCompanyName(name);
+        supplier.setContactPerson(contactPersonField.getText().trim());
+        supplier.setMobile(mobileField.getText().trim());
+        supplier.setAddress(addressArea.getText().trim());
+        supplier.setActive(true);
 
-        loadSuppliers();
-        handleClear();
-        showAlert("Success", "Supplier saved successfully.");
+        asyncLoader.submit(() -> supplierRepository.save(supplier), saved -> {
+            loadSuppliers();
+            handleClear();
+            showAlert("Success", "Supplier saved successfully.");
+        }, e -> showAlert("Error", "Failed to save supplier: " + AsyncLoader.describe(e)));
     }
 
     /**
@@ -124,9 +133,13 @@ public class SupplierManagementController {
         alert.setContentText("This cannot be undone. Checks regarding linked items are not yet fully enforced.");
 
         if (alert.showAndWait().get() == ButtonType.OK) {
-            supplierRepository.delete(selected);
-            loadSuppliers();
-            handleClear();
+            asyncLoader.submit(() -> {
+                supplierRepository.delete(selected);
+                return selected;
+            }, deleted -> {
+                loadSuppliers();
+                handleClear();
+            }, e -> showAlert("Error", "Failed to delete supplier: " + AsyncLoader.describe(e)));
         }
     }
 
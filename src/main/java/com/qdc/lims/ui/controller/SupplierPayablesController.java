@@ -1,38 +1,38 @@
 package com.qdc.lims.ui.controller;
 
-import com.qdc.lims.entity.SupplierLedger;
-import com.qdc.lims.repository.SupplierLedgerRepository;
+import com.qdc.lims.dto.SupplierBalanceRow;
 import com.qdc.lims.service.LocaleFormatService;
+import com.qdc.lims.service.SupplierAccountService;
+import com.qdc.lims.ui.AsyncLoader;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
- * Controller that summarizes supplier bills, payments, and outstanding dues over
- * a date range.
+ * Controller that shows each supplier's billed, paid and outstanding amounts
+ * with the outstanding balance aged by days past due. Reads one balance
+ * snapshot per supplier, in the background through {@link AsyncLoader}.
  */
 @Component
 public class SupplierPayablesController {
 
+    private static final String ALL_SUPPLIERS = "All Suppliers";
+
     @Autowired
-    private SupplierLedgerRepository supplierLedgerRepository;
+    private SupplierAccountService supplierAccountService;
     @Autowired
     private LocaleFormatService localeFormatService;
+    @Autowired
+    private AsyncLoader asyncLoader;
 
-    @FXML
-    private DatePicker startDatePicker;
-    @FXML
-    private DatePicker endDatePicker;
     @FXML
     private ComboBox<String> supplierFilter;
     @FXML
@@ -42,126 +42,106 @@ public class SupplierPayablesController {
     @FXML
     private Label totalDueLabel;
     @FXML
-    private TableView<SupplierPayableSummary> summaryTable;
+    private TableView<SupplierBalanceRow> summaryTable;
+    @FXML
+    private TableColumn<SupplierBalanceRow, String> supplierCol;
+    @FXML
+    private TableColumn<SupplierBalanceRow, String> billCol;
     @FXML
-    private TableColumn<SupplierPayableSummary, String> supplierCol;
+    private TableColumn<SupplierBalanceRow, String> paidCol;
     @FXML
-    private TableColumn<SupplierPayableSummary, String> billCol;
+    private TableColumn<SupplierBalanceRow, String> dueCol;
     @FXML
-    private TableColumn<SupplierPayableSummary, String> paidCol;
+    private TableColumn<SupplierBalanceRow, String> dueCurrentCol;
     @FXML
-    private TableColumn<SupplierPayableSummary, String> dueCol;
+    private TableColumn<SupplierBalanceRow, String> due31To60Col;
     @FXML
-    private TableColumn<SupplierPayableSummary, String> latestInvoiceCol;
+    private TableColumn<SupplierBalanceRow, String> due61To90Col;
     @FXML
-    private TableColumn<SupplierPayableSummary, String> latestDueCol;
+    private TableColumn<SupplierBalanceRow, String> dueOver90Col;
+    @FXML
+    private TableColumn<SupplierBalanceRow, String> creditCol;
+    @FXML
+    private TableColumn<SupplierBalanceRow, String> latestInvoiceCol;
+    @FXML
+    private TableColumn<SupplierBalanceRow, String> latestDueCol;
     @FXML
     private Button closeButton;
 
+    private AsyncLoader.Latest<List<SupplierBalanceRow>> balancesLoad;
+
     /**
-     * Initializes date defaults and loads the initial summary.
+     * Sets up the table and loads the current balances.
      */
     @FXML
     public void initialize() {
-        localeFormatService.applyDatePickerLocale(startDatePicker, endDatePicker);
-        startDatePicker.setValue(LocalDate.now().withDayOfMonth(1));
-        endDatePicker.setValue(LocalDate.now());
+        if (balancesLoad != null) {
+            balancesLoad.cancel();
+        }
+        balancesLoad = asyncLoader.<List<SupplierBalanceRow>>latest().showLoadingIn(summaryTable);
         setupTable();
         handleGenerate();
     }
 
     private void setupTable() {
-        supplierCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().supplierName));
-        billCol.setCellValueFactory(data -> new SimpleStringProperty(formatAmount(data.getValue().totalBill)));
-        paidCol.setCellValueFactory(data -> new SimpleStringProperty(formatAmount(data.getValue().totalPaid)));
-        dueCol.setCellValueFactory(data -> new SimpleStringProperty(formatAmount(data.getValue().totalDue)));
-        latestInvoiceCol.setCellValueFactory(
-                data -> new SimpleStringProperty(data.getValue().latestInvoiceNumber));
-        latestDueCol.setCellValueFactory(
-                data -> new SimpleStringProperty(data.getValue().latestDueDate));
+        supplierCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().supplierName()));
+        amountColumn(billCol, SupplierBalanceRow::totalBilled);
+        amountColumn(paidCol, SupplierBalanceRow::totalPaid);
+        amountColumn(dueCol, SupplierBalanceRow::outstanding);
+        amountColumn(dueCurrentCol, SupplierBalanceRow::dueCurrent);
+        amountColumn(due31To60Col, SupplierBalanceRow::due31To60);
+        amountColumn(due61To90Col, SupplierBalanceRow::due61To90);
+        amountColumn(dueOver90Col, SupplierBalanceRow::dueOver90);
+        amountColumn(creditCol, SupplierBalanceRow::unappliedCredit);
+        latestInvoiceCol.setCellValueFactory(data -> new SimpleStringProperty(
+                data.getValue().lastInvoiceNumber() != null ? data.getValue().lastInvoiceNumber() : "-"));
+        latestDueCol.setCellValueFactory(data -> new SimpleStringProperty(
+                data.getValue().lastDueDate() != null
+                        ? localeFormatService.formatDate(data.getValue().lastDueDate())
+                        : "-"));
+    }
+
+    private void amountColumn(TableColumn<SupplierBalanceRow, String> column,
+            Function<SupplierBalanceRow, BigDecimal> amount) {
+        column.setCellValueFactory(data -> new SimpleStringProperty(formatAmount(amount.apply(data.getValue()))));
     }
 
     /**
-     * Recomputes supplier payable summaries for the selected range and filter.
+     * Reloads supplier balances for the selected supplier filter.
      */
     @FXML
     private void handleGenerate() {
-        LocalDate start = startDatePicker.getValue();
-        LocalDate end = endDatePicker.getValue();
-        if (start == null || end == null) {
-            return;
-        }
-
-        List<SupplierLedger> ledgers = supplierLedgerRepository.findByTransactionDateBetween(start, end);
+        balancesLoad.load(supplierAccountService::findBalances, this::showBalances);
+    }
 
+    private void showBalances(List<SupplierBalanceRow> rows) {
         if (supplierFilter.getItems().isEmpty()) {
             supplierFilter.setItems(FXCollections.observableArrayList(
-                    ledgers.stream()
-                            .map(l -> l.getSupplier() != null ? l.getSupplier().getCompanyName() : "Unknown")
+                    rows.stream()
+                            .map(SupplierBalanceRow::supplierName)
                             .distinct()
-                            .sorted()
                             .collect(Collectors.toList())));
-            supplierFilter.getItems().add(0, "All Suppliers");
-            supplierFilter.setValue("All Suppliers");
+            supplierFilter.getItems().add(0, ALL_SUPPLIERS);
+            supplierFilter.setValue(ALL_SUPPLIERS);
         }
 
         String selectedSupplier = supplierFilter.getValue();
-        if (selectedSupplier != null && !"All Suppliers".equals(selectedSupplier)) {
-            ledgers = ledgers.stream()
-                    .filter(l -> l.getSupplier() != null && selectedSupplier.equals(l.getSupplier().getCompanyName()))
+        if (selectedSupplier != null && !ALL_SUPPLIERS.equals(selectedSupplier)) {
+            rows = rows.stream()
+                    .filter(row -> selectedSupplier.equals(row.supplierName()))
                     .collect(Collectors.toList());
         }
 
-        Map<String, List<SupplierLedger>> bySupplier = ledgers.stream()
-                .collect(Collectors.groupingBy(l -> l.getSupplier() != null ? l.getSupplier().getCompanyName() : "Unknown"));
-
-        ObservableList<SupplierPayableSummary> rows = FXCollections.observableArrayList();
         BigDecimal totalBill = BigDecimal.ZERO;
         BigDecimal totalPaid = BigDecimal.ZERO;
         BigDecimal totalDue = BigDecimal.ZERO;
-
-        for (Map.Entry<String, List<SupplierLedger>> entry : bySupplier.entrySet()) {
-            BigDecimal bill = entry.getValue().stream()
-                    .map(l -> l.getBillAmount() != null ? l.getBillAmount() : BigDecimal.ZERO)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            BigDecimal paid = entry.getValue().stream()
-                    .map(l -> l.getPaidAmount() != null ? l.getPaidAmount() : BigDecimal.ZERO)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            BigDecimal due = bill.subtract(paid).max(BigDecimal.ZERO);
-
-            SupplierLedger latest = entry.getValue().stream()
-                    .sorted((a, b) -> {
-                        LocalDate aDate = a.getInvoiceDate() != null ? a.getInvoiceDate() : a.getTransactionDate();
-                        LocalDate bDate = b.getInvoiceDate() != null ? b.getInvoiceDate() : b.getTransactionDate();
-                        if (aDate == null && bDate == null) {
-                            return 0;
-                        }
-                        if (aDate == null) {
-                            return 1;
-                        }
-                        if (bDate == null) {
-                            return -1;
-                        }
-                        return bDate.compareTo(aDate);
-                    })
-                    .findFirst()
-                    .orElse(null);
-
-            String latestInvoice = latest != null && latest.getInvoiceNumber() != null
-                    ? latest.getInvoiceNumber()
-                    : "-";
-            String latestDue = latest != null && latest.getDueDate() != null
-                    ? localeFormatService.formatDate(latest.getDueDate())
-                    : "-";
-
-            rows.add(new SupplierPayableSummary(entry.getKey(), bill, paid, due, latestInvoice, latestDue));
-
-            totalBill = totalBill.add(bill);
-            totalPaid = totalPaid.add(paid);
-            totalDue = totalDue.add(due);
+        for (SupplierBalanceRow row : rows) {
+            totalBill = totalBill.add(row.totalBilled());
+            totalPaid = totalPaid.add(row.totalPaid());
+            totalDue = totalDue.add(row.outstanding());
         }
 
-        summaryTable.setItems(rows);
+        summaryTable.setItems(FXCollections.observableArrayList(rows));
         totalBillLabel.setText(formatAmount(totalBill));
         totalPaidLabel.setText(formatAmount(totalPaid));
         totalDueLabel.setText(formatAmount(totalDue));
@@ -178,30 +158,4 @@ public class SupplierPayablesController {
     private String formatAmount(BigDecimal amount) {
         return localeFormatService.formatCurrency(amount);
     }
-
-    /**
-     * Immutable table row for supplier payable aggregates.
-     */
-    public static class SupplierPayableSummary {
-        private final String supplierName;
-        private final BigDecimal totalBill;
-        private final BigDecimal totalPaid;
-        private final BigDecimal totalDue;
-        private final String latestInvoiceNumber;
-        private final String latestDueDate;
-
-        /**
-         * Creates a supplier payable summary row.
-         */
-        public SupplierPayableSummary(String supplierName, BigDecimal totalBill, BigDecimal totalPaid,
-                BigDecimal totalDue,
-                String latestInvoiceNumber, String latestDueDate) {
-            this.supplierName = supplierName;
-            this.totalBill = totalBill;
-            this.totalPaid = totalPaid;
-            this.totalDue = totalDue;
-            this.latestInvoiceNumber = latestInvoiceNumber;
-            this.latestDueDate = latestDueDate;
-        }
-    }
 }
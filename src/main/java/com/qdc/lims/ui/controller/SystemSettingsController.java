@@ -2,6 +2,7 @@ package com.qdc.lims.ui.controller;
 
 import com.qdc.lims.service.ConfigService;
 import com.qdc.lims.service.BrandingService;
+import com.qdc.lims.ui.AsyncLoader;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.FileChooser;
@@ -10,10 +11,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 
 import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Controller for the system settings screen backed by {@link ConfigService}
- * key-value configuration entries.
+ * key-value configuration entries. Loads and saves run in the background
+ * through {@link AsyncLoader}.
  */
 @Controller
 public class SystemSettingsController {
@@ -22,6 +26,8 @@ public class SystemSettingsController {
     private ConfigService configService;
     @Autowired
     private BrandingService brandingService;
+    @Autowired
+    private AsyncLoader asyncLoader;
 
     // General Info
     @FXML
@@ -61,49 +67,58 @@ public class SystemSettingsController {
     }
 
     /**
-     * Refreshes configuration cache and hydrates all UI fields.
+     * Refreshes configuration cache in the background and hydrates all UI
+     * fields.
      */
     private void loadSettings() {
-        configService.refreshCache();
-
-        clinicNameField.setText(configService.get("CLINIC_NAME"));
-        clinicAddressArea.setText(configService.get("CLINIC_ADDRESS"));
-        clinicPhoneField.setText(configService.get("CLINIC_PHONE"));
-        clinicEmailField.setText(configService.get("CLINIC_EMAIL"));
-
-        headerTextField.setText(configService.get("REPORT_HEADER_TEXT"));
-        footerTextArea.setText(configService.get("REPORT_FOOTER_TEXT"));
-        logoPathField.setText(configService.get("REPORT_LOGO_PATH"));
-
-        currencySymbolField.setText(configService.get("CURRENCY_SYMBOL"));
-        taxRateField.setText(configService.get("TAX_RATE_PERCENT"));
-
-        statusLabel.setText("Settings loaded.");
+        statusLabel.setText("Loading settings...");
+        asyncLoader.submit(() -> {
+            configService.refreshCache();
+            return true;
+        }, loaded -> {
+            clinicNameField.setText(configService.get("CLINIC_NAME"));
+            clinicAddressArea.setText(configService.get("CLINIC_ADDRESS"));
+            clinicPhoneField.setText(configService.get("CLINIC_PHONE"));
+            clinicEmailField.setText(configService.get("CLINIC_EMAIL"));
+
+            headerTextField.setText(configService.get("REPORT_HEADER_TEXT"));
+            footerTextArea.setText(configService.get("REPORT_FOOTER_TEXT"));
+            logoPathField.setText(configService.get("REPORT_LOGO_PATH"));
+
+            currencySymbolField.setText(configService.get("CURRENCY_SYMBOL"));
+            taxRateField.setText(configService.get("TAX_RATE_PERCENT"));
+
+            statusLabel.setText("Settings loaded.");
+        }, e -> statusLabel.setText("Error loading settings: " + AsyncLoader.describe(e)));
     }
 
     /**
-     * Persists the edited settings back to the configuration store.
+     * Persists the edited settings back to the configuration store in the
+     * background.
      */
     @FXML
     private void handleSave() {
-        try {
-            configService.set("CLINIC_NAME", clinicNameField.getText());
-            configService.set("CLINIC_ADDRESS", clinicAddressArea.getText());
-            configService.set("CLINIC_PHONE", clinicPhoneField.getText());
-            configService.set("CLINIC_EMAIL", clinicEmailField.getText());
-
-            configService.set("REPORT_HEADER_TEXT", headerTextField.getText());
-            configService.set("REPORT_FOOTER_TEXT", footerTextArea.getText());
-            configService.set("REPORT_LOGO_PATH", logoPathField.getText());
-
-            configService.set("CURRENCY_SYMBOL", currencySymbolField.getText());
-            configService.set("TAX_RATE_PERCENT", taxRateField.getText());
-
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("CLINIC_NAME", clinicNameField.getText());
+        values.put("CLINIC_ADDRESS", clinicAddressArea.getText());
+        values.put("CLINIC_PHONE", clinicPhoneField.getText());
+        values.put("CLINIC_EMAIL", clinicEmailField.getText());
+
+        values.put("REPORT_HEADER_TEXT", headerTextField.getText());
+        values.put("REPORT_FOOTER_TEXT", footerTextArea.getText());
+        values.put("REPORT_LOGO_PATH", logoPathField.getText());
+
+        values.put("CURRENCY_SYMBOL", currencySymbolField.getText());
+        values.put("TAX_RATE_PERCENT", taxRateField.getText());
+
+        statusLabel.setText("Saving settings...");
+        asyncLoader.submit(() -> {
+            values.forEach(configService::set);
             configService.refreshCache();
             configService.updateLabProfileCompletionFlag();
+            return configService.isLabProfileComplete();
+        }, complete -> {
             brandingService.refreshAllTaggedStageTitles();
-
-            boolean complete = configService.isLabProfileComplete();
             statusLabel.setText(complete
                     ? "Configuration saved successfully!"
                     : "Saved, but lab profile is incomplete (name, address, phone).");
@@ -116,17 +131,16 @@ public class SystemSettingsController {
             alert.setHeaderText(null);
             alert.setContentText("System configuration updated successfully.");
             alert.showAndWait();
-
-        } catch (Exception e) {
+        }, e -> {
             statusLabel.setText("Error saving settings.");
             e.printStackTrace();
 
             Alert alert = new Alert(Alert.AlertType.ERROR);
             alert.setTitle("Error");
             alert.setHeaderText("Save Failed");
-            alert.setContentText(e.getMessage());
+            alert.setContentText(AsyncLoader.describe(e));
             alert.showAndWait();
-        }
+        });
     }
 
     /**
@@ -3,10 +3,11 @@ package com.qdc.lims.ui.controller;
 import com.qdc.lims.entity.Department;
 import com.qdc.lims.entity.TestCategory;
 import com.qdc.lims.entity.TestDefinition;
+import com.qdc.lims.service.CommissionCalculationService;
 import com.qdc.lims.service.TestDefinitionService;
+import com.qdc.lims.ui.AsyncLoader;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
@@ -21,11 +22,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Controller for browsing, searching, and maintaining {@link TestDefinition}
- * master data.
+ * master data. Changing a price reapplies commissions to the open orders.
+ * Reads and writes run in the background through {@link AsyncLoader}.
  */
 @Component
 public class TestDefinitionsController {
@@ -55,6 +58,12 @@ public class TestDefinitionsController {
     private TestDefinitionService testDefinitionService;
     @Autowired
     private ApplicationContext applicationContext;
+    @Autowired
+    private CommissionCalculationService commissionCalculationService;
+    @Autowired
+    private AsyncLoader asyncLoader;
+
+    private AsyncLoader.Latest<List<TestDefinition>> testsLoad;
 
     /**
      * Initializes table bindings and loads initial data.
@@ -65,6 +74,12 @@ public class TestDefinitionsController {
             statusLabel.setText("Error: Service not injected");
             return;
         }
+        if (testsLoad != null) {
+            testsLoad.cancel();
+        }
+        testsLoad = asyncLoader.<List<TestDefinition>>latest()
+                .showLoadingIn(testTable)
+                .onFailure(e -> statusLabel.setText("Error loading tests: " + AsyncLoader.describe(e)));
         colDepartment.setCellValueFactory(cellData -> {
             Department dept = cellData.getValue().getDepartment();
             return new SimpleObjectProperty<>(dept != null ? dept.getName() : "");
@@ -83,14 +98,10 @@ public class TestDefinitionsController {
      * Loads all tests into the table.
      */
     private void loadTests() {
-        try {
-            ObservableList<TestDefinition> tests = FXCollections.observableArrayList(testDefinitionService.findAll());
-            testTable.setItems(tests);
+        testsLoad.load(testDefinitionService::findAll, tests -> {
+            testTable.setItems(FXCollections.observableArrayList(tests));
             statusLabel.setText("Loaded " + tests.size() + " tests.");
-        } catch (Exception e) {
-            statusLabel.setText("Error loading tests: " + e.getMessage());
-            e.printStackTrace();
-        }
+        });
     }
 
     /**
@@ -151,14 +162,10 @@ public class TestDefinitionsController {
             loadTests();
             return;
         }
-        try {
-            ObservableList<TestDefinition> tests = FXCollections
-                    .observableArrayList(testDefinitionService.searchTests(query));
-            testTable.setItems(tests);
+        testsLoad.load(() -> testDefinitionService.searchTests(query), tests -> {
+            testTable.setItems(FXCollections.observableArrayList(tests));
             statusLabel.setText("Found " + tests.size() + " matches.");
-        } catch (Exception e) {
-            statusLabel.setText("Error searching: " + e.getMessage());
-        }
+        });
     }
 
     /**
@@ -203,23 +210,38 @@ public class TestDefinitionsController {
         alert.setContentText("Are you sure? This cannot be undone.");
 
         if (alert.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
-            try {
-                testDefinitionService.deleteById(test.getId());
+            Long testId = test.getId();
+            asyncLoader.submit(() -> {
+                testDefinitionService.deleteById(testId);
+                return testId;
+            }, deleted -> {
                 loadTests();
                 statusLabel.setText("Deleted test: " + test.getTestName());
-            } catch (Exception e) {
+            }, e -> {
                 Alert error = new Alert(Alert.AlertType.ERROR);
-                error.setContentText("Could not delete test: " + e.getMessage());
+                error.setContentText("Could not delete test: " + AsyncLoader.describe(e));
                 error.show();
-            }
+            });
         }
     }
 
     /**
-     * Shows the create/edit dialog and persists the result.
+     * Reapplies a changed price to the commissions of open orders in the
+     * background.
+     */
+    private void recomputeCommissions(TestDefinition test) {
+        asyncLoader.submit(commissionCalculationService::recomputeOpen,
+                recomputed -> statusLabel.setText("Saved test: " + test.getTestName() + " (" + recomputed
+                        + " open commission(s) recalculated)"),
+                e -> statusLabel.setText("Error recalculating commissions: " + AsyncLoader.describe(e)));
+    }
+
+    /**
+     * Shows the create/edit dialog and persists the result. Departments and
+     * categories load into the dialog in the background.
      */
     private void showTestDialog(TestDefinition test) {
-        Dialog<TestDefinition> dialog = new Dialog<>();
+        Dialog<TestEdit> dialog = new Dialog<>();
         dialog.setTitle(test.getId() == null ? "New Test" : "Edit Test");
         dialog.setHeaderText(null);
 
@@ -234,7 +256,6 @@ public class TestDefinitionsController {
         TextField name = new TextField(test.getTestName());
         TextField code = new TextField(test.getShortCode());
         ComboBox<Department> deptCombo = new ComboBox<>();
-        deptCombo.setItems(FXCollections.observableArrayList(testDefinitionService.findAllDepartments()));
         deptCombo.setValue(test.getDepartment());
         deptCombo.setConverter(new StringConverter<>() {
             @Override
@@ -252,8 +273,6 @@ public class TestDefinitionsController {
         });
         ComboBox<TestCategory> categoryCombo = new ComboBox<>();
         categoryCombo.setEditable(true);
-        categoryCombo.setItems(FXCollections.observableArrayList(
-                testDefinitionService.findCategoriesByDepartment(test.getDepartment())));
         categoryCombo.setValue(test.getCategory());
         categoryCombo.setConverter(new StringConverter<>() {
             @Override
@@ -269,10 +288,27 @@ public class TestDefinitionsController {
                         .orElse(null);
             }
         });
-        deptCombo.valueProperty().addListener((obs, oldVal, newVal) -> {
-            categoryCombo.getItems().setAll(testDefinitionService.findCategoriesByDepartment(newVal));
-            categoryCombo.setValue(null);
+        AsyncLoader.Latest<List<TestCategory>> categoriesLoad = asyncLoader.<List<TestCategory>>latest()
+                .onFailure(e -> statusLabel.setText("Error loading categories: " + AsyncLoader.describe(e)));
+        Department initialDept = test.getDepartment();
+        TestCategory initialCategory = test.getCategory();
+        categoriesLoad.load(() -> testDefinitionService.findCategoriesByDepartment(initialDept), categories -> {
+            categoryCombo.getItems().setAll(categories);
+            categoryCombo.setValue(initialCategory);
         });
+        // The department listener is attached once the departments arrive, so
+        // filling the combo does not clear the test's category.
+        asyncLoader.submit(testDefinitionService::findAllDepartments, departments -> {
+            deptCombo.setItems(FXCollections.observableArrayList(departments));
+            deptCombo.setValue(initialDept);
+            deptCombo.valueProperty().addListener((obs, oldVal, newVal) -> {
+                categoryCombo.setValue(null);
+                categoriesLoad.load(() -> testDefinitionService.findCategoriesByDepartment(newVal),
+                        categories -> categoryCombo.getItems().setAll(categories));
+            });
+        }, e -> statusLabel.setText("Error loading departments: " + AsyncLoader.describe(e)));
+        boolean existingTest = test.getId() != null;
+        BigDecimal previousPrice = test.getPrice();
         TextField price = new TextField(test.getPrice() != null ? test.getPrice().toPlainString() : "");
         TextField unit = new TextField(test.getUnit());
 
@@ -300,8 +336,6 @@ public class TestDefinitionsController {
                 String categoryName = categoryCombo.getValue() != null
                         ? categoryCombo.getValue().getName()
                         : categoryCombo.getEditor().getText();
-                TestCategory resolvedCategory = testDefinitionService.findOrCreateCategory(categoryName, selectedDept);
-                test.setCategory(resolvedCategory);
                 test.setUnit(unit.getText() != null ? unit.getText().trim() : null);
                 try {
                     if (!price.getText().isEmpty()) {
@@ -310,23 +344,38 @@ public class TestDefinitionsController {
                 } catch (NumberFormatException e) {
                     // Ignore invalid price input and leave the prior value.
                 }
-                return test;
+                return new TestEdit(test, categoryName);
             }
             return null;
         });
 
-        Optional<TestDefinition> result = dialog.showAndWait();
+        Optional<TestEdit> result = dialog.showAndWait();
+        categoriesLoad.cancel();
 
-        result.ifPresent(t -> {
-            try {
-                testDefinitionService.save(t);
+        result.ifPresent(edit -> {
+            TestDefinition t = edit.test();
+            asyncLoader.submit(() -> {
+                t.setCategory(testDefinitionService.findOrCreateCategory(edit.categoryName(), t.getDepartment()));
+                return testDefinitionService.save(t);
+            }, saved -> {
                 loadTests();
                 statusLabel.setText("Saved test: " + t.getTestName());
-            } catch (Exception e) {
+                boolean priceChanged = previousPrice == null ? t.getPrice() != null
+                        : t.getPrice() == null || previousPrice.compareTo(t.getPrice()) != 0;
+                if (existingTest && priceChanged) {
+                    recomputeCommissions(t);
+                }
+            }, e -> {
                 Alert error = new Alert(Alert.AlertType.ERROR);
-                error.setContentText("Could not save test: " + e.getMessage());
+                error.setContentText("Could not save test: " + AsyncLoader.describe(e));
                 error.show();
-            }
+            });
         });
     }
+
+    /**
+     * A test edited in the dialog and the category name typed for it.
+     */
+    private record TestEdit(TestDefinition test, String categoryName) {
+    }
 }
@@ -6,6 +6,7 @@ import com.qdc.lims.entity.TestDefinition;
 import com.qdc.lims.repository.InventoryItemRepository;
 import com.qdc.lims.repository.TestConsumptionRepository;
 import com.qdc.lims.service.TestDefinitionService;
+import com.qdc.lims.ui.AsyncLoader;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
@@ -16,9 +17,11 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 /**
- * Controller for defining per-test inventory consumption recipes.
+ * Controller for defining per-test inventory consumption recipes. Reads and
+ * writes run in the background through {@link AsyncLoader}.
  */
 @Component
 @Scope("prototype")
@@ -47,18 +50,24 @@ public class TestRecipeController {
     private final TestConsumptionRepository consumptionRepository;
     private final InventoryItemRepository inventoryRepository;
     private final TestDefinitionService testDefinitionService;
+    private final AsyncLoader asyncLoader;
 
     private TestDefinition currentTest;
+    private AsyncLoader.Latest<List<TestConsumption>> recipesLoad;
 
     /**
      * Creates the controller.
      */
     public TestRecipeController(TestConsumptionRepository consumptionRepository,
             InventoryItemRepository inventoryRepository,
-            TestDefinitionService testDefinitionService) {
+            TestDefinitionService testDefinitionService,
+            AsyncLoader asyncLoader) {
         this.consumptionRepository = consumptionRepository;
         this.inventoryRepository = inventoryRepository;
         this.testDefinitionService = testDefinitionService;
+        this.asyncLoader = asyncLoader;
+        this.recipesLoad = asyncLoader.<List<TestConsumption>>latest()
+                .onFailure(e -> setStatus("Could not load recipe: " + AsyncLoader.describe(e)));
     }
 
     /**
@@ -66,6 +75,7 @@ public class TestRecipeController {
      */
     @FXML
     public void initialize() {
+        recipesLoad.showLoadingIn(recipeTable);
         itemNameColumn.setCellValueFactory(
                 cell -> new SimpleStringProperty(cell.getValue().getItem().getItemName()));
         quantityColumn.setCellValueFactory(new PropertyValueFactory<>("quantity"));
@@ -119,36 +129,42 @@ public class TestRecipeController {
         this.currentTest = test;
         if (test != null) {
             testNameLabel.setText("Test: " + test.getTestName());
-            loadRecipes();
-            setStatus("Loaded recipe items for " + test.getTestName() + ".");
+            loadRecipes(() -> setStatus("Loaded recipe items for " + test.getTestName() + "."));
         } else {
             testNameLabel.setText("Test: (select a test)");
+            recipesLoad.cancel();
             recipeTable.getItems().clear();
             setStatus("Select a test definition to manage its recipe.");
         }
     }
 
     private void loadTests() {
-        testDefinitionComboBox.setItems(
-                FXCollections.observableArrayList(testDefinitionService.findAll().stream()
-                        .filter(t -> t.getActive() == null || t.getActive())
-                        .sorted(java.util.Comparator.comparing(TestDefinition::getTestName, String.CASE_INSENSITIVE_ORDER))
-                        .toList()));
+        asyncLoader.submit(() -> testDefinitionService.findAll().stream()
+                .filter(t -> t.getActive() == null || t.getActive())
+                .sorted(java.util.Comparator.comparing(TestDefinition::getTestName, String.CASE_INSENSITIVE_ORDER))
+                .toList(),
+                tests -> testDefinitionComboBox.setItems(FXCollections.observableArrayList(tests)),
+                e -> setStatus("Could not load tests: " + AsyncLoader.describe(e)));
     }
 
     private void loadInventoryItems() {
-        inventoryItemComboBox.setItems(FXCollections.observableArrayList(
-                inventoryRepository.findAll().stream()
-                        .filter(InventoryItem::isActive)
-                        .sorted(java.util.Comparator.comparing(InventoryItem::getItemName, String.CASE_INSENSITIVE_ORDER))
-                        .toList()));
+        asyncLoader.submit(() -> inventoryRepository.findAll().stream()
+                .filter(InventoryItem::isActive)
+                .sorted(java.util.Comparator.comparing(InventoryItem::getItemName, String.CASE_INSENSITIVE_ORDER))
+                .toList(),
+                items -> inventoryItemComboBox.setItems(FXCollections.observableArrayList(items)),
+                e -> setStatus("Could not load inventory items: " + AsyncLoader.describe(e)));
     }
 
-    private void loadRecipes() {
+    private void loadRecipes(Runnable afterLoad) {
         if (currentTest == null) {
             return;
         }
-        recipeTable.setItems(FXCollections.observableArrayList(consumptionRepository.findByTestId(currentTest.getId())));
+        Long testId = currentTest.getId();
+        recipesLoad.load(() -> consumptionRepository.findByTestId(testId), recipes -> {
+            recipeTable.setItems(FXCollections.observableArrayList(recipes));
+            afterLoad.run();
+        });
     }
 
     /**
@@ -180,17 +196,19 @@ public class TestRecipeController {
             return;
         }
 
-        TestConsumption recipe = consumptionRepository.findByTestAndItem(currentTest, selectedItem)
-                .orElseGet(TestConsumption::new);
-        recipe.setTest(currentTest);
-        recipe.setItem(selectedItem);
-        recipe.setQuantity(quantity);
-        consumptionRepository.save(recipe);
-
-        quantityField.clear();
-        inventoryItemComboBox.getSelectionModel().clearSelection();
-        loadRecipes();
-        setStatus("Saved recipe item: " + selectedItem.getItemName());
+        TestDefinition test = currentTest;
+        asyncLoader.submit(() -> {
+            TestConsumption recipe = consumptionRepository.findByTestAndItem(test, selectedItem)
+                    .orElseGet(TestConsumption::new);
+            recipe.setTest(test);
+            recipe.setItem(selectedItem);
+            recipe.setQuantity(quantity);
+            return consumptionRepository.save(recipe);
+        }, saved -> {
+            quantityField.clear();
+            inventoryItemComboBox.getSelectionModel().clearSelection();
+            loadRecipes(() -> setStatus("Saved recipe item: " + selectedItem.getItemName()));
+        }, e -> showAlert("Save Failed", AsyncLoader.describe(e)));
     }
 
     /**
@@ -209,9 +227,11 @@ public class TestRecipeController {
         alert.setHeaderText("Remove " + selected.getItem().getItemName() + " from recipe?");
 
         if (alert.showAndWait().get() == ButtonType.OK) {
-            consumptionRepository.delete(selected);
-            loadRecipes();
-            setStatus("Removed recipe item.");
+            asyncLoader.submit(() -> {
+                consumptionRepository.delete(selected);
+                return selected;
+            }, removed -> loadRecipes(() -> setStatus("Removed recipe item.")),
+                    e -> showAlert("Remove Failed", AsyncLoader.describe(e)));
         }
     }
 
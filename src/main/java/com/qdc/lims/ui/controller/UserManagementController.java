@@ -7,6 +7,7 @@ import com.qdc.lims.repository.RoleRepository;
 import com.qdc.lims.repository.UserRepository;
 import com.qdc.lims.service.PasswordPolicyService;
 import com.qdc.lims.service.UserService;
+import com.qdc.lims.ui.AsyncLoader;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -16,11 +17,13 @@ import org.springframework.stereotype.Component;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
  * JavaFX controller for user management (Admin only).
  * SECURITY: This controller verifies admin permissions on initialization.
+ * Users are loaded and saved in the background through {@link AsyncLoader}.
  */
 @Component("userManagementController")
 public class UserManagementController {
@@ -74,17 +77,21 @@ public class UserManagementController {
     private final RoleRepository roleRepository;
     private final UserService userService;
     private final PasswordPolicyService passwordPolicyService;
+    private final AsyncLoader asyncLoader;
 
     private Long editingUserId;
+    private AsyncLoader.Latest<List<User>> usersLoad;
 
     public UserManagementController(UserRepository userRepository,
             RoleRepository roleRepository,
             UserService userService,
-            PasswordPolicyService passwordPolicyService) {
+            PasswordPolicyService passwordPolicyService,
+            AsyncLoader asyncLoader) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.userService = userService;
         this.passwordPolicyService = passwordPolicyService;
+        this.asyncLoader = asyncLoader;
     }
 
     @FXML
@@ -95,6 +102,11 @@ public class UserManagementController {
             return;
         }
 
+        if (usersLoad != null) {
+            usersLoad.cancel();
+        }
+        usersLoad = asyncLoader.<List<User>>latest().showLoadingIn(userTable);
+
         // Setup table columns
         usernameColumn.setCellValueFactory(new PropertyValueFactory<>("username"));
         fullNameColumn.setCellValueFactory(new PropertyValueFactory<>("fullName"));
@@ -135,9 +147,10 @@ public class UserManagementController {
     }
 
     private void loadUsers() {
-        List<User> users = userRepository.findAll();
-        ObservableList<User> observableUsers = FXCollections.observableArrayList(users);
-        userTable.setItems(observableUsers);
+        usersLoad.load(userRepository::findAll, users -> {
+            ObservableList<User> observableUsers = FXCollections.observableArrayList(users);
+            userTable.setItems(observableUsers);
+        });
     }
 
     @FXML
@@ -160,46 +173,46 @@ public class UserManagementController {
 
         // Enforce password policy when creating or when explicitly changing a password.
         if (editingUserId == null || !password.isBlank()) {
-            passwordPolicyService.validate(password).ifPresent(msg -> {
-                throw new IllegalArgumentException(msg);
-            });
-        }
-
-        // Check if username already exists (only for new users)
-        if (editingUserId == null && userRepository.findByUsername(username).isPresent()) {
-            showError("Username already exists");
-            return;
+            Optional<String> policyViolation = passwordPolicyService.validate(password);
+            if (policyViolation.isPresent()) {
+                showError(policyViolation.get());
+                return;
+            }
         }
 
         // Build roles FIRST - need to ensure we have role entities
-        Role selectedRole = null;
-        String missingRoleMessage = null;
+        String roleName;
+        String missingRoleMessage;
         if (adminRadio.isSelected()) {
-            selectedRole = roleRepository.findByName("ROLE_ADMIN").orElse(null);
+            roleName = "ROLE_ADMIN";
             missingRoleMessage = "Administrator role is not available. Please refresh roles or restart the app.";
         } else if (staffRadio.isSelected()) {
-            selectedRole = roleRepository.findByName("ROLE_STAFF").orElse(null);
+            roleName = "ROLE_STAFF";
             missingRoleMessage = "Staff role is not available. Please refresh roles or restart the app.";
         } else if (receptionRadio.isSelected()) {
-            selectedRole = roleRepository.findByName("ROLE_RECEPTION").orElse(null);
+            roleName = "ROLE_RECEPTION";
             missingRoleMessage = "Reception role is not available. Please refresh roles or restart the app.";
         } else if (labRadio.isSelected()) {
-            selectedRole = roleRepository.findByName("ROLE_LAB").orElse(null);
+            roleName = "ROLE_LAB";
             missingRoleMessage = "Lab role is not available. Please refresh roles or restart the app.";
         } else {
             showError("Please select a role");
             return;
         }
 
-        if (selectedRole == null) {
-            showError(missingRoleMessage);
-            return;
-        }
+        Long userId = editingUserId;
+        boolean active = activeCheckBox.isSelected();
+        asyncLoader.submit(() -> {
+            // Check if username already exists (only for new users)
+            if (userId == null && userRepository.findByUsername(username).isPresent()) {
+                throw new IllegalArgumentException("Username already exists");
+            }
+            Role selectedRole = roleRepository.findByName(roleName)
+                    .orElseThrow(() -> new IllegalArgumentException(missingRoleMessage));
 
-        try {
             User user;
-            if (editingUserId != null) {
-                user = userService.getUserById(editingUserId)
+            if (userId != null) {
+                user = userService.getUserById(userId)
                         .orElseThrow(() -> new RuntimeException("User not found"));
             } else {
                 user = new User();
@@ -207,30 +220,32 @@ public class UserManagementController {
             }
 
             user.setFullName(fullName);
-            user.setActive(activeCheckBox.isSelected());
+            user.setActive(active);
             user.setRoles(new HashSet<>(List.of(selectedRole)));
 
-            if (editingUserId == null || !password.isBlank()) {
+            if (userId == null || !password.isBlank()) {
                 user.setPassword(password);
             }
 
-            if (editingUserId != null) {
+            if (userId != null) {
                 userService.updateUser(user);
-                showSuccess("User updated successfully!");
             } else {
                 userService.createUser(user);
-                showSuccess("User created successfully!");
             }
-
+            return userId != null;
+        }, updated -> {
+            showSuccess(updated ? "User updated successfully!" : "User created successfully!");
             // Critical: reload from DB to ensure list is up-to-date with transactions
             loadUsers();
             handleClearForm();
-        } catch (IllegalArgumentException e) {
-            showError(e.getMessage());
-        } catch (Exception e) {
-            e.printStackTrace();
-            showError("Failed to save user: " + e.getMessage());
-        }
+        }, e -> {
+            if (e instanceof IllegalArgumentException) {
+                showError(e.getMessage());
+            } else {
+                e.printStackTrace();
+                showError("Failed to save user: " + AsyncLoader.describe(e));
+            }
+        });
     }
 
     @FXML
@@ -274,13 +289,13 @@ public class UserManagementController {
 
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
+                asyncLoader.submit(() -> {
                     userRepository.delete(selectedUser);
+                    return selectedUser;
+                }, deleted -> {
                     showSuccess("User deleted successfully");
                     loadUsers();
-                } catch (Exception e) {
-                    showError("Failed to delete user: " + e.getMessage());
-                }
+                }, e -> showError("Failed to delete user: " + AsyncLoader.describe(e)));
             }
         });
     }
@@ -0,0 +1,58 @@
+package com.qdc.lims.ui.util;
+
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+
+/**
+ * Helpers for tables that fetch their rows page by page as the user scrolls.
+ */
+public final class TableScrollUtil {
+
+    /**
+     * Fraction of the scroll range treated as "near the end".
+     */
+    private static final double END_THRESHOLD = 0.95;
+
+    private TableScrollUtil() {
+    }
+
+    /**
+     * Runs {@code action} whenever the table's vertical scroll bar reaches the
+     * end of its range. The scroll bar only exists once the table skin has been
+     * created, so attachment is deferred until then.
+     *
+     * @param table  table to observe
+     * @param action callback that loads the next page (must guard against
+     *               overlapping loads itself)
+     */
+    public static void onScrolledToEnd(TableView<?> table, Runnable action) {
+        if (table == null || action == null) {
+            return;
+        }
+        if (table.getSkin() != null) {
+            attach(table, action);
+            return;
+        }
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            if (oldSkin == null && newSkin != null) {
+                attach(table, action);
+            }
+        });
+    }
+
+    private static void attach(TableView<?> table, Runnable action) {
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                bar.valueProperty().addListener((obs, oldVal, newVal) -> {
+                    double max = bar.getMax();
+                    if (max > 0 && newVal.doubleValue() >= max * END_THRESHOLD
+                            && newVal.doubleValue() > oldVal.doubleValue()) {
+                        action.run();
+                    }
+                });
+            }
+        }
+    }
+}
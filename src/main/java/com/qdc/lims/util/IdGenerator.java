@@ -1,26 +1,59 @@
 package com.qdc.lims.util;
 
-import com.aventrix.jnanoid.jnanoid.NanoIdUtils;
-import java.util.Random;
-
 /**
- * Utility class for generating unique Medical Record Numbers (MRN).
+ * Check-digit helpers for human-entered identifiers (MRNs, accession numbers).
+ * Numbers themselves are allocated by {@code IdentifierService}.
  */
 public class IdGenerator {
 
-    // ONLY Numbers (0-9)
-    private static final char[] NUMBERS = "0123456789".toCharArray();
-    private static final Random RANDOM = new Random();
+    private IdGenerator() {
+    }
 
     /**
-     * Generates a random 6-digit Medical Record Number (MRN) formatted as nuumerics-numerics.
+     * Computes the Luhn (mod 10) check digit of a digit string. It catches
+     * every single-digit typo and most swaps of adjacent digits.
      *
-     * @return a formatted MRN string (e.g., 852-304)
+     * @param digits decimal digits only
+     * @return check digit 0-9
+     * @throws IllegalArgumentException if {@code digits} contains a non-digit
      */
-    public static String generateMrn() {
-        // Generate 6 random numbers
-        String rawId = NanoIdUtils.randomNanoId(RANDOM, NUMBERS, 6);
+    public static int luhnCheckDigit(CharSequence digits) {
+        int sum = 0;
+        boolean doubled = true; // the rightmost payload digit is doubled
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            char c = digits.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Not a digit string: " + digits);
+            }
+            int d = c - '0';
+            if (doubled) {
+                d *= 2;
+                if (d > 9) {
+                    d -= 9;
+                }
+            }
+            sum += d;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
 
-        return rawId.substring(0, 3) + "-" + rawId.substring(3, 6);
+    /**
+     * Checks a digit string whose last digit is its Luhn check digit.
+     *
+     * @param digitsWithCheck payload followed by check digit
+     * @return {@code true} if the check digit matches
+     */
+    public static boolean isValidLuhn(CharSequence digitsWithCheck) {
+        int length = digitsWithCheck.length();
+        if (length < 2) {
+            return false;
+        }
+        char check = digitsWithCheck.charAt(length - 1);
+        try {
+            return check - '0' == luhnCheckDigit(digitsWithCheck.subSequence(0, length - 1));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,427 @@
+-- Baseline schema: the tables, keys and indexes of the JPA entity model as
+-- hibernate.ddl-auto=update used to create them. Databases created that way
+-- are baselined at this version and skip this script (see V2).
+
+CREATE TABLE commission_ledger (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    calculated_amount numeric(19,4),
+    commission_percentage numeric(7,4),
+    paid_amount numeric(19,4),
+    payment_date date,
+    settlement_id bigint,
+    status varchar(255),
+    total_bill_amount numeric(19,4),
+    transaction_date date,
+    doctor_id bigint NOT NULL,
+    order_id bigint NOT NULL UNIQUE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE commission_rule (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    active boolean NOT NULL,
+    department_id integer,
+    doctor_id bigint,
+    percentage numeric(7,4) NOT NULL,
+    test_id bigint,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE commission_settlement (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    commission_count bigint NOT NULL,
+    doctor_id bigint,
+    payment_date date NOT NULL,
+    period_from date,
+    period_to date,
+    settled_at timestamp(6) NOT NULL,
+    settled_by varchar(255),
+    total_amount numeric(19,4) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE daily_financial_rollup (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    amount numeric(19,4) NOT NULL,
+    category varchar(255) NOT NULL,
+    day date NOT NULL,
+    entry_count bigint NOT NULL,
+    metric varchar(48) NOT NULL,
+    ref_id bigint NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_daily_financial_rollup UNIQUE (day, metric, category, ref_id)
+);
+
+CREATE TABLE department (
+    id integer GENERATED BY DEFAULT AS IDENTITY,
+    active boolean,
+    code varchar(255),
+    name varchar(255) NOT NULL UNIQUE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE doctors (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    active boolean NOT NULL,
+    clinic_name varchar(255),
+    commission_percentage numeric(7,4),
+    mobile varchar(255),
+    name varchar(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE financial_rollup_dirty_day (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    day date NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE id_counter (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    counter_name varchar(64) NOT NULL,
+    last_value bigint NOT NULL,
+    period date NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_id_counter_name_period UNIQUE (counter_name, period)
+);
+
+CREATE TABLE inventory_items (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    active boolean NOT NULL,
+    average_cost numeric(19,4),
+    current_stock numeric(19,4),
+    item_name varchar(255) NOT NULL UNIQUE,
+    min_threshold numeric(19,4),
+    unit varchar(255),
+    version bigint,
+    preferred_supplier_id bigint,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE lab_info (
+    id bigint NOT NULL,
+    address varchar(255),
+    city varchar(255),
+    email varchar(255),
+    lab_name varchar(255),
+    phone_number varchar(255),
+    tag_line varchar(255),
+    website varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE lab_order_panel (
+    lab_order_id bigint NOT NULL,
+    panel_id integer NOT NULL
+);
+
+CREATE TABLE lab_result_edit_audit (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    edited_at timestamp(6),
+    edited_by varchar(255),
+    new_abnormal boolean NOT NULL,
+    new_remarks varchar(255),
+    new_value varchar(1000),
+    previous_abnormal boolean NOT NULL,
+    previous_remarks varchar(255),
+    previous_value varchar(1000),
+    reason varchar(500),
+    report_delivered_at_edit boolean DEFAULT false NOT NULL,
+    test_name varchar(255),
+    order_id bigint NOT NULL,
+    result_id bigint NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE lab_order (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    accession_number varchar(32) UNIQUE,
+    balance_due numeric(19,4),
+    delivery_date timestamp(6),
+    discount_amount numeric(19,4),
+    is_report_delivered boolean NOT NULL,
+    lab_started_at timestamp(6),
+    last_reprint_at timestamp(6),
+    last_reprint_by varchar(255),
+    order_date timestamp(6),
+    paid_amount numeric(19,4),
+    reprint_count integer DEFAULT 0,
+    reprint_required boolean DEFAULT false NOT NULL,
+    results_edit_reason varchar(255),
+    results_edited boolean DEFAULT false NOT NULL,
+    results_edited_at timestamp(6),
+    results_edited_by varchar(255),
+    status varchar(255),
+    tax_amount numeric(19,4),
+    total_amount numeric(19,4),
+    version bigint,
+    patient_id bigint NOT NULL,
+    doctor_id bigint,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE lab_result (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    is_abnormal boolean NOT NULL,
+    performed_at timestamp(6),
+    performed_by varchar(255),
+    remarks varchar(255),
+    result_value varchar(255),
+    status varchar(255),
+    version bigint,
+    order_id bigint,
+    test_id bigint,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE panel (
+    id integer GENERATED BY DEFAULT AS IDENTITY,
+    active boolean,
+    panel_name varchar(255) NOT NULL,
+    price numeric(19,4),
+    department_id integer,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE panel_test (
+    panel_id integer NOT NULL,
+    test_id bigint NOT NULL
+);
+
+CREATE TABLE patients (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    age integer NOT NULL,
+    city varchar(255),
+    cnic varchar(255) UNIQUE,
+    date_of_birth date,
+    full_name varchar(255) NOT NULL,
+    gender varchar(255),
+    mobile_number varchar(255),
+    mrn varchar(255) NOT NULL UNIQUE,
+    registration_date date,
+    version bigint,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE payments (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    amount numeric(19,4) NOT NULL,
+    category varchar(255) NOT NULL,
+    description varchar(255) NOT NULL,
+    payment_method varchar(255),
+    reference_number varchar(255),
+    remarks varchar(255),
+    transaction_date timestamp(6),
+    type varchar(255) NOT NULL,
+    recorded_by_user_id bigint,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE permissions (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    active boolean NOT NULL,
+    category varchar(50),
+    description varchar(200),
+    name varchar(100) NOT NULL UNIQUE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE reference_range (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    gender varchar(255),
+    max_age integer,
+    max_val numeric(38,2),
+    min_age integer,
+    min_val numeric(38,2),
+    test_id bigint NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE role_permissions (
+    role_id bigint NOT NULL,
+    permission_id bigint NOT NULL,
+    PRIMARY KEY (role_id, permission_id)
+);
+
+CREATE TABLE roles (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    active boolean NOT NULL,
+    description varchar(200),
+    name varchar(50) NOT NULL UNIQUE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE stock_balance_snapshot (
+    item_id bigint NOT NULL,
+    as_of timestamp(6) NOT NULL,
+    balance numeric(19,4) NOT NULL,
+    PRIMARY KEY (item_id)
+);
+
+CREATE TABLE stock_movement (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    item_id bigint NOT NULL,
+    movement_type varchar(32) NOT NULL,
+    occurred_at timestamp(6) NOT NULL,
+    order_id bigint,
+    performed_by varchar(255),
+    quantity numeric(19,4) NOT NULL,
+    reference varchar(255),
+    test_id bigint,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE supplier_balance (
+    supplier_id bigint NOT NULL,
+    aged_as_of date NOT NULL,
+    due_31_60 numeric(19,4) NOT NULL,
+    due_61_90 numeric(19,4) NOT NULL,
+    due_0_30 numeric(19,4) NOT NULL,
+    due_over_90 numeric(19,4) NOT NULL,
+    last_due_date date,
+    last_invoice_number varchar(255),
+    total_billed numeric(19,4) NOT NULL,
+    total_paid numeric(19,4) NOT NULL,
+    unapplied_credit numeric(19,4) NOT NULL,
+    PRIMARY KEY (supplier_id)
+);
+
+CREATE TABLE supplier_ledger (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    balance_due numeric(19,4),
+    bill_amount numeric(19,4),
+    description varchar(255),
+    due_date date,
+    invoice_date date,
+    invoice_number varchar(255),
+    paid_amount numeric(19,4),
+    remarks varchar(255),
+    transaction_date date,
+    supplier_id bigint NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE suppliers (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    active boolean NOT NULL,
+    address varchar(255),
+    company_name varchar(255) NOT NULL,
+    contact_person varchar(255),
+    email varchar(255),
+    mobile varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE system_configurations (
+    config_key varchar(255) NOT NULL,
+    category varchar(255),
+    description varchar(255),
+    config_value varchar(1000),
+    PRIMARY KEY (config_key)
+);
+
+CREATE TABLE test_categories (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    is_active boolean,
+    description varchar(255),
+    name varchar(255) NOT NULL,
+    department_id integer,
+    PRIMARY KEY (id),
+    UNIQUE (name, department_id)
+);
+
+CREATE TABLE test_consumption (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    quantity numeric(19,4),
+    item_id bigint NOT NULL,
+    test_id bigint NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE test_definition (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    active boolean,
+    max_range numeric(38,2),
+    min_range numeric(38,2),
+    price numeric(38,2),
+    short_code varchar(255),
+    test_name varchar(255) NOT NULL,
+    unit varchar(255),
+    category_id bigint,
+    department_id integer NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE test_recipes (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    quantity numeric(19,4) NOT NULL,
+    item_id bigint NOT NULL,
+    test_id bigint NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE user_roles (
+    user_id bigint NOT NULL,
+    role_id bigint NOT NULL,
+    PRIMARY KEY (user_id, role_id)
+);
+
+CREATE TABLE users (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    account_non_expired boolean NOT NULL,
+    account_non_locked boolean NOT NULL,
+    active boolean NOT NULL,
+    created_at timestamp(6),
+    credentials_non_expired boolean NOT NULL,
+    email varchar(100) UNIQUE,
+    full_name varchar(100) NOT NULL,
+    last_login_at timestamp(6),
+    notes varchar(500),
+    password varchar(255) NOT NULL,
+    phone_number varchar(20),
+    username varchar(50) NOT NULL UNIQUE,
+    version bigint,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_commission_ledger_settlement ON commission_ledger (settlement_id);
+CREATE INDEX idx_commission_rule_doctor ON commission_rule (doctor_id);
+CREATE INDEX idx_commission_settlement_doctor_date ON commission_settlement (doctor_id, payment_date);
+CREATE INDEX idx_daily_financial_rollup_metric_day ON daily_financial_rollup (metric, day);
+CREATE INDEX idx_result_edit_audit_edited ON lab_result_edit_audit (edited_at, id);
+CREATE INDEX idx_result_edit_audit_order ON lab_result_edit_audit (order_id, edited_at);
+CREATE INDEX idx_mrn ON patients (mrn);
+CREATE INDEX idx_cnic ON patients (cnic);
+CREATE INDEX idx_stock_movement_item_time ON stock_movement (item_id, occurred_at);
+CREATE INDEX idx_stock_movement_test_time ON stock_movement (test_id, occurred_at);
+CREATE INDEX idx_stock_movement_time ON stock_movement (occurred_at);
+CREATE INDEX idx_supplier_ledger_supplier_open ON supplier_ledger (supplier_id, balance_due);
+
+ALTER TABLE commission_ledger ADD CONSTRAINT FK4yg25ysnm65lai1w99nv77u3p FOREIGN KEY (doctor_id) REFERENCES doctors (id);
+ALTER TABLE commission_ledger ADD CONSTRAINT FKh9xdmfq43vy2xut93213bna00 FOREIGN KEY (order_id) REFERENCES lab_order (id);
+ALTER TABLE inventory_items ADD CONSTRAINT FK7wl7n0r8dph63w2bf1ylsd5k1 FOREIGN KEY (preferred_supplier_id) REFERENCES suppliers (id);
+ALTER TABLE lab_order_panel ADD CONSTRAINT FKo3s7ggdqutnsogo7rdqquttf4 FOREIGN KEY (panel_id) REFERENCES panel (id);
+ALTER TABLE lab_order_panel ADD CONSTRAINT FKnu3yrydd6fpbx7us9fx5jenrn FOREIGN KEY (lab_order_id) REFERENCES lab_order (id);
+ALTER TABLE lab_result_edit_audit ADD CONSTRAINT FKkpxl8y3i7k3df62h3rm2ul7k FOREIGN KEY (order_id) REFERENCES lab_order (id);
+ALTER TABLE lab_result_edit_audit ADD CONSTRAINT FKrkctrfv1qmjanjg9w5hwsf9ej FOREIGN KEY (result_id) REFERENCES lab_result (id);
+ALTER TABLE lab_order ADD CONSTRAINT FKgpy6nb3klp6y1hi8v8tg9o10n FOREIGN KEY (patient_id) REFERENCES patients (id);
+ALTER TABLE lab_order ADD CONSTRAINT FK9eax9irvi5euttj2yenv91f6n FOREIGN KEY (doctor_id) REFERENCES doctors (id);
+ALTER TABLE lab_result ADD CONSTRAINT FKb06aqqsrwbryr0l6r2p30k0qy FOREIGN KEY (order_id) REFERENCES lab_order (id);
+ALTER TABLE lab_result ADD CONSTRAINT FKqhdrbxkr5x7heyivgcplymbf FOREIGN KEY (test_id) REFERENCES test_definition (id);
+ALTER TABLE panel ADD CONSTRAINT FKbnvkghb5mecpmt1mp6fqhjbql FOREIGN KEY (department_id) REFERENCES department (id);
+ALTER TABLE panel_test ADD CONSTRAINT FKleoeqg0jkkut4ecig5ynljjbc FOREIGN KEY (test_id) REFERENCES test_definition (id);
+ALTER TABLE panel_test ADD CONSTRAINT FKlaiyrebfbcw21v64pb4cs155h FOREIGN KEY (panel_id) REFERENCES panel (id);
+ALTER TABLE payments ADD CONSTRAINT FKchfm51nvvge5ci525uxtqttkh FOREIGN KEY (recorded_by_user_id) REFERENCES users (id);
+ALTER TABLE reference_range ADD CONSTRAINT FK87vdme87dfxmx6v5gu5ji5evv FOREIGN KEY (test_id) REFERENCES test_definition (id);
+ALTER TABLE role_permissions ADD CONSTRAINT FKegdk29eiy7mdtefy5c7eirr6e FOREIGN KEY (permission_id) REFERENCES permissions (id);
+ALTER TABLE role_permissions ADD CONSTRAINT FKn5fotdgk8d1xvo8nav9uv3muc FOREIGN KEY (role_id) REFERENCES roles (id);
+ALTER TABLE supplier_ledger ADD CONSTRAINT FKm0hkff7y45lx6jf6melr38xws FOREIGN KEY (supplier_id) REFERENCES suppliers (id);
+ALTER TABLE test_categories ADD CONSTRAINT FKbe6cncu4f8ybqdxbgeq4csupn FOREIGN KEY (department_id) REFERENCES department (id);
+ALTER TABLE test_consumption ADD CONSTRAINT FKjs25lmst0obaumf9rdaur0pyx FOREIGN KEY (item_id) REFERENCES inventory_items (id);
+ALTER TABLE test_consumption ADD CONSTRAINT FKsyycpalaf61g2bhdsso3x75ga FOREIGN KEY (test_id) REFERENCES test_definition (id);
+ALTER TABLE test_definition ADD CONSTRAINT FKi1w23lrp0xutebxghc1cwapyf FOREIGN KEY (category_id) REFERENCES test_categories (id);
+ALTER TABLE test_definition ADD CONSTRAINT FKkd8sjgisghjuy3sfvvr5yslfl FOREIGN KEY (department_id) REFERENCES department (id);
+ALTER TABLE test_recipes ADD CONSTRAINT FKotgsck2tfpk4th2pa1tk6kxb7 FOREIGN KEY (item_id) REFERENCES inventory_items (id);
+ALTER TABLE test_recipes ADD CONSTRAINT FKio52c6fc32410c2m7xvc3hbe8 FOREIGN KEY (test_id) REFERENCES test_definition (id);
+ALTER TABLE user_roles ADD CONSTRAINT FKh8ciramu9cc9q3qcqiv4ue8a6 FOREIGN KEY (role_id) REFERENCES roles (id);
+ALTER TABLE user_roles ADD CONSTRAINT FKhfh9dx7w3ubf1co1vdev94g3f FOREIGN KEY (user_id) REFERENCES users (id);
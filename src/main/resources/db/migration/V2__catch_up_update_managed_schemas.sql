@@ -0,0 +1,103 @@
+-- Catches up databases that were baselined at V1 from a schema kept by
+-- hibernate.ddl-auto=update on an older release: adds what the entity model
+-- gained since. Every statement is a no-op where the object already exists,
+-- including on databases created by V1.
+
+ALTER TABLE commission_ledger ADD COLUMN IF NOT EXISTS settlement_id bigint;
+ALTER TABLE lab_order ADD COLUMN IF NOT EXISTS accession_number varchar(32) UNIQUE;
+
+CREATE TABLE IF NOT EXISTS commission_rule (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    active boolean NOT NULL,
+    department_id integer,
+    doctor_id bigint,
+    percentage numeric(7,4) NOT NULL,
+    test_id bigint,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS commission_settlement (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    commission_count bigint NOT NULL,
+    doctor_id bigint,
+    payment_date date NOT NULL,
+    period_from date,
+    period_to date,
+    settled_at timestamp(6) NOT NULL,
+    settled_by varchar(255),
+    total_amount numeric(19,4) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS daily_financial_rollup (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    amount numeric(19,4) NOT NULL,
+    category varchar(255) NOT NULL,
+    day date NOT NULL,
+    entry_count bigint NOT NULL,
+    metric varchar(48) NOT NULL,
+    ref_id bigint NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_daily_financial_rollup UNIQUE (day, metric, category, ref_id)
+);
+
+CREATE TABLE IF NOT EXISTS financial_rollup_dirty_day (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    day date NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS id_counter (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    counter_name varchar(64) NOT NULL,
+    last_value bigint NOT NULL,
+    period date NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_id_counter_name_period UNIQUE (counter_name, period)
+);
+
+CREATE TABLE IF NOT EXISTS stock_balance_snapshot (
+    item_id bigint NOT NULL,
+    as_of timestamp(6) NOT NULL,
+    balance numeric(19,4) NOT NULL,
+    PRIMARY KEY (item_id)
+);
+
+CREATE TABLE IF NOT EXISTS stock_movement (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    item_id bigint NOT NULL,
+    movement_type varchar(32) NOT NULL,
+    occurred_at timestamp(6) NOT NULL,
+    order_id bigint,
+    performed_by varchar(255),
+    quantity numeric(19,4) NOT NULL,
+    reference varchar(255),
+    test_id bigint,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS supplier_balance (
+    supplier_id bigint NOT NULL,
+    aged_as_of date NOT NULL,
+    due_31_60 numeric(19,4) NOT NULL,
+    due_61_90 numeric(19,4) NOT NULL,
+    due_0_30 numeric(19,4) NOT NULL,
+    due_over_90 numeric(19,4) NOT NULL,
+    last_due_date date,
+    last_invoice_number varchar(255),
+    total_billed numeric(19,4) NOT NULL,
+    total_paid numeric(19,4) NOT NULL,
+    unapplied_credit numeric(19,4) NOT NULL,
+    PRIMARY KEY (supplier_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_commission_ledger_settlement ON commission_ledger (settlement_id);
+CREATE INDEX IF NOT EXISTS idx_commission_rule_doctor ON commission_rule (doctor_id);
+CREATE INDEX IF NOT EXISTS idx_commission_settlement_doctor_date ON commission_settlement (doctor_id, payment_date);
+CREATE INDEX IF NOT EXISTS idx_daily_financial_rollup_metric_day ON daily_financial_rollup (metric, day);
+CREATE INDEX IF NOT EXISTS idx_result_edit_audit_edited ON lab_result_edit_audit (edited_at, id);
+CREATE INDEX IF NOT EXISTS idx_result_edit_audit_order ON lab_result_edit_audit (order_id, edited_at);
+CREATE INDEX IF NOT EXISTS idx_stock_movement_item_time ON stock_movement (item_id, occurred_at);
+CREATE INDEX IF NOT EXISTS idx_stock_movement_test_time ON stock_movement (test_id, occurred_at);
+CREATE INDEX IF NOT EXISTS idx_stock_movement_time ON stock_movement (occurred_at);
+CREATE INDEX IF NOT EXISTS idx_supplier_ledger_supplier_open ON supplier_ledger (supplier_id, balance_due);
@@ -0,0 +1,28 @@
+-- Indexes for the predicates the screens and reports filter on. Names are
+-- guarded so the script also applies to databases where an index was added
+-- by hand.
+
+-- Order date ranges (receipts, payment history, revenue) and worklist status tabs
+CREATE INDEX IF NOT EXISTS idx_lab_order_order_date ON lab_order (order_date);
+CREATE INDEX IF NOT EXISTS idx_lab_order_status_order_date ON lab_order (status, order_date);
+
+-- Reception delivered tab: reports handed over in a range, plus the few orders flagged for reprint
+CREATE INDEX IF NOT EXISTS idx_lab_order_delivery_date ON lab_order (delivery_date) WHERE is_report_delivered;
+CREATE INDEX IF NOT EXISTS idx_lab_order_reprint_required ON lab_order (id) WHERE reprint_required;
+
+-- Patient order history
+CREATE INDEX IF NOT EXISTS idx_lab_order_patient ON lab_order (patient_id, id);
+
+-- Results and reference ranges are always read through their order / test
+CREATE INDEX IF NOT EXISTS idx_lab_result_order ON lab_result (order_id);
+CREATE INDEX IF NOT EXISTS idx_reference_range_test ON reference_range (test_id);
+
+-- Commission ledger and finance screens
+CREATE INDEX IF NOT EXISTS idx_commission_ledger_date_status ON commission_ledger (transaction_date, status);
+CREATE INDEX IF NOT EXISTS idx_payments_type_date ON payments (type, transaction_date);
+
+ANALYZE lab_order;
+ANALYZE lab_result;
+ANALYZE reference_range;
+ANALYZE commission_ledger;
+ANALYZE payments;
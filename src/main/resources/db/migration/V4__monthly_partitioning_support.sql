@@ -0,0 +1,216 @@
+-- Optional monthly range partitioning of lab_result and payments. This script
+-- partitions nothing by itself: it gives results the partition key of their
+-- order and installs the functions that convert a table and keep its monthly
+-- partitions ahead of time.
+-- PartitionMaintenanceService calls them when qdc.partitioning.enabled is
+-- set; a DBA can also call them by hand in a maintenance window.
+
+-- Results are partitioned by the booking time of their order, so lookups by
+-- order can carry the order's partition key.
+ALTER TABLE lab_result ADD COLUMN IF NOT EXISTS order_date timestamp(6);
+
+UPDATE lab_result r
+SET order_date = o.order_date
+FROM lab_order o
+WHERE o.id = r.order_id AND r.order_date IS NULL;
+
+-- Fills the key for writers that do not set it (older clients on a shared database).
+CREATE OR REPLACE FUNCTION qdc_fill_result_order_date() RETURNS trigger AS $$
+BEGIN
+    IF NEW.order_date IS NULL THEN
+        SELECT o.order_date INTO NEW.order_date FROM lab_order o WHERE o.id = NEW.order_id;
+    END IF;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS lab_result_order_date ON lab_result;
+CREATE TRIGGER lab_result_order_date
+    BEFORE INSERT ON lab_result
+    FOR EACH ROW EXECUTE FUNCTION qdc_fill_result_order_date();
+
+-- Open orders are a small, recent slice; the lab dashboard counts them
+-- without reading the order history.
+CREATE INDEX IF NOT EXISTS idx_lab_order_open ON lab_order (order_date)
+    WHERE status NOT IN ('COMPLETED', 'CANCELLED');
+
+-- Creates the partition <table>_pYYYYMM for the month of p_month, unless it
+-- exists. Rows that went to <table>_default because the month was missing are
+-- moved into the new partition.
+CREATE OR REPLACE FUNCTION qdc_create_month_partition(p_table text, p_month date) RETURNS boolean AS $$
+DECLARE
+    lower_bound date := date_trunc('month', p_month);
+    upper_bound date := date_trunc('month', p_month) + interval '1 month';
+    partition_name text := format('%s_p%s', p_table, to_char(p_month, 'YYYYMM'));
+    default_name text := p_table || '_default';
+    key_column text;
+    strays boolean := false;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+    SELECT a.attname INTO key_column
+    FROM pg_partitioned_table pt
+    JOIN pg_attribute a ON a.attrelid = pt.partrelid AND a.attnum = pt.partattrs[0]
+    WHERE pt.partrelid = to_regclass(p_table);
+    IF key_column IS NULL THEN
+        RAISE EXCEPTION 'Table % is not partitioned', p_table;
+    END IF;
+    IF to_regclass(default_name) IS NOT NULL THEN
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE %I >= $1 AND %I < $2)',
+                default_name, key_column, key_column)
+            INTO strays USING lower_bound, upper_bound;
+    END IF;
+    IF NOT strays THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                partition_name, p_table, lower_bound, upper_bound);
+    ELSE
+        EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                partition_name, p_table);
+        EXECUTE format('WITH moved AS (DELETE FROM %I WHERE %I >= $1 AND %I < $2 RETURNING *) '
+                || 'INSERT INTO %I SELECT * FROM moved', default_name, key_column, key_column, partition_name)
+            USING lower_bound, upper_bound;
+        EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                p_table, partition_name, lower_bound, upper_bound);
+    END IF;
+    RETURN true;
+END
+$$ LANGUAGE plpgsql;
+
+-- Rebuilds a plain table as one partitioned by month on p_key, with a
+-- partition for every month from the oldest row to p_months_ahead months from
+-- now plus a default partition. The primary key becomes (id, p_key), as
+-- PostgreSQL requires. A table with any other unique key is refused: that key
+-- would have to gain p_key too and would then only be unique within a month.
+-- Indexes, outgoing foreign keys and triggers are recreated. Foreign keys from
+-- other tables to this one (lab_result_edit_audit.result_id for lab_result)
+-- are dropped because they can no longer reference id alone; each is named in
+-- a WARNING. Rows with a null p_key must be fixed first. Returns false when
+-- the table is already partitioned.
+CREATE OR REPLACE FUNCTION qdc_partition_by_month(p_table text, p_key text, p_months_ahead integer)
+        RETURNS boolean AS $$
+DECLARE
+    source_name text := p_table || '_unpartitioned';
+    definitions text[];
+    definition text;
+    first_month date;
+    last_month date;
+    month date;
+    unique_keys text;
+    dropped_keys text;
+BEGIN
+    EXECUTE format('LOCK TABLE %I IN ACCESS EXCLUSIVE MODE', p_table);
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(p_table)) THEN
+        RETURN false;
+    END IF;
+    SELECT string_agg(pg_get_indexdef(i.indexrelid), '; ') INTO unique_keys
+    FROM pg_index i
+    WHERE i.indrelid = to_regclass(p_table) AND i.indisunique AND NOT i.indisprimary;
+    IF unique_keys IS NOT NULL THEN
+        RAISE EXCEPTION 'Table % has unique keys that would only hold per month once partitioned: %',
+            p_table, unique_keys;
+    END IF;
+
+    SELECT string_agg(format('%s.%s %s', c.conrelid::regclass, c.conname, pg_get_constraintdef(c.oid)), '; ')
+        INTO dropped_keys
+    FROM pg_constraint c
+    WHERE c.confrelid = to_regclass(p_table) AND c.conrelid <> c.confrelid AND c.contype = 'f';
+
+    -- Captured while the definitions still name the original table.
+    SELECT array_agg(d ORDER BY n) INTO definitions FROM (
+        SELECT 1 AS n, pg_get_indexdef(i.indexrelid) AS d
+        FROM pg_index i
+        WHERE i.indrelid = to_regclass(p_table) AND NOT i.indisprimary
+        UNION ALL
+        SELECT 2, format('ALTER TABLE %I ADD CONSTRAINT %I %s', p_table, c.conname, pg_get_constraintdef(c.oid))
+        FROM pg_constraint c
+        WHERE c.conrelid = to_regclass(p_table) AND c.contype = 'f'
+        UNION ALL
+        SELECT 3, pg_get_triggerdef(t.oid)
+        FROM pg_trigger t
+        WHERE t.tgrelid = to_regclass(p_table) AND NOT t.tgisinternal
+    ) AS captured;
+
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', p_table, source_name);
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING IDENTITY INCLUDING CONSTRAINTS '
+            || 'INCLUDING STORAGE INCLUDING COMMENTS) PARTITION BY RANGE (%I)', p_table, source_name, p_key);
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', p_table || '_default', p_table);
+
+    EXECUTE format('SELECT date_trunc(''month'', min(%1$I))::date, date_trunc(''month'', max(%1$I))::date FROM %2$I',
+            p_key, source_name) INTO first_month, last_month;
+    first_month := COALESCE(first_month, date_trunc('month', current_date)::date);
+    last_month := GREATEST(last_month, date_trunc('month', current_date + make_interval(months => p_months_ahead))::date);
+    month := first_month;
+    WHILE month <= last_month LOOP
+        PERFORM qdc_create_month_partition(p_table, month);
+        month := month + interval '1 month';
+    END LOOP;
+
+    EXECUTE format('INSERT INTO %I OVERRIDING SYSTEM VALUE SELECT * FROM %I', p_table, source_name);
+    EXECUTE format('SELECT setval(pg_get_serial_sequence(%L, ''id''), COALESCE(max(id), 0) + 1, false) FROM %I',
+            p_table, p_table);
+    EXECUTE format('DROP TABLE %I CASCADE', source_name);
+
+    EXECUTE format('ALTER TABLE %I ADD PRIMARY KEY (id, %I)', p_table, p_key);
+    FOREACH definition IN ARRAY COALESCE(definitions, '{}') LOOP
+        EXECUTE definition;
+    END LOOP;
+    EXECUTE format('ANALYZE %I', p_table);
+    IF dropped_keys IS NOT NULL THEN
+        RAISE WARNING 'Foreign keys referencing % were dropped: %', p_table, dropped_keys;
+    END IF;
+    RETURN true;
+END
+$$ LANGUAGE plpgsql;
+
+-- Converts results and payments, the tables without business-unique keys;
+-- lab_order (accession number) and commission_ledger (one row per order)
+-- stay plain. Results keep their foreign key to their order. Returns the
+-- number of tables converted.
+CREATE OR REPLACE FUNCTION qdc_partition_high_volume_tables(p_months_ahead integer) RETURNS integer AS $$
+DECLARE
+    converted integer := 0;
+BEGIN
+    -- Rows are routed before BEFORE triggers run, so once results are
+    -- partitioned every writer must set the key itself.
+    DROP TRIGGER IF EXISTS lab_result_order_date ON lab_result;
+    UPDATE lab_result r
+    SET order_date = o.order_date
+    FROM lab_order o
+    WHERE o.id = r.order_id AND r.order_date IS NULL;
+    IF qdc_partition_by_month('lab_result', 'order_date', p_months_ahead) THEN
+        converted := converted + 1;
+    END IF;
+    IF qdc_partition_by_month('payments', 'transaction_date', p_months_ahead) THEN
+        converted := converted + 1;
+    END IF;
+    RETURN converted;
+END
+$$ LANGUAGE plpgsql;
+
+-- Creates the partitions of the current month and the next p_months_ahead
+-- months for every converted table. Returns the number created.
+CREATE OR REPLACE FUNCTION qdc_ensure_month_partitions(p_months_ahead integer) RETURNS integer AS $$
+DECLARE
+    parent text;
+    month date;
+    created integer := 0;
+BEGIN
+    FOR parent IN
+        SELECT c.relname
+        FROM pg_partitioned_table pt
+        JOIN pg_class c ON c.oid = pt.partrelid
+        WHERE c.relname IN ('lab_result', 'payments')
+          AND c.oid = to_regclass(c.relname)
+    LOOP
+        month := date_trunc('month', current_date);
+        WHILE month <= current_date + make_interval(months => p_months_ahead) LOOP
+            IF qdc_create_month_partition(parent, month) THEN
+                created := created + 1;
+            END IF;
+            month := month + interval '1 month';
+        END LOOP;
+    END LOOP;
+    RETURN created;
+END
+$$ LANGUAGE plpgsql;
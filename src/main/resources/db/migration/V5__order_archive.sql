@@ -0,0 +1,35 @@
+-- Archive tier for delivered orders. OrderArchiveService moves old delivered
+-- orders with their results, panels, result edit audits and commissions into
+-- these tables in background batches, and moves an order back when it is
+-- opened again. The tables copy the columns of the hot tables in this
+-- database, so rows move with SELECT *; a migration that adds a column to one
+-- of the hot tables must add it to its archive table too.
+
+CREATE SCHEMA IF NOT EXISTS archive;
+
+CREATE TABLE IF NOT EXISTS archive.lab_order (LIKE public.lab_order INCLUDING DEFAULTS);
+CREATE TABLE IF NOT EXISTS archive.lab_result (LIKE public.lab_result INCLUDING DEFAULTS);
+CREATE TABLE IF NOT EXISTS archive.lab_order_panel (LIKE public.lab_order_panel INCLUDING DEFAULTS);
+CREATE TABLE IF NOT EXISTS archive.lab_result_edit_audit (LIKE public.lab_result_edit_audit INCLUDING DEFAULTS);
+CREATE TABLE IF NOT EXISTS archive.commission_ledger (LIKE public.commission_ledger INCLUDING DEFAULTS);
+
+-- No foreign keys: archived rows reference master data that stays hot, and
+-- their own order may be moved back without them in the same statement.
+CREATE UNIQUE INDEX IF NOT EXISTS archive_lab_order_id ON archive.lab_order (id);
+CREATE INDEX IF NOT EXISTS archive_lab_order_order_date ON archive.lab_order (order_date);
+CREATE INDEX IF NOT EXISTS archive_lab_order_patient ON archive.lab_order (patient_id, id);
+CREATE INDEX IF NOT EXISTS archive_lab_result_order ON archive.lab_result (order_id);
+CREATE INDEX IF NOT EXISTS archive_lab_order_panel_order ON archive.lab_order_panel (lab_order_id);
+CREATE INDEX IF NOT EXISTS archive_lab_result_edit_audit_order ON archive.lab_result_edit_audit (order_id);
+CREATE INDEX IF NOT EXISTS archive_commission_ledger_order ON archive.commission_ledger (order_id);
+CREATE INDEX IF NOT EXISTS archive_commission_ledger_dates ON archive.commission_ledger (transaction_date, payment_date);
+
+-- The revision is bumped by every move in or out, in the moving transaction;
+-- with the random archive id it names the archive's content, so backups dump
+-- the archive again only when it changed. Moves serialize on this row.
+CREATE TABLE IF NOT EXISTS order_archive_revision (
+    id integer PRIMARY KEY CHECK (id = 1),
+    archive_id uuid NOT NULL DEFAULT gen_random_uuid(),
+    revision bigint NOT NULL
+);
+INSERT INTO order_archive_revision (id, revision) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,14 @@
+-- Patient search (PatientService.searchPatients) matches fragments of the
+-- name, MRN and mobile number anywhere in the value. Trigram indexes serve
+-- those LIKE patterns; the plain index serves exact mobile number lookups.
+-- pg_trgm ships with PostgreSQL and is trusted, so any user with CREATE on
+-- the database can enable it.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_patients_full_name_trgm ON patients USING gin (LOWER(full_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_patients_mrn_trgm ON patients USING gin (LOWER(mrn) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_patients_mobile_trgm ON patients USING gin (mobile_number gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_patients_mobile ON patients (mobile_number);
+
+ANALYZE patients;
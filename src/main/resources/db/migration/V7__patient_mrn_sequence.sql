@@ -0,0 +1,4 @@
+-- MRN blocks (IdentifierService) are reserved from this sequence; its
+-- increment is the block size, IdentifierService.BLOCK_SIZE.
+
+CREATE SEQUENCE IF NOT EXISTS patient_mrn_seq START WITH 1 INCREMENT BY 20;
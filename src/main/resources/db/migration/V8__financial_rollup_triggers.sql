@@ -0,0 +1,80 @@
+-- Change triggers behind the daily financial rollups (FinancialRollupService).
+-- Every change to a financial source row appends a dirty mark for each day it
+-- touches, in the writer's own transaction; the service recomputes marked
+-- days. Replaces triggers that earlier builds installed at startup.
+
+-- Marks the days held in the columns named by the trigger arguments, for the
+-- old and the new row.
+CREATE OR REPLACE FUNCTION qdc_mark_financial_days() RETURNS trigger AS $$
+DECLARE
+    col text;
+    rec jsonb;
+BEGIN
+    FOREACH col IN ARRAY TG_ARGV LOOP
+        FOREACH rec IN ARRAY ARRAY[
+                CASE WHEN TG_OP <> 'INSERT' THEN to_jsonb(OLD) END,
+                CASE WHEN TG_OP <> 'DELETE' THEN to_jsonb(NEW) END] LOOP
+            IF rec ->> col IS NOT NULL THEN
+                INSERT INTO financial_rollup_dirty_day (day) VALUES (left(rec ->> col, 10)::date);
+            END IF;
+        END LOOP;
+    END LOOP;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+-- Commission amounts fall back to the order total and doctor rate, so those
+-- edits move commission days too.
+CREATE OR REPLACE FUNCTION qdc_mark_commission_financial_days() RETURNS trigger AS $$
+BEGIN
+    IF TG_TABLE_NAME = 'doctors' THEN
+        INSERT INTO financial_rollup_dirty_day (day)
+        SELECT DISTINCT v.day
+        FROM commission_ledger c
+        CROSS JOIN LATERAL (VALUES (c.transaction_date), (c.payment_date)) AS v(day)
+        WHERE v.day IS NOT NULL AND c.doctor_id = NEW.id;
+    ELSIF TG_TABLE_NAME = 'lab_order' THEN
+        INSERT INTO financial_rollup_dirty_day (day)
+        SELECT DISTINCT v.day
+        FROM commission_ledger c
+        CROSS JOIN LATERAL (VALUES (c.transaction_date), (c.payment_date)) AS v(day)
+        WHERE v.day IS NOT NULL AND c.order_id = NEW.id;
+    ELSE
+        RAISE EXCEPTION 'No commission reference for table %', TG_TABLE_NAME;
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS lab_order_financial_days ON lab_order;
+CREATE TRIGGER lab_order_financial_days
+    AFTER INSERT OR DELETE OR UPDATE OF order_date, total_amount, paid_amount, balance_due ON lab_order
+    FOR EACH ROW EXECUTE FUNCTION qdc_mark_financial_days('order_date');
+
+DROP TRIGGER IF EXISTS payments_financial_days ON payments;
+CREATE TRIGGER payments_financial_days
+    AFTER INSERT OR DELETE OR UPDATE OF transaction_date, type, category, amount ON payments
+    FOR EACH ROW EXECUTE FUNCTION qdc_mark_financial_days('transaction_date');
+
+DROP TRIGGER IF EXISTS commission_ledger_financial_days ON commission_ledger;
+CREATE TRIGGER commission_ledger_financial_days
+    AFTER INSERT OR DELETE OR UPDATE OF transaction_date, payment_date, status, calculated_amount, paid_amount,
+        doctor_id, order_id ON commission_ledger
+    FOR EACH ROW EXECUTE FUNCTION qdc_mark_financial_days('transaction_date', 'payment_date');
+
+DROP TRIGGER IF EXISTS supplier_ledger_financial_days ON supplier_ledger;
+CREATE TRIGGER supplier_ledger_financial_days
+    AFTER INSERT OR DELETE OR UPDATE OF transaction_date, bill_amount, paid_amount, supplier_id ON supplier_ledger
+    FOR EACH ROW EXECUTE FUNCTION qdc_mark_financial_days('transaction_date');
+
+DROP TRIGGER IF EXISTS lab_order_commission_days ON lab_order;
+CREATE TRIGGER lab_order_commission_days
+    AFTER UPDATE OF total_amount ON lab_order
+    FOR EACH ROW WHEN (OLD.total_amount IS DISTINCT FROM NEW.total_amount)
+    EXECUTE FUNCTION qdc_mark_commission_financial_days();
+
+DROP TRIGGER IF EXISTS doctors_commission_days ON doctors;
+CREATE TRIGGER doctors_commission_days
+    AFTER UPDATE OF commission_percentage ON doctors
+    FOR EACH ROW WHEN (OLD.commission_percentage IS DISTINCT FROM NEW.commission_percentage)
+    EXECUTE FUNCTION qdc_mark_commission_financial_days();
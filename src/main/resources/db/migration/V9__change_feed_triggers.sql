@@ -0,0 +1,74 @@
+-- Change notifications behind OrderChangeFeedService. Statement-level triggers
+-- on the order, result and master data tables send the table name on the
+-- qdc_order_change channel; PostgreSQL delivers it when the writing
+-- transaction commits and collapses duplicates within a transaction.
+-- Replaces triggers that earlier builds installed at startup.
+
+CREATE OR REPLACE FUNCTION qdc_notify_order_change() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('qdc_order_change', TG_TABLE_NAME);
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+-- Orders and results drive the dashboards; master data changes evict the
+-- caches on every workstation (MasterDataCacheService).
+DROP TRIGGER IF EXISTS lab_order_change_notify ON lab_order;
+CREATE TRIGGER lab_order_change_notify
+    AFTER INSERT OR UPDATE OR DELETE ON lab_order
+    FOR EACH STATEMENT EXECUTE FUNCTION qdc_notify_order_change();
+
+DROP TRIGGER IF EXISTS lab_result_change_notify ON lab_result;
+CREATE TRIGGER lab_result_change_notify
+    AFTER INSERT OR UPDATE OR DELETE ON lab_result
+    FOR EACH STATEMENT EXECUTE FUNCTION qdc_notify_order_change();
+
+DROP TRIGGER IF EXISTS test_definition_change_notify ON test_definition;
+CREATE TRIGGER test_definition_change_notify
+    AFTER INSERT OR UPDATE OR DELETE ON test_definition
+    FOR EACH STATEMENT EXECUTE FUNCTION qdc_notify_order_change();
+
+DROP TRIGGER IF EXISTS panel_change_notify ON panel;
+CREATE TRIGGER panel_change_notify
+    AFTER INSERT OR UPDATE OR DELETE ON panel
+    FOR EACH STATEMENT EXECUTE FUNCTION qdc_notify_order_change();
+
+DROP TRIGGER IF EXISTS panel_test_change_notify ON panel_test;
+CREATE TRIGGER panel_test_change_notify
+    AFTER INSERT OR UPDATE OR DELETE ON panel_test
+    FOR EACH STATEMENT EXECUTE FUNCTION qdc_notify_order_change();
+
+DROP TRIGGER IF EXISTS department_change_notify ON department;
+CREATE TRIGGER department_change_notify
+    AFTER INSERT OR UPDATE OR DELETE ON department
+    FOR EACH STATEMENT EXECUTE FUNCTION qdc_notify_order_change();
+
+DROP TRIGGER IF EXISTS test_categories_change_notify ON test_categories;
+CREATE TRIGGER test_categories_change_notify
+    AFTER INSERT OR UPDATE OR DELETE ON test_categories
+    FOR EACH STATEMENT EXECUTE FUNCTION qdc_notify_order_change();
+
+DROP TRIGGER IF EXISTS doctors_change_notify ON doctors;
+CREATE TRIGGER doctors_change_notify
+    AFTER INSERT OR UPDATE OR DELETE ON doctors
+    FOR EACH STATEMENT EXECUTE FUNCTION qdc_notify_order_change();
+
+DROP TRIGGER IF EXISTS roles_change_notify ON roles;
+CREATE TRIGGER roles_change_notify
+    AFTER INSERT OR UPDATE OR DELETE ON roles
+    FOR EACH STATEMENT EXECUTE FUNCTION qdc_notify_order_change();
+
+DROP TRIGGER IF EXISTS permissions_change_notify ON permissions;
+CREATE TRIGGER permissions_change_notify
+    AFTER INSERT OR UPDATE OR DELETE ON permissions
+    FOR EACH STATEMENT EXECUTE FUNCTION qdc_notify_order_change();
+
+DROP TRIGGER IF EXISTS role_permissions_change_notify ON role_permissions;
+CREATE TRIGGER role_permissions_change_notify
+    AFTER INSERT OR UPDATE OR DELETE ON role_permissions
+    FOR EACH STATEMENT EXECUTE FUNCTION qdc_notify_order_change();
+
+DROP TRIGGER IF EXISTS reference_range_change_notify ON reference_range;
+CREATE TRIGGER reference_range_change_notify
+    AFTER INSERT OR UPDATE OR DELETE ON reference_range
+    FOR EACH STATEMENT EXECUTE FUNCTION qdc_notify_order_change();
@@ -0,0 +1,311 @@
+package com.qdc.lims.repository;
+
+import com.qdc.lims.dto.CommissionFilter;
+import com.qdc.lims.dto.LabOrderSummary;
+import com.qdc.lims.dto.LabWorklistFilter;
+import com.qdc.lims.dto.ResultEditAuditFilter;
+import com.qdc.lims.dto.ResultEditAuditRow;
+import com.qdc.lims.entity.CommissionLedger;
+import com.qdc.lims.entity.Department;
+import com.qdc.lims.entity.Doctor;
+import com.qdc.lims.entity.LabOrder;
+import com.qdc.lims.entity.LabResult;
+import com.qdc.lims.entity.Patient;
+import com.qdc.lims.entity.TestDefinition;
+import com.qdc.lims.entity.User;
+import com.qdc.lims.service.AdminDashboardStatsService;
+import com.qdc.lims.service.FinancialRollupService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards the per-screen fetch plans: each use case must load what its screen
+ * reads (outside a transaction, as the JavaFX controllers do) within a fixed
+ * number of SQL statements, however many rows the database holds. Seeds two
+ * orders booked today with results, result edits and commissions, and two
+ * users with two roles each, so every budget covers rows that reach the
+ * associations; the fixture is removed afterwards.
+ */
+// Master data cache reloads (from the change feed after seeding, or its fallback) would count against the budgets.
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "qdc.change-feed.enabled=false",
+        "qdc.master-cache.fallback-reload-ms=86400000" })
+class FetchPlanQueryBudgetTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private LabOrderRepository labOrderRepository;
+
+    @Autowired
+    private CommissionLedgerRepository commissionLedgerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LabResultEditAuditRepository labResultEditAuditRepository;
+
+    @Autowired
+    private AdminDashboardStatsService adminDashboardStatsService;
+
+    @Autowired
+    private FinancialRollupService financialRollupService;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private TestDefinitionRepository testDefinitionRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String tag = "plan-" + UUID.randomUUID().toString().substring(0, 8);
+    private final List<TestDefinition> tests = new ArrayList<>();
+    private final List<Long> orderIds = new ArrayList<>();
+    private final List<Long> roleIds = new ArrayList<>();
+    private final List<Long> userIds = new ArrayList<>();
+    private Department department;
+    private Doctor doctor;
+    private Patient patient;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        department = new Department();
+        department.setName(tag);
+        department = departmentRepository.save(department);
+        for (String suffix : List.of("-a", "-b")) {
+            TestDefinition test = new TestDefinition();
+            test.setTestName(tag + suffix);
+            test.setShortCode(tag + suffix);
+            test.setDepartment(department);
+            test.setPrice(new BigDecimal("300"));
+            tests.add(testDefinitionRepository.save(test));
+        }
+
+        doctor = new Doctor();
+        doctor.setName(tag);
+        doctor.setCommissionPercentage(BigDecimal.TEN);
+        doctor = doctorRepository.save(doctor);
+
+        patient = new Patient();
+        patient.setMrn(tag);
+        patient.setFullName("Plan " + tag);
+        patient.setAge(40);
+        patient = patientRepository.save(patient);
+
+        orderIds.add(seedOrder());
+        orderIds.add(seedOrder());
+        for (String suffix : List.of("-a", "-b")) {
+            roleIds.add(jdbcTemplate.queryForObject(
+                    "INSERT INTO roles (active, name) VALUES (true, ?) RETURNING id", Long.class, tag + suffix));
+        }
+        for (String suffix : List.of("-a", "-b")) {
+            Long userId = jdbcTemplate.queryForObject("""
+                    INSERT INTO users (account_non_expired, account_non_locked, active, credentials_non_expired,
+                                       full_name, password, username, version)
+                    VALUES (true, true, true, true, ?, 'x', ?, 0)
+                    RETURNING id
+                    """, Long.class, tag, tag + suffix);
+            userIds.add(userId);
+            for (Long roleId : roleIds) {
+                jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", userId, roleId);
+            }
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        String ids = "SELECT id FROM lab_order WHERE patient_id = ?";
+        jdbcTemplate.update("DELETE FROM lab_result_edit_audit WHERE order_id IN (" + ids + ")", patient.getId());
+        jdbcTemplate.update("DELETE FROM commission_ledger WHERE order_id IN (" + ids + ")", patient.getId());
+        jdbcTemplate.update("DELETE FROM lab_result WHERE order_id IN (" + ids + ")", patient.getId());
+        jdbcTemplate.update("DELETE FROM lab_order WHERE patient_id = ?", patient.getId());
+        for (Long userId : userIds) {
+            jdbcTemplate.update("DELETE FROM user_roles WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        }
+        for (Long roleId : roleIds) {
+            jdbcTemplate.update("DELETE FROM roles WHERE id = ?", roleId);
+        }
+        for (TestDefinition test : tests) {
+            jdbcTemplate.update("DELETE FROM test_definition WHERE id = ?", test.getId());
+        }
+        jdbcTemplate.update("DELETE FROM department WHERE id = ?", department.getId());
+        jdbcTemplate.update("DELETE FROM doctors WHERE id = ?", doctor.getId());
+        jdbcTemplate.update("DELETE FROM patients WHERE id = ?", patient.getId());
+        financialRollupService.refreshPending();
+    }
+
+    @Test
+    void worklistPageUsesSummaryAndCountQueriesOnly() {
+        Page<LabOrderSummary> page = labOrderRepository.findWorklistPage(
+                new LabWorklistFilter(null, null, null, null, false), PageRequest.of(0, 1));
+
+        assertBudget("worklist page", 2);
+        assertFalse(page.isEmpty(), "worklist page is empty");
+    }
+
+    @Test
+    void orderDetailsLoadWithoutPerResultQueries() {
+        LabOrder order = labOrderRepository.findWithDetailsById(orderIds.get(0)).orElseThrow();
+        order.getPatient().getFullName();
+        order.getReferringDoctor().getName();
+        for (LabResult result : order.getResults()) {
+            result.getTestDefinition().getTestName();
+        }
+
+        assertBudget("order details", 3);
+        assertEquals(tests.size(), order.getResults().size());
+    }
+
+    @Test
+    void commissionLedgerLoadsOrderAndDoctorWithoutNPlusOne() {
+        LocalDate today = LocalDate.now();
+        List<CommissionLedger> commissions = commissionLedgerRepository
+                .findByTransactionDateBetween(today.minusYears(1), today);
+        long seeded = 0;
+        for (CommissionLedger commission : commissions) {
+            if (commission.getLabOrder() != null) {
+                commission.getLabOrder().getTotalAmount();
+                if (orderIds.contains(commission.getLabOrder().getId())) {
+                    seeded++;
+                }
+            }
+            if (commission.getDoctor() != null) {
+                commission.getDoctor().getName();
+            }
+        }
+
+        assertBudget("commission ledger", 1);
+        assertEquals(orderIds.size(), seeded, "seeded commissions were not loaded");
+    }
+
+    @Test
+    void commissionLedgerPageAndTotalsNeverLoadOrders() {
+        LocalDate today = LocalDate.now();
+        CommissionFilter filter = new CommissionFilter(null, "UNPAID", today.minusYears(1), today);
+        commissionLedgerRepository.findRows(filter, PageRequest.of(0, 100, Sort.by(Sort.Order.desc("transactionDate"))));
+        commissionLedgerRepository.summarize(CommissionFilter.all());
+        boolean summarized = commissionLedgerRepository.summarizeByDoctor(filter).stream()
+                .anyMatch(total -> doctor.getId().equals(total.doctorId()) && total.count() == orderIds.size());
+
+        assertBudget("commission ledger page and totals", 4);
+        assertTrue(statistics.getEntityLoadCount() == 0, "commission ledger page loaded entities");
+        assertTrue(summarized, "seeded doctor was not summarized");
+    }
+
+    @Test
+    void resultEditAuditPagesNeverLoadOrdersOrResults() {
+        ResultEditAuditFilter filter = new ResultEditAuditFilter(LocalDate.now().minusYears(1), LocalDate.now(),
+                null, null, null);
+        List<ResultEditAuditRow> first = labResultEditAuditRepository.findPage(filter, null, 1);
+        assertFalse(first.isEmpty(), "first audit page is empty");
+        List<ResultEditAuditRow> second = labResultEditAuditRepository.findPage(filter, first.get(0), 1);
+
+        assertBudget("result edit audit pages", 2);
+        assertTrue(statistics.getEntityLoadCount() == 0, "result edit audit pages loaded entities");
+        assertFalse(second.isEmpty(), "second audit page is empty");
+    }
+
+    @Test
+    void usersLoadWithRolesInBoundedQueries() {
+        List<User> users = userRepository.findAll();
+        int seededRoles = users.stream()
+                .filter(user -> userIds.contains(user.getId()))
+                .mapToInt(user -> user.getRoles().size())
+                .sum();
+        users.forEach(user -> user.getRoles().size());
+
+        assertBudget("users with roles", 3);
+        assertEquals(userIds.size() * roleIds.size(), seededRoles);
+    }
+
+    @Test
+    void adminKpisUseOneAggregateQueryPerTile() {
+        adminDashboardStatsService.getKpis();
+
+        assertBudget("admin dashboard KPIs", 7);
+        assertTrue(statistics.getEntityLoadCount() == 0, "admin dashboard KPIs loaded entities");
+    }
+
+    @Test
+    void financialSummaryReadsRollupsWithoutLoadingTransactions() {
+        LocalDate today = LocalDate.now();
+        FinancialRollupService.Summary summary = financialRollupService.summarize(today.minusYears(1), today);
+
+        assertBudget("financial summary", 1);
+        assertTrue(statistics.getEntityLoadCount() == 0, "financial summary loaded entities");
+        assertTrue(summary.billed().compareTo(new BigDecimal("1200")) >= 0, "seeded orders were not summed");
+    }
+
+    // One order with a result and a result edit per test, and its commission, all dated today.
+    private long seedOrder() {
+        Long orderId = jdbcTemplate.queryForObject("""
+                INSERT INTO lab_order (patient_id, doctor_id, order_date, status, total_amount, discount_amount,
+                                       tax_amount, paid_amount, balance_due, is_report_delivered,
+                                       results_edited, reprint_required, reprint_count, version)
+                VALUES (?, ?, LOCALTIMESTAMP, 'PENDING', 600, 0, 0, 600, 0, false, false, false, 0, 0)
+                RETURNING id
+                """, Long.class, patient.getId(), doctor.getId());
+        for (TestDefinition test : tests) {
+            Long resultId = jdbcTemplate.queryForObject("""
+                    INSERT INTO lab_result (order_id, order_date, test_id, result_value, status, is_abnormal, version)
+                    SELECT id, order_date, ?, '5.0', 'COMPLETED', false, 0 FROM lab_order WHERE id = ?
+                    RETURNING id
+                    """, Long.class, test.getId(), orderId);
+            jdbcTemplate.update("""
+                    INSERT INTO lab_result_edit_audit (order_id, result_id, test_name, previous_value, new_value,
+                                                       previous_abnormal, new_abnormal, edited_by, edited_at,
+                                                       reason, report_delivered_at_edit)
+                    VALUES (?, ?, ?, '4.0', '5.0', false, false, 'tech', LOCALTIMESTAMP, 'typo', false)
+                    """, orderId, resultId, test.getTestName());
+        }
+        jdbcTemplate.update("""
+                INSERT INTO commission_ledger (order_id, doctor_id, total_bill_amount, commission_percentage,
+                                               calculated_amount, paid_amount, transaction_date, status)
+                VALUES (?, ?, 600, 10, 60, 0, CURRENT_DATE, 'UNPAID')
+                """, orderId, doctor.getId());
+        return orderId;
+    }
+
+    private void assertBudget(String useCase, long budget) {
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= budget,
+                useCase + " executed " + statements + " statements (budget " + budget + ")");
+    }
+}
@@ -0,0 +1,219 @@
+package com.qdc.lims.repository;
+
+import com.qdc.lims.dto.LabOrderSummary;
+import com.qdc.lims.dto.LabWorklistFilter;
+import com.qdc.lims.entity.Patient;
+import com.qdc.lims.service.AdminDashboardStatsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seeds several years of synthetic orders, results and payments into two
+ * scratch schemas of the configured PostgreSQL database, one plain and one
+ * whose results and payments are converted with {@code qdc_partition_by_month},
+ * and checks that the admin dashboard, the lab dashboard count, the worklist
+ * page and a month's revenue totals answer the same on both through the real
+ * repository queries ({@code search_path} picks the schema). Orders must be
+ * refused, since their accession number is a business key. Timings of both
+ * schemas are printed as a report, not asserted: partitioning is for
+ * retention and is expected to cost screens some planning time. Both schemas
+ * are dropped afterwards.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class MonthlyPartitionBenchmarkTest {
+
+    private static final String PLAIN = "bench_plain";
+    private static final String MONTHLY = "bench_monthly";
+    private static final List<String> TABLES = List.of("lab_order", "lab_result", "payments");
+    private static final int YEARS = 4;
+    private static final int ORDERS_PER_DAY = 250;
+    private static final int PAYMENTS_PER_DAY = 20;
+    private static final int RUNS = 7;
+
+    @Autowired
+    private LabOrderRepository labOrderRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private AdminDashboardStatsService adminDashboardStatsService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final String tag = "part-" + UUID.randomUUID().toString().substring(0, 8);
+    private Patient patient;
+    private long conversionMillis;
+
+    @BeforeEach
+    void setUp() {
+        patient = new Patient();
+        patient.setMrn(tag);
+        patient.setFullName("Partition " + tag);
+        patient.setAge(40);
+        patient = patientRepository.save(patient);
+
+        for (String schema : List.of(PLAIN, MONTHLY)) {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+            jdbcTemplate.execute("CREATE SCHEMA " + schema);
+            for (String table : TABLES) {
+                jdbcTemplate.execute("CREATE TABLE %1$s.%2$s (LIKE public.%2$s INCLUDING ALL)".formatted(schema, table));
+            }
+        }
+        seed(PLAIN);
+        for (String table : TABLES) {
+            jdbcTemplate.execute("INSERT INTO %s.%s SELECT * FROM %s.%s".formatted(MONTHLY, table, PLAIN, table));
+            jdbcTemplate.execute("ANALYZE %s.%s".formatted(PLAIN, table));
+        }
+
+        long started = System.nanoTime();
+        inSchema(MONTHLY, () -> {
+            jdbcTemplate.queryForObject("SELECT qdc_partition_by_month('lab_result', 'order_date', 3)", Boolean.class);
+            jdbcTemplate.queryForObject("SELECT qdc_partition_by_month('payments', 'transaction_date', 3)", Boolean.class);
+            return null;
+        });
+        conversionMillis = (System.nanoTime() - started) / 1_000_000;
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + PLAIN + " CASCADE");
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + MONTHLY + " CASCADE");
+        patientRepository.deleteById(patient.getId());
+    }
+
+    @Test
+    void monthlyPartitionsAnswerTheSameAndKeepBusinessKeysUnique() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+        LabWorklistFilter worklist = new LabWorklistFilter(null, now.minusDays(7), now, null, true);
+        PageRequest page = PageRequest.of(0, 100, Sort.by(Sort.Order.desc("orderDate")));
+
+        Map<String, Supplier<Object>> screens = new LinkedHashMap<>();
+        screens.put("admin dashboard", adminDashboardStatsService::getKpis);
+        screens.put("lab dashboard", labOrderRepository::countPendingWithResults);
+        screens.put("worklist page", () -> labOrderRepository.findWorklistPage(worklist, page).getContent().stream()
+                .map(LabOrderSummary::id)
+                .toList());
+        screens.put("month revenue", () -> labOrderRepository.sumTotalsInRange(
+                thisMonth.minusMonths(1).atStartOfDay(), thisMonth.atStartOfDay()));
+
+        long orders = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + PLAIN + ".lab_order", Long.class);
+        long partitions = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhparent
+                WHERE c.relnamespace = CAST(? AS regnamespace) AND c.relkind = 'p'
+                """, Long.class, MONTHLY);
+        System.out.printf("Monthly partitioning of %d orders into %d partitions took %d ms%n",
+                orders, partitions, conversionMillis);
+
+        for (Map.Entry<String, Supplier<Object>> screen : screens.entrySet()) {
+            Object plainAnswer = inSchema(PLAIN, screen.getValue());
+            Object monthlyAnswer = inSchema(MONTHLY, screen.getValue());
+            assertEquals(plainAnswer, monthlyAnswer, screen.getKey() + " differs once partitioned");
+
+            List<Long> plain = new ArrayList<>();
+            List<Long> monthly = new ArrayList<>();
+            for (int i = 0; i < RUNS; i++) {
+                plain.add(time(PLAIN, screen.getValue()));
+                monthly.add(time(MONTHLY, screen.getValue()));
+            }
+            System.out.printf("%-16s plain %7.2f ms, monthly %7.2f ms%n",
+                    screen.getKey(), median(plain) / 1e6, median(monthly) / 1e6);
+        }
+
+        assertTrue(prunesTo(MONTHLY, "lab_result", "order_date", thisMonth),
+                "a one-month result range read more than one partition");
+        assertTrue(prunesTo(MONTHLY, "payments", "transaction_date", thisMonth),
+                "a one-month payment range read more than one partition");
+
+        DataAccessException refused = assertThrows(DataAccessException.class, () -> inSchema(MONTHLY,
+                () -> jdbcTemplate.queryForObject("SELECT qdc_partition_by_month('lab_order', 'order_date', 3)",
+                        Boolean.class)));
+        assertTrue(refused.getMessage().contains("accession_number"), refused.getMessage());
+    }
+
+    private void seed(String schema) {
+        int days = YEARS * 365;
+        jdbcTemplate.update("""
+                INSERT INTO %s.lab_order (patient_id, order_date, status, total_amount, discount_amount, tax_amount,
+                                          paid_amount, balance_due, is_report_delivered, delivery_date,
+                                          results_edited, reprint_required, reprint_count, version)
+                SELECT ?, s.ts,
+                       CASE WHEN s.ts < LOCALTIMESTAMP - INTERVAL '2 days' THEN 'COMPLETED'
+                            ELSE (ARRAY['PENDING', 'IN_PROGRESS', 'COMPLETED'])[1 + s.g %% 3] END,
+                       800, 0, 0, CASE WHEN s.g %% 10 = 0 THEN 500 ELSE 800 END,
+                       CASE WHEN s.g %% 10 = 0 THEN 300 ELSE 0 END,
+                       s.ts < LOCALTIMESTAMP - INTERVAL '2 days',
+                       CASE WHEN s.ts < LOCALTIMESTAMP - INTERVAL '2 days' THEN s.ts + INTERVAL '1 day' END,
+                       false, false, 0, 0
+                FROM (SELECT g, LOCALTIMESTAMP - (? - g) * (INTERVAL '1 day' / ?) AS ts
+                      FROM generate_series(0, ? - 1) g) s
+                """.formatted(schema), patient.getId(), days * ORDERS_PER_DAY, ORDERS_PER_DAY,
+                days * ORDERS_PER_DAY);
+        jdbcTemplate.update("""
+                INSERT INTO %1$s.lab_result (order_id, order_date, test_id, result_value, status, is_abnormal,
+                                             performed_at, version)
+                SELECT o.id, o.order_date, t.id, CASE WHEN o.status = 'COMPLETED' THEN '5.0' ELSE '' END,
+                       CASE WHEN o.status = 'COMPLETED' THEN 'COMPLETED' ELSE 'PENDING' END, false,
+                       CASE WHEN o.status = 'COMPLETED' THEN o.order_date + INTERVAL '2 hours' END, 0
+                FROM %1$s.lab_order o
+                CROSS JOIN (VALUES (1), (2)) t(id)
+                """.formatted(schema));
+        jdbcTemplate.update("""
+                INSERT INTO %s.payments (amount, category, description, type, transaction_date)
+                SELECT 100, 'Misc', ?, CASE WHEN g %% 4 = 0 THEN 'EXPENSE' ELSE 'INCOME' END,
+                       LOCALTIMESTAMP - (? - g) * (INTERVAL '1 day' / ?)
+                FROM generate_series(0, ? - 1) g
+                """.formatted(schema), tag, days * PAYMENTS_PER_DAY, PAYMENTS_PER_DAY, days * PAYMENTS_PER_DAY);
+    }
+
+    private boolean prunesTo(String schema, String table, String column, LocalDate month) {
+        List<String> plan = inSchema(schema, () -> jdbcTemplate.queryForList(
+                "EXPLAIN SELECT COUNT(*) FROM %1$s WHERE %2$s >= '%3$s' AND %2$s < '%4$s'"
+                        .formatted(table, column, month, month.plusMonths(1)), String.class));
+        return plan.stream().filter(line -> line.contains(" on " + table + "_p")).count() == 1;
+    }
+
+    private long time(String schema, Supplier<Object> screen) {
+        return inSchema(schema, () -> {
+            long started = System.nanoTime();
+            screen.get();
+            return System.nanoTime() - started;
+        });
+    }
+
+    private <T> T inSchema(String schema, Supplier<T> work) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL search_path TO " + schema + ", public");
+            return work.get();
+        });
+    }
+
+    private static double median(List<Long> nanos) {
+        List<Long> sorted = nanos.stream().sorted().toList();
+        return sorted.get(sorted.size() / 2);
+    }
+}
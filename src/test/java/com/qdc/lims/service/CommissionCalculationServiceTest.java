@@ -0,0 +1,144 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.entity.CommissionRule;
+import com.qdc.lims.entity.Department;
+import com.qdc.lims.entity.Doctor;
+import com.qdc.lims.entity.Panel;
+import com.qdc.lims.entity.TestDefinition;
+import com.qdc.lims.repository.CommissionRuleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CommissionCalculationServiceTest {
+
+    private static final long DOCTOR_ID = 5L;
+    private static final int CHEMISTRY = 1;
+    private static final int RADIOLOGY = 2;
+
+    @Mock
+    private CommissionRuleRepository ruleRepository;
+
+    @Test
+    void mostSpecificRuleWinsPerLineAndDoctorRateCoversTheRest() {
+        when(ruleRepository.findApplicable(DOCTOR_ID)).thenReturn(List.of(
+                rule(1L, null, CHEMISTRY, null, "5"),
+                rule(2L, DOCTOR_ID, CHEMISTRY, null, "20"),
+                rule(3L, null, null, 11L, "30"),
+                rule(4L, DOCTOR_ID, null, 12L, "40"),
+                rule(5L, DOCTOR_ID, null, 12L, "45")));
+        CommissionCalculationService service = new CommissionCalculationService(ruleRepository, false);
+
+        List<CommissionCalculationService.Line> lines = List.of(
+                new CommissionCalculationService.Line(10L, CHEMISTRY, new BigDecimal("100")), // doctor + department: 20
+                new CommissionCalculationService.Line(11L, CHEMISTRY, new BigDecimal("100")), // doctor dept beats any test: 20
+                new CommissionCalculationService.Line(12L, CHEMISTRY, new BigDecimal("100")), // doctor + test, oldest: 40
+                new CommissionCalculationService.Line(13L, RADIOLOGY, new BigDecimal("100"))); // doctor rate: 10
+
+        CommissionCalculationService.Commission commission = service.calculate(doctor("10"), lines,
+                new BigDecimal("400"), new BigDecimal("100"));
+
+        assertEquals(new BigDecimal("22.5000"), commission.rate());
+        assertEquals(new BigDecimal("90.0000"), commission.amount());
+    }
+
+    @Test
+    void discountReducesBaseWhenConfigured() {
+        when(ruleRepository.findApplicable(DOCTOR_ID)).thenReturn(List.of());
+        CommissionCalculationService service = new CommissionCalculationService(ruleRepository, true);
+
+        CommissionCalculationService.Commission commission = service.calculate(doctor("10"),
+                List.of(new CommissionCalculationService.Line(10L, CHEMISTRY, new BigDecimal("500"))),
+                new BigDecimal("500"), new BigDecimal("150"));
+
+        assertEquals(new BigDecimal("35.0000"), commission.amount());
+    }
+
+    @Test
+    void pricedPanelsReplaceTheirTestsAsBilledLines() {
+        CommissionCalculationService service = new CommissionCalculationService(ruleRepository, false);
+        TestDefinition inPanel = test(10L, CHEMISTRY, "300");
+        TestDefinition alone = test(11L, RADIOLOGY, "200");
+        Panel panel = new Panel();
+        panel.setPrice(new BigDecimal("250"));
+        panel.setDepartment(department(CHEMISTRY));
+        panel.setTests(List.of(inPanel));
+
+        List<CommissionCalculationService.Line> lines = service.billedLines(List.of(panel), List.of(inPanel, alone));
+
+        assertEquals(List.of(
+                new CommissionCalculationService.Line(null, CHEMISTRY, new BigDecimal("250")),
+                new CommissionCalculationService.Line(11L, RADIOLOGY, new BigDecimal("200"))), lines);
+    }
+
+    @Test
+    void noDoctorEarnsNothing() {
+        CommissionCalculationService service = new CommissionCalculationService(ruleRepository, false);
+
+        assertEquals(BigDecimal.ZERO, service.calculate(null, List.of(), BigDecimal.TEN, null).amount());
+    }
+
+    @Test
+    void recomputeOpenStartsAtTheOldestUnpaidCommission() {
+        CommissionCalculationService service = new CommissionCalculationService(ruleRepository, true);
+        LocalDate today = LocalDate.now();
+        LocalDate oldestUnpaid = today.withDayOfMonth(1).minusMonths(3);
+        when(ruleRepository.findEarliestUnpaidDay()).thenReturn(oldestUnpaid);
+
+        service.recomputeOpen();
+
+        verify(ruleRepository).recompute(oldestUnpaid, today, true);
+    }
+
+    @Test
+    void recomputeOpenCoversThisMonthWhenEverythingIsPaid() {
+        CommissionCalculationService service = new CommissionCalculationService(ruleRepository, false);
+        LocalDate today = LocalDate.now();
+        when(ruleRepository.findEarliestUnpaidDay()).thenReturn(null);
+
+        service.recomputeOpen();
+
+        verify(ruleRepository).recompute(today.withDayOfMonth(1), today, false);
+    }
+
+    private static CommissionRule rule(Long id, Long doctorId, Integer departmentId, Long testId, String percentage) {
+        CommissionRule rule = new CommissionRule();
+        rule.setId(id);
+        rule.setDoctorId(doctorId);
+        rule.setDepartmentId(departmentId);
+        rule.setTestId(testId);
+        rule.setPercentage(new BigDecimal(percentage));
+        return rule;
+    }
+
+    private static Doctor doctor(String rate) {
+        Doctor doctor = new Doctor();
+        doctor.setId(DOCTOR_ID);
+        doctor.setCommissionPercentage(new BigDecimal(rate));
+        return doctor;
+    }
+
+    private static Department department(int id) {
+        Department department = new Department();
+        department.setId(id);
+        return department;
+    }
+
+    private static TestDefinition test(Long id, int departmentId, String price) {
+        TestDefinition test = new TestDefinition();
+        test.setId(id);
+        test.setDepartment(department(departmentId));
+        test.setPrice(new BigDecimal(price));
+        return test;
+    }
+}
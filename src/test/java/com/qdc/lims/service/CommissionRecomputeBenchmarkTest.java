@@ -0,0 +1,206 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.entity.CommissionRule;
+import com.qdc.lims.entity.Department;
+import com.qdc.lims.entity.Doctor;
+import com.qdc.lims.entity.Panel;
+import com.qdc.lims.entity.Patient;
+import com.qdc.lims.entity.TestDefinition;
+import com.qdc.lims.repository.DepartmentRepository;
+import com.qdc.lims.repository.DoctorRepository;
+import com.qdc.lims.repository.PanelRepository;
+import com.qdc.lims.repository.PatientRepository;
+import com.qdc.lims.repository.TestDefinitionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seeds a year of referred orders against the configured PostgreSQL database
+ * and times the set-based commission recompute over it. Amounts must match
+ * what {@link CommissionCalculationService} computes at booking. Creates its
+ * own fixture in a year without real orders and removes it afterwards.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class CommissionRecomputeBenchmarkTest {
+
+    private static final LocalDate YEAR_START = LocalDate.of(2001, 1, 1);
+    private static final LocalDate YEAR_END = LocalDate.of(2001, 12, 31);
+    private static final int ORDERS_PER_DAY = 200;
+    private static final long BUDGET_MILLIS = 30_000;
+
+    @Autowired
+    private CommissionCalculationService commissionCalculationService;
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    @Autowired
+    private TestDefinitionRepository testDefinitionRepository;
+    @Autowired
+    private PanelRepository panelRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String tag = "comm-" + UUID.randomUUID().toString().substring(0, 8);
+    private Department department;
+    private TestDefinition testA;
+    private TestDefinition testB;
+    private Panel panel;
+    private Doctor doctor;
+    private Patient patient;
+    private CommissionRule rule;
+
+    @BeforeEach
+    void setUp() {
+        department = new Department();
+        department.setName(tag);
+        department = departmentRepository.save(department);
+
+        testA = saveTest("A", "500");
+        testB = saveTest("B", "300");
+
+        panel = new Panel();
+        panel.setPanelName(tag);
+        panel.setPrice(new BigDecimal("600"));
+        panel.setDepartment(department);
+        panel.setTests(List.of(testA));
+        panel = panelRepository.save(panel);
+
+        doctor = new Doctor();
+        doctor.setName(tag);
+        doctor.setCommissionPercentage(BigDecimal.TEN);
+        doctor = doctorRepository.save(doctor);
+
+        CommissionRule testRule = new CommissionRule();
+        testRule.setDoctorId(doctor.getId());
+        testRule.setTestId(testB.getId());
+        testRule.setPercentage(new BigDecimal("25"));
+        rule = commissionCalculationService.saveRule(testRule);
+
+        patient = new Patient();
+        patient.setMrn(tag);
+        patient.setFullName("Commission " + tag);
+        patient.setAge(40);
+        patient = patientRepository.save(patient);
+
+        seedYearOfOrders();
+    }
+
+    @AfterEach
+    void tearDown() {
+        String orderIds = "SELECT id FROM lab_order WHERE patient_id = ?";
+        jdbcTemplate.update("DELETE FROM commission_ledger WHERE order_id IN (" + orderIds + ")", patient.getId());
+        jdbcTemplate.update("DELETE FROM lab_order_panel WHERE lab_order_id IN (" + orderIds + ")", patient.getId());
+        jdbcTemplate.update("DELETE FROM lab_result WHERE order_id IN (" + orderIds + ")", patient.getId());
+        jdbcTemplate.update("DELETE FROM lab_order WHERE patient_id = ?", patient.getId());
+        jdbcTemplate.update("DELETE FROM commission_rule WHERE id = ?", rule.getId());
+        jdbcTemplate.update("DELETE FROM panel_test WHERE panel_id = ?", panel.getId());
+        jdbcTemplate.update("DELETE FROM panel WHERE id = ?", panel.getId());
+        jdbcTemplate.update("DELETE FROM test_definition WHERE id IN (?, ?)", testA.getId(), testB.getId());
+        jdbcTemplate.update("DELETE FROM department WHERE id = ?", department.getId());
+        jdbcTemplate.update("DELETE FROM doctors WHERE id = ?", doctor.getId());
+        jdbcTemplate.update("DELETE FROM patients WHERE id = ?", patient.getId());
+    }
+
+    @Test
+    void recomputesAYearOfOrdersInOneStatementWithinBudget() {
+        long orders = countOrders("");
+        long panelOrders = countOrders(" AND id % 3 = 0");
+        BigDecimal plainAmount = bookingAmount(List.of(), List.of(testA, testB), "800");
+        BigDecimal panelAmount = bookingAmount(List.of(panel), List.of(testA, testB), "900");
+
+        long started = System.nanoTime();
+        int created = commissionCalculationService.recompute(YEAR_START, YEAR_END);
+        long createMillis = (System.nanoTime() - started) / 1_000_000;
+        // The first run bulk-loaded the ledger; refresh its statistics as maintenance would.
+        jdbcTemplate.execute("ANALYZE commission_ledger");
+
+        started = System.nanoTime();
+        int updated = commissionCalculationService.recompute(YEAR_START, YEAR_END);
+        long updateMillis = (System.nanoTime() - started) / 1_000_000;
+
+        System.out.printf("Commission recompute of %d orders: create %d ms, update %d ms%n",
+                orders, createMillis, updateMillis);
+        assertEquals(orders, created);
+        assertEquals(orders, updated);
+        assertEquals(0, plainAmount.multiply(BigDecimal.valueOf(orders - panelOrders))
+                .add(panelAmount.multiply(BigDecimal.valueOf(panelOrders)))
+                .compareTo(ledgerTotal()));
+        assertTrue(createMillis < BUDGET_MILLIS && updateMillis < BUDGET_MILLIS,
+                "recompute exceeded " + BUDGET_MILLIS + " ms");
+    }
+
+    private void seedYearOfOrders() {
+        int days = (int) (YEAR_END.toEpochDay() - YEAR_START.toEpochDay()) + 1;
+        jdbcTemplate.update("""
+                INSERT INTO lab_order (patient_id, doctor_id, order_date, status, total_amount, discount_amount,
+                                       tax_amount, paid_amount, balance_due, is_report_delivered, results_edited,
+                                       reprint_required, reprint_count, version)
+                SELECT ?, ?, CAST(? AS date) + (g / ?) * INTERVAL '1 day' + (g % ?) * INTERVAL '1 minute',
+                       'COMPLETED', 800, 0, 0, 800, 0, false, false, false, 0, 0
+                FROM generate_series(0, ? - 1) g
+                """, patient.getId(), doctor.getId(), Date.valueOf(YEAR_START), ORDERS_PER_DAY, ORDERS_PER_DAY,
+                days * ORDERS_PER_DAY);
+        // Every third order bills test A through the panel.
+        jdbcTemplate.update("UPDATE lab_order SET total_amount = 900, paid_amount = 900 WHERE patient_id = ? AND id % 3 = 0",
+                patient.getId());
+        jdbcTemplate.update("""
+                INSERT INTO lab_order_panel (lab_order_id, panel_id)
+                SELECT id, ? FROM lab_order WHERE patient_id = ? AND id % 3 = 0
+                """, panel.getId(), patient.getId());
+        jdbcTemplate.update("""
+                INSERT INTO lab_result (order_id, test_id, result_value, status, is_abnormal, version)
+                SELECT o.id, t.id, '', 'PENDING', false, 0
+                FROM lab_order o
+                CROSS JOIN (VALUES (CAST(? AS bigint)), (CAST(? AS bigint))) t(id)
+                WHERE o.patient_id = ?
+                """, testA.getId(), testB.getId(), patient.getId());
+        // A bulk load leaves the planner estimating one row per table until autovacuum catches up.
+        jdbcTemplate.execute("ANALYZE lab_order, lab_result, lab_order_panel");
+    }
+
+    private BigDecimal bookingAmount(List<Panel> panels, List<TestDefinition> tests, String total) {
+        return commissionCalculationService.calculate(doctor,
+                commissionCalculationService.billedLines(panels, tests), new BigDecimal(total), BigDecimal.ZERO)
+                .amount();
+    }
+
+    private long countOrders(String condition) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM lab_order WHERE patient_id = ?" + condition,
+                Long.class, patient.getId());
+    }
+
+    private BigDecimal ledgerTotal() {
+        return jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(c.calculated_amount), 0) FROM commission_ledger c
+                JOIN lab_order o ON o.id = c.order_id
+                WHERE o.patient_id = ?
+                """, BigDecimal.class, patient.getId());
+    }
+
+    private TestDefinition saveTest(String suffix, String price) {
+        TestDefinition test = new TestDefinition();
+        test.setTestName(tag + "-" + suffix);
+        test.setShortCode(tag + suffix);
+        test.setDepartment(department);
+        test.setPrice(new BigDecimal(price));
+        return testDefinitionRepository.save(test);
+    }
+}
@@ -0,0 +1,102 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.entity.CommissionSettlement;
+import com.qdc.lims.repository.CommissionLedgerRepository;
+import com.qdc.lims.repository.CommissionSettlementRepository;
+import com.qdc.lims.ui.CurrentUserProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CommissionSettlementServiceTest {
+
+    @Mock
+    private CommissionLedgerRepository commissionLedgerRepository;
+    @Mock
+    private CommissionSettlementRepository settlementRepository;
+    @Mock
+    private CurrentUserProvider currentUserProvider;
+
+    @InjectMocks
+    private CommissionSettlementService settlementService;
+
+    @Test
+    void settleDoctorPaysPeriodInOneUpdateAndRecordsTotals() {
+        LocalDate from = LocalDate.of(2026, 9, 1);
+        LocalDate to = LocalDate.of(2026, 9, 30);
+        when(currentUserProvider.getUsername()).thenReturn("admin");
+        when(settlementRepository.save(any(CommissionSettlement.class))).thenAnswer(invocation -> {
+            CommissionSettlement settlement = invocation.getArgument(0);
+            settlement.setId(7L);
+            return settlement;
+        });
+        when(commissionLedgerRepository.settleByDoctor(7L, LocalDate.now(), 3L, from, to)).thenReturn(240);
+
+        int paid = settlementService.settleDoctor(3L, from, to);
+
+        assertEquals(240, paid);
+        ArgumentCaptor<CommissionSettlement> captor = ArgumentCaptor.forClass(CommissionSettlement.class);
+        verify(settlementRepository).save(captor.capture());
+        assertEquals(3L, captor.getValue().getDoctorId());
+        assertEquals(from, captor.getValue().getPeriodFrom());
+        assertEquals(to, captor.getValue().getPeriodTo());
+        assertEquals("admin", captor.getValue().getSettledBy());
+        verify(settlementRepository).recordTotals(7L);
+        verify(settlementRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void settleDoctorByIdsPaysOnlyTheGivenRows() {
+        when(settlementRepository.save(any(CommissionSettlement.class))).thenAnswer(invocation -> {
+            CommissionSettlement settlement = invocation.getArgument(0);
+            settlement.setId(9L);
+            return settlement;
+        });
+        when(commissionLedgerRepository.settleByIds(9L, LocalDate.now(), List.of(4L, 5L))).thenReturn(2);
+
+        assertEquals(2, settlementService.settleDoctor(3L, List.of(4L, 5L)));
+
+        ArgumentCaptor<CommissionSettlement> captor = ArgumentCaptor.forClass(CommissionSettlement.class);
+        verify(settlementRepository).save(captor.capture());
+        assertEquals(3L, captor.getValue().getDoctorId());
+        verify(commissionLedgerRepository, never()).settleByDoctor(any(), any(), any(), any(), any());
+        verify(settlementRepository).recordTotals(9L);
+    }
+
+    @Test
+    void settleDropsSettlementWhenNothingWasUnpaid() {
+        when(settlementRepository.save(any(CommissionSettlement.class))).thenAnswer(invocation -> {
+            CommissionSettlement settlement = invocation.getArgument(0);
+            settlement.setId(8L);
+            return settlement;
+        });
+        when(commissionLedgerRepository.settleByIds(8L, LocalDate.now(), List.of(1L, 2L))).thenReturn(0);
+
+        assertEquals(0, settlementService.settle(List.of(1L, 2L)));
+
+        verify(settlementRepository).deleteById(8L);
+        verify(settlementRepository, never()).recordTotals(any());
+    }
+
+    @Test
+    void settleIgnoresEmptySelectionAndRequiresDoctor() {
+        assertEquals(0, settlementService.settle(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> settlementService.settleDoctor(null, null, null));
+        verifyNoInteractions(settlementRepository, commissionLedgerRepository);
+    }
+}
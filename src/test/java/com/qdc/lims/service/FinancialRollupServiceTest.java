@@ -0,0 +1,184 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.dto.FinancialRollupTotal;
+import com.qdc.lims.entity.DailyFinancialRollup;
+import com.qdc.lims.entity.Doctor;
+import com.qdc.lims.entity.Patient;
+import com.qdc.lims.repository.DoctorRepository;
+import com.qdc.lims.repository.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the daily rollups against raw sums of the source tables after edits
+ * that reach them only through the change triggers, against the configured
+ * PostgreSQL database. Uses a fixture booked in 2002 and removes it
+ * afterwards.
+ */
+@SpringBootTest
+class FinancialRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2002, 6, 3);
+
+    @Autowired
+    private FinancialRollupService financialRollupService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final String tag = "rollup-" + UUID.randomUUID().toString().substring(0, 8);
+    private Doctor doctor;
+    private Patient patient;
+    private long firstOrderId;
+    private long secondOrderId;
+
+    @BeforeEach
+    void setUp() {
+        doctor = new Doctor();
+        doctor.setName(tag);
+        doctor.setCommissionPercentage(BigDecimal.TEN);
+        doctor = doctorRepository.save(doctor);
+
+        patient = new Patient();
+        patient.setMrn(tag);
+        patient.setFullName("Rollup " + tag);
+        patient.setAge(40);
+        patient = patientRepository.save(patient);
+
+        firstOrderId = seedOrder(400, 400);
+        secondOrderId = seedOrder(900, 300);
+        financialRollupService.refreshPending();
+    }
+
+    @AfterEach
+    void tearDown() {
+        String orderIds = "SELECT id FROM lab_order WHERE patient_id = ?";
+        jdbcTemplate.update("DELETE FROM commission_ledger WHERE order_id IN (" + orderIds + ")", patient.getId());
+        jdbcTemplate.update("DELETE FROM lab_order WHERE patient_id = ?", patient.getId());
+        jdbcTemplate.update("DELETE FROM doctors WHERE id = ?", doctor.getId());
+        jdbcTemplate.update("DELETE FROM patients WHERE id = ?", patient.getId());
+        financialRollupService.refreshPending();
+    }
+
+    @Test
+    void rollupsMatchRawSumsAfterEdits() {
+        assertMatchesSources();
+
+        jdbcTemplate.update("UPDATE lab_order SET total_amount = 1500, paid_amount = 700, balance_due = 800 "
+                + "WHERE id = ?", secondOrderId);
+        assertMatchesSources();
+
+        jdbcTemplate.update("UPDATE doctors SET commission_percentage = 25 WHERE id = ?", doctor.getId());
+        assertMatchesSources();
+
+        jdbcTemplate.update("UPDATE commission_ledger SET status = 'PAID', paid_amount = 100, payment_date = ? "
+                + "WHERE order_id = ?", Date.valueOf(DAY), firstOrderId);
+        jdbcTemplate.update("DELETE FROM commission_ledger WHERE order_id = ?", secondOrderId);
+        jdbcTemplate.update("DELETE FROM lab_order WHERE id = ?", secondOrderId);
+        assertMatchesSources();
+    }
+
+    @Test
+    void readsServeCurrentRollupsWhileAnotherRefreshHoldsTheLock() throws Exception {
+        BigDecimal billed = financialRollupService.summarize(DAY, DAY).billed();
+        jdbcTemplate.update("UPDATE lab_order SET total_amount = total_amount + 100 WHERE id = ?", secondOrderId);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread refresher = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext('daily_financial_rollup'))", rs -> {
+            });
+            locked.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        refresher.start();
+        try {
+            assertTrue(locked.await(30, TimeUnit.SECONDS));
+            assertEquals(0, billed.compareTo(financialRollupService.summarize(DAY, DAY).billed()),
+                    "read did not serve the current rollups");
+        } finally {
+            release.countDown();
+            refresher.join();
+        }
+        assertEquals(0, billed.add(new BigDecimal("100")).compareTo(financialRollupService.summarize(DAY, DAY).billed()));
+    }
+
+    private void assertMatchesSources() {
+        FinancialRollupService.Summary summary = financialRollupService.summarize(DAY, DAY);
+        assertEquals(0, rawSum("SELECT COALESCE(SUM(total_amount), 0) FROM lab_order "
+                + "WHERE order_date >= ? AND order_date < CAST(? AS date) + 1").compareTo(summary.billed()));
+        assertEquals(0, rawSum("SELECT COALESCE(SUM(paid_amount), 0) FROM lab_order "
+                + "WHERE order_date >= ? AND order_date < CAST(? AS date) + 1").compareTo(summary.collected()));
+        assertEquals(0, rawSum("SELECT COALESCE(SUM(balance_due), 0) FROM lab_order "
+                + "WHERE order_date >= ? AND order_date < CAST(? AS date) + 1").compareTo(summary.receivable()));
+
+        BigDecimal unpaid = jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(GREATEST(ROUND(o.total_amount * d.commission_percentage / 100, 4)
+                                             - COALESCE(c.paid_amount, 0), 0)), 0)
+                FROM commission_ledger c
+                JOIN doctors d ON d.id = c.doctor_id
+                JOIN lab_order o ON o.id = c.order_id
+                WHERE c.doctor_id = ? AND c.transaction_date = ? AND c.status IS DISTINCT FROM 'PAID'
+                """, BigDecimal.class, doctor.getId(), Date.valueOf(DAY));
+        assertEquals(0, unpaid.compareTo(doctorTotal(DailyFinancialRollup.COMMISSION_UNPAID)), "unpaid commission");
+        BigDecimal paid = jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(paid_amount), 0) FROM commission_ledger
+                WHERE doctor_id = ? AND payment_date = ? AND status = 'PAID'
+                """, BigDecimal.class, doctor.getId(), Date.valueOf(DAY));
+        assertEquals(0, paid.compareTo(doctorTotal(DailyFinancialRollup.COMMISSION_PAID)), "paid commission");
+    }
+
+    private BigDecimal rawSum(String sql) {
+        return jdbcTemplate.queryForObject(sql, BigDecimal.class, Date.valueOf(DAY), Date.valueOf(DAY));
+    }
+
+    private BigDecimal doctorTotal(String metric) {
+        return financialRollupService.totalsByReference(metric, DAY, DAY).stream()
+                .filter(total -> doctor.getId().equals(total.refId()))
+                .map(FinancialRollupTotal::amount)
+                .findFirst()
+                .orElse(BigDecimal.ZERO);
+    }
+
+    // Commission amounts are left to the order total and doctor rate, so only the triggers keep them current.
+    private long seedOrder(int total, int paid) {
+        Long orderId = jdbcTemplate.queryForObject("""
+                INSERT INTO lab_order (patient_id, doctor_id, order_date, status, total_amount, discount_amount,
+                                       tax_amount, paid_amount, balance_due, is_report_delivered,
+                                       results_edited, reprint_required, reprint_count, version)
+                VALUES (?, ?, CAST(? AS date) + INTERVAL '9 hours', 'COMPLETED', ?, 0, 0, ?, ?, false,
+                        false, false, 0, 0)
+                RETURNING id
+                """, Long.class, patient.getId(), doctor.getId(), Date.valueOf(DAY), total, paid, total - paid);
+        jdbcTemplate.update("""
+                INSERT INTO commission_ledger (order_id, doctor_id, total_bill_amount, commission_percentage,
+                                               calculated_amount, paid_amount, transaction_date, status)
+                VALUES (?, ?, ?, 10, NULL, 0, ?, 'UNPAID')
+                """, orderId, doctor.getId(), total, Date.valueOf(DAY));
+        return orderId;
+    }
+}
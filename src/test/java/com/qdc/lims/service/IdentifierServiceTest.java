@@ -0,0 +1,79 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.util.IdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdentifierServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdentifierService identifierService;
+
+    @BeforeEach
+    void setUp() {
+        identifierService = new IdentifierService(jdbcTemplate, transactionManager,
+                "MR-%06d-%d", "%1$ty%1$tm%1$td-%2$04d-%3$d");
+    }
+
+    @Test
+    void mrnsAreServedFromReservedBlocks() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(1L, 21L);
+
+        Set<String> issued = new HashSet<>();
+        for (int i = 0; i < IdentifierService.BLOCK_SIZE + 1; i++) {
+            issued.add(identifierService.nextMrn());
+        }
+
+        assertEquals(IdentifierService.BLOCK_SIZE + 1, issued.size());
+        assertTrue(issued.contains("MR-000001-8"));
+        assertTrue(issued.contains("MR-000021-6"));
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    void accessionNumbersCarryDateAndCheckDigit() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(), any(), any()))
+                .thenReturn((long) IdentifierService.BLOCK_SIZE);
+
+        String first = identifierService.nextAccessionNumber();
+        String second = identifierService.nextAccessionNumber();
+
+        LocalDate today = LocalDate.now();
+        assertEquals(identifierService.formatAccession(today, 1), first);
+        assertEquals(identifierService.formatAccession(today, 2), second);
+        assertEquals("261016-0042-" + IdGenerator.luhnCheckDigit("2026101642"),
+                identifierService.formatAccession(LocalDate.of(2026, 10, 16), 42));
+    }
+
+    @Test
+    void luhnCheckDigitCatchesTypos() {
+        assertEquals(3, IdGenerator.luhnCheckDigit("7992739871"));
+        assertTrue(IdGenerator.isValidLuhn("79927398713"));
+        assertFalse(IdGenerator.isValidLuhn("79927398718"));
+        assertFalse(IdGenerator.isValidLuhn("97927398713"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.config.MasterDataCacheConfig;
+import com.qdc.lims.entity.Doctor;
+import com.qdc.lims.entity.Panel;
+import com.qdc.lims.entity.TestDefinition;
+import com.qdc.lims.repository.DoctorRepository;
+import com.qdc.lims.repository.PanelRepository;
+import com.qdc.lims.repository.TestDefinitionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Loads the order entry catalog twice against the configured PostgreSQL
+ * database and checks the second pass never reaches it, then edits a doctor
+ * behind Hibernate's back, as another workstation would, and waits for the
+ * change feed to evict the cached copy.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class MasterDataCacheServiceTest {
+
+    private static final long EVICTION_TIMEOUT_MILLIS = 10_000;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private TestDefinitionRepository testDefinitionRepository;
+    @Autowired
+    private PanelRepository panelRepository;
+    @Autowired
+    private MasterDataCacheService masterDataCacheService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String tag = "mdc-" + UUID.randomUUID().toString().substring(0, 8);
+    private Statistics statistics;
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        doctor = new Doctor();
+        doctor.setName(tag);
+        doctor.setCommissionPercentage(BigDecimal.TEN);
+        doctor = doctorRepository.save(doctor);
+        masterDataCacheService.evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM doctors WHERE id = ?", doctor.getId());
+    }
+
+    @Test
+    void orderEntryCatalogIsServedFromCacheOnceLoaded() {
+        int panelTests = loadOrderEntryCatalog();
+        statistics.clear();
+
+        assertEquals(panelTests, loadOrderEntryCatalog());
+
+        assertEquals(0, statistics.getPrepareStatementCount(), "catalog reload reached the database");
+        assertTrue(statistics.getDomainDataRegionStatistics(MasterDataCacheConfig.REGION).getHitCount() > 0);
+        assertTrue(statistics.getQueryRegionStatistics(MasterDataCacheConfig.QUERY_REGION).getHitCount() > 0);
+    }
+
+    @Test
+    void editsBehindHibernateAreEvictedThroughTheChangeFeed() throws InterruptedException {
+        assertEquals(tag, doctorRepository.findById(doctor.getId()).orElseThrow().getName());
+
+        String renamed = tag + "-renamed";
+        jdbcTemplate.update("UPDATE doctors SET name = ? WHERE id = ?", renamed, doctor.getId());
+
+        long deadline = System.currentTimeMillis() + EVICTION_TIMEOUT_MILLIS;
+        while (!renamed.equals(doctorRepository.findById(doctor.getId()).orElseThrow().getName())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals(renamed, doctorRepository.findById(doctor.getId()).orElseThrow().getName());
+        assertTrue(doctorRepository.findAll().stream().anyMatch(d -> renamed.equals(d.getName())));
+    }
+
+    /**
+     * Reads what the order screen and order creation read, outside a
+     * transaction as the controllers do, including the panels' tests.
+     */
+    private int loadOrderEntryCatalog() {
+        List<Doctor> doctors = doctorRepository.findAll();
+        assertTrue(doctors.stream().anyMatch(d -> d.getId().equals(doctor.getId())));
+        List<TestDefinition> tests = testDefinitionRepository.findAll();
+        List<Panel> panels = panelRepository.findAllWithTests();
+        int panelTests = panels.stream().mapToInt(panel -> panel.getTests().size()).sum();
+        List<Integer> panelIds = panels.stream().map(Panel::getId).limit(3).toList();
+        panelTests += panelRepository.findAllWithTestsById(panelIds).stream()
+                .mapToInt(panel -> panel.getTests().size())
+                .sum();
+        testDefinitionRepository.findAllById(tests.stream().map(TestDefinition::getId).limit(5).toList());
+        doctorRepository.findById(doctor.getId()).orElseThrow();
+        return panelTests;
+    }
+}
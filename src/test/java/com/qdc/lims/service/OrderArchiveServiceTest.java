@@ -0,0 +1,237 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.dto.LabOrderSummary;
+import com.qdc.lims.entity.DailyFinancialRollup;
+import com.qdc.lims.entity.Department;
+import com.qdc.lims.entity.Doctor;
+import com.qdc.lims.entity.LabOrder;
+import com.qdc.lims.entity.Panel;
+import com.qdc.lims.entity.Patient;
+import com.qdc.lims.entity.TestDefinition;
+import com.qdc.lims.repository.DailyFinancialRollupRepository;
+import com.qdc.lims.repository.DepartmentRepository;
+import com.qdc.lims.repository.DoctorRepository;
+import com.qdc.lims.repository.LabOrderRepository;
+import com.qdc.lims.repository.PanelRepository;
+import com.qdc.lims.repository.PatientRepository;
+import com.qdc.lims.repository.TestDefinitionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Archives and restores orders of a fixture booked in 2001 against the
+ * configured PostgreSQL database: settled orders move with all their rows,
+ * lookups and reads find them in place, the day's financial totals do not
+ * change, and only a restore for editing moves one back. Removes the fixture from both tiers afterwards.
+ */
+@SpringBootTest
+class OrderArchiveServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2001, 3, 1);
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2002, 1, 1, 0, 0);
+    private static final List<String> ORDER_TABLES = List.of(
+            "lab_result_edit_audit", "lab_order_panel", "commission_ledger", "lab_result");
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+    @Autowired
+    private LabOrderRepository labOrderRepository;
+    @Autowired
+    private DailyFinancialRollupRepository rollupRepository;
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    @Autowired
+    private TestDefinitionRepository testDefinitionRepository;
+    @Autowired
+    private PanelRepository panelRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final String tag = "arch-" + UUID.randomUUID().toString().substring(0, 8);
+    private Department department;
+    private TestDefinition test;
+    private Panel panel;
+    private Doctor doctor;
+    private Patient patient;
+    private long settledId;
+    private long unpaidCommissionId;
+    private long balanceDueId;
+
+    @BeforeEach
+    void setUp() {
+        department = new Department();
+        department.setName(tag);
+        department = departmentRepository.save(department);
+
+        test = new TestDefinition();
+        test.setTestName(tag);
+        test.setShortCode(tag);
+        test.setDepartment(department);
+        test.setPrice(new BigDecimal("500"));
+        test = testDefinitionRepository.save(test);
+
+        panel = new Panel();
+        panel.setPanelName(tag);
+        panel.setPrice(new BigDecimal("500"));
+        panel.setDepartment(department);
+        panel.setTests(List.of(test));
+        panel = panelRepository.save(panel);
+
+        doctor = new Doctor();
+        doctor.setName(tag);
+        doctor.setCommissionPercentage(BigDecimal.TEN);
+        doctor = doctorRepository.save(doctor);
+
+        patient = new Patient();
+        patient.setMrn(tag);
+        patient.setFullName("Archive " + tag);
+        patient.setAge(40);
+        patient = patientRepository.save(patient);
+
+        settledId = seedDeliveredOrder("PAID", 0);
+        unpaidCommissionId = seedDeliveredOrder("UNPAID", 0);
+        balanceDueId = seedDeliveredOrder("PAID", 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String schema : List.of("archive.", "")) {
+            String orderIds = "SELECT id FROM " + schema + "lab_order WHERE patient_id = ?";
+            jdbcTemplate.update("DELETE FROM " + schema + "lab_result_edit_audit WHERE order_id IN (" + orderIds + ")",
+                    patient.getId());
+            jdbcTemplate.update("DELETE FROM " + schema + "lab_order_panel WHERE lab_order_id IN (" + orderIds + ")",
+                    patient.getId());
+            jdbcTemplate.update("DELETE FROM " + schema + "commission_ledger WHERE order_id IN (" + orderIds + ")",
+                    patient.getId());
+            jdbcTemplate.update("DELETE FROM " + schema + "lab_result WHERE order_id IN (" + orderIds + ")",
+                    patient.getId());
+            jdbcTemplate.update("DELETE FROM " + schema + "lab_order WHERE patient_id = ?", patient.getId());
+        }
+        transactionTemplate.executeWithoutResult(status -> rollupRepository.recomputeDays(Set.of(DAY)));
+        jdbcTemplate.update("DELETE FROM panel_test WHERE panel_id = ?", panel.getId());
+        jdbcTemplate.update("DELETE FROM panel WHERE id = ?", panel.getId());
+        jdbcTemplate.update("DELETE FROM test_definition WHERE id = ?", test.getId());
+        jdbcTemplate.update("DELETE FROM department WHERE id = ?", department.getId());
+        jdbcTemplate.update("DELETE FROM doctors WHERE id = ?", doctor.getId());
+        jdbcTemplate.update("DELETE FROM patients WHERE id = ?", patient.getId());
+    }
+
+    @Test
+    void archivesSettledOrdersWithTheirRowsAndFindsThemAgain() {
+        BigDecimal billedBefore = billedOn(DAY);
+        String versionBefore = orderArchiveService.archiveVersion();
+
+        Integer archived = transactionTemplate.execute(status -> labOrderRepository.archiveDelivered(CUTOFF, 100));
+
+        assertEquals(1, archived);
+        assertEquals(List.of(unpaidCommissionId, balanceDueId), hotOrderIds());
+        for (String table : ORDER_TABLES) {
+            assertEquals(1, countRows("archive." + table, settledId), table + " row was not archived");
+            assertEquals(0, countRows(table, settledId), table + " row was left hot");
+        }
+        assertNotEquals(versionBefore, orderArchiveService.archiveVersion());
+        assertEquals(0, billedBefore.compareTo(billedOn(DAY)), "archiving changed the day's billed total");
+
+        List<LabOrderSummary> inRange = orderArchiveService.findSummariesByOrderDateBetween(
+                DAY.atStartOfDay(), DAY.atTime(23, 59, 59));
+        LabOrderSummary settled = inRange.stream().filter(s -> s.id() == settledId).findFirst().orElseThrow();
+        assertEquals(1, settled.testCount());
+        assertTrue(settled.reportDelivered());
+        assertEquals(List.of(balanceDueId, unpaidCommissionId, settledId),
+                orderArchiveService.findSummariesByPatientId(patient.getId()).stream()
+                        .map(LabOrderSummary::id)
+                        .toList());
+
+        String versionArchived = orderArchiveService.archiveVersion();
+        LabOrder read = orderArchiveService.findWithDetailsById(settledId).orElseThrow();
+        assertEquals(1, read.getResults().size());
+        assertEquals(test.getId(), read.getResults().get(0).getTestDefinition().getId());
+        assertEquals(patient.getId(), read.getPatient().getId());
+        for (String table : ORDER_TABLES) {
+            assertEquals(1, countRows("archive." + table, settledId), table + " row was moved by a read");
+        }
+        assertEquals(versionArchived, orderArchiveService.archiveVersion(), "a read changed the archive version");
+
+        assertTrue(orderArchiveService.restoreForEdit(settledId));
+        for (String table : ORDER_TABLES) {
+            assertEquals(0, countRows("archive." + table, settledId), table + " row was left archived");
+            assertEquals(1, countRows(table, settledId), table + " row was not restored");
+        }
+        assertEquals(0, billedBefore.compareTo(billedOn(DAY)), "restoring changed the day's billed total");
+    }
+
+    private long seedDeliveredOrder(String commissionStatus, int balanceDue) {
+        Long orderId = jdbcTemplate.queryForObject("""
+                INSERT INTO lab_order (patient_id, doctor_id, order_date, status, total_amount, discount_amount,
+                                       tax_amount, paid_amount, balance_due, is_report_delivered, delivery_date,
+                                       results_edited, reprint_required, reprint_count, version)
+                VALUES (?, ?, CAST(? AS date) + INTERVAL '9 hours', 'COMPLETED', 500, 0, 0, ?, ?, true,
+                        CAST(? AS date) + INTERVAL '1 day', false, false, 0, 0)
+                RETURNING id
+                """, Long.class, patient.getId(), doctor.getId(), Date.valueOf(DAY), 500 - balanceDue, balanceDue,
+                Date.valueOf(DAY));
+        jdbcTemplate.update("INSERT INTO lab_order_panel (lab_order_id, panel_id) VALUES (?, ?)",
+                orderId, panel.getId());
+        Long resultId = jdbcTemplate.queryForObject("""
+                INSERT INTO lab_result (order_id, order_date, test_id, result_value, status, is_abnormal, version)
+                SELECT id, order_date, ?, '5.0', 'COMPLETED', false, 0 FROM lab_order WHERE id = ?
+                RETURNING id
+                """, Long.class, test.getId(), orderId);
+        jdbcTemplate.update("""
+                INSERT INTO lab_result_edit_audit (order_id, result_id, test_name, previous_value, new_value,
+                                                   previous_abnormal, new_abnormal, edited_by, edited_at, reason,
+                                                   report_delivered_at_edit)
+                VALUES (?, ?, ?, '4.0', '5.0', false, false, 'tech', CAST(? AS date) + INTERVAL '10 hours',
+                        'typo', false)
+                """, orderId, resultId, tag, Date.valueOf(DAY));
+        jdbcTemplate.update("""
+                INSERT INTO commission_ledger (order_id, doctor_id, total_bill_amount, commission_percentage,
+                                               calculated_amount, paid_amount, transaction_date, status,
+                                               payment_date)
+                VALUES (?, ?, 500, 10, 50, ?, ?, ?, ?)
+                """, orderId, doctor.getId(), "PAID".equals(commissionStatus) ? 50 : 0, Date.valueOf(DAY),
+                commissionStatus, "PAID".equals(commissionStatus) ? Date.valueOf(DAY.plusDays(5)) : null);
+        return orderId;
+    }
+
+    private BigDecimal billedOn(LocalDate day) {
+        transactionTemplate.executeWithoutResult(status -> rollupRepository.recomputeDays(Set.of(day)));
+        return jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(amount), 0) FROM daily_financial_rollup WHERE day = ? AND metric = ?
+                """, BigDecimal.class, Date.valueOf(day), DailyFinancialRollup.ORDER_BILLED);
+    }
+
+    private List<Long> hotOrderIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM lab_order WHERE patient_id = ? ORDER BY id",
+                Long.class, patient.getId());
+    }
+
+    private long countRows(String table, long orderId) {
+        String column = table.endsWith("lab_order_panel") ? "lab_order_id" : "order_id";
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + column + " = ?",
+                Long.class, orderId);
+    }
+}
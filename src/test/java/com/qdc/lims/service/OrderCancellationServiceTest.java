@@ -5,6 +5,7 @@ import com.qdc.lims.entity.InventoryItem;
 import com.qdc.lims.entity.LabOrder;
 import com.qdc.lims.entity.LabResult;
 import com.qdc.lims.entity.Payment;
+import com.qdc.lims.entity.StockMovement;
 import com.qdc.lims.entity.TestConsumption;
 import com.qdc.lims.entity.TestDefinition;
 import com.qdc.lims.repository.CommissionLedgerRepository;
@@ -46,6 +47,8 @@ class OrderCancellationServiceTest {
     private PaymentRepository paymentRepository;
     @Mock
     private CancellationApprovalKeyService cancellationApprovalKeyService;
+    @Mock
+    private StockLedgerService stockLedgerService;
 
     @InjectMocks
     private OrderCancellationService orderCancellationService;
@@ -80,16 +83,23 @@ class OrderCancellationServiceTest {
 
         when(labOrderRepository.findById(orderId)).thenReturn(Optional.of(order));
         when(testConsumptionRepository.findByTest(testDefinition)).thenReturn(List.of(ingredient));
-        when(inventoryItemRepository.findById(itemId)).thenReturn(Optional.of(inventoryItem));
+        when(inventoryItemRepository.addStock(itemId, BigDecimal.valueOf(2))).thenReturn(1);
         when(commissionLedgerRepository.findByLabOrderId(orderId)).thenReturn(Optional.of(commissionLedger));
         when(cancellationApprovalKeyService.verifyKey(approvalKey)).thenReturn(true);
+        when(stockLedgerService.movement(StockMovement.CANCELLATION_RETURN, itemId, BigDecimal.valueOf(2)))
+                .thenAnswer(invocation -> {
+                    StockMovement movement = new StockMovement();
+                    movement.setMovementType(invocation.getArgument(0));
+                    movement.setItemId(invocation.getArgument(1));
+                    movement.setQuantity(invocation.getArgument(2));
+                    return movement;
+                });
 
         OrderCancellationService.CancellationResult resultSummary = orderCancellationService
                 .cancelOrderAuthorized(orderId, approvalKey);
 
         assertEquals(orderId, resultSummary.orderId());
         assertEquals(0, BigDecimal.valueOf(500).compareTo(resultSummary.refundAmount()));
-        assertEquals(0, BigDecimal.valueOf(10).compareTo(inventoryItem.getCurrentStock()));
 
         ArgumentCaptor<Payment> paymentCaptor = ArgumentCaptor.forClass(Payment.class);
         verify(paymentRepository).save(paymentCaptor.capture());
@@ -100,7 +110,15 @@ class OrderCancellationServiceTest {
 
         verify(commissionLedgerRepository).delete(commissionLedger);
         verify(labOrderRepository).delete(order);
-        verify(inventoryItemRepository).save(inventoryItem);
+        verify(inventoryItemRepository).addStock(itemId, BigDecimal.valueOf(2));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockMovement>> movementCaptor = ArgumentCaptor.forClass(List.class);
+        verify(stockLedgerService).record(movementCaptor.capture());
+        StockMovement movement = movementCaptor.getValue().get(0);
+        assertEquals(1, movementCaptor.getValue().size());
+        assertEquals(testDefinition.getId(), movement.getTestId());
+        assertEquals(orderId, movement.getOrderId());
     }
 
     @Test
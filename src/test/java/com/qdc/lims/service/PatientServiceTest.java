@@ -0,0 +1,88 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.entity.Patient;
+import com.qdc.lims.repository.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs patient searches against the configured PostgreSQL database over three
+ * patients sharing a random name fragment, and removes them afterwards.
+ */
+@SpringBootTest
+class PatientServiceTest {
+
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private PatientRepository patientRepository;
+
+    private final String tag = "pq" + UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+    private Patient kashif;
+    private Patient startsWithTag;
+    private Patient ali;
+
+    @BeforeEach
+    void setUp() {
+        kashif = save("Kashif " + tag);
+        startsWithTag = save(tag + " Bhatti");
+        ali = save("Ali " + tag);
+    }
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAllById(List.of(kashif.getId(), startsWithTag.getId(), ali.getId()));
+    }
+
+    @Test
+    void ranksPrefixMatchesBeforeNewerContainsMatches() {
+        assertEquals(ids(startsWithTag, ali, kashif), ids(patientService.searchPatients(tag.toUpperCase())));
+    }
+
+    @Test
+    void exactMobileOrMrnComesFirst() {
+        assertEquals(kashif.getId(), patientService.searchPatients(kashif.getMobileNumber()).get(0).getId());
+        assertEquals(ali.getId(), patientService.searchPatients(" " + ali.getMrn().toLowerCase()).get(0).getId());
+    }
+
+    @Test
+    void matchesWordsInOrderAndTreatsWildcardsLiterally() {
+        assertEquals(ids(kashif), ids(patientService.searchPatients("  kashif   " + tag)));
+        assertTrue(patientService.searchPatients(tag.substring(0, 4) + "%" + tag.substring(5)).isEmpty());
+        assertTrue(patientService.searchPatients(tag.substring(0, 4) + "_" + tag.substring(5)).isEmpty());
+    }
+
+    @Test
+    void flagsSameNameAndMobileAsLikelyDuplicate() {
+        assertEquals(ids(kashif),
+                ids(patientService.findLikelyDuplicates("kashif  " + tag.toUpperCase(), kashif.getMobileNumber())));
+        assertTrue(patientService.findLikelyDuplicates("Ali " + tag, kashif.getMobileNumber()).isEmpty());
+    }
+
+    private Patient save(String fullName) {
+        Patient patient = new Patient();
+        patient.setMrn("T" + UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase());
+        patient.setFullName(fullName);
+        patient.setAge(30);
+        patient.setMobileNumber("03" + ThreadLocalRandom.current().nextLong(100_000_000L, 1_000_000_000L));
+        return patientRepository.save(patient);
+    }
+
+    private static List<Long> ids(Patient... patients) {
+        return ids(List.of(patients));
+    }
+
+    private static List<Long> ids(List<Patient> patients) {
+        return patients.stream().map(Patient::getId).toList();
+    }
+}
@@ -0,0 +1,102 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.dto.ReferenceRangeRow;
+import com.qdc.lims.repository.ReferenceRangeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceRangeServiceTest {
+
+    private static final Long HB = 1L;
+
+    @Mock
+    private ReferenceRangeRepository referenceRangeRepository;
+
+    @InjectMocks
+    private ReferenceRangeService referenceRangeService;
+
+    @Test
+    void exactGenderBeatsBothAndAgeBandsAreInclusive() {
+        when(referenceRangeRepository.findAllRows()).thenReturn(List.of(
+                row(1L, "Both", 0, 12, "11", "14"),
+                row(2L, "Male", 13, 120, "13", "17"),
+                row(3L, "Female", 13, 120, "12", "15"),
+                row(4L, "Both", 13, 120, "12", "16")));
+
+        assertEquals(limits("11", "14"), referenceRangeService.resolve(HB, 12, "Male"));
+        assertEquals(limits("13", "17"), referenceRangeService.resolve(HB, 13, "male"));
+        assertEquals(limits("12", "15"), referenceRangeService.resolve(HB, 40, "Female"));
+        assertEquals(limits("12", "16"), referenceRangeService.resolve(HB, 40, null));
+        assertNull(referenceRangeService.resolve(HB, 121, "Male"));
+        assertNull(referenceRangeService.resolve(2L, 40, "Male"));
+        verify(referenceRangeRepository, times(1)).findAllRows();
+    }
+
+    @Test
+    void overlappingRangesPreferLowestMinimumAgeWithOpenMinimumLast() {
+        when(referenceRangeRepository.findAllRows()).thenReturn(List.of(
+                row(1L, "Both", 18, 60, "5", "10"),
+                row(2L, "Both", null, 100, "4", "11"),
+                row(3L, "Both", 10, null, "6", "9")));
+
+        assertEquals(limits("6", "9"), referenceRangeService.resolve(HB, 30, "Male"));
+        assertEquals(limits("4", "11"), referenceRangeService.resolve(HB, 5, "Male"));
+        assertEquals(limits("6", "9"), referenceRangeService.resolve(HB, 101, "Male"));
+        assertEquals(limits("6", "9"), referenceRangeService.resolve(HB, null, "Male"));
+    }
+
+    @Test
+    void reloadPicksUpEditedRanges() {
+        when(referenceRangeRepository.findAllRows())
+                .thenReturn(List.of(row(1L, "Both", 0, 100, "1", "2")))
+                .thenReturn(List.of(row(1L, "Both", 0, 100, "3", "4")));
+
+        assertEquals(limits("1", "2"), referenceRangeService.resolve(HB, 30, "Male"));
+        referenceRangeService.reload();
+        assertEquals(limits("3", "4"), referenceRangeService.resolve(HB, 30, "Male"));
+    }
+
+    @Test
+    void classifyFlagsNumericValuesOnly() {
+        ReferenceRangeService.Limits limits = limits("10", "20");
+
+        assertEquals(ReferenceRangeService.Flag.LOW, referenceRangeService.classify(number("9.99"), limits));
+        assertEquals(ReferenceRangeService.Flag.NORMAL, referenceRangeService.classify(number(" 20 "), limits));
+        assertEquals(ReferenceRangeService.Flag.HIGH, referenceRangeService.classify(number("2.1e1"), limits));
+        assertEquals(ReferenceRangeService.Flag.UNCLASSIFIED, referenceRangeService.classify(number("12"), null));
+
+        assertNull(ReferenceRangeService.parseNumeric("Positive"));
+        assertNull(ReferenceRangeService.parseNumeric("<0.5"));
+        assertNull(ReferenceRangeService.parseNumeric("1.2.3"));
+        assertNull(ReferenceRangeService.parseNumeric("-"));
+        assertNull(ReferenceRangeService.parseNumeric("1e"));
+        assertNull(ReferenceRangeService.parseNumeric(""));
+        assertEquals(new BigDecimal("-.5"), ReferenceRangeService.parseNumeric("-.5"));
+    }
+
+    private static ReferenceRangeRow row(Long id, String gender, Integer minAge, Integer maxAge,
+            String minVal, String maxVal) {
+        return new ReferenceRangeRow(id, HB, gender, minAge, maxAge, new BigDecimal(minVal), new BigDecimal(maxVal));
+    }
+
+    private static ReferenceRangeService.Limits limits(String min, String max) {
+        return new ReferenceRangeService.Limits(new BigDecimal(min), new BigDecimal(max));
+    }
+
+    private static BigDecimal number(String value) {
+        return ReferenceRangeService.parseNumeric(value);
+    }
+}
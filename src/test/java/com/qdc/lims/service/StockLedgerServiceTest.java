@@ -0,0 +1,136 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.dto.StockUsage;
+import com.qdc.lims.entity.Department;
+import com.qdc.lims.entity.InventoryItem;
+import com.qdc.lims.entity.StockMovement;
+import com.qdc.lims.entity.TestDefinition;
+import com.qdc.lims.repository.DepartmentRepository;
+import com.qdc.lims.repository.InventoryItemRepository;
+import com.qdc.lims.repository.TestDefinitionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks ledger balances, usage and snapshot compaction against the
+ * configured PostgreSQL database. Creates its own item and test and removes
+ * them afterwards.
+ */
+@SpringBootTest
+class StockLedgerServiceTest {
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    @Autowired
+    private TestDefinitionRepository testDefinitionRepository;
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String tag = "ledger-" + UUID.randomUUID().toString().substring(0, 8);
+    private Department department;
+    private TestDefinition test;
+    private InventoryItem item;
+
+    @BeforeEach
+    void setUp() {
+        department = new Department();
+        department.setName(tag);
+        department = departmentRepository.save(department);
+
+        test = new TestDefinition();
+        test.setTestName(tag);
+        test.setShortCode(tag);
+        test.setDepartment(department);
+        test.setPrice(BigDecimal.TEN);
+        test = testDefinitionRepository.save(test);
+
+        item = new InventoryItem();
+        item.setItemName(tag);
+        item.setCurrentStock(BigDecimal.ZERO);
+        item.setUnit("pcs");
+        item = inventoryItemRepository.save(item);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM stock_movement WHERE item_id = ?", item.getId());
+        jdbcTemplate.update("DELETE FROM stock_balance_snapshot WHERE item_id = ?", item.getId());
+        jdbcTemplate.update("DELETE FROM inventory_items WHERE id = ?", item.getId());
+        jdbcTemplate.update("DELETE FROM test_definition WHERE id = ?", test.getId());
+        jdbcTemplate.update("DELETE FROM department WHERE id = ?", department.getId());
+    }
+
+    @Test
+    void balanceAndUsageComeFromTheLedger() {
+        record(line(StockMovement.OPENING, 100, null),
+                line(StockMovement.ORDER_CONSUMPTION, -3, test.getId()),
+                line(StockMovement.ORDER_CONSUMPTION, -2, test.getId()),
+                line(StockMovement.CANCELLATION_RETURN, 1, test.getId()),
+                line(StockMovement.PURCHASE, 10, null));
+
+        assertEquals(0, new BigDecimal("106").compareTo(stockLedgerService.balanceOf(item.getId())));
+
+        LocalDate today = LocalDate.now();
+        List<StockUsage> usage = stockLedgerService.usage(today, today, item.getId(), null);
+        assertEquals(1, usage.size());
+        assertEquals(test.getId(), usage.get(0).testId());
+        assertEquals(0, new BigDecimal("4").compareTo(usage.get(0).quantity()),
+                "purchases and openings are not usage; returns are netted");
+        assertEquals(List.of(), stockLedgerService.usage(today.minusDays(2), today.minusDays(1), item.getId(), null));
+    }
+
+    @Test
+    void compactionKeepsBalancesAndNeverDropsLinesFromSlowClocks() {
+        record(line(StockMovement.OPENING, 50, null), line(StockMovement.ORDER_CONSUMPTION, -5, test.getId()));
+        // Age the lines past the compaction lag, then fold them into a snapshot.
+        jdbcTemplate.update("UPDATE stock_movement SET occurred_at = occurred_at - INTERVAL '1 hour' WHERE item_id = ?",
+                item.getId());
+        stockLedgerService.compactBalances();
+
+        assertEquals(0, new BigDecimal("45").compareTo(snapshotBalance()));
+        assertEquals(0, new BigDecimal("45").compareTo(stockLedgerService.balanceOf(item.getId())));
+
+        // A workstation whose clock is two hours behind still lands after the snapshot.
+        StockMovement late = line(StockMovement.ORDER_CONSUMPTION, -7, test.getId());
+        late.setOccurredAt(LocalDateTime.now().minusHours(2));
+        record(late);
+        stockLedgerService.compactBalances();
+
+        assertEquals(0, new BigDecimal("38").compareTo(stockLedgerService.balanceOf(item.getId())));
+        assertEquals(0, new BigDecimal("45").compareTo(snapshotBalance()), "recent lines wait for the lag");
+    }
+
+    private StockMovement line(String type, long quantity, Long testId) {
+        StockMovement movement = stockLedgerService.movement(type, item.getId(), BigDecimal.valueOf(quantity));
+        movement.setTestId(testId);
+        return movement;
+    }
+
+    private void record(StockMovement... movements) {
+        transactionTemplate.executeWithoutResult(status -> stockLedgerService.record(List.of(movements)));
+    }
+
+    private BigDecimal snapshotBalance() {
+        return jdbcTemplate.queryForObject("SELECT balance FROM stock_balance_snapshot WHERE item_id = ?",
+                BigDecimal.class, item.getId());
+    }
+}
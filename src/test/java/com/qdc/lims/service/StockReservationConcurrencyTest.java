@@ -0,0 +1,251 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.dto.OrderRequest;
+import com.qdc.lims.dto.PurchaseItemDTO;
+import com.qdc.lims.dto.PurchaseRequest;
+import com.qdc.lims.entity.Department;
+import com.qdc.lims.entity.InventoryItem;
+import com.qdc.lims.entity.Patient;
+import com.qdc.lims.entity.Supplier;
+import com.qdc.lims.entity.TestConsumption;
+import com.qdc.lims.entity.TestDefinition;
+import com.qdc.lims.repository.DepartmentRepository;
+import com.qdc.lims.repository.InventoryItemRepository;
+import com.qdc.lims.repository.PatientRepository;
+import com.qdc.lims.repository.SupplierRepository;
+import com.qdc.lims.repository.TestConsumptionRepository;
+import com.qdc.lims.repository.TestDefinitionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Books orders from parallel threads against the configured PostgreSQL
+ * database and checks that stock is neither lost nor overdrawn. Every order
+ * uses two shared consumables, listed in opposite order by the two tests, to
+ * provoke lock-order conflicts. Purchases received while bookings run must
+ * not conflict with them either. Creates its own fixture and removes it
+ * afterwards.
+ */
+@SpringBootTest
+class StockReservationConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 250;
+    private static final int PURCHASES = 20;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private PurchaseService purchaseService;
+    @Autowired
+    private SupplierRepository supplierRepository;
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    @Autowired
+    private TestDefinitionRepository testDefinitionRepository;
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+    @Autowired
+    private TestConsumptionRepository testConsumptionRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String tag = "conc-" + UUID.randomUUID().toString().substring(0, 8);
+    private Department department;
+    private Patient patient;
+    private Supplier supplier;
+    private TestDefinition testA;
+    private TestDefinition testB;
+    private InventoryItem tube;
+    private InventoryItem swab;
+
+    @BeforeEach
+    void setUp() {
+        department = new Department();
+        department.setName(tag);
+        department = departmentRepository.save(department);
+
+        testA = saveTest("A");
+        testB = saveTest("B");
+        tube = saveItem("tube");
+        swab = saveItem("swab");
+
+        // Opposite listing order per test; deductions must still lock items consistently.
+        saveConsumption(testA, tube);
+        saveConsumption(testA, swab);
+        saveConsumption(testB, swab);
+        saveConsumption(testB, tube);
+
+        patient = new Patient();
+        patient.setMrn(tag);
+        patient.setFullName("Concurrency " + tag);
+        patient.setAge(30);
+        patient = patientRepository.save(patient);
+
+        supplier = new Supplier();
+        supplier.setCompanyName(tag);
+        supplier = supplierRepository.save(supplier);
+    }
+
+    @AfterEach
+    void tearDown() {
+        String orderIds = "SELECT id FROM lab_order WHERE patient_id = ?";
+        jdbcTemplate.update("DELETE FROM lab_result WHERE order_id IN (" + orderIds + ")", patient.getId());
+        jdbcTemplate.update("DELETE FROM lab_order WHERE patient_id = ?", patient.getId());
+        jdbcTemplate.update("DELETE FROM stock_movement WHERE item_id IN (?, ?)", tube.getId(), swab.getId());
+        jdbcTemplate.update("DELETE FROM stock_balance_snapshot WHERE item_id IN (?, ?)", tube.getId(), swab.getId());
+        jdbcTemplate.update("DELETE FROM test_consumption WHERE test_id IN (?, ?)", testA.getId(), testB.getId());
+        jdbcTemplate.update("DELETE FROM inventory_items WHERE id IN (?, ?)", tube.getId(), swab.getId());
+        jdbcTemplate.update("DELETE FROM test_definition WHERE id IN (?, ?)", testA.getId(), testB.getId());
+        jdbcTemplate.update("DELETE FROM department WHERE id = ?", department.getId());
+        jdbcTemplate.update("DELETE FROM patients WHERE id = ?", patient.getId());
+        jdbcTemplate.update("DELETE FROM supplier_ledger WHERE supplier_id = ?", supplier.getId());
+        jdbcTemplate.update("DELETE FROM supplier_balance WHERE supplier_id = ?", supplier.getId());
+        jdbcTemplate.update("DELETE FROM suppliers WHERE id = ?", supplier.getId());
+    }
+
+    @Test
+    void parallelBookingsDeductEveryUnitExactlyOnce() throws Exception {
+        int totalOrders = THREADS * ORDERS_PER_THREAD;
+        setStock(2L * totalOrders);
+
+        List<Throwable> failures = book(totalOrders);
+
+        assertTrue(failures.isEmpty(), () -> failures.size() + " bookings failed, first: " + failures.get(0));
+        assertEquals(totalOrders, countOrders());
+        assertStock(0L);
+    }
+
+    @Test
+    void parallelBookingsNeverOverdrawStock() throws Exception {
+        int affordable = 300;
+        setStock(2L * affordable);
+
+        List<Throwable> failures = book(THREADS * ORDERS_PER_THREAD);
+
+        assertEquals(affordable, countOrders());
+        assertStock(0L);
+        assertTrue(failures.stream().allMatch(InsufficientStockException.class::isInstance),
+                "only stock shortages may fail a booking");
+    }
+
+    @Test
+    void purchasesDuringParallelBookingsAddStockWithoutConflicts() throws Exception {
+        int totalOrders = THREADS * ORDERS_PER_THREAD;
+        setStock(2L * totalOrders);
+
+        ConcurrentLinkedQueue<Throwable> purchaseFailures = new ConcurrentLinkedQueue<>();
+        Thread purchases = new Thread(() -> {
+            for (int i = 0; i < PURCHASES; i++) {
+                try {
+                    purchaseService.processPurchase(new PurchaseRequest(supplier.getId(), tag + "-" + i,
+                            List.of(new PurchaseItemDTO(tube.getId(), BigDecimal.TEN, BigDecimal.ONE),
+                                    new PurchaseItemDTO(swab.getId(), BigDecimal.TEN, BigDecimal.ONE)),
+                            null, null));
+                } catch (RuntimeException e) {
+                    purchaseFailures.add(e);
+                }
+            }
+        });
+        purchases.start();
+        List<Throwable> failures = book(totalOrders);
+        purchases.join();
+
+        assertTrue(failures.isEmpty(), () -> failures.size() + " bookings failed, first: " + failures.get(0));
+        assertTrue(purchaseFailures.isEmpty(),
+                () -> purchaseFailures.size() + " purchases failed, first: " + purchaseFailures.peek());
+        assertEquals(totalOrders, countOrders());
+        assertStock(10L * PURCHASES);
+    }
+
+    private List<Throwable> book(int orders) throws Exception {
+        OrderRequest request = new OrderRequest(patient.getId(), null,
+                List.of(testA.getId(), testB.getId()), List.of(), null, null);
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        AtomicInteger remaining = new AtomicInteger(orders);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                workers.add(executor.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        try {
+                            orderService.createOrder(request);
+                        } catch (RuntimeException e) {
+                            failures.add(e);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new ArrayList<>(failures);
+    }
+
+    private TestDefinition saveTest(String suffix) {
+        TestDefinition test = new TestDefinition();
+        test.setTestName(tag + "-" + suffix);
+        test.setShortCode(tag + suffix);
+        test.setDepartment(department);
+        test.setPrice(BigDecimal.TEN);
+        return testDefinitionRepository.save(test);
+    }
+
+    private InventoryItem saveItem(String suffix) {
+        InventoryItem item = new InventoryItem();
+        item.setItemName(tag + "-" + suffix);
+        item.setCurrentStock(BigDecimal.ZERO);
+        item.setUnit("pcs");
+        return inventoryItemRepository.save(item);
+    }
+
+    private void saveConsumption(TestDefinition test, InventoryItem item) {
+        TestConsumption consumption = new TestConsumption();
+        consumption.setTest(test);
+        consumption.setItem(item);
+        consumption.setQuantity(BigDecimal.ONE);
+        testConsumptionRepository.save(consumption);
+    }
+
+    private void setStock(long units) {
+        jdbcTemplate.update("UPDATE inventory_items SET current_stock = ? WHERE id IN (?, ?)",
+                BigDecimal.valueOf(units), tube.getId(), swab.getId());
+    }
+
+    private long countOrders() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM lab_order WHERE patient_id = ?", Long.class,
+                patient.getId());
+    }
+
+    private void assertStock(long expected) {
+        for (InventoryItem item : List.of(tube, swab)) {
+            BigDecimal stock = jdbcTemplate.queryForObject(
+                    "SELECT current_stock FROM inventory_items WHERE id = ?", BigDecimal.class, item.getId());
+            assertEquals(0, BigDecimal.valueOf(expected).compareTo(stock), item.getItemName() + " stock " + stock);
+        }
+    }
+}
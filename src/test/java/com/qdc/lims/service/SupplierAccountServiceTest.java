@@ -0,0 +1,75 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.entity.Supplier;
+import com.qdc.lims.entity.SupplierLedger;
+import com.qdc.lims.repository.SupplierBalanceRepository;
+import com.qdc.lims.repository.SupplierLedgerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SupplierAccountServiceTest {
+
+    private static final long SUPPLIER_ID = 3L;
+
+    @Mock
+    private SupplierLedgerRepository ledgerRepository;
+    @Mock
+    private SupplierBalanceRepository balanceRepository;
+    @InjectMocks
+    private SupplierAccountService service;
+
+    @Test
+    void billIsSettledFromUnappliedCreditFirst() {
+        when(balanceRepository.lockBalance(eq(SUPPLIER_ID), any())).thenReturn(new BigDecimal("300"));
+        when(ledgerRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        SupplierLedger bill = entry(new BigDecimal("1000"), null);
+        bill.setInvoiceNumber("INV-7");
+        bill.setDueDate(LocalDate.of(2026, 3, 1));
+
+        service.recordBill(bill);
+
+        assertEquals(new BigDecimal("700"), bill.getBalanceDue());
+        verify(balanceRepository).addToBalance(SUPPLIER_ID, new BigDecimal("1000"), BigDecimal.ZERO,
+                new BigDecimal("-300"), "INV-7", LocalDate.of(2026, 3, 1));
+        verify(balanceRepository).refreshAging(eq(SUPPLIER_ID), any());
+    }
+
+    @Test
+    void paymentBeyondOpenBillsBecomesCredit() {
+        when(ledgerRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(balanceRepository.allocatePayment(SUPPLIER_ID, new BigDecimal("500"), "INV-7"))
+                .thenReturn(new BigDecimal("350"));
+        SupplierLedger payment = entry(null, new BigDecimal("500"));
+        payment.setInvoiceNumber("INV-7");
+
+        service.recordPayment(payment);
+
+        assertEquals(BigDecimal.ZERO, payment.getBalanceDue());
+        assertEquals(BigDecimal.ZERO, payment.getBillAmount());
+        verify(balanceRepository).addToBalance(SUPPLIER_ID, BigDecimal.ZERO, new BigDecimal("500"),
+                new BigDecimal("150"), null, null);
+    }
+
+    private static SupplierLedger entry(BigDecimal billed, BigDecimal paid) {
+        Supplier supplier = new Supplier();
+        supplier.setId(SUPPLIER_ID);
+        SupplierLedger entry = new SupplierLedger();
+        entry.setSupplier(supplier);
+        entry.setBillAmount(billed);
+        entry.setPaidAmount(paid);
+        return entry;
+    }
+}
@@ -0,0 +1,137 @@
+package com.qdc.lims.service;
+
+import com.qdc.lims.entity.Department;
+import com.qdc.lims.entity.Panel;
+import com.qdc.lims.entity.TestDefinition;
+import com.qdc.lims.repository.PanelRepository;
+import com.qdc.lims.repository.TestDefinitionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TestCatalogServiceTest {
+
+    private static final Department HAEMATOLOGY = department("Haematology");
+    private static final Department BIOCHEMISTRY = department("Biochemistry");
+
+    private final TestDefinition cbc = test(1L, "CBC", "Complete Blood Count", HAEMATOLOGY, true);
+    private final TestDefinition alt = test(2L, "ALT", "Alanine Aminotransferase (SGPT)", BIOCHEMISTRY, true);
+    private final TestDefinition bilirubin = test(3L, "T-BIL", "Bilirubin Total", BIOCHEMISTRY, true);
+    private final TestDefinition glucose = test(4L, null, "Glucose Fasting", BIOCHEMISTRY, true);
+    private final TestDefinition retired = test(5L, "ALP", "Alkaline Phosphatase", BIOCHEMISTRY, false);
+
+    @Mock
+    private TestDefinitionRepository testDefinitionRepository;
+    @Mock
+    private PanelRepository panelRepository;
+
+    @InjectMocks
+    private TestCatalogService testCatalogService;
+
+    @Test
+    void codesNameWordsAndInitialsFindEntriesWithExactCodesFirst() {
+        stubCatalog();
+        TestCatalogService.Catalog catalog = testCatalogService.current();
+
+        assertEquals(List.of("Complete Blood Count"), names(catalog.search("CBC")));
+        assertEquals(List.of("Complete Blood Count"), names(catalog.search("cb")));
+        assertEquals(List.of("Liver Function Tests"), names(catalog.search("LFT")));
+        assertEquals(List.of("Liver Function Tests"), names(catalog.search("liver fun")));
+        assertEquals(List.of("Alanine Aminotransferase (SGPT)"), names(catalog.search("sgpt")));
+        assertEquals(List.of("Bilirubin Total"), names(catalog.search("tbil")));
+        assertEquals(List.of("Bilirubin Total"), names(catalog.search("t-bil")));
+        assertEquals(List.of("Alanine Aminotransferase (SGPT)"), names(catalog.search("al")));
+        assertEquals(List.of("Glucose Fasting"), names(catalog.search("GF")));
+        assertEquals(List.of("Glucose Fasting"), names(catalog.search("  fasting   GLU ")));
+        assertEquals(List.of(), catalog.search("alp"), "inactive tests are not orderable");
+        assertEquals(List.of(), catalog.search("blood sugar"));
+
+        // Without an exact code match, results keep catalog order: panels first, then by name.
+        assertEquals(List.of("Liver Function Tests", "Bilirubin Total"), names(catalog.search("t")));
+        assertEquals(catalog.entries(), catalog.search(" "));
+        assertEquals(5, catalog.entries().size());
+        assertTrue(catalog.entries().get(0).isPanel());
+    }
+
+    @Test
+    void panelsExpandToTheirActiveCatalogTests() {
+        stubCatalog();
+        TestCatalogService.Catalog catalog = testCatalogService.current();
+        Integer lft = catalog.search("lft").get(0).panel().getId();
+
+        assertEquals(List.of(alt, bilirubin), catalog.panelTests(lft));
+        assertSame(alt, catalog.panelTests(lft).get(0));
+        assertEquals(Set.of(lft), catalog.panelsContaining(alt.getId()));
+        assertEquals(Set.of(), catalog.panelsContaining(cbc.getId()));
+        assertNull(catalog.test(retired.getId()));
+        assertNull(catalog.panel(99));
+        assertEquals(List.of(), catalog.panelTests(99));
+
+        assertSame(catalog, testCatalogService.current());
+        verify(testDefinitionRepository, times(1)).findAll();
+    }
+
+    @Test
+    void reloadPicksUpCatalogEdits() {
+        stubCatalog();
+        assertEquals(List.of(), testCatalogService.current().search("hba1c"));
+
+        TestDefinition hba1c = test(6L, "HbA1c", "Glycated Haemoglobin", BIOCHEMISTRY, true);
+        when(testDefinitionRepository.findAll()).thenReturn(List.of(cbc, alt, bilirubin, glucose, retired, hba1c));
+        testCatalogService.reload();
+
+        assertEquals(List.of("Glycated Haemoglobin"), names(testCatalogService.current().search("hba1")));
+    }
+
+    private void stubCatalog() {
+        // Panel members come from a different load than the test list, as with the cache.
+        Panel lft = new Panel();
+        lft.setId(10);
+        lft.setPanelName("Liver Function Tests");
+        lft.setPrice(new BigDecimal("1200"));
+        lft.setDepartment(BIOCHEMISTRY);
+        lft.setTests(List.of(copy(bilirubin), copy(alt), copy(retired)));
+        when(testDefinitionRepository.findAll()).thenReturn(List.of(cbc, alt, bilirubin, glucose, retired));
+        when(panelRepository.findAllWithTests()).thenReturn(List.of(lft));
+    }
+
+    private static List<String> names(List<TestCatalogService.Entry> entries) {
+        return entries.stream().map(TestCatalogService.Entry::name).toList();
+    }
+
+    private static TestDefinition test(Long id, String code, String name, Department department, boolean active) {
+        TestDefinition test = new TestDefinition();
+        test.setId(id);
+        test.setShortCode(code);
+        test.setTestName(name);
+        test.setDepartment(department);
+        test.setPrice(new BigDecimal("500"));
+        test.setActive(active);
+        return test;
+    }
+
+    private static TestDefinition copy(TestDefinition test) {
+        return test(test.getId(), test.getShortCode(), test.getTestName(), test.getDepartment(), test.getActive());
+    }
+
+    private static Department department(String name) {
+        Department department = new Department();
+        department.setName(name);
+        return department;
+    }
+}